@@ -0,0 +1,615 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.apt;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import javax.validation.Constraint;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.AllowedValues;
+import com.thesett.util.validation.core.Description;
+import com.thesett.util.validation.core.GeneratedSchemas;
+import com.thesett.util.validation.core.Title;
+import com.thesett.util.validation.model.ConstraintBounds;
+import com.thesett.util.validation.model.ConstraintBuilder;
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.model.PropertyBuilder;
+import com.thesett.util.validation.model.SchemaDefinitions;
+
+import org.hibernate.validator.constraints.Length;
+
+/**
+ * JsonSchemaProcessor is an annotation processor that derives json-schemas from the validation annotations on classes
+ * at compile time. It produces the same schema as
+ * {@link com.thesett.util.validation.core.BeanValidationToJsonSchemaImpl} does at runtime, but without needing to
+ * reflect over the classes.
+ *
+ * <p/>For each class with a field annotated with <tt>@Min</tt>, <tt>@Max</tt>, <tt>@Length</tt>, <tt>@Pattern</tt>,
+ * <tt>@AllowedValues</tt>, <tt>@Title</tt>, <tt>@Description</tt> or <tt>@JsonProperty</tt>, a schema resource is
+ * written to the class output, and all such classes are listed in an index resource. These are loaded at runtime by
+ * {@link GeneratedSchemas}.
+ *
+ * <p/>An incremental build only passes the processor the classes being recompiled, so the index written by an earlier
+ * build is merged into the new one. Its entries are kept as long as their schema resources are still in the output.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Derive json-schemas from validation annotations at compile time. </td></tr>
+ * <tr><td> Write out the schemas and an index of them as resources. </td><td> {@link GeneratedSchemas} </td></tr>
+ * </table></pre>
+ */
+@SupportedAnnotationTypes(
+    {
+        "javax.validation.constraints.Min", "javax.validation.constraints.Max",
+        "javax.validation.constraints.Pattern", "org.hibernate.validator.constraints.Length",
+        "javax.validation.constraints.Min.List", "javax.validation.constraints.Max.List",
+        "javax.validation.constraints.Pattern.List", "org.hibernate.validator.constraints.Length.List",
+        "com.thesett.util.validation.core.AllowedValues",
+        "com.thesett.util.validation.core.Title", "com.thesett.util.validation.core.Description",
+        "com.fasterxml.jackson.annotation.JsonProperty"
+    }
+)
+public class JsonSchemaProcessor extends AbstractProcessor
+{
+    /** Used to write out the generated schemas. */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /** Holds the names of all classes that schemas have been generated for, across all rounds. */
+    private final Set<String> generated = new TreeSet<>();
+
+    /** {@inheritDoc} */
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    /** {@inheritDoc} */
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        Set<TypeElement> types = new LinkedHashSet<>();
+
+        for (TypeElement annotation : annotations)
+        {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation))
+            {
+                if (element.getKind() == ElementKind.FIELD)
+                {
+                    types.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+
+        for (TypeElement type : types)
+        {
+            String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+
+            if (generated.add(className))
+            {
+                PropertyBuilder propertyBuilder = JsonSchema.object();
+                JsonSchema rootSchema = propertyBuilder.build();
+
+                toJsonSchema(type, propertyBuilder, rootSchema, new SchemaDefinitions(rootSchema, className));
+
+                writeSchema(type, className, rootSchema);
+            }
+        }
+
+        if (roundEnv.processingOver() && !generated.isEmpty())
+        {
+            writeIndex();
+        }
+
+        // The annotations are not claimed, as other processors may also be interested in them.
+        return false;
+    }
+
+    /**
+     * Adds the properties of a type to a schema, following the same rules as the runtime conversion.
+     *
+     * @param type            The type to add the properties of.
+     * @param propertyBuilder The builder to add the properties to.
+     * @param objectSchema    The object schema that the properties are being added to.
+     * @param definitions     Tracks the types expanded so far within the root schema.
+     */
+    private void toJsonSchema(TypeElement type, PropertyBuilder propertyBuilder, JsonSchema objectSchema,
+        SchemaDefinitions definitions)
+    {
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements()))
+        {
+            if (field.getModifiers().contains(Modifier.STATIC))
+            {
+                continue;
+            }
+
+            // Check if there is a JsonProperty annotation overriding the field name in json, and apply the override
+            // if there is.
+            JsonProperty jsonProperty = field.getAnnotation(JsonProperty.class);
+
+            String fieldName;
+
+            if (jsonProperty != null)
+            {
+                fieldName = jsonProperty.value();
+            }
+            else
+            {
+                fieldName = field.getSimpleName().toString();
+            }
+
+            ConstraintBuilder constraintBuilder = propertyBuilder.property(fieldName);
+
+            TypeMirror propertyType = field.asType();
+
+            boolean typeAssigned = assignType(constraintBuilder, propertyType);
+
+            convertTitle(constraintBuilder, field);
+            convertDescription(constraintBuilder, field);
+
+            if (isConstrained(field))
+            {
+                // Assign object type and recursively expand the object, only when another type did not already match,
+                // and the type has not already been expanded elsewhere.
+                if (!typeAssigned && (propertyType.getKind() == TypeKind.DECLARED))
+                {
+                    TypeElement propertyElement = (TypeElement) ((DeclaredType) propertyType).asElement();
+                    String propertyTypeName =
+                        processingEnv.getElementUtils().getBinaryName(propertyElement).toString();
+
+                    if (definitions.expand(propertyTypeName, propertyElement.getSimpleName().toString(),
+                                objectSchema, fieldName))
+                    {
+                        PropertyBuilder nestedBuilder = constraintBuilder.object();
+
+                        toJsonSchema(propertyElement, nestedBuilder, objectSchema.getProperties().get(fieldName),
+                            definitions);
+                    }
+                }
+
+                ConstraintBounds bounds = new ConstraintBounds();
+
+                for (AnnotationMirror constraint : constraints(field))
+                {
+                    convertBounds(bounds, constraint);
+                }
+
+                bounds.applyTo(constraintBuilder);
+                convertAllowedValues(constraintBuilder, field);
+            }
+        }
+    }
+
+    /**
+     * Checks if a field carries constraints, or is marked for cascaded validation. These are the fields that the
+     * runtime conversion finds property meta-data for, so the same rule is used as Hibernate uses: any annotation that
+     * is itself annotated with <tt>@Constraint</tt>, or that holds a list of such annotations, or <tt>@Valid</tt>.
+     *
+     * @param  field The field to check.
+     *
+     * @return <tt>true</tt> iff the field is constrained or cascaded.
+     */
+    private boolean isConstrained(VariableElement field)
+    {
+        if (field.getAnnotation(Valid.class) != null)
+        {
+            return true;
+        }
+
+        for (AnnotationMirror annotation : field.getAnnotationMirrors())
+        {
+            Element annotationType = annotation.getAnnotationType().asElement();
+
+            if ((annotationType.getAnnotation(Constraint.class) != null) || isConstraintList(annotationType))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if an annotation type holds a list of constraints, such as <tt>@Min.List</tt>, through a
+     * <tt>value()</tt> that is an array of constraint annotations.
+     *
+     * @param  annotationType The annotation type to check.
+     *
+     * @return <tt>true</tt> iff the annotation type holds a list of constraints.
+     */
+    private boolean isConstraintList(Element annotationType)
+    {
+        for (ExecutableElement method : ElementFilter.methodsIn(annotationType.getEnclosedElements()))
+        {
+            TypeMirror returnType = method.getReturnType();
+
+            if ("value".contentEquals(method.getSimpleName()) && (returnType.getKind() == TypeKind.ARRAY))
+            {
+                TypeMirror componentType = ((ArrayType) returnType).getComponentType();
+
+                return (componentType.getKind() == TypeKind.DECLARED) &&
+                    (((DeclaredType) componentType).asElement().getAnnotation(Constraint.class) != null);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Lists the constraints on a field, with the constraints held in list annotations, such as <tt>@Min.List</tt>,
+     * unwrapped from them, in the same way that Hibernate lists the constraint descriptors of a property.
+     *
+     * @param  field The field to list the constraints of.
+     *
+     * @return The constraints on the field.
+     */
+    private List<AnnotationMirror> constraints(VariableElement field)
+    {
+        List<AnnotationMirror> constraints = new ArrayList<>();
+
+        for (AnnotationMirror annotation : field.getAnnotationMirrors())
+        {
+            Element annotationType = annotation.getAnnotationType().asElement();
+
+            if (annotationType.getAnnotation(Constraint.class) != null)
+            {
+                constraints.add(annotation);
+            }
+            else if (isConstraintList(annotationType))
+            {
+                for (Object listed : (List<?>) valueOf(annotation, "value"))
+                {
+                    constraints.add((AnnotationMirror) ((AnnotationValue) listed).getValue());
+                }
+            }
+        }
+
+        return constraints;
+    }
+
+    /**
+     * Reads a value of an annotation, or its default value if it is not set.
+     *
+     * @param  annotation The annotation to read.
+     * @param  name       The name of the value to read.
+     *
+     * @return The value, as the annotation processing API represents it.
+     */
+    private Object valueOf(AnnotationMirror annotation, String name)
+    {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+            processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet())
+        {
+            if (name.contentEquals(entry.getKey().getSimpleName()))
+            {
+                return entry.getValue().getValue();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Adds the bounds that a constraint places on a field, for those constraints that have a json-schema form.
+     *
+     * @param bounds     The bounds on the field.
+     * @param constraint The constraint.
+     */
+    private void convertBounds(ConstraintBounds bounds, AnnotationMirror constraint)
+    {
+        String constraintType =
+            ((TypeElement) constraint.getAnnotationType().asElement()).getQualifiedName().toString();
+
+        if (Min.class.getCanonicalName().equals(constraintType))
+        {
+            bounds.minimum((Long) valueOf(constraint, "value"));
+        }
+        else if (Max.class.getCanonicalName().equals(constraintType))
+        {
+            bounds.maximum((Long) valueOf(constraint, "value"));
+        }
+        else if (Length.class.getCanonicalName().equals(constraintType))
+        {
+            bounds.minLength((Integer) valueOf(constraint, "min"));
+            bounds.maxLength((Integer) valueOf(constraint, "max"));
+        }
+        else if (Pattern.class.getCanonicalName().equals(constraintType))
+        {
+            bounds.pattern((String) valueOf(constraint, "regexp"));
+        }
+    }
+
+    private boolean assignType(ConstraintBuilder constraintBuilder, TypeMirror propertyType) // NOSONAR
+    {
+        boolean typeAssigned = true;
+
+        switch (propertyType.getKind())
+        {
+        case ARRAY:
+            constraintBuilder.isArray();
+            break;
+
+        case INT:
+        case LONG:
+            constraintBuilder.isInteger();
+            break;
+
+        case FLOAT:
+        case DOUBLE:
+            constraintBuilder.isNumber();
+            break;
+
+        case BOOLEAN:
+            constraintBuilder.isBoolean();
+            break;
+
+        case DECLARED:
+            typeAssigned = assignDeclaredType(constraintBuilder, propertyType);
+            break;
+
+        default:
+            typeAssigned = false;
+        }
+
+        return typeAssigned;
+    }
+
+    private boolean assignDeclaredType(ConstraintBuilder constraintBuilder, TypeMirror propertyType) // NOSONAR
+    {
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror erased = types.erasure(propertyType);
+        String name = erased.toString();
+
+        boolean typeAssigned = true;
+
+        if (isSubtype(erased, "java.util.Collection"))
+        {
+            constraintBuilder.isArray();
+        }
+        else if ("java.lang.String".equals(name))
+        {
+            constraintBuilder.isString();
+        }
+        else if ("java.lang.Integer".equals(name) || "java.lang.Long".equals(name))
+        {
+            constraintBuilder.isInteger();
+        }
+        else if ("java.lang.Float".equals(name) || "java.lang.Double".equals(name))
+        {
+            constraintBuilder.isNumber();
+        }
+        else if ("java.lang.Boolean".equals(name))
+        {
+            constraintBuilder.isBoolean();
+        }
+        else if (isSubtype(erased, "java.math.BigDecimal"))
+        {
+            constraintBuilder.isNumber();
+        }
+        else if (isSubtype(erased, "java.util.Calendar"))
+        {
+            constraintBuilder.isString();
+        }
+        else
+        {
+            typeAssigned = false;
+        }
+
+        return typeAssigned;
+    }
+
+    private boolean isSubtype(TypeMirror type, String superTypeName)
+    {
+        TypeElement superType = processingEnv.getElementUtils().getTypeElement(superTypeName);
+
+        if (superType == null)
+        {
+            return false;
+        }
+
+        Types types = processingEnv.getTypeUtils();
+
+        return types.isSubtype(type, types.erasure(superType.asType()));
+    }
+
+    private void convertDescription(ConstraintBuilder constraintBuilder, VariableElement field)
+    {
+        Description description = field.getAnnotation(Description.class);
+
+        if (description != null)
+        {
+            constraintBuilder.description(description.description());
+        }
+    }
+
+    private void convertTitle(ConstraintBuilder constraintBuilder, VariableElement field)
+    {
+        Title title = field.getAnnotation(Title.class);
+
+        if (title != null)
+        {
+            constraintBuilder.title(title.title());
+        }
+    }
+
+    private void convertAllowedValues(ConstraintBuilder constraintBuilder, VariableElement field)
+    {
+        AllowedValues allowedValues = field.getAnnotation(AllowedValues.class);
+
+        if (allowedValues != null)
+        {
+            constraintBuilder.enums(allowedValues.value());
+        }
+    }
+
+    /**
+     * Writes out a generated schema as a resource.
+     *
+     * @param type      The type the schema was generated from.
+     * @param className The binary name of the type.
+     * @param schema    The generated schema.
+     */
+    private void writeSchema(TypeElement type, String className, JsonSchema schema)
+    {
+        try
+        {
+            FileObject resource =
+                processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    GeneratedSchemas.resourceName(className), type);
+
+            try (Writer writer = resource.openWriter())
+            {
+                mapper.writeValue(writer, schema);
+            }
+        }
+        catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Failed to write the json-schema for " + className + ": " + e.getMessage(), type);
+        }
+    }
+
+    /**
+     * Writes out the index of all classes that schemas have been generated for, merged with those listed in any index
+     * already in the output whose schemas are still there.
+     */
+    private void writeIndex()
+    {
+        Set<String> classNames = new TreeSet<>(generated);
+
+        for (String className : readIndex())
+        {
+            if (!generated.contains(className) && resourceExists(GeneratedSchemas.resourceName(className)))
+            {
+                classNames.add(className);
+            }
+        }
+
+        try
+        {
+            FileObject resource =
+                processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    GeneratedSchemas.INDEX_RESOURCE);
+
+            try (Writer writer = resource.openWriter())
+            {
+                for (String className : classNames)
+                {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Failed to write the json-schema index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the class names listed in the index already in the output, from an earlier build.
+     *
+     * @return The class names listed in the existing index, or none if there is no index.
+     */
+    private Set<String> readIndex()
+    {
+        Set<String> classNames = new TreeSet<>();
+
+        try
+        {
+            FileObject resource =
+                processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                    GeneratedSchemas.INDEX_RESOURCE);
+
+            try (Reader reader = resource.openReader(true);
+                BufferedReader lines = new BufferedReader(reader))
+            {
+                for (String line; (line = lines.readLine()) != null;)
+                {
+                    if (!line.trim().isEmpty())
+                    {
+                        classNames.add(line.trim());
+                    }
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            // There is no readable index from an earlier build, so nothing is merged from it.
+            classNames.clear();
+        }
+
+        return classNames;
+    }
+
+    /**
+     * Checks if a resource exists in the class output.
+     *
+     * @param  name The name of the resource.
+     *
+     * @return <tt>true</tt> iff the resource exists.
+     */
+    private boolean resourceExists(String name)
+    {
+        try
+        {
+            processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", name).openInputStream().close();
+
+            return true;
+        }
+        catch (IOException e)
+        {
+            return false;
+        }
+    }
+}
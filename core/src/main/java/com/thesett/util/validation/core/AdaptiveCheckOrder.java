@@ -0,0 +1,228 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * AdaptiveCheckOrder runs the checks of a compiled schema node until the first one fails, in an order that it adapts
+ * to the values seen, so as to find failures as cheaply as possible. This only matters for fail-fast evaluation, where
+ * the checks after the first failure are never run.
+ *
+ * <p/>A small sample of evaluations runs every check, timing each one and noting whether it failed. Periodically the
+ * checks are reordered by their mean cost per failure found, so that cheap checks that often fail run first, and
+ * expensive checks that rarely fail run last. Checks that have not failed within the sample run after all those that
+ * have, cheapest first. The samples are decayed on each reordering, so that the order follows changes in the values
+ * being validated.
+ *
+ * <p/>The order is shared between threads. Samples are recorded under a lock, but as only a small fraction of
+ * evaluations are sampled, evaluations almost never contend for it.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Find the first failing check of a node. </td><td> {@link SchemaCheck} </td></tr>
+ * <tr><td> Sample the cost and failure rate of each check. </td></tr>
+ * <tr><td> Reorder the checks, cheapest per failure first. </td></tr>
+ * </table></pre>
+ */
+final class AdaptiveCheckOrder
+{
+    /** One evaluation in this many, on average, is sampled. */
+    private static final int SAMPLE_RATE = 64;
+
+    /** The number of samples between reorderings. */
+    private static final int REORDER_INTERVAL = 256;
+
+    /** The checks, in the order declared by the schema. */
+    private final SchemaCheck[] checks;
+
+    /** The current order to run the checks in, as indexes into the declared checks. */
+    private volatile int[] order;
+
+    /** The total time spent in each check within the samples, in nanoseconds. */
+    private final long[] nanos;
+
+    /** The number of times each check failed within the samples. */
+    private final long[] failures;
+
+    /** The number of samples taken since the last reordering. */
+    private int samples;
+
+    /**
+     * Creates an adaptive order over the checks of a node, starting in the declared order.
+     *
+     * @param checks The checks, in the order declared by the schema.
+     */
+    AdaptiveCheckOrder(List<SchemaCheck> checks)
+    {
+        this.checks = checks.toArray(new SchemaCheck[checks.size()]);
+        this.nanos = new long[this.checks.length];
+        this.failures = new long[this.checks.length];
+
+        int[] declared = new int[this.checks.length];
+
+        for (int i = 0; i < declared.length; i++)
+        {
+            declared[i] = i;
+        }
+
+        this.order = declared;
+    }
+
+    /**
+     * Runs the checks against a value in the current order, until one fails.
+     *
+     * @param  value The value to check.
+     *
+     * @return The first check that failed, or <tt>null</tt> if none did.
+     */
+    SchemaCheck firstFailure(Object value)
+    {
+        int[] current = order;
+
+        if ((current.length > 1) && (ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0))
+        {
+            return sample(value, current);
+        }
+
+        for (int index : current)
+        {
+            if (!checks[index].isValid(value))
+            {
+                return checks[index];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Provides the current order to run the checks in.
+     *
+     * @return The checks in their current order.
+     */
+    List<SchemaCheck> getOrder()
+    {
+        int[] current = order;
+        SchemaCheck[] ordered = new SchemaCheck[current.length];
+
+        for (int i = 0; i < current.length; i++)
+        {
+            ordered[i] = checks[current[i]];
+        }
+
+        return Arrays.asList(ordered);
+    }
+
+    /**
+     * Runs every check against a value, timing each one, and records the sample.
+     *
+     * @param  value   The value to check.
+     * @param  current The current order to run the checks in.
+     *
+     * @return The first check in the current order that failed, or <tt>null</tt> if none did.
+     */
+    private SchemaCheck sample(Object value, int[] current)
+    {
+        long[] elapsed = new long[checks.length];
+        boolean[] failed = new boolean[checks.length];
+        SchemaCheck first = null;
+
+        for (int index : current)
+        {
+            long start = System.nanoTime();
+            boolean valid = checks[index].isValid(value);
+            elapsed[index] = System.nanoTime() - start;
+
+            if (!valid)
+            {
+                failed[index] = true;
+                first = (first == null) ? checks[index] : first;
+            }
+        }
+
+        record(elapsed, failed);
+
+        return first;
+    }
+
+    /**
+     * Adds a sample to the totals, and reorders the checks when enough samples have been taken.
+     *
+     * @param elapsed The time spent in each check.
+     * @param failed  Whether each check failed.
+     */
+    private synchronized void record(long[] elapsed, boolean[] failed)
+    {
+        for (int i = 0; i < checks.length; i++)
+        {
+            nanos[i] += elapsed[i];
+            failures[i] += failed[i] ? 1 : 0;
+        }
+
+        if (++samples < REORDER_INTERVAL)
+        {
+            return;
+        }
+
+        Integer[] sorted = new Integer[checks.length];
+
+        for (int i = 0; i < sorted.length; i++)
+        {
+            sorted[i] = i;
+        }
+
+        Arrays.sort(sorted, new Comparator<Integer>()
+            {
+                public int compare(Integer a, Integer b)
+                {
+                    int comparison = Double.compare(costPerFailure(a), costPerFailure(b));
+
+                    return (comparison != 0) ? comparison : Long.compare(nanos[a], nanos[b]);
+                }
+            });
+
+        int[] reordered = new int[sorted.length];
+
+        for (int i = 0; i < sorted.length; i++)
+        {
+            reordered[i] = sorted[i];
+
+            // Decay the samples, so that older values count for less.
+            nanos[i] /= 2;
+            failures[i] /= 2;
+        }
+
+        order = reordered;
+        samples = 0;
+    }
+
+    /**
+     * Provides the mean cost of a check per failure it finds, over the samples. Checks that have not failed cost
+     * infinitely much per failure.
+     *
+     * @param  index The index of the check.
+     *
+     * @return The mean cost of the check per failure.
+     */
+    private double costPerFailure(int index)
+    {
+        return (failures[index] == 0) ? Double.POSITIVE_INFINITY : ((double) nanos[index] / failures[index]);
+    }
+}
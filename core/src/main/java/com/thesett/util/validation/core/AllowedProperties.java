@@ -0,0 +1,52 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import java.lang.annotation.Retention;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+/**
+ * AllowedProperties is the constraint that json-schema 'additionalProperties' is mapped onto, when it is false on a
+ * map. Each key of the map must be one of the named properties, or match one of the patterns.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Constrain the keys of a map. </td><td> {@link AllowedPropertiesValidator} </td></tr>
+ * </table></pre>
+ */
+@Target({ FIELD, METHOD })
+@Retention(RUNTIME)
+@Constraint(validatedBy = { AllowedPropertiesValidator.class })
+public @interface AllowedProperties
+{
+    String message() default AllowedPropertiesValidator.MESSAGE;
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    /** @return The names of the allowed properties. */
+    String[] properties() default {};
+
+    /** @return The patterns that the names of other allowed properties match. */
+    String[] patterns() default {};
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import org.hibernate.validator.cfg.ConstraintDef;
+
+/**
+ * AllowedPropertiesDef is the constraint definition for the json-schema 'additionalProperties' and
+ * 'patternProperties' fields.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Define an {@link AllowedProperties} constraint programmatically. </td></tr>
+ * </table></pre>
+ */
+public class AllowedPropertiesDef extends ConstraintDef<AllowedPropertiesDef, AllowedProperties>
+{
+    public AllowedPropertiesDef()
+    {
+        super(AllowedProperties.class);
+    }
+
+    public AllowedPropertiesDef properties(String... properties)
+    {
+        addParameter("properties", properties);
+
+        return this;
+    }
+
+    public AllowedPropertiesDef patterns(String... patterns)
+    {
+        addParameter("patterns", patterns);
+
+        return this;
+    }
+}
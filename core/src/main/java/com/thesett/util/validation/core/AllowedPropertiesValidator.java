@@ -0,0 +1,79 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * AllowedPropertiesValidator checks that every key of a map is an allowed property. The names and patterns of the
+ * allowed properties are compiled once, when the validator is initialized. Each key that is not allowed is reported as
+ * its own violation, on the path to it as a property, such as <tt>extensions.colour</tt>.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Check that the keys of a map are allowed properties. </td><td> {@link PropertyNameMatcher} </td></tr>
+ * </table></pre>
+ */
+public class AllowedPropertiesValidator implements ConstraintValidator<AllowedProperties, Map<?, ?>>
+{
+    /** The error message for properties that are not allowed. */
+    static final String MESSAGE = "is not an allowed property";
+
+    /** The matcher for the allowed property names. */
+    private PropertyNameMatcher matcher;
+
+    /** {@inheritDoc} */
+    public void initialize(AllowedProperties constraintAnnotation)
+    {
+        matcher =
+            new PropertyNameMatcher(Arrays.asList(constraintAnnotation.properties()),
+                Arrays.asList(constraintAnnotation.patterns()));
+    }
+
+    /** {@inheritDoc} */
+    public boolean isValid(Map<?, ?> value, ConstraintValidatorContext context)
+    {
+        if (value == null)
+        {
+            return true;
+        }
+
+        boolean valid = true;
+
+        for (Object key : value.keySet())
+        {
+            String name = String.valueOf(key);
+
+            if (!matcher.isAllowed(name))
+            {
+                if (valid)
+                {
+                    context.disableDefaultConstraintViolation();
+                    valid = false;
+                }
+
+                context.buildConstraintViolationWithTemplate(context.getDefaultConstraintMessageTemplate())
+                    .addPropertyNode(name).addConstraintViolation();
+            }
+        }
+
+        return valid;
+    }
+}
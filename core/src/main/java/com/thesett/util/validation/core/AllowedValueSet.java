@@ -0,0 +1,89 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * AllowedValueSet holds the values allowed by a json-schema 'enum', hashed so that membership is checked in constant
+ * time. The values are given as strings. Those that are also numbers are held a second time by numeric value, so that
+ * a number matches whatever its Java type; 2, 2L and 2.0 all match "2". Enums match by name, and any other value
+ * matches by its string form.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Check if a value is one of the allowed values. </td></tr>
+ * </table></pre>
+ */
+final class AllowedValueSet
+{
+    /** The allowed values, as strings. */
+    private final Set<String> strings;
+
+    /** The allowed values that are numbers, by numeric value. */
+    private final Set<Object> numbers = new HashSet<>();
+
+    /**
+     * Hashes a set of allowed values.
+     *
+     * @param values The allowed values.
+     */
+    AllowedValueSet(Collection<String> values)
+    {
+        strings = new HashSet<>(values);
+
+        for (String value : values)
+        {
+            try
+            {
+                numbers.add(SchemaCheck.equalityKey(new BigDecimal(value.trim())));
+            }
+            catch (NumberFormatException e)
+            {
+                // Not a number, so only matched as a string.
+                continue;
+            }
+        }
+    }
+
+    /**
+     * Checks if a value is one of the allowed values.
+     *
+     * @param  value The value to check, which must not be <tt>null</tt>.
+     *
+     * @return <tt>true</tt> iff the value is allowed.
+     */
+    boolean contains(Object value)
+    {
+        if (value instanceof CharSequence)
+        {
+            return strings.contains(value.toString());
+        }
+        else if (value instanceof Number)
+        {
+            return numbers.contains(SchemaCheck.equalityKey(value));
+        }
+        else if (value instanceof Enum)
+        {
+            return strings.contains(((Enum<?>) value).name());
+        }
+
+        return strings.contains(value.toString());
+    }
+}
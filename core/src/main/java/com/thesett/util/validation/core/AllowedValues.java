@@ -0,0 +1,49 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import java.lang.annotation.Retention;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+/**
+ * AllowedValues is the constraint that json-schema 'enum' is mapped onto. The value must be one of the allowed values,
+ * given as strings; numbers match by value, and enums match by name.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Constrain a value to one of a set of allowed values. </td><td> {@link AllowedValuesValidator} </td></tr>
+ * </table></pre>
+ */
+@Target({ FIELD, METHOD })
+@Retention(RUNTIME)
+@Constraint(validatedBy = { AllowedValuesValidator.class })
+public @interface AllowedValues
+{
+    String message() default AllowedValuesValidator.MESSAGE;
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    /** @return The allowed values. */
+    String[] value();
+}
@@ -18,24 +18,23 @@ package com.thesett.util.validation.core;
 import org.hibernate.validator.cfg.ConstraintDef;
 
 /**
- * DescriptionDef is a dummy constraint definition, which is used to hold the value of the json-schema 'description'
- * field.
+ * AllowedValuesDef is the constraint definition for the json-schema 'enum' field.
  *
  * <pre><p/><table id="crc"><caption>CRC Card</caption>
  * <tr><th> Responsibilities </th><th> Collaborations </th>
- * <tr><td> Hold the json-schema 'description' field in a dummy constraint definition. </td></tr>
+ * <tr><td> Define an {@link AllowedValues} constraint programmatically. </td></tr>
  * </table></pre>
  */
-public class DescriptionDef extends ConstraintDef<DescriptionDef, Description>
+public class AllowedValuesDef extends ConstraintDef<AllowedValuesDef, AllowedValues>
 {
-    public DescriptionDef()
+    public AllowedValuesDef()
     {
-        super(Description.class);
+        super(AllowedValues.class);
     }
 
-    public DescriptionDef description(String description)
+    public AllowedValuesDef value(String... values)
     {
-        addParameter("description", description);
+        addParameter("value", values);
 
         return this;
     }
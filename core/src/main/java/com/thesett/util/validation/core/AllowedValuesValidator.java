@@ -0,0 +1,51 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.Arrays;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * AllowedValuesValidator checks that a value is one of a set of allowed values. The allowed values are hashed once,
+ * when the validator is initialized, so that each value is checked in constant time however many values are allowed.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Check that a value is one of the allowed values. </td><td> {@link AllowedValueSet} </td></tr>
+ * </table></pre>
+ */
+public class AllowedValuesValidator implements ConstraintValidator<AllowedValues, Object>
+{
+    /** The error message for values that are not allowed. */
+    static final String MESSAGE = "must be one of the allowed values";
+
+    /** The allowed values. */
+    private AllowedValueSet allowed;
+
+    /** {@inheritDoc} */
+    public void initialize(AllowedValues constraintAnnotation)
+    {
+        allowed = new AllowedValueSet(Arrays.asList(constraintAnnotation.value()));
+    }
+
+    /** {@inheritDoc} */
+    public boolean isValid(Object value, ConstraintValidatorContext context)
+    {
+        return (value == null) || allowed.contains(value);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * ArrayItems presents the items of the values that json-schema treats as arrays, that is collections and Java arrays,
+ * as collections. Arrays of objects are viewed as lists directly, and arrays of primitives are viewed through
+ * reflection, without copying.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> View collections and arrays as collections of their items. </td></tr>
+ * </table></pre>
+ */
+final class ArrayItems
+{
+    /** Private constructor to prevent instantiation of utility class. */
+    private ArrayItems()
+    {
+    }
+
+    /**
+     * Provides the items of a collection or array, as a collection.
+     *
+     * @param  value The collection or array.
+     *
+     * @return The items, or <tt>null</tt> if the value is not a collection or array.
+     */
+    static Collection<?> of(final Object value)
+    {
+        if (value instanceof Collection)
+        {
+            return (Collection<?>) value;
+        }
+        else if (value instanceof Object[])
+        {
+            return Arrays.asList((Object[]) value);
+        }
+        else if ((value != null) && value.getClass().isArray())
+        {
+            final int length = Array.getLength(value);
+
+            return new AbstractList<Object>()
+                {
+                    public Object get(int index)
+                    {
+                        return Array.get(value, index);
+                    }
+
+                    public int size()
+                    {
+                        return length;
+                    }
+                };
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks if a value is a collection or array.
+     *
+     * @param  value The value to check.
+     *
+     * @return <tt>true</tt> iff the value is a collection or array.
+     */
+    static boolean isArray(Object value)
+    {
+        return (value instanceof Collection) || ((value != null) && value.getClass().isArray());
+    }
+
+    /**
+     * Provides the number of items in a collection or array.
+     *
+     * @param  value The collection or array.
+     *
+     * @return The number of items.
+     */
+    static int size(Object value)
+    {
+        return (value instanceof Collection) ? ((Collection<?>) value).size() : Array.getLength(value);
+    }
+}
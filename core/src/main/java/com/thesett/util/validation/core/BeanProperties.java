@@ -0,0 +1,270 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.beans.Introspector;
+import java.lang.annotation.ElementType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.validation.ValidationException;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * BeanProperties reads the fields of beans by the names they are given in json. A field is named in json by its
+ * <tt>@JsonProperty</tt> annotation if it has one, otherwise by its Java name; the same translation that
+ * {@link JsonSchemaConstraintMapping} applies. The fields of each class are looked up once, and cached.
+ *
+ * <p/>Bean properties can also be read by their Java names, as bean validation refers to them.
+ *
+ * <p/>Only the classes of beans are reflected over. Arrays, primitives and the classes of the JDK, under
+ * <tt>java.*</tt> and <tt>javax.*</tt>, are treated as values with no properties; from JDK 9 on, their internals
+ * cannot be made accessible anyway.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Find the fields of a class by their json names. </td></tr>
+ * <tr><td> Read field values from beans. </td></tr>
+ * <tr><td> Read bean properties by the names bean validation gives them. </td></tr>
+ * <tr><td> Tell beans apart from values. </td></tr>
+ * </table></pre>
+ */
+final class BeanProperties
+{
+    /** Caches the fields of each class, by their json names. */
+    private static final ClassValue<Map<String, Field>> FIELDS =
+        new ClassValue<Map<String, Field>>()
+        {
+            protected Map<String, Field> computeValue(Class<?> type)
+            {
+                return scanFields(type, true);
+            }
+        };
+
+    /** Caches the fields of each class, by their Java names. */
+    private static final ClassValue<Map<String, Field>> JAVA_FIELDS =
+        new ClassValue<Map<String, Field>>()
+        {
+            protected Map<String, Field> computeValue(Class<?> type)
+            {
+                return scanFields(type, false);
+            }
+        };
+
+    /** Private constructor to prevent instantiation of utility class. */
+    private BeanProperties()
+    {
+    }
+
+    /**
+     * Checks if a class is that of a bean, whose fields and getters may be read reflectively. Arrays, primitives and
+     * the classes of the JDK are values.
+     *
+     * @param  type The class to check.
+     *
+     * @return <tt>true</tt> iff the class is that of a bean.
+     */
+    static boolean isBean(Class<?> type)
+    {
+        if (type.isArray() || type.isPrimitive())
+        {
+            return false;
+        }
+
+        String name = type.getName();
+
+        return !name.startsWith("java.") && !name.startsWith("javax.");
+    }
+
+    /**
+     * Finds the field of a class with the given json name.
+     *
+     * @param  type     The class to find the field on.
+     * @param  jsonName The json name of the field.
+     *
+     * @return The field, or <tt>null</tt> if the class has no field with that json name.
+     */
+    static Field getField(Class<?> type, String jsonName)
+    {
+        return FIELDS.get(type).get(jsonName);
+    }
+
+    /**
+     * Reads the value of the field of a bean with the given json name.
+     *
+     * @param  bean     The bean to read from.
+     * @param  jsonName The json name of the field.
+     *
+     * @return The value of the field, or <tt>null</tt> if the bean has no field with that json name.
+     */
+    static Object getValue(Object bean, String jsonName)
+    {
+        return getValue(bean, getField(bean.getClass(), jsonName));
+    }
+
+    /**
+     * Reads the value of a field of a bean, as found by {@link #getField}.
+     *
+     * @param  bean  The bean to read from.
+     * @param  field The field to read, or <tt>null</tt> if the bean has no such field.
+     *
+     * @return The value of the field, or <tt>null</tt> if there is no field.
+     */
+    static Object getValue(Object bean, Field field)
+    {
+        if (field == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            return field.get(bean);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new ValidationException("Unable to read field: " + field, e);
+        }
+    }
+
+    /**
+     * Provides the Java name of the field of a class with the given json name.
+     *
+     * @param  type     The class to find the field on.
+     * @param  jsonName The json name of the field.
+     *
+     * @return The Java name of the field, or the json name if the class has no such field.
+     */
+    static String getJavaName(Class<?> type, String jsonName)
+    {
+        Field field = getField(type, jsonName);
+
+        return (field == null) ? jsonName : field.getName();
+    }
+
+    /**
+     * Reads the value of a property of a bean, as bean validation names it. A property constrained on a field is read
+     * from the field, and one constrained on a getter is read through the getter.
+     *
+     * @param  bean        The bean to read from.
+     * @param  javaName    The Java name of the property.
+     * @param  elementType Whether the property is a field or a getter.
+     *
+     * @return The value of the property, or <tt>null</tt> if the bean has no such property.
+     */
+    static Object getPropertyValue(Object bean, String javaName, ElementType elementType)
+    {
+        if (!isBean(bean.getClass()))
+        {
+            return null;
+        }
+
+        try
+        {
+            if (elementType == ElementType.METHOD)
+            {
+                for (Method method : bean.getClass().getMethods())
+                {
+                    if ((method.getParameterTypes().length == 0) && isGetterFor(method.getName(), javaName))
+                    {
+                        // Public getters inherited from the JDK are callable as they are.
+                        if (isBean(method.getDeclaringClass()))
+                        {
+                            method.setAccessible(true);
+                        }
+
+                        return method.invoke(bean);
+                    }
+                }
+
+                return null;
+            }
+
+            Field field = JAVA_FIELDS.get(bean.getClass()).get(javaName);
+
+            return (field == null) ? null : field.get(bean);
+        }
+        catch (IllegalAccessException | InvocationTargetException e)
+        {
+            throw new ValidationException("Unable to read property: " + javaName, e);
+        }
+    }
+
+    /**
+     * Checks if a method name is that of a getter for a property.
+     *
+     * @param  methodName The name of the method.
+     * @param  javaName   The Java name of the property.
+     *
+     * @return <tt>true</tt> iff the method name is that of a getter for the property.
+     */
+    private static boolean isGetterFor(String methodName, String javaName)
+    {
+        if (methodName.startsWith("get") && (methodName.length() > 3))
+        {
+            return javaName.equals(Introspector.decapitalize(methodName.substring(3)));
+        }
+        else if (methodName.startsWith("is") && (methodName.length() > 2))
+        {
+            return javaName.equals(Introspector.decapitalize(methodName.substring(2)));
+        }
+
+        return false;
+    }
+
+    /**
+     * Scans the instance fields of a class and its super classes, by json name or by Java name. Fields in sub-classes
+     * take precedence over those they hide in super-classes. The scan stops at the first class that is not a bean, so
+     * the fields of values, and those inherited from the JDK, are never made accessible.
+     *
+     * @param  type     The class to scan.
+     * @param  jsonName <tt>true</tt> to key the fields by json name, <tt>false</tt> to key them by Java name.
+     *
+     * @return The fields of the class, by json name or Java name.
+     */
+    private static Map<String, Field> scanFields(Class<?> type, boolean jsonName)
+    {
+        Map<String, Field> fields = new HashMap<>();
+
+        for (Class<?> current = type; (current != null) && isBean(current); current = current.getSuperclass())
+        {
+            for (Field field : current.getDeclaredFields())
+            {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic())
+                {
+                    continue;
+                }
+
+                JsonProperty jsonProperty = jsonName ? field.getAnnotation(JsonProperty.class) : null;
+                String name = (jsonProperty != null) ? jsonProperty.value() : field.getName();
+
+                if (!fields.containsKey(name))
+                {
+                    field.setAccessible(true);
+                    fields.put(name, field);
+                }
+            }
+        }
+
+        return Collections.unmodifiableMap(fields);
+    }
+}
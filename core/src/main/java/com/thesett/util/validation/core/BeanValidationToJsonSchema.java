@@ -15,6 +15,8 @@
  */
 package com.thesett.util.validation.core;
 
+import java.util.Map;
+
 import javax.validation.Validator;
 
 import com.thesett.util.validation.model.JsonSchema;
@@ -50,4 +52,17 @@ public interface BeanValidationToJsonSchema
      *         validation group.
      */
     JsonSchema toJsonSchema(Validator validator, Class clazz, Class group);
+
+    /**
+     * Extracts json schemas from a class which has been annotated for validation, one for each of several validation
+     * groups.
+     *
+     * @param  validator The validator to extract the meta-data from.
+     * @param  clazz     The annotated class to extract the schemas for.
+     * @param  groups    The validation groups to extract.
+     *
+     * @return A json schema for each validation group, describing the validation applied by the annotations on the
+     *         class under that group, in the order the groups were given.
+     */
+    Map<Class<?>, JsonSchema> toJsonSchemas(Validator validator, Class<?> clazz, Class<?>... groups);
 }
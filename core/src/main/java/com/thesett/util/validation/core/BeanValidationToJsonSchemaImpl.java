@@ -0,0 +1,526 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.validation.Validator;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.ConstraintDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.thesett.util.validation.model.ConstraintBounds;
+import com.thesett.util.validation.model.ConstraintBuilder;
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.model.PropertyBuilder;
+import com.thesett.util.validation.model.SchemaDefinitions;
+
+import org.hibernate.validator.constraints.Length;
+
+/**
+ * BeanValidationToJsonSchemaImpl uses meta-data held against classes to be validated, to derive a json-schema
+ * equivalent for the JSON serialized version of the class. The meta-data is queried using Hibernate Validations API.
+ *
+ * <p/>Each class is expanded only once within a schema. Classes that occur more than once, or that refer back to
+ * themselves, are placed in the 'definitions' of the schema and referred to with '$ref', so that self-referencing
+ * classes can be converted, and the size of the schema is linear in the number of distinct classes.
+ *
+ * <p/>Schemas can also be extracted under validation groups, taking only the constraints that apply when validating
+ * those groups. The schemas for all the groups asked for are built together, in one pass over the classes, and are
+ * cached against the validator, class and group. Each caller is given its own copy of a cached schema, which it is
+ * free to modify. The cache holds validators weakly, so that it does not keep them alive.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Extract a json schema from bean validation annotations. </td></tr>
+ * </table></pre>
+ */
+public class BeanValidationToJsonSchemaImpl implements BeanValidationToJsonSchema
+{
+    /** Caches the schemas extracted under validation groups, by validator, then class and group. */
+    private final Map<Validator, ConcurrentMap<SchemaKey, JsonSchema>> groupSchemas = new WeakHashMap<>();
+
+    /** {@inheritDoc} */
+    public JsonSchema toJsonSchema(Validator validator, Class clazz)
+    {
+        return toJsonSchemas(validator, clazz, new Class<?>[] { null }).get(null);
+    }
+
+    /** {@inheritDoc} */
+    public JsonSchema toJsonSchema(Validator validator, Class clazz, Class group)
+    {
+        return toJsonSchemas(validator, clazz, new Class<?>[] { group }).get(group);
+    }
+
+    /** {@inheritDoc} */
+    public Map<Class<?>, JsonSchema> toJsonSchemas(Validator validator, Class<?> clazz, Class<?>... groups)
+    {
+        ConcurrentMap<SchemaKey, JsonSchema> cache = cacheOf(validator);
+        Map<Class<?>, JsonSchema> schemas = new LinkedHashMap<>();
+        List<Class<?>> missing = new ArrayList<>();
+
+        for (Class<?> group : groups)
+        {
+            JsonSchema schema = cache.get(new SchemaKey(clazz, group));
+            schemas.put(group, schema);
+
+            if ((schema == null) && !missing.contains(group))
+            {
+                missing.add(group);
+            }
+        }
+
+        if (!missing.isEmpty())
+        {
+            List<JsonSchema> extracted = toJsonSchemas(validator, clazz, missing);
+
+            for (int i = 0; i < missing.size(); i++)
+            {
+                JsonSchema cached = cache.putIfAbsent(new SchemaKey(clazz, missing.get(i)), extracted.get(i));
+                schemas.put(missing.get(i), (cached != null) ? cached : extracted.get(i));
+            }
+        }
+
+        // The cached schemas are kept pristine, as callers may modify the schemas they are given.
+        for (Map.Entry<Class<?>, JsonSchema> entry : schemas.entrySet())
+        {
+            entry.setValue(entry.getValue().copy());
+        }
+
+        return schemas;
+    }
+
+    /**
+     * Finds the cache of the schemas extracted from a validator, creating it if there is none yet.
+     *
+     * @param  validator The validator the schemas are extracted from.
+     *
+     * @return The cache of the schemas extracted from the validator, by class and group.
+     */
+    private ConcurrentMap<SchemaKey, JsonSchema> cacheOf(Validator validator)
+    {
+        synchronized (groupSchemas)
+        {
+            ConcurrentMap<SchemaKey, JsonSchema> cache = groupSchemas.get(validator);
+
+            if (cache == null)
+            {
+                cache = new ConcurrentHashMap<>();
+                groupSchemas.put(validator, cache);
+            }
+
+            return cache;
+        }
+    }
+
+    /**
+     * Extracts json schemas from a class under several validation groups, in one pass over the class and the classes
+     * of its properties.
+     *
+     * @param  validator The validator to extract the meta-data from.
+     * @param  clazz     The annotated class to extract the schemas for.
+     * @param  groups    The validation groups to extract, or <tt>null</tt> to take constraints under all groups.
+     *
+     * @return A json schema for each validation group, in the order the groups were given.
+     */
+    private List<JsonSchema> toJsonSchemas(Validator validator, Class<?> clazz, List<Class<?>> groups)
+    {
+        List<JsonSchema> schemas = new ArrayList<>();
+        List<Target> targets = new ArrayList<>();
+
+        for (Class<?> group : groups)
+        {
+            PropertyBuilder propertyBuilder = JsonSchema.object();
+            JsonSchema rootSchema = propertyBuilder.build();
+
+            schemas.add(rootSchema);
+            targets.add(new Target(group, propertyBuilder, rootSchema,
+                    new SchemaDefinitions(rootSchema, clazz.getName())));
+        }
+
+        toJsonSchema(validator, clazz, targets);
+
+        return schemas;
+    }
+
+    /**
+     * Adds the properties of a class to object schemas, one for each validation group, expanding the classes of
+     * constrained properties recursively.
+     *
+     * @param validator The validator to extract the meta-data from.
+     * @param clazz     The class to add the properties of.
+     * @param targets   The object schemas to add the properties to, and the groups to take constraints from.
+     */
+    private void toJsonSchema(Validator validator, Class<?> clazz, List<Target> targets)
+    {
+        BeanDescriptor constraintsForClass = validator.getConstraintsForClass(clazz);
+        SchemaMetadata metadata = SchemaMetadata.of(validator);
+
+        for (Field field : clazz.getDeclaredFields())
+        {
+            // Static fields are not part of the serialized form, and are never validated.
+            if (Modifier.isStatic(field.getModifiers()))
+            {
+                continue;
+            }
+
+            String javaFieldName = field.getName();
+
+            // Check if there is a JsonProperty annotation overriding the field name in json, and apply the override
+            // if there is.
+            JsonProperty jsonProperty = field.getAnnotation(JsonProperty.class);
+
+            String fieldName;
+
+            if (jsonProperty != null)
+            {
+                fieldName = jsonProperty.value();
+            }
+            else
+            {
+                fieldName = javaFieldName;
+            }
+
+            if ("this$0".equals(fieldName))
+            {
+                continue;
+            }
+
+            Class<?> propertyType = field.getType();
+            PropertyDescriptor property = constraintsForClass.getConstraintsForProperty(javaFieldName);
+            List<Target> nestedTargets = new ArrayList<>();
+
+            for (Target target : targets)
+            {
+                ConstraintBuilder constraintBuilder = target.propertyBuilder.property(fieldName);
+
+                // Used to track when a type has been assigned, so that object type is only assigned later when no
+                // other type has been matched.
+                boolean typeAssigned = assignType(constraintBuilder, propertyType);
+
+                convertTitle(constraintBuilder, field, metadata, clazz, target.group);
+                convertDescription(constraintBuilder, field, metadata, clazz, target.group);
+
+                if (property == null)
+                {
+                    continue;
+                }
+
+                // Assign object type and recursively expand the object, only when another type did not already match,
+                // and the class has not already been expanded elsewhere.
+                if (!typeAssigned && Object.class.isAssignableFrom(propertyType) &&
+                        target.definitions.expand(propertyType.getName(), propertyType.getSimpleName(),
+                            target.objectSchema, fieldName))
+                {
+                    nestedTargets.add(new Target(target.group, constraintBuilder.object(),
+                            target.objectSchema.getProperties().get(fieldName), target.definitions));
+                }
+
+                ConstraintBounds bounds = new ConstraintBounds();
+
+                for (ConstraintDescriptor constraintDescriptor : constraints(property, target.group))
+                {
+                    Annotation annotation = constraintDescriptor.getAnnotation();
+                    convertMin(bounds, annotation);
+                    convertMax(bounds, annotation);
+                    convertLength(bounds, annotation);
+                    convertPattern(bounds, annotation);
+                    convertAllowedValues(constraintBuilder, annotation);
+                }
+
+                bounds.applyTo(constraintBuilder);
+            }
+
+            if (!nestedTargets.isEmpty())
+            {
+                toJsonSchema(validator, propertyType, nestedTargets);
+            }
+        }
+    }
+
+    /**
+     * Finds the constraints on a property that apply under a validation group.
+     *
+     * @param  property The property.
+     * @param  group    The validation group, or <tt>null</tt> to take the constraints under all groups.
+     *
+     * @return The constraints on the property that apply under the group.
+     */
+    private Set<ConstraintDescriptor<?>> constraints(PropertyDescriptor property, Class<?> group)
+    {
+        if (group == null)
+        {
+            return property.findConstraints().getConstraintDescriptors();
+        }
+
+        return property.findConstraints().unorderedAndMatchingGroups(group).getConstraintDescriptors();
+    }
+
+    private boolean assignType(ConstraintBuilder constraintBuilder, Class<?> propertyType) // NOSONAR
+    {
+        boolean typeAssigned = false;
+
+        if (propertyType.isArray())
+        {
+            constraintBuilder.isArray();
+            typeAssigned = true;
+        }
+        else if (Collection.class.isAssignableFrom(propertyType))
+        {
+            constraintBuilder.isArray();
+            typeAssigned = true;
+        }
+        else if (propertyType.equals(String.class))
+        {
+            constraintBuilder.isString();
+            typeAssigned = true;
+        }
+        else if (propertyType.equals(int.class) || propertyType.equals(Integer.class))
+        {
+            constraintBuilder.isInteger();
+            typeAssigned = true;
+        }
+        else if (propertyType.equals(long.class) || propertyType.equals(Long.class))
+        {
+            constraintBuilder.isInteger();
+            typeAssigned = true;
+        }
+        else if (propertyType.equals(float.class) || propertyType.equals(Float.class))
+        {
+            constraintBuilder.isNumber();
+            typeAssigned = true;
+        }
+        else if (propertyType.equals(double.class) || propertyType.equals(Double.class))
+        {
+            constraintBuilder.isNumber();
+            typeAssigned = true;
+        }
+        else if (propertyType.equals(boolean.class) || propertyType.equals(Boolean.class))
+        {
+            constraintBuilder.isBoolean();
+            typeAssigned = true;
+        }
+        else if (BigDecimal.class.isAssignableFrom(propertyType))
+        {
+            constraintBuilder.isNumber();
+            typeAssigned = true;
+        }
+        else if (Calendar.class.isAssignableFrom(propertyType))
+        {
+            constraintBuilder.isString();
+            typeAssigned = true;
+        }
+
+        return typeAssigned;
+    }
+
+    /**
+     * Sets the description of a property, from the schemas the validator was built with if they describe it, or else
+     * from a <tt>@Description</tt> on its field.
+     *
+     * @param constraintBuilder The builder of the schema of the property.
+     * @param field             The field of the property.
+     * @param metadata          The metadata of the schemas the validator was built with, or <tt>null</tt> if none.
+     * @param clazz             The class holding the property.
+     * @param group             The validation group to take the description under, or <tt>null</tt> for any.
+     */
+    private void convertDescription(ConstraintBuilder constraintBuilder, Field field, SchemaMetadata metadata,
+        Class<?> clazz, Class<?> group)
+    {
+        String description = (metadata != null) ? metadata.getDescription(clazz, field.getName(), group) : null;
+        Description annotation = field.getAnnotation(Description.class);
+
+        if (description != null)
+        {
+            constraintBuilder.description(description);
+        }
+        else if (annotation != null)
+        {
+            constraintBuilder.description(annotation.description());
+        }
+    }
+
+    /**
+     * Sets the title of a property, from the schemas the validator was built with if they give it one, or else from a
+     * <tt>@Title</tt> on its field.
+     *
+     * @param constraintBuilder The builder of the schema of the property.
+     * @param field             The field of the property.
+     * @param metadata          The metadata of the schemas the validator was built with, or <tt>null</tt> if none.
+     * @param clazz             The class holding the property.
+     * @param group             The validation group to take the title under, or <tt>null</tt> for any.
+     */
+    private void convertTitle(ConstraintBuilder constraintBuilder, Field field, SchemaMetadata metadata,
+        Class<?> clazz, Class<?> group)
+    {
+        String title = (metadata != null) ? metadata.getTitle(clazz, field.getName(), group) : null;
+        Title annotation = field.getAnnotation(Title.class);
+
+        if (title != null)
+        {
+            constraintBuilder.title(title);
+        }
+        else if (annotation != null)
+        {
+            constraintBuilder.title(annotation.title());
+        }
+    }
+
+    private void convertAllowedValues(ConstraintBuilder constraintBuilder, Annotation annotation)
+    {
+        if (annotation instanceof AllowedValues)
+        {
+            AllowedValues allowedValues = (AllowedValues) annotation;
+
+            constraintBuilder.enums(allowedValues.value());
+        }
+    }
+
+    private void convertPattern(ConstraintBounds bounds, Annotation annotation)
+    {
+        if (annotation instanceof Pattern)
+        {
+            Pattern pattern = (Pattern) annotation;
+
+            bounds.pattern(pattern.regexp());
+        }
+    }
+
+    private void convertLength(ConstraintBounds bounds, Annotation annotation)
+    {
+        if (annotation instanceof Length)
+        {
+            Length length = (Length) annotation;
+
+            bounds.minLength(length.min());
+            bounds.maxLength(length.max());
+        }
+    }
+
+    private void convertMax(ConstraintBounds bounds, Annotation annotation)
+    {
+        if (annotation instanceof Max)
+        {
+            Max max = (Max) annotation;
+
+            bounds.maximum(max.value());
+        }
+    }
+
+    private void convertMin(ConstraintBounds bounds, Annotation annotation)
+    {
+        if (annotation instanceof Min)
+        {
+            Min min = (Min) annotation;
+
+            bounds.minimum(min.value());
+        }
+    }
+
+    /**
+     * Target is an object schema being built for one validation group, along with the builder adding properties to
+     * it, and the classes expanded so far within its root schema.
+     */
+    private static final class Target
+    {
+        /** The validation group to take constraints from, or <tt>null</tt> for all groups. */
+        private final Class<?> group;
+
+        /** The builder to add properties with. */
+        private final PropertyBuilder propertyBuilder;
+
+        /** The object schema that properties are being added to. */
+        private final JsonSchema objectSchema;
+
+        /** Tracks the classes expanded so far within the root schema. */
+        private final SchemaDefinitions definitions;
+
+        /**
+         * Creates an object schema target.
+         *
+         * @param group           The validation group to take constraints from, or <tt>null</tt> for all groups.
+         * @param propertyBuilder The builder to add properties with.
+         * @param objectSchema    The object schema that properties are being added to.
+         * @param definitions     Tracks the classes expanded so far within the root schema.
+         */
+        Target(Class<?> group, PropertyBuilder propertyBuilder, JsonSchema objectSchema,
+            SchemaDefinitions definitions)
+        {
+            this.group = group;
+            this.propertyBuilder = propertyBuilder;
+            this.objectSchema = objectSchema;
+            this.definitions = definitions;
+        }
+    }
+
+    /** SchemaKey identifies a schema extracted from a validator under a validation group, by class and group. */
+    private static final class SchemaKey
+    {
+        /** The class the schema describes. */
+        private final Class<?> clazz;
+
+        /** The validation group. */
+        private final Class<?> group;
+
+        /**
+         * Creates a schema key.
+         *
+         * @param clazz The class the schema describes.
+         * @param group The validation group.
+         */
+        SchemaKey(Class<?> clazz, Class<?> group)
+        {
+            this.clazz = clazz;
+            this.group = group;
+        }
+
+        /** {@inheritDoc} */
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof SchemaKey))
+            {
+                return false;
+            }
+
+            SchemaKey other = (SchemaKey) o;
+
+            return (clazz == other.clazz) && (group == other.group);
+        }
+
+        /** {@inheritDoc} */
+        public int hashCode()
+        {
+            return (clazz.hashCode() * 31) + ((group != null) ? group.hashCode() : 0);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BoundedExecutor runs tasks on another executor, but no more than a given number of them at a time, so that a burst
+ * of costly tasks, such as building validators, cannot take over a pool shared with other work. Tasks beyond the limit
+ * are queued, and started in the order they were submitted as running tasks finish. Submitting a task never blocks.
+ *
+ * <p/>A task that the other executor rejects is not retried. If it is the task being submitted, it is taken back off
+ * the queue and the rejection is thrown to the caller. A queued task rejected whilst another is being submitted, or
+ * as a running task finishes, has nobody to throw to, so it is failed instead; cancelled, if it is a {@link Future},
+ * and otherwise dropped. Wrapping work in a <tt>Future</tt> lets whoever waits on it find out.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Run tasks on another executor, a limited number at a time. </td><td> {@link Executor} </td></tr>
+ * <tr><td> Queue the tasks beyond the limit, in order. </td></tr>
+ * </table></pre>
+ */
+public final class BoundedExecutor implements Executor
+{
+    /** The executor to run tasks on. */
+    private final Executor delegate;
+
+    /** The greatest number of tasks to run at once. */
+    private final int maxConcurrent;
+
+    /** Holds the tasks waiting to be run. */
+    private final Deque<Runnable> queue = new ConcurrentLinkedDeque<>();
+
+    /** The number of tasks running, or handed to the executor to run. */
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * Creates an executor that runs a limited number of tasks at once on another executor.
+     *
+     * @param delegate      The executor to run tasks on.
+     * @param maxConcurrent The greatest number of tasks to run at once.
+     */
+    public BoundedExecutor(Executor delegate, int maxConcurrent)
+    {
+        if (maxConcurrent < 1)
+        {
+            throw new IllegalArgumentException("The maximum number of concurrent tasks must be at least 1.");
+        }
+
+        this.delegate = delegate;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Runs a task once fewer than the maximum number of tasks are running.
+     *
+     * @param  task The task to run.
+     *
+     * @throws RejectedExecutionException If the underlying executor rejects the task. It is not left on the queue.
+     */
+    public void execute(Runnable task)
+    {
+        queue.add(task);
+        drain(task);
+    }
+
+    /**
+     * Provides the number of tasks running.
+     *
+     * @return The number of tasks running.
+     */
+    public int getRunning()
+    {
+        return running.get();
+    }
+
+    /**
+     * Provides the number of tasks waiting to run.
+     *
+     * @return The number of tasks waiting to run.
+     */
+    public int getQueued()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Starts queued tasks, while fewer than the maximum number are running. Each task starts the next when it
+     * finishes, so that no queued task is left waiting once the executor is idle.
+     *
+     * @param  submitted The task being submitted, or <tt>null</tt> when draining as a running task finishes.
+     *
+     * @throws RejectedExecutionException If the underlying executor rejects the submitted task.
+     */
+    private void drain(Runnable submitted)
+    {
+        while (!queue.isEmpty())
+        {
+            int count = running.get();
+
+            if (count >= maxConcurrent)
+            {
+                return;
+            }
+
+            if (!running.compareAndSet(count, count + 1))
+            {
+                continue;
+            }
+
+            final Runnable task = queue.poll();
+
+            if (task == null)
+            {
+                running.decrementAndGet();
+
+                continue;
+            }
+
+            try
+            {
+                delegate.execute(new Runnable()
+                    {
+                        public void run()
+                        {
+                            try
+                            {
+                                task.run();
+                            }
+                            finally
+                            {
+                                running.decrementAndGet();
+                                drain(null);
+                            }
+                        }
+                    });
+            }
+            catch (RejectedExecutionException e)
+            {
+                running.decrementAndGet();
+
+                if (task == submitted)
+                {
+                    throw e;
+                }
+
+                fail(task);
+            }
+        }
+    }
+
+    /**
+     * Fails a queued task that the underlying executor rejected, when there is no caller to throw the rejection to.
+     *
+     * @param task The rejected task.
+     */
+    private static void fail(Runnable task)
+    {
+        if (task instanceof Future)
+        {
+            ((Future<?>) task).cancel(false);
+        }
+    }
+}
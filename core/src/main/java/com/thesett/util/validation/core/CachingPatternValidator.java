@@ -0,0 +1,78 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * CachingPatternValidator checks the standard <tt>@Pattern</tt> constraint, as the default validator for it does, but
+ * looks the results up in a {@link PatternMatchCache} first. It replaces the default validator on validators built
+ * with a pattern cache, and is created by {@link PatternCacheValidatorFactory}, which hands it the cache.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Check that strings match a regular expression, through a cache. </td>
+ *     <td> {@link PatternMatchCache} </td></tr>
+ * </table></pre>
+ */
+public class CachingPatternValidator implements ConstraintValidator<javax.validation.constraints.Pattern, CharSequence>
+{
+    /** The cache of match results. */
+    private final PatternMatchCache cache;
+
+    /** The compiled regular expression. */
+    private Pattern pattern;
+
+    /**
+     * Creates a validator for <tt>@Pattern</tt> constraints that caches its results.
+     *
+     * @param cache The cache of match results.
+     */
+    CachingPatternValidator(PatternMatchCache cache)
+    {
+        this.cache = cache;
+    }
+
+    /** {@inheritDoc} */
+    public void initialize(javax.validation.constraints.Pattern constraintAnnotation)
+    {
+        int flags = 0;
+
+        for (javax.validation.constraints.Pattern.Flag flag : constraintAnnotation.flags())
+        {
+            flags |= flag.getValue();
+        }
+
+        try
+        {
+            pattern = Pattern.compile(constraintAnnotation.regexp(), flags);
+        }
+        catch (PatternSyntaxException e)
+        {
+            throw new IllegalArgumentException("Invalid regular expression.", e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context)
+    {
+        return (value == null) || cache.matches(pattern, value);
+    }
+}
@@ -0,0 +1,547 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.validation.MessageInterpolator;
+import javax.validation.metadata.ConstraintDescriptor;
+
+/**
+ * CompiledMessageInterpolator interpolates constraint messages without the expression language, by substituting
+ * parameters only. Each message template is compiled once, for each locale, into a list of terms; its message keys are
+ * looked up in the resource bundles, and its parameter and expression terms parsed, at that time. As the parameters
+ * of a constraint do not change, the message rendered for each constraint is cached too, unless it refers to the
+ * value validated.
+ *
+ * <p/>Message keys are resolved as the default Hibernate interpolator resolves them; from the
+ * <tt>ValidationMessages</tt> bundle first, recursively, then from the bundle of default messages that Hibernate
+ * provides. Parameters such as <tt>{max}</tt> are replaced by the attributes of the constraint, with arrays written
+ * out as lists, and escaped characters are unescaped. Of the expression language, only the few forms that the default
+ * messages use are understood; a bare name, as in <tt>${validatedValue}</tt> or <tt>${value}</tt>, and a choice on an
+ * attribute, as in <tt>${inclusive == true ? 'or equal to ' : ''}</tt>. Other expressions are left in the message as
+ * they are written.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Compile message templates once, resolving message keys. </td><td> {@link ResourceBundle} </td></tr>
+ * <tr><td> Render messages from constraint attributes. </td><td> {@link ConstraintDescriptor} </td></tr>
+ * <tr><td> Cache the rendered message of each constraint. </td></tr>
+ * </table></pre>
+ */
+public final class CompiledMessageInterpolator implements MessageInterpolator
+{
+    /** The name of the bundle of application messages. */
+    private static final String USER_MESSAGES = "ValidationMessages";
+
+    /** The name of the bundle of default messages that Hibernate provides. */
+    private static final String DEFAULT_MESSAGES = "org.hibernate.validator.ValidationMessages";
+
+    /** The name that the expression language binds the validated value to. */
+    private static final String VALIDATED_VALUE = "validatedValue";
+
+    /** The greatest number of rounds of message key resolution, guarding against keys that resolve to each other. */
+    private static final int MAX_ROUNDS = 10;
+
+    /** The greatest number of templates to cache for each locale; any beyond are compiled each time they are used. */
+    private static final int MAX_TEMPLATES = 10000;
+
+    /** Matches the expressions that are understood; a bare name, or a choice on comparing a name to a literal. */
+    private static final Pattern EXPRESSION =
+        Pattern.compile("\\s*(\\w+)\\s*(?:==\\s*('[^']*'|[\\w.\\-]+)\\s*\\?\\s*'([^']*)'\\s*:\\s*'([^']*)'\\s*)?");
+
+    /** The locale to interpolate messages in, when none is given. */
+    private final Locale defaultLocale;
+
+    /** Holds the compiled templates, by locale and then template. */
+    private final ConcurrentMap<Locale, ConcurrentMap<String, CompiledTemplate>> templates = new ConcurrentHashMap<>();
+
+    /** Creates an interpolator for the default locale. */
+    public CompiledMessageInterpolator()
+    {
+        this(Locale.getDefault());
+    }
+
+    /**
+     * Creates an interpolator.
+     *
+     * @param defaultLocale The locale to interpolate messages in, when none is given.
+     */
+    public CompiledMessageInterpolator(Locale defaultLocale)
+    {
+        this.defaultLocale = defaultLocale;
+    }
+
+    /** {@inheritDoc} */
+    public String interpolate(String messageTemplate, Context context)
+    {
+        return interpolate(messageTemplate, context, defaultLocale);
+    }
+
+    /** {@inheritDoc} */
+    public String interpolate(String messageTemplate, Context context, Locale locale)
+    {
+        ConcurrentMap<String, CompiledTemplate> compiled = templates.get(locale);
+
+        if (compiled == null)
+        {
+            templates.putIfAbsent(locale, new ConcurrentHashMap<String, CompiledTemplate>());
+            compiled = templates.get(locale);
+        }
+
+        CompiledTemplate template = compiled.get(messageTemplate);
+
+        if (template == null)
+        {
+            template = compile(messageTemplate, locale);
+
+            if (compiled.size() < MAX_TEMPLATES)
+            {
+                compiled.putIfAbsent(messageTemplate, template);
+            }
+        }
+
+        return template.render(context);
+    }
+
+    /**
+     * Compiles a message template, resolving its message keys in the bundles for a locale, and parsing it into terms.
+     *
+     * @param  messageTemplate The message template.
+     * @param  locale          The locale.
+     *
+     * @return The compiled template.
+     */
+    private static CompiledTemplate compile(String messageTemplate, Locale locale)
+    {
+        ResourceBundle userMessages = getBundle(USER_MESSAGES, locale);
+        ResourceBundle defaultMessages = getBundle(DEFAULT_MESSAGES, locale);
+
+        String resolved = messageTemplate;
+
+        for (int round = 0; round < MAX_ROUNDS; round++)
+        {
+            String previous = resolved;
+
+            for (int depth = 0; depth < MAX_ROUNDS; depth++)
+            {
+                String next = resolveKeys(resolved, userMessages);
+
+                if (next.equals(resolved))
+                {
+                    break;
+                }
+
+                resolved = next;
+            }
+
+            resolved = resolveKeys(resolved, defaultMessages);
+
+            if (resolved.equals(previous))
+            {
+                break;
+            }
+        }
+
+        return new CompiledTemplate(parse(resolved));
+    }
+
+    /**
+     * Replaces the message keys in a template, such as <tt>{javax.validation.constraints.Size.message}</tt>, that are
+     * in a bundle, by their messages. Escaped characters and expressions are left alone.
+     *
+     * @param  template The template.
+     * @param  bundle   The bundle, or <tt>null</tt> if there is none.
+     *
+     * @return The template with the message keys replaced.
+     */
+    private static String resolveKeys(String template, ResourceBundle bundle)
+    {
+        if ((bundle == null) || (template.indexOf('{') < 0))
+        {
+            return template;
+        }
+
+        StringBuilder result = new StringBuilder(template.length() + 32);
+        int i = 0;
+
+        while (i < template.length())
+        {
+            char c = template.charAt(i);
+            int close = (c == '{') ? template.indexOf('}', i) : -1;
+
+            if ((c == '\\') && ((i + 1) < template.length()))
+            {
+                result.append(template, i, i + 2);
+                i += 2;
+            }
+            else if (close > 0)
+            {
+                String key = template.substring(i + 1, close);
+                boolean expression = (i > 0) && (template.charAt(i - 1) == '$');
+                result.append((!expression && bundle.containsKey(key)) ? bundle.getString(key)
+                                                                        : template.substring(i, close + 1));
+                i = close + 1;
+            }
+            else
+            {
+                result.append(c);
+                i++;
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Parses a template, with its message keys resolved, into terms; literal text, parameters and expressions.
+     *
+     * @param  template The template.
+     *
+     * @return The terms of the template.
+     */
+    private static List<Term> parse(String template)
+    {
+        List<Term> terms = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+
+        while (i < template.length())
+        {
+            char c = template.charAt(i);
+            boolean expression = (c == '$') && ((i + 1) < template.length()) && (template.charAt(i + 1) == '{');
+            int open = expression ? (i + 1) : i;
+            int close = ((c == '{') || expression) ? template.indexOf('}', open) : -1;
+
+            if ((c == '\\') && ((i + 1) < template.length()))
+            {
+                char escaped = template.charAt(i + 1);
+
+                if ((escaped != '{') && (escaped != '}') && (escaped != '$') && (escaped != '\\'))
+                {
+                    literal.append(c);
+                }
+
+                literal.append(escaped);
+                i += 2;
+            }
+            else if (close > 0)
+            {
+                if (literal.length() > 0)
+                {
+                    terms.add(new Term(literal.toString()));
+                    literal.setLength(0);
+                }
+
+                String body = template.substring(open + 1, close);
+                terms.add(expression ? expression(body) : new Term(null, body, null, null, null, false));
+                i = close + 1;
+            }
+            else
+            {
+                literal.append(c);
+                i++;
+            }
+        }
+
+        if (literal.length() > 0)
+        {
+            terms.add(new Term(literal.toString()));
+        }
+
+        return terms;
+    }
+
+    /**
+     * Parses the body of an expression into a term, if it is one of the forms understood.
+     *
+     * @param  body The body of the expression, without its enclosing <tt>${}</tt>.
+     *
+     * @return The term for the expression, which is literal if the expression is not understood.
+     */
+    private static Term expression(String body)
+    {
+        Matcher matcher = EXPRESSION.matcher(body);
+
+        if (!matcher.matches())
+        {
+            return new Term("${" + body + "}");
+        }
+
+        String comparand = matcher.group(2);
+
+        if ((comparand != null) && comparand.startsWith("'"))
+        {
+            comparand = comparand.substring(1, comparand.length() - 1);
+        }
+
+        return new Term(body, matcher.group(1), comparand, matcher.group(3), matcher.group(4), true);
+    }
+
+    /**
+     * Loads a resource bundle, from the context class loader if it has it, or else from the class loader of this
+     * class.
+     *
+     * @param  name   The name of the bundle.
+     * @param  locale The locale.
+     *
+     * @return The bundle, or <tt>null</tt> if there is none.
+     */
+    private static ResourceBundle getBundle(String name, Locale locale)
+    {
+        ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+
+        if (contextLoader != null)
+        {
+            try
+            {
+                return ResourceBundle.getBundle(name, locale, contextLoader);
+            }
+            catch (MissingResourceException e)
+            {
+                // The bundle is looked for with the class loader of this class below.
+            }
+        }
+
+        try
+        {
+            return ResourceBundle.getBundle(name, locale, CompiledMessageInterpolator.class.getClassLoader());
+        }
+        catch (MissingResourceException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the value of an attribute or the validated value into a message; arrays are written as lists.
+     *
+     * @param  value The value.
+     *
+     * @return The value as text.
+     */
+    private static String toText(Object value)
+    {
+        if ((value == null) || !value.getClass().isArray())
+        {
+            return String.valueOf(value);
+        }
+
+        StringBuilder text = new StringBuilder("[");
+
+        for (int i = 0; i < Array.getLength(value); i++)
+        {
+            text.append((i > 0) ? ", " : "").append(Array.get(value, i));
+        }
+
+        return text.append(']').toString();
+    }
+
+    /**
+     * CompiledTemplate is a message template compiled into terms, along with the messages rendered from it for each
+     * constraint, where those do not depend on the value validated.
+     */
+    private static final class CompiledTemplate
+    {
+        /** The terms of the template. */
+        private final Term[] terms;
+
+        /** <tt>true</tt> iff the template refers to the value validated, so its messages cannot be cached. */
+        private final boolean dynamic;
+
+        /** Holds the messages rendered for each constraint. */
+        private final ConcurrentMap<ConstraintDescriptor<?>, String> rendered = new ConcurrentHashMap<>();
+
+        /**
+         * Creates a compiled template.
+         *
+         * @param terms The terms of the template.
+         */
+        CompiledTemplate(List<Term> terms)
+        {
+            this.terms = terms.toArray(new Term[terms.size()]);
+
+            boolean refersToValue = false;
+
+            for (Term term : terms)
+            {
+                refersToValue |= term.expression && VALIDATED_VALUE.equals(term.name);
+            }
+
+            dynamic = refersToValue;
+        }
+
+        /**
+         * Renders the message for a constraint violation.
+         *
+         * @param  context The context of the violation.
+         *
+         * @return The message.
+         */
+        String render(Context context)
+        {
+            ConstraintDescriptor<?> descriptor = context.getConstraintDescriptor();
+
+            if (dynamic || (descriptor == null))
+            {
+                return renderTerms(context);
+            }
+
+            String message = rendered.get(descriptor);
+
+            if (message == null)
+            {
+                message = renderTerms(context);
+                rendered.putIfAbsent(descriptor, message);
+            }
+
+            return message;
+        }
+
+        /**
+         * Renders the terms of the template for a constraint violation.
+         *
+         * @param  context The context of the violation.
+         *
+         * @return The message.
+         */
+        private String renderTerms(Context context)
+        {
+            if ((terms.length == 1) && (terms[0].name == null))
+            {
+                return terms[0].text;
+            }
+
+            ConstraintDescriptor<?> descriptor = context.getConstraintDescriptor();
+            Map<String, Object> attributes = (descriptor != null) ? descriptor.getAttributes() : null;
+            StringBuilder message = new StringBuilder(64);
+
+            for (Term term : terms)
+            {
+                message.append(term.render(attributes, context));
+            }
+
+            return message.toString();
+        }
+    }
+
+    /**
+     * Term is one part of a compiled template; literal text, a parameter, or an expression that is a bare name or a
+     * choice on an attribute.
+     */
+    private static final class Term
+    {
+        /** The literal text, or the expression as written, or <tt>null</tt> for a parameter. */
+        private final String text;
+
+        /** The name of the parameter, or of the attribute the expression refers to, or <tt>null</tt> for text. */
+        private final String name;
+
+        /** The value the attribute is compared to in a choice, or <tt>null</tt> for a bare name. */
+        private final String comparand;
+
+        /** The text rendered when the attribute equals the comparand. */
+        private final String whenEqual;
+
+        /** The text rendered when the attribute does not equal the comparand. */
+        private final String otherwise;
+
+        /** <tt>true</tt> iff this is an expression, rather than a parameter. */
+        private final boolean expression;
+
+        /**
+         * Creates a literal term.
+         *
+         * @param text The literal text.
+         */
+        Term(String text)
+        {
+            this(text, null, null, null, null, false);
+        }
+
+        /**
+         * Creates a term.
+         *
+         * @param text       The literal text, or the expression as written, or <tt>null</tt> for a parameter.
+         * @param name       The name of the parameter or attribute, or <tt>null</tt> for literal text.
+         * @param comparand  The value the attribute is compared to in a choice, or <tt>null</tt> for a bare name.
+         * @param whenEqual  The text rendered when the attribute equals the comparand.
+         * @param otherwise  The text rendered when the attribute does not equal the comparand.
+         * @param expression <tt>true</tt> iff this is an expression, rather than a parameter.
+         */
+        Term(String text, String name, String comparand, String whenEqual, String otherwise,
+            boolean expression)
+        {
+            this.text = text;
+            this.name = name;
+            this.comparand = comparand;
+            this.whenEqual = whenEqual;
+            this.otherwise = otherwise;
+            this.expression = expression;
+        }
+
+        /**
+         * Renders this term. Parameters and expressions referring to attributes the constraint does not have are
+         * rendered as they are written.
+         *
+         * @param  attributes The attributes of the constraint, or <tt>null</tt> if there are none.
+         * @param  context    The context of the violation.
+         *
+         * @return The rendered term.
+         */
+        String render(Map<String, Object> attributes, Context context)
+        {
+            if (name == null)
+            {
+                return text;
+            }
+
+            Object value = (attributes != null) ? attributes.get(name) : null;
+
+            if ((value == null) && expression && VALIDATED_VALUE.equals(name))
+            {
+                value = context.getValidatedValue();
+
+                if (value == null)
+                {
+                    return "null";
+                }
+            }
+
+            if (value == null)
+            {
+                return expression ? ("${" + text + "}") : ("{" + name + "}");
+            }
+
+            if (comparand != null)
+            {
+                return comparand.equals(toText(value)) ? whenEqual : otherwise;
+            }
+
+            return toText(value);
+        }
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.model.SchemaDefinitions;
+import com.thesett.util.validation.model.SchemaType;
+
+/**
+ * CompiledSchema is a json-schema compiled into a form that can be evaluated directly against values. The keywords on
+ * each node are compiled into {@link SchemaCheck}s once, so that no parsing or regular expression compilation happens
+ * when values are checked. Compiled schemas are not changed once compiled, and may be shared between threads. As a
+ * recursive schema compiles into a cycle of nodes, a node is created before the nodes of its properties and items,
+ * and the collections holding those are filled in as they are compiled, before the node is handed out.
+ *
+ * <p/>The 'type' keyword is compiled separately from the other checks, as it only applies to untyped values; the types
+ * of bean properties are already fixed by their Java types.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Compile the keywords of a json-schema into checks. </td><td> {@link SchemaCheck} </td></tr>
+ * <tr><td> Hold the compiled schemas of object properties and array items. </td></tr>
+ * <tr><td> Hold the names of the properties allowed on maps. </td><td> {@link PropertyNameMatcher} </td></tr>
+ * </table></pre>
+ */
+final class CompiledSchema
+{
+    /** The checks to apply to values against this schema. */
+    private final List<SchemaCheck> checks;
+
+    /** The adaptive order to run the checks in, when only the first failure is wanted. */
+    private final AdaptiveCheckOrder checkOrder;
+
+    /** The check on the json type of untyped values, or <tt>null</tt> if the schema does not give a type. */
+    private final SchemaCheck typeCheck;
+
+    /** The compiled schemas of the properties of objects, by json name. */
+    private final Map<String, CompiledSchema> properties;
+
+    /** The compiled schemas of the items of arrays; one for all items, or one for each position of a tuple. */
+    private final List<CompiledSchema> items;
+
+    /** <tt>true</tt> iff the one item schema applies to every item, rather than to the first position of a tuple. */
+    private final boolean singleItemSchema;
+
+    /**
+     * The json names of the properties of objects, in the order the schema declares them, so that they can be walked
+     * without an iterator.
+     */
+    private final String[] propertyNames;
+
+    /** The compiled schemas of the properties of objects, in the same order as their names. */
+    private final CompiledSchema[] propertySchemas;
+
+    /** The json names of the properties that must be present. */
+    private final Set<String> required;
+
+    /** The json names of the properties that must be present, in the order the schema declares them. */
+    private final String[] requiredNames;
+
+    /** Classifies the keys of maps, or <tt>null</tt> if additional properties are allowed. */
+    private final PropertyNameMatcher allowedProperties;
+
+    /**
+     * Creates a compiled schema node.
+     *
+     * @param checks            The checks to apply to values against this schema.
+     * @param typeCheck         The check on the json type of untyped values, or <tt>null</tt>.
+     * @param properties        The compiled schemas of the properties of objects, by json name.
+     * @param propertyNames     The json names of the properties of objects, in order.
+     * @param propertySchemas   The compiled schemas of the properties of objects, in the same order as their names.
+     * @param items             The compiled schemas of the items of arrays.
+     * @param singleItemSchema  <tt>true</tt> iff the one item schema applies to every item.
+     * @param required          The json names of the properties that must be present.
+     * @param allowedProperties Classifies the keys of maps, or <tt>null</tt> if additional properties are allowed.
+     */
+    private CompiledSchema(List<SchemaCheck> checks, SchemaCheck typeCheck, Map<String, CompiledSchema> properties,
+        String[] propertyNames, CompiledSchema[] propertySchemas, List<CompiledSchema> items, boolean singleItemSchema,
+        Set<String> required, PropertyNameMatcher allowedProperties)
+    {
+        this.checks = checks;
+        this.checkOrder = new AdaptiveCheckOrder(checks);
+        this.typeCheck = typeCheck;
+        this.properties = properties;
+        this.propertyNames = propertyNames;
+        this.propertySchemas = propertySchemas;
+        this.items = items;
+        this.singleItemSchema = singleItemSchema;
+        this.required = required;
+        this.requiredNames = required.toArray(new String[required.size()]);
+        this.allowedProperties = allowedProperties;
+    }
+
+    /**
+     * Compiles a json-schema, and the schemas of its properties. References within the schema are resolved against it,
+     * and each schema referred to is only compiled once, so recursive schemas compile into cyclic graphs of nodes.
+     *
+     * @param  schema The json-schema to compile.
+     * @param  cache  The cache of results of 'pattern' checks, or <tt>null</tt> to not cache them.
+     *
+     * @return The compiled schema.
+     */
+    static CompiledSchema compile(JsonSchema schema, PatternMatchCache cache)
+    {
+        return compile(schema, schema, cache, new IdentityHashMap<JsonSchema, CompiledSchema>());
+    }
+
+    /**
+     * Compiles a json-schema node, and the schemas of its properties.
+     *
+     * @param  schema     The json-schema node to compile.
+     * @param  rootSchema The root schema that references are resolved against.
+     * @param  cache      The cache of results of 'pattern' checks, or <tt>null</tt> to not cache them.
+     * @param  compiled   The nodes compiled so far, by the schema they were compiled from.
+     *
+     * @return The compiled schema.
+     */
+    private static CompiledSchema compile(JsonSchema schema, JsonSchema rootSchema, PatternMatchCache cache,
+        Map<JsonSchema, CompiledSchema> compiled)
+    {
+        schema = SchemaDefinitions.resolve(rootSchema, schema);
+
+        CompiledSchema node = compiled.get(schema);
+
+        if (node != null)
+        {
+            return node;
+        }
+
+        List<SchemaCheck> checks = new ArrayList<>();
+
+        if (schema.getMinimum() != null)
+        {
+            checks.add(SchemaCheck.minimum(schema.getMinimum(), Boolean.TRUE.equals(schema.getExclusiveMinimum())));
+        }
+
+        if (schema.getMaximum() != null)
+        {
+            checks.add(SchemaCheck.maximum(schema.getMaximum(), Boolean.TRUE.equals(schema.getExclusiveMaximum())));
+        }
+
+        if (schema.getMaxLength() != null)
+        {
+            checks.add(SchemaCheck.maxLength(schema.getMaxLength()));
+        }
+
+        if (schema.getMinLength() != null)
+        {
+            checks.add(SchemaCheck.minLength(schema.getMinLength()));
+        }
+
+        if (schema.getPattern() != null)
+        {
+            checks.add(SchemaCheck.pattern(schema.getPattern(), cache));
+        }
+
+        if (schema.getEnums() != null)
+        {
+            checks.add(SchemaCheck.allowedValues(new AllowedValueSet(schema.getEnums())));
+        }
+
+        if (schema.getMinItems() != null)
+        {
+            checks.add(SchemaCheck.minItems(schema.getMinItems()));
+        }
+
+        if (schema.getMaxItems() != null)
+        {
+            checks.add(SchemaCheck.maxItems(schema.getMaxItems()));
+        }
+        else if (Boolean.FALSE.equals(schema.getAdditionalItems()) && (schema.getItems() != null))
+        {
+            checks.add(SchemaCheck.maxItems(schema.getItems().size()));
+        }
+
+        if (isUniqueItems(schema))
+        {
+            checks.add(SchemaCheck.uniqueItems());
+        }
+
+        Set<String> required = Collections.emptySet();
+
+        if (schema.getRequired() != null)
+        {
+            required = Collections.unmodifiableSet(new LinkedHashSet<>(schema.getRequired()));
+        }
+
+        SchemaCheck typeCheck =
+            ((schema.getType() != null) && (schema.getType() != SchemaType.NULL)) ? SchemaCheck.type(schema.getType())
+                                                                                  : null;
+
+        // The node is registered before its properties and items are compiled, so that those referring back to it are
+        // linked to it. Its properties and items are only filled in here, before the node is published.
+        Map<String, CompiledSchema> properties =
+            (schema.getProperties() != null) ? new LinkedHashMap<String, CompiledSchema>()
+                                             : Collections.<String, CompiledSchema>emptyMap();
+        String[] propertyNames =
+            (schema.getProperties() != null) ? schema.getProperties().keySet().toArray(new String[0])
+                                             : new String[0];
+        CompiledSchema[] propertySchemas = new CompiledSchema[propertyNames.length];
+        boolean singleItemSchema = schema.getItemSchema() != null;
+        List<CompiledSchema> items =
+            ((schema.getItems() != null) || singleItemSchema) ? new ArrayList<CompiledSchema>()
+                                                              : Collections.<CompiledSchema>emptyList();
+
+        node =
+            new CompiledSchema(Collections.unmodifiableList(checks), typeCheck, Collections.unmodifiableMap(properties),
+                propertyNames, propertySchemas, Collections.unmodifiableList(items), singleItemSchema, required,
+                allowedProperties(schema));
+        compiled.put(schema, node);
+
+        for (int i = 0; i < propertyNames.length; i++)
+        {
+            propertySchemas[i] = compile(schema.getProperties().get(propertyNames[i]), rootSchema, cache, compiled);
+            properties.put(propertyNames[i], propertySchemas[i]);
+        }
+
+        if (singleItemSchema)
+        {
+            items.add(compile(schema.getItemSchema(), rootSchema, cache, compiled));
+        }
+        else if (schema.getItems() != null)
+        {
+            for (JsonSchema item : schema.getItems())
+            {
+                items.add(compile(item, rootSchema, cache, compiled));
+            }
+        }
+
+        return node;
+    }
+
+    /**
+     * Compiles the names and patterns of the properties that a schema allows, when it does not allow additional
+     * properties.
+     *
+     * @param  schema The schema.
+     *
+     * @return A matcher for the allowed property names, or <tt>null</tt> if additional properties are allowed.
+     */
+    static PropertyNameMatcher allowedProperties(JsonSchema schema)
+    {
+        if (!Boolean.FALSE.equals(schema.getAdditionalProperties()))
+        {
+            return null;
+        }
+
+        Collection<String> names =
+            (schema.getProperties() != null) ? schema.getProperties().keySet() : Collections.<String>emptySet();
+        Collection<String> patterns =
+            (schema.getPatternProperties() != null) ? schema.getPatternProperties()
+                                                    : Collections.<String>emptyList();
+
+        return new PropertyNameMatcher(names, patterns);
+    }
+
+    /**
+     * Checks if a schema requires unique items. The 'uniqueItems' keyword is modelled as a number, of which any value
+     * other than zero requires unique items.
+     *
+     * @param  schema The schema to check.
+     *
+     * @return <tt>true</tt> iff the schema requires unique items.
+     */
+    static boolean isUniqueItems(JsonSchema schema)
+    {
+        return (schema.getUniqueItems() != null) && (schema.getUniqueItems() != 0);
+    }
+
+    /**
+     * Provides the checks to apply to values against this schema.
+     *
+     * @return The checks to apply to values against this schema.
+     */
+    List<SchemaCheck> getChecks()
+    {
+        return checks;
+    }
+
+    /**
+     * Provides the adaptive order to run the checks in, when only the first failure is wanted.
+     *
+     * @return The adaptive order to run the checks in.
+     */
+    AdaptiveCheckOrder getCheckOrder()
+    {
+        return checkOrder;
+    }
+
+    /**
+     * Provides the check on the json type of untyped values.
+     *
+     * @return The check on the json type of untyped values, or <tt>null</tt> if the schema does not give a type.
+     */
+    SchemaCheck getTypeCheck()
+    {
+        return typeCheck;
+    }
+
+    /**
+     * Provides the compiled schema for the item of an array at a position. A single item schema applies to every
+     * item, otherwise each position of a tuple has its own schema, and the items past the end of the tuple are not
+     * constrained.
+     *
+     * @param  index The position of the item.
+     *
+     * @return The compiled schema for the item, or <tt>null</tt> if the item is not constrained.
+     */
+    CompiledSchema getItem(int index)
+    {
+        if (singleItemSchema)
+        {
+            return items.get(0);
+        }
+
+        return (index < items.size()) ? items.get(index) : null;
+    }
+
+    /**
+     * Provides the compiled schema that every item of an array is checked against.
+     *
+     * @return The compiled schema of every item, or <tt>null</tt> if the items are not constrained by a single schema.
+     */
+    CompiledSchema getItemSchema()
+    {
+        return singleItemSchema ? items.get(0) : null;
+    }
+
+    /**
+     * Provides the number of positions of the tuple of item schemas; none if a single schema applies to every item.
+     *
+     * @return The number of positions of the tuple of item schemas.
+     */
+    int getItemCount()
+    {
+        return singleItemSchema ? 0 : items.size();
+    }
+
+    /**
+     * Checks if this schema constrains the items of arrays.
+     *
+     * @return <tt>true</tt> iff this schema constrains the items of arrays.
+     */
+    boolean hasItemConstraints()
+    {
+        return !items.isEmpty();
+    }
+
+    /**
+     * Provides the compiled schemas of the properties of objects, by json name.
+     *
+     * @return The compiled schemas of the properties of objects, by json name.
+     */
+    Map<String, CompiledSchema> getProperties()
+    {
+        return properties;
+    }
+
+    /**
+     * Provides the json names of the properties of objects, in the order the schema declares them. The array must not
+     * be modified.
+     *
+     * @return The json names of the properties of objects.
+     */
+    String[] getPropertyNames()
+    {
+        return propertyNames;
+    }
+
+    /**
+     * Provides the compiled schemas of the properties of objects, in the same order as their names. The array must not
+     * be modified.
+     *
+     * @return The compiled schemas of the properties of objects.
+     */
+    CompiledSchema[] getPropertySchemas()
+    {
+        return propertySchemas;
+    }
+
+    /**
+     * Provides the json names of the properties that must be present.
+     *
+     * @return The json names of the properties that must be present.
+     */
+    Set<String> getRequired()
+    {
+        return required;
+    }
+
+    /**
+     * Provides the json names of the properties that must be present, in the order the schema declares them. The
+     * array must not be modified.
+     *
+     * @return The json names of the properties that must be present.
+     */
+    String[] getRequiredNames()
+    {
+        return requiredNames;
+    }
+
+    /**
+     * Provides the classifier for the keys of maps, when additional properties are not allowed.
+     *
+     * @return The classifier for the keys of maps, or <tt>null</tt> if additional properties are allowed.
+     */
+    PropertyNameMatcher getAllowedProperties()
+    {
+        return allowedProperties;
+    }
+
+    /**
+     * Checks if this schema constrains the properties of objects.
+     *
+     * @return <tt>true</tt> iff this schema constrains the properties of objects.
+     */
+    boolean hasPropertyConstraints()
+    {
+        return !properties.isEmpty() || !required.isEmpty() || (allowedProperties != null);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.validation.ConstraintValidatorFactory;
+import javax.validation.MessageInterpolator;
+import javax.validation.ParameterNameProvider;
+import javax.validation.TraversableResolver;
+import javax.validation.Validation;
+import javax.validation.ValidationProviderResolver;
+import javax.validation.spi.ValidationProvider;
+
+import org.hibernate.validator.HibernateValidator;
+import org.hibernate.validator.HibernateValidatorConfiguration;
+
+/**
+ * ConfigurationTemplate bootstraps Hibernate once, and hands out cheap copies of the configuration to each builder.
+ * Bootstrapping through <tt>Validation.byProvider()</tt> looks the providers up through the service loader, once when
+ * configuring and again when building the validator factory, looks for <tt>META-INF/validation.xml</tt> on the class
+ * path, and creates a fresh set of default components, including a message interpolator with empty caches. The
+ * template resolves the provider and looks for the XML once, and creates the default components once, to be shared by
+ * every configuration it copies; all of them are thread safe.
+ *
+ * <p/>Where there is a <tt>META-INF/validation.xml</tt>, the copies still read it and the shared components are not
+ * applied to them, as they would override those configured there; only the provider lookup is saved. The XML is
+ * looked for on the context class loader of the thread that first uses the template, and the class loader of
+ * Hibernate.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Resolve the validation provider once. </td><td> {@link HibernateValidator} </td></tr>
+ * <tr><td> Look for the XML configuration once. </td></tr>
+ * <tr><td> Share the default components between configurations. </td></tr>
+ * <tr><td> Create fresh configurations from the template. </td><td> {@link HibernateValidatorConfiguration} </td></tr>
+ * </table></pre>
+ */
+final class ConfigurationTemplate
+{
+    /** The location that the XML configuration of bean validation is read from. */
+    private static final String VALIDATION_XML = "META-INF/validation.xml";
+
+    /** Resolves the single provider the template was bootstrapped with, without the service loader. */
+    private final ValidationProviderResolver providerResolver;
+
+    /** Indicates that there is no XML configuration, so it need not be looked for on each build. */
+    private final boolean noValidationXml;
+
+    /** Holds the shared default message interpolator. */
+    private final MessageInterpolator messageInterpolator;
+
+    /** Holds the shared default traversable resolver. */
+    private final TraversableResolver traversableResolver;
+
+    /** Holds the shared default constraint validator factory. */
+    private final ConstraintValidatorFactory constraintValidatorFactory;
+
+    /** Holds the shared default parameter name provider. */
+    private final ParameterNameProvider parameterNameProvider;
+
+    /** Bootstraps the template, resolving the provider and creating the default components. */
+    private ConfigurationTemplate()
+    {
+        final List<ValidationProvider<?>> providers =
+            Collections.<ValidationProvider<?>>singletonList(new HibernateValidator());
+
+        providerResolver =
+            new ValidationProviderResolver()
+            {
+                public List<ValidationProvider<?>> getValidationProviders()
+                {
+                    return providers;
+                }
+            };
+
+        noValidationXml = !hasValidationXml();
+
+        HibernateValidatorConfiguration bootstrap =
+            Validation.byProvider(HibernateValidator.class).providerResolver(providerResolver).configure();
+
+        messageInterpolator = bootstrap.getDefaultMessageInterpolator();
+        traversableResolver = bootstrap.getDefaultTraversableResolver();
+        constraintValidatorFactory = bootstrap.getDefaultConstraintValidatorFactory();
+        parameterNameProvider = bootstrap.getDefaultParameterNameProvider();
+    }
+
+    /**
+     * Provides the template, bootstrapping it on first use.
+     *
+     * @return The template.
+     */
+    static ConfigurationTemplate getInstance()
+    {
+        return Holder.TEMPLATE;
+    }
+
+    /**
+     * Creates a fresh configuration from the template, that mappings and components can be added to without affecting
+     * any other.
+     *
+     * @return A fresh configuration.
+     */
+    HibernateValidatorConfiguration newConfiguration()
+    {
+        HibernateValidatorConfiguration config =
+            Validation.byProvider(HibernateValidator.class).providerResolver(providerResolver).configure();
+
+        if (noValidationXml)
+        {
+            config.ignoreXmlConfiguration();
+            config.messageInterpolator(messageInterpolator);
+            config.traversableResolver(traversableResolver);
+            config.constraintValidatorFactory(constraintValidatorFactory);
+            config.parameterNameProvider(parameterNameProvider);
+        }
+
+        return config;
+    }
+
+    /**
+     * Provides the shared default traversable resolver, for builders to wrap.
+     *
+     * @return The shared default traversable resolver.
+     */
+    TraversableResolver getTraversableResolver()
+    {
+        return traversableResolver;
+    }
+
+    /**
+     * Provides the shared default constraint validator factory, for builders to wrap.
+     *
+     * @return The shared default constraint validator factory.
+     */
+    ConstraintValidatorFactory getConstraintValidatorFactory()
+    {
+        return constraintValidatorFactory;
+    }
+
+    /**
+     * Looks for the XML configuration of bean validation, where Hibernate would look for it.
+     *
+     * @return <tt>true</tt> if there is an XML configuration.
+     */
+    private static boolean hasValidationXml()
+    {
+        ClassLoader context = Thread.currentThread().getContextClassLoader();
+        ClassLoader hibernate = HibernateValidator.class.getClassLoader();
+
+        return ((context != null) && (context.getResource(VALIDATION_XML) != null)) ||
+            ((hibernate != null) && (hibernate.getResource(VALIDATION_XML) != null));
+    }
+
+    /** Holds the template, so that it is only bootstrapped when first used. */
+    private static class Holder
+    {
+        /** The template. */
+        static final ConfigurationTemplate TEMPLATE = new ConfigurationTemplate();
+    }
+}
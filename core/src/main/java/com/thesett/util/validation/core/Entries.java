@@ -0,0 +1,50 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import java.lang.annotation.Retention;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+/**
+ * Entries is the constraint that the json-schema 'properties' and 'required' of a map are mapped onto. Maps hold their
+ * properties as entries, rather than as fields to cascade into, so the entries named by the schema are checked against
+ * the type and simple keywords of their property schemas, and the required ones must be present. The schema is held
+ * as json, as annotations cannot hold schemas directly.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Constrain the entries of a map. </td><td> {@link EntriesValidator} </td></tr>
+ * </table></pre>
+ */
+@Target({ FIELD, METHOD })
+@Retention(RUNTIME)
+@Constraint(validatedBy = { EntriesValidator.class })
+public @interface Entries
+{
+    String message() default "";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    String schema();
+}
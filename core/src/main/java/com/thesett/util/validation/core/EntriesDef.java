@@ -18,23 +18,23 @@ package com.thesett.util.validation.core;
 import org.hibernate.validator.cfg.ConstraintDef;
 
 /**
- * TitleDef is a dummy constraint definition, which is used to hold the value of the json-schema 'title' field.
+ * EntriesDef is the constraint definition for the json-schema 'properties' and 'required' fields of a map.
  *
  * <pre><p/><table id="crc"><caption>CRC Card</caption>
  * <tr><th> Responsibilities </th><th> Collaborations </th>
- * <tr><td> Hold the json-schema 'title' field in a dummy constraint definition. </td></tr>
+ * <tr><td> Define an {@link Entries} constraint programmatically. </td></tr>
  * </table></pre>
  */
-public class TitleDef extends ConstraintDef<TitleDef, Title>
+public class EntriesDef extends ConstraintDef<EntriesDef, Entries>
 {
-    public TitleDef()
+    public EntriesDef()
     {
-        super(Title.class);
+        super(Entries.class);
     }
 
-    public TitleDef title(String title)
+    public EntriesDef schema(String schema)
     {
-        addParameter("title", title);
+        addParameter("schema", schema);
 
         return this;
     }
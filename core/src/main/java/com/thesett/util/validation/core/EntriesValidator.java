@@ -0,0 +1,132 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.io.IOException;
+import java.util.Map;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.ValidationException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.model.JsonSchema;
+
+/**
+ * EntriesValidator checks the entries of a map against the property schemas of the json-schema of the map. The schema
+ * is compiled once, when the validator is initialized. As for the properties of an untyped payload, the 'type' of each
+ * entry is checked along with its other keywords, and a missing or <tt>null</tt> entry only violates 'required'. Each
+ * violation is reported on the path to the entry as a property, such as <tt>extensions.colour</tt>, with the same
+ * message as {@link JsonSchemaEvaluator} reports it with.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Compile the schema of the map. </td><td> {@link CompiledSchema} </td></tr>
+ * <tr><td> Check the entries of a map against it. </td><td> {@link SchemaCheck} </td></tr>
+ * </table></pre>
+ */
+public class EntriesValidator implements ConstraintValidator<Entries, Map<?, ?>>
+{
+    /** Used to read the schema of the map. */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** The compiled schema of the map. */
+    private CompiledSchema compiled;
+
+    /** {@inheritDoc} */
+    public void initialize(Entries constraintAnnotation)
+    {
+        try
+        {
+            compiled = CompiledSchema.compile(MAPPER.readValue(constraintAnnotation.schema(), JsonSchema.class), null);
+        }
+        catch (IOException e)
+        {
+            throw new ValidationException("Unable to read the schema of the map: " + constraintAnnotation.schema(), e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public boolean isValid(Map<?, ?> value, ConstraintValidatorContext context)
+    {
+        if (value == null)
+        {
+            return true;
+        }
+
+        boolean valid = true;
+
+        for (Map.Entry<String, CompiledSchema> property : compiled.getProperties().entrySet())
+        {
+            String name = property.getKey();
+            Object entry = value.get(name);
+
+            if (entry == null)
+            {
+                continue;
+            }
+
+            CompiledSchema entrySchema = property.getValue();
+            SchemaCheck typeCheck = entrySchema.getTypeCheck();
+
+            if ((typeCheck != null) && !typeCheck.isValid(entry))
+            {
+                valid = fail(context, valid, name, typeCheck.getMessage());
+            }
+
+            for (SchemaCheck check : entrySchema.getChecks())
+            {
+                if (!check.isValid(entry))
+                {
+                    valid = fail(context, valid, name, check.getMessage());
+                }
+            }
+        }
+
+        for (String name : compiled.getRequiredNames())
+        {
+            if (value.get(name) == null)
+            {
+                valid = fail(context, valid, name, JsonSchemaEvaluator.REQUIRED_MESSAGE);
+            }
+        }
+
+        return valid;
+    }
+
+    /**
+     * Reports a violation on an entry of a map.
+     *
+     * @param  context The context to report the violation in.
+     * @param  valid   <tt>true</tt> iff no violation has been reported yet.
+     * @param  name    The key of the entry.
+     * @param  message The message to report.
+     *
+     * @return <tt>false</tt>, as the map is not valid.
+     */
+    private static boolean fail(ConstraintValidatorContext context, boolean valid, String name, String message)
+    {
+        if (valid)
+        {
+            context.disableDefaultConstraintViolation();
+        }
+
+        context.buildConstraintViolationWithTemplate(ItemsValidator.escape(message)).addPropertyNode(name)
+            .addConstraintViolation();
+
+        return false;
+    }
+}
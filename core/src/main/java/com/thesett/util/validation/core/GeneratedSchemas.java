@@ -0,0 +1,200 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.validation.ValidationException;
+
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.serdes.Serdes;
+
+/**
+ * GeneratedSchemas loads json-schemas that were generated at compile time by the
+ * {@link com.thesett.util.validation.apt.JsonSchemaProcessor}. The schemas are held as resources on the classpath,
+ * one per class, alongside an index listing all classes that schemas were generated for. Loading a generated schema
+ * does not require any reflection over the class it describes.
+ *
+ * <p/>Schemas are cached once loaded. Each caller is given its own copy of the cached schema, which it is free to
+ * modify.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Locate and load json-schemas generated at compile time. </td></tr>
+ * <tr><td> Enumerate the classes that have generated json-schemas. </td></tr>
+ * </table></pre>
+ */
+public class GeneratedSchemas
+{
+    /** The resource path under which generated schemas are placed. */
+    public static final String SCHEMA_PATH = "META-INF/jsonschema/";
+
+    /** The resource holding the index of classes with generated schemas, one fully qualified name per line. */
+    public static final String INDEX_RESOURCE = SCHEMA_PATH + "index";
+
+    /** The file suffix applied to generated schema resources. */
+    public static final String SCHEMA_SUFFIX = ".json";
+
+    /** Used to read the generated schemas, sharing one pool of property names and patterns between them all. */
+    private static final Serdes SERDES = new Serdes();
+
+    /** Caches the generated schema against each class, or empty when no schema was generated for a class. */
+    private static final ClassValue<Optional<JsonSchema>> SCHEMAS =
+        new ClassValue<Optional<JsonSchema>>()
+        {
+            protected Optional<JsonSchema> computeValue(Class<?> type)
+            {
+                ClassLoader classLoader =
+                    (type.getClassLoader() != null) ? type.getClassLoader() : ClassLoader.getSystemClassLoader();
+
+                return Optional.ofNullable(load(classLoader, type.getName()));
+            }
+        };
+
+    /** Private constructor to prevent instantiation of utility class. */
+    private GeneratedSchemas()
+    {
+    }
+
+    /**
+     * Provides the json-schema generated at compile time for a class, if there is one.
+     *
+     * @param  clazz The class to get the generated json-schema for.
+     *
+     * @return A copy of the generated json-schema for the class, or <tt>null</tt> if none was generated for it.
+     */
+    public static JsonSchema getJsonSchema(Class<?> clazz)
+    {
+        JsonSchema schema = SCHEMAS.get(clazz).orElse(null);
+
+        return (schema != null) ? schema.copy() : null;
+    }
+
+    /**
+     * Lists the names of all classes that schemas were generated for, across all index resources visible to a class
+     * loader.
+     *
+     * @param  classLoader The class loader to look up the index resources with.
+     *
+     * @return The fully qualified names of all classes that schemas were generated for.
+     */
+    public static Set<String> getIndexedClassNames(ClassLoader classLoader)
+    {
+        Set<String> classNames = new LinkedHashSet<>();
+
+        try
+        {
+            Enumeration<URL> indexes = classLoader.getResources(INDEX_RESOURCE);
+
+            while (indexes.hasMoreElements())
+            {
+                URL index = indexes.nextElement();
+
+                try (BufferedReader reader =
+                        new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8)))
+                {
+                    for (String line = reader.readLine(); line != null; line = reader.readLine())
+                    {
+                        line = line.trim();
+
+                        if (!line.isEmpty())
+                        {
+                            classNames.add(line);
+                        }
+                    }
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new ValidationException("Failed to read the generated schema index.", e);
+        }
+
+        return classNames;
+    }
+
+    /**
+     * Loads all of the generated schemas listed in the index resources visible to a class loader.
+     *
+     * @param  classLoader The class loader to look up the schema resources with.
+     *
+     * @return The generated schemas, keyed by the fully qualified names of the classes they describe.
+     */
+    public static Map<String, JsonSchema> loadAll(ClassLoader classLoader)
+    {
+        Map<String, JsonSchema> schemas = new LinkedHashMap<>();
+
+        for (String className : getIndexedClassNames(classLoader))
+        {
+            JsonSchema schema = load(classLoader, className);
+
+            if (schema != null)
+            {
+                schemas.put(className, schema);
+            }
+        }
+
+        return schemas;
+    }
+
+    /**
+     * Provides the name of the resource that the generated schema for a class is held in.
+     *
+     * @param  className The fully qualified name of the class.
+     *
+     * @return The name of the resource holding the generated schema for the class.
+     */
+    public static String resourceName(String className)
+    {
+        return SCHEMA_PATH + className + SCHEMA_SUFFIX;
+    }
+
+    /**
+     * Reads the generated schema for a class from its resource.
+     *
+     * @param  classLoader The class loader to look up the resource with.
+     * @param  className   The fully qualified name of the class.
+     *
+     * @return The generated schema, or <tt>null</tt> if there is no resource for it.
+     */
+    private static JsonSchema load(ClassLoader classLoader, String className)
+    {
+        try (InputStream in = classLoader.getResourceAsStream(resourceName(className)))
+        {
+            if (in == null)
+            {
+                return null;
+            }
+
+            return SERDES.read(in);
+        }
+        catch (IOException e)
+        {
+            throw new ValidationException("Failed to read the generated schema for: " + className, e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.validation.groups.Default;
+
+/**
+ * GroupInterfaceLoader synthesizes empty marker interfaces at runtime, for use as bean validation groups. Each
+ * generated interface extends {@link Default}, so that validating against it also applies the constraints in the
+ * default group, that is, those defined by annotations.
+ *
+ * <p/>The class files are written out directly, as an empty interface needs only a handful of constant pool entries.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Define new validation group interfaces at runtime. </td></tr>
+ * </table></pre>
+ */
+class GroupInterfaceLoader extends ClassLoader
+{
+    /** The package that generated group interfaces are placed in. */
+    private static final String GROUP_PACKAGE = "com.thesett.util.validation.groups";
+
+    /** Used to give every generated group a unique name. */
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    /** Class file access flags for a public interface. */
+    private static final int ACC_PUBLIC_INTERFACE = 0x0601;
+
+    /** Creates a loader for group interfaces, that can see the bean validation API. */
+    GroupInterfaceLoader()
+    {
+        super(Default.class.getClassLoader());
+    }
+
+    /**
+     * Defines a new group interface.
+     *
+     * @return A new group interface, extending {@link Default}.
+     */
+    public Class<?> defineGroup()
+    {
+        String className = GROUP_PACKAGE + ".SchemaGroup" + SEQUENCE.incrementAndGet();
+        byte[] classFile = interfaceClassFile(className.replace('.', '/'));
+
+        return defineClass(className, classFile, 0, classFile.length);
+    }
+
+    /**
+     * Writes out the class file for an empty interface extending {@link Default}.
+     *
+     * @param  internalName The internal (slash separated) name of the interface.
+     *
+     * @return The class file bytes.
+     */
+    private static byte[] interfaceClassFile(String internalName)
+    {
+        try
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            // Header: magic number and the Java 6 class file version, which needs no stack map frames.
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(50);
+
+            // Constant pool: this class, the super class and the Default super interface, with their names.
+            out.writeShort(7);
+            out.writeByte(7);
+            out.writeShort(2);
+            out.writeByte(1);
+            out.writeUTF(internalName);
+            out.writeByte(7);
+            out.writeShort(4);
+            out.writeByte(1);
+            out.writeUTF("java/lang/Object");
+            out.writeByte(7);
+            out.writeShort(6);
+            out.writeByte(1);
+            out.writeUTF(Default.class.getName().replace('.', '/'));
+
+            // Access flags, this class, super class, and the single super interface.
+            out.writeShort(ACC_PUBLIC_INTERFACE);
+            out.writeShort(1);
+            out.writeShort(3);
+            out.writeShort(1);
+            out.writeShort(5);
+
+            // No fields, methods or attributes.
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(0);
+
+            out.flush();
+
+            return bytes.toByteArray();
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Writing to memory should not fail.", e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import org.hibernate.validator.cfg.ConstraintDef;
+
+/**
+ * ItemsDef is the constraint definition for the simple keywords of the json-schema 'items' field.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Define an {@link Items} constraint programmatically. </td></tr>
+ * </table></pre>
+ */
+public class ItemsDef extends ConstraintDef<ItemsDef, Items>
+{
+    public ItemsDef()
+    {
+        super(Items.class);
+    }
+
+    public ItemsDef schema(String schema)
+    {
+        addParameter("schema", schema);
+
+        return this;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.io.IOException;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.ValidationException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.model.JsonSchema;
+
+/**
+ * ItemsValidator checks each item of a collection or array against the simple keywords of the json-schema 'items'.
+ * The item schemas are compiled once, when the validator is initialized, and each failing item is reported as its own
+ * violation, on the indexed path to the item, such as <tt>codes[3]</tt>.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Compile the item schemas. </td><td> {@link CompiledSchema} </td></tr>
+ * <tr><td> Check the items of a collection or array against them. </td><td> {@link SchemaCheck} </td></tr>
+ * </table></pre>
+ */
+public class ItemsValidator implements ConstraintValidator<Items, Object>
+{
+    /** Used to read the item schemas. */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** The compiled schema, holding the compiled item schemas. */
+    private CompiledSchema compiled;
+
+    /** {@inheritDoc} */
+    public void initialize(Items constraintAnnotation)
+    {
+        try
+        {
+            // The item schemas are read as the 'items' keyword, which tells a single item schema from a tuple.
+            JsonSchema schema = MAPPER.readValue("{\"items\":" + constraintAnnotation.schema() + '}', JsonSchema.class);
+
+            compiled = CompiledSchema.compile(schema, null);
+        }
+        catch (IOException e)
+        {
+            throw new ValidationException("Unable to read the item schemas: " + constraintAnnotation.schema(), e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public boolean isValid(Object value, ConstraintValidatorContext context)
+    {
+        Iterable<?> items = ArrayItems.of(value);
+
+        if (items == null)
+        {
+            return true;
+        }
+
+        boolean valid = true;
+        int index = 0;
+
+        for (Object item : items)
+        {
+            CompiledSchema itemSchema = compiled.getItem(index);
+
+            if ((item != null) && (itemSchema != null))
+            {
+                for (SchemaCheck check : itemSchema.getChecks())
+                {
+                    if (!check.isValid(item))
+                    {
+                        if (valid)
+                        {
+                            context.disableDefaultConstraintViolation();
+                            valid = false;
+                        }
+
+                        context.buildConstraintViolationWithTemplate(escape(check.getMessage())).addBeanNode()
+                            .inIterable().atIndex(index).addConstraintViolation();
+                    }
+                }
+            }
+
+            index++;
+        }
+
+        return valid;
+    }
+
+    /**
+     * Escapes a message, so that it is not interpolated when used as a message template.
+     *
+     * @param  message The message to escape.
+     *
+     * @return The message as a template.
+     */
+    static String escape(String message)
+    {
+        StringBuilder template = new StringBuilder(message.length() + 8);
+
+        for (int i = 0; i < message.length(); i++)
+        {
+            char c = message.charAt(i);
+
+            if ((c == '{') || (c == '}') || (c == '$') || (c == '\\'))
+            {
+                template.append('\\');
+            }
+
+            template.append(c);
+        }
+
+        return template.toString();
+    }
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JsonPointerIndex maps json pointers into the values a schema describes, such as <tt>/address/postcode</tt>, onto the
+ * compiled schema nodes for those values, so that a single value can be validated without the object holding it.
+ *
+ * <p/>The pointers to every property reachable from the root, and to the positions of tuple items, are indexed once,
+ * when the index is built, so looking them up is a single hash lookup. Pointers to items of arrays with one schema for
+ * all items, and pointers that recurse through '$ref' beyond the first time round, are resolved by walking the
+ * compiled schema one step at a time instead.
+ *
+ * <p/>Each entry knows the path to its value, by json names, and can translate that path into the Java names of the
+ * fields of a bean class, as bean validation reports them.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Index the compiled schema nodes by json pointer. </td><td> {@link CompiledSchema} </td></tr>
+ * <tr><td> Translate pointers into bean property paths. </td><td> {@link BeanProperties} </td></tr>
+ * </table></pre>
+ */
+final class JsonPointerIndex
+{
+    /** The greatest number of pointers to index up front; any beyond are resolved by walking the schema. */
+    private static final int MAX_ENTRIES = 100000;
+
+    /** The compiled schema that pointers are resolved against. */
+    private final CompiledSchema root;
+
+    /** Holds the entries indexed up front, by pointer. */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Builds the index of a compiled schema.
+     *
+     * @param root The compiled schema to index.
+     */
+    JsonPointerIndex(CompiledSchema root)
+    {
+        this.root = root;
+        index(root, "", new Entry(root, false, new String[0], new int[0]),
+            new IdentityHashMap<CompiledSchema, Object>());
+    }
+
+    /**
+     * Finds the entry for a json pointer.
+     *
+     * @param  pointer The json pointer, such as <tt>/lines/0/quantity</tt>, or the empty string for the root.
+     *
+     * @return The entry for the pointer, or <tt>null</tt> if the schema does not describe the value it points to.
+     */
+    Entry find(String pointer)
+    {
+        Entry entry = entries.get(pointer);
+
+        return (entry != null) ? entry : walk(pointer);
+    }
+
+    /**
+     * Indexes the entry for a schema node, and those of the properties and tuple items beneath it. Nodes already on
+     * the path from the root are not descended into again, so recursive schemas are indexed to a finite depth.
+     *
+     * @param node    The compiled schema node.
+     * @param pointer The json pointer to the node.
+     * @param entry   The entry for the node.
+     * @param onPath  The nodes on the path from the root to this node.
+     */
+    private void index(CompiledSchema node, String pointer, Entry entry, Map<CompiledSchema, Object> onPath)
+    {
+        if (entries.size() >= MAX_ENTRIES)
+        {
+            return;
+        }
+
+        entries.put(pointer, entry);
+
+        if (onPath.put(node, Boolean.TRUE) != null)
+        {
+            return;
+        }
+
+        for (Map.Entry<String, CompiledSchema> property : node.getProperties().entrySet())
+        {
+            String name = property.getKey();
+            CompiledSchema child = property.getValue();
+            index(child, pointer + '/' + escape(name), entry.child(child, name, node), onPath);
+        }
+
+        for (int i = 0; i < node.getItemCount(); i++)
+        {
+            index(node.getItem(i), pointer + '/' + i, entry.item(node.getItem(i), i), onPath);
+        }
+
+        onPath.remove(node);
+    }
+
+    /**
+     * Resolves a json pointer by walking the compiled schema one step at a time.
+     *
+     * @param  pointer The json pointer.
+     *
+     * @return The entry for the pointer, or <tt>null</tt> if it is not well formed, or the schema does not describe the
+     *         value it points to.
+     */
+    private Entry walk(String pointer)
+    {
+        if (!pointer.startsWith("/"))
+        {
+            return null;
+        }
+
+        Entry entry = entries.get("");
+
+        for (String token : pointer.substring(1).split("/", -1))
+        {
+            String name = unescape(token);
+            CompiledSchema node = entry.node;
+            CompiledSchema child = node.getProperties().get(name);
+
+            if (child != null)
+            {
+                entry = entry.child(child, name, node);
+            }
+            else if (node.hasItemConstraints() && isIndex(name) && (node.getItem(Integer.parseInt(name)) != null))
+            {
+                int index = Integer.parseInt(name);
+                entry = entry.item(node.getItem(index), index);
+            }
+            else
+            {
+                return null;
+            }
+        }
+
+        return entry;
+    }
+
+    /**
+     * Escapes a property name for use in a json pointer.
+     *
+     * @param  name The property name.
+     *
+     * @return The escaped name, with '~' written as '~0' and '/' as '~1'.
+     */
+    private static String escape(String name)
+    {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+
+    /**
+     * Unescapes a reference token of a json pointer into a property name.
+     *
+     * @param  token The reference token.
+     *
+     * @return The property name.
+     */
+    private static String unescape(String token)
+    {
+        return token.replace("~1", "/").replace("~0", "~");
+    }
+
+    /**
+     * Checks if a reference token of a json pointer is an array index.
+     *
+     * @param  token The reference token.
+     *
+     * @return <tt>true</tt> iff the token is a non-negative integer without leading zeros, in the range of an int.
+     */
+    private static boolean isIndex(String token)
+    {
+        if (token.isEmpty() || (token.length() > 9) || ((token.length() > 1) && (token.charAt(0) == '0')))
+        {
+            return false;
+        }
+
+        for (int i = 0; i < token.length(); i++)
+        {
+            if ((token.charAt(i) < '0') || (token.charAt(i) > '9'))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Entry is the compiled schema node for a json pointer, along with the path to it.
+     */
+    static final class Entry
+    {
+        /** The compiled schema node for the value. */
+        private final CompiledSchema node;
+
+        /** <tt>true</tt> iff the value is a property that its object must have. */
+        private final boolean required;
+
+        /** The json names of the properties on the path, with <tt>null</tt> for array items. */
+        private final String[] names;
+
+        /** The positions of the array items on the path. */
+        private final int[] indexes;
+
+        /** Caches the path by Java names, for each bean class it has been asked for. */
+        private final ConcurrentMap<Class<?>, String[]> javaNames = new ConcurrentHashMap<>();
+
+        /**
+         * Creates an entry.
+         *
+         * @param node     The compiled schema node for the value.
+         * @param required <tt>true</tt> iff the value is a property that its object must have.
+         * @param names    The json names of the properties on the path, with <tt>null</tt> for array items.
+         * @param indexes  The positions of the array items on the path.
+         */
+        Entry(CompiledSchema node, boolean required, String[] names, int[] indexes)
+        {
+            this.node = node;
+            this.required = required;
+            this.names = names;
+            this.indexes = indexes;
+        }
+
+        /**
+         * Provides the compiled schema node for the value.
+         *
+         * @return The compiled schema node for the value.
+         */
+        CompiledSchema getNode()
+        {
+            return node;
+        }
+
+        /**
+         * Checks if the value is a property that its object must have.
+         *
+         * @return <tt>true</tt> iff the value is a property that its object must have.
+         */
+        boolean isRequired()
+        {
+            return required;
+        }
+
+        /**
+         * Provides the number of steps in the path to the value.
+         *
+         * @return The number of steps in the path to the value.
+         */
+        int getDepth()
+        {
+            return names.length;
+        }
+
+        /**
+         * Provides the position of the array item at a step of the path.
+         *
+         * @param  step The step.
+         *
+         * @return The position of the array item, or -1 if the step is to a property.
+         */
+        int getIndex(int step)
+        {
+            return (names[step] == null) ? indexes[step] : -1;
+        }
+
+        /**
+         * Provides the names of the properties on the path, as a bean class names them. Properties of classes that do
+         * not have them keep their json names.
+         *
+         * @param  beanType The bean class, or <tt>null</tt> to use the json names.
+         *
+         * @return The names of the properties on the path, with <tt>null</tt> for array items.
+         */
+        String[] getNames(Class<?> beanType)
+        {
+            if (beanType == null)
+            {
+                return names;
+            }
+
+            String[] result = javaNames.get(beanType);
+
+            if (result == null)
+            {
+                result = toJavaNames(beanType);
+                javaNames.putIfAbsent(beanType, result);
+            }
+
+            return result;
+        }
+
+        /**
+         * Creates the entry for a property of the value.
+         *
+         * @param  child  The compiled schema node of the property.
+         * @param  name   The json name of the property.
+         * @param  parent The compiled schema node of the value.
+         *
+         * @return The entry for the property.
+         */
+        Entry child(CompiledSchema child, String name, CompiledSchema parent)
+        {
+            String[] childNames = Arrays.copyOf(names, names.length + 1);
+            childNames[names.length] = name;
+
+            return new Entry(child, parent.getRequired().contains(name), childNames,
+                    Arrays.copyOf(indexes, indexes.length + 1));
+        }
+
+        /**
+         * Creates the entry for an item of the value.
+         *
+         * @param  item  The compiled schema node of the item.
+         * @param  index The position of the item.
+         *
+         * @return The entry for the item.
+         */
+        Entry item(CompiledSchema item, int index)
+        {
+            int[] itemIndexes = Arrays.copyOf(indexes, indexes.length + 1);
+            itemIndexes[indexes.length] = index;
+
+            return new Entry(item, false, Arrays.copyOf(names, names.length + 1), itemIndexes);
+        }
+
+        /**
+         * Translates the path into the Java names of the fields of a bean class, following the types of the fields
+         * and the element types of arrays and collections.
+         *
+         * @param  beanType The bean class.
+         *
+         * @return The names of the properties on the path, with <tt>null</tt> for array items.
+         */
+        private String[] toJavaNames(Class<?> beanType)
+        {
+            String[] result = new String[names.length];
+            Type type = beanType;
+
+            for (int i = 0; i < names.length; i++)
+            {
+                if (names[i] == null)
+                {
+                    type = elementType(type);
+
+                    continue;
+                }
+
+                Field field = (type instanceof Class) ? BeanProperties.getField((Class<?>) type, names[i]) : null;
+                result[i] = (field != null) ? field.getName() : names[i];
+                type = (field != null) ? field.getGenericType() : null;
+            }
+
+            return result;
+        }
+
+        /**
+         * Works out the type of the elements of an array or collection type.
+         *
+         * @param  type The array or collection type.
+         *
+         * @return The type of the elements, or <tt>null</tt> if it is not known.
+         */
+        private static Type elementType(Type type)
+        {
+            if ((type instanceof Class) && ((Class<?>) type).isArray())
+            {
+                return ((Class<?>) type).getComponentType();
+            }
+            else if ((type instanceof ParameterizedType) &&
+                    (((ParameterizedType) type).getRawType() instanceof Class) &&
+                    Collection.class.isAssignableFrom((Class<?>) ((ParameterizedType) type).getRawType()))
+            {
+                Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+
+                return (arguments.length == 1) ? arguments[0] : null;
+            }
+
+            return null;
+        }
+    }
+}
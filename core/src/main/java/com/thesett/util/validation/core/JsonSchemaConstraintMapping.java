@@ -0,0 +1,676 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.lang.annotation.ElementType;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ValidationException;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.model.SchemaDefinitions;
+import com.thesett.util.validation.model.SchemaType;
+
+import org.hibernate.validator.cfg.ConstraintDef;
+import org.hibernate.validator.cfg.context.PropertyConstraintMappingContext;
+import org.hibernate.validator.cfg.context.TypeConstraintMappingContext;
+import org.hibernate.validator.cfg.defs.DecimalMaxDef;
+import org.hibernate.validator.cfg.defs.DecimalMinDef;
+import org.hibernate.validator.cfg.defs.LengthDef;
+import org.hibernate.validator.cfg.defs.NotNullDef;
+import org.hibernate.validator.cfg.defs.PatternDef;
+import org.hibernate.validator.cfg.defs.SizeDef;
+import org.hibernate.validator.internal.cfg.DefaultConstraintMapping;
+
+/**
+ * JsonSchemaConstraintMapping translates a {@link JsonSchema} into a
+ * {@link org.hibernate.validator.cfg.ConstraintMapping}. This is accomplished by creating equivalent validation
+ * constraints that match those defined in the schema, and setting those up against the specified class.
+ *
+ * <p/>Hibernate only permits each class, and each property of a class, to be configured once within a mapping. The
+ * contexts for these are therefore held onto, so that several schemas can be added to the same class. When a schema is
+ * added under a validation group, its constraints are confined to that group.
+ *
+ * <p/>The same class is often reached through several properties, or added with the same schema more than once. Each
+ * schema is fingerprinted by its canonical json, and a schema already added to a class under the same group is skipped.
+ * Each constraint added to a property is also recorded, so that differing schemas that repeat a constraint on the same
+ * property only add it once. The number of constraints evaluated on each validation therefore does not grow with how
+ * often a class is reused.
+ *
+ * <p/>The 'title' and 'description' keywords only document properties, so they are not mapped onto constraints, which
+ * Hibernate would walk on every validation. They are held in the {@link SchemaMetadata} of the mapping instead.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Map a json schema into bean validation constraints. </td></tr>
+ * </table></pre>
+ */
+class JsonSchemaConstraintMapping extends DefaultConstraintMapping
+{
+    /** Used to render schemas into canonical json to fingerprint them, with properties sorted by name. */
+    private static final ObjectMapper FINGERPRINT_MAPPER =
+        new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    /** Holds the titles and descriptions of properties, which are not mapped onto constraints. */
+    private final SchemaMetadata metadata = new SchemaMetadata();
+
+    /** Holds the type contexts created so far, by the class they configure. */
+    private final Map<Class<?>, TypeConstraintMappingContext<?>> typeContexts = new HashMap<>();
+
+    /** Holds the property contexts created so far, by the class and then the name of the property they configure. */
+    private final Map<Class<?>, Map<String, PropertyConstraintMappingContext>> propertyContexts = new HashMap<>();
+
+    /** Holds the class, group and fingerprint of each schema added so far. */
+    private final Set<String> addedSchemas = new HashSet<>();
+
+    /** Holds the keys of the constraints added so far, by the property context they were added to. */
+    private final Map<PropertyConstraintMappingContext, Set<String>> addedConstraints = new IdentityHashMap<>();
+
+    /**
+     * Adds constraints in a json schema to the mapping, against the specified class.
+     *
+     * @param type       The class to add constraints to.
+     * @param jsonSchema The json schema to add constraints from.
+     * @param <C>        The type of the class to add constraints to.
+     */
+    public <C> void addSchema(Class<C> type, JsonSchema jsonSchema)
+    {
+        addSchema(type, jsonSchema, null);
+    }
+
+    /**
+     * Adds constraints in a json schema to the mapping, against the specified class, under a validation group.
+     *
+     * @param type       The class to add constraints to.
+     * @param jsonSchema The json schema to add constraints from.
+     * @param group      The validation group to place the constraints in, or <tt>null</tt> for the default group.
+     * @param <C>        The type of the class to add constraints to.
+     */
+    public <C> void addSchema(Class<C> type, JsonSchema jsonSchema, Class<?> group)
+    {
+        addSchema(type, jsonSchema, group, jsonSchema);
+    }
+
+    /**
+     * Provides the titles and descriptions of the properties in the schemas added so far.
+     *
+     * @return The titles and descriptions of the properties in the schemas added so far.
+     */
+    SchemaMetadata getMetadata()
+    {
+        return metadata;
+    }
+
+    /**
+     * Adds constraints in a json schema to the mapping, against the specified class, under a validation group. The
+     * schema is skipped if it has already been added to the class under the same group. References within the schema
+     * are resolved against the root schema.
+     *
+     * @param type       The class to add constraints to.
+     * @param jsonSchema The json schema to add constraints from.
+     * @param group      The validation group to place the constraints in, or <tt>null</tt> for the default group.
+     * @param rootSchema The root schema that references are resolved against.
+     * @param <C>        The type of the class to add constraints to.
+     */
+    private <C> void addSchema(Class<C> type, JsonSchema jsonSchema, Class<?> group, JsonSchema rootSchema)
+    {
+        if (!addedSchemas.add(type.getName() + '|' + groupName(group) + '|' + fingerprint(jsonSchema)))
+        {
+            return;
+        }
+
+        TypeConstraintMappingContext<C> typeContext = typeContext(type);
+
+        // Scan all of the fields of the class being added to, to check if there are any @JsonProperty mappings,
+        // translating field names between Java and JSON.
+        Map<String, String> jsonToJava = new HashMap<>();
+
+        for (Field field : type.getDeclaredFields())
+        {
+            JsonProperty annotation = field.getAnnotation(JsonProperty.class);
+
+            if (annotation != null)
+            {
+                jsonToJava.put(annotation.value(), field.getName());
+            }
+        }
+
+        if (jsonSchema.getProperties() != null)
+        {
+            for (Map.Entry<String, JsonSchema> property : jsonSchema.getProperties().entrySet())
+            {
+                String jsonPropertyName = property.getKey();
+                String javaPropertyName;
+
+                if (jsonToJava.containsKey(jsonPropertyName))
+                {
+                    javaPropertyName = jsonToJava.get(jsonPropertyName);
+                }
+                else
+                {
+                    javaPropertyName = jsonPropertyName;
+                }
+
+                PropertyConstraintMappingContext propertyContext =
+                    propertyContext(type, typeContext, javaPropertyName);
+
+                addConstraints(propertyContext, javaPropertyName, jsonPropertyName, property.getValue(), type, group,
+                    rootSchema);
+
+                convertRequired(propertyContext, javaPropertyName, jsonPropertyName, jsonSchema, group);
+            }
+        }
+    }
+
+    /**
+     * Provides the context to configure a class with, creating it the first time the class is configured.
+     *
+     * @param  type The class to configure.
+     * @param  <C>  The type of the class to configure.
+     *
+     * @return The context to configure the class with.
+     */
+    @SuppressWarnings("unchecked")
+    private <C> TypeConstraintMappingContext<C> typeContext(Class<C> type)
+    {
+        TypeConstraintMappingContext<C> typeContext = (TypeConstraintMappingContext<C>) typeContexts.get(type);
+
+        if (typeContext == null)
+        {
+            typeContext = type(type);
+            typeContexts.put(type, typeContext);
+        }
+
+        return typeContext;
+    }
+
+    /**
+     * Provides the context to configure a property with, creating it the first time the property is configured.
+     *
+     * @param  type             The class holding the property.
+     * @param  typeContext      The context to configure the class with.
+     * @param  javaPropertyName The name of the property.
+     *
+     * @return The context to configure the property with.
+     */
+    private PropertyConstraintMappingContext propertyContext(Class<?> type, TypeConstraintMappingContext<?> typeContext,
+        String javaPropertyName)
+    {
+        Map<String, PropertyConstraintMappingContext> properties = propertyContexts.get(type);
+
+        if (properties == null)
+        {
+            properties = new HashMap<>();
+            propertyContexts.put(type, properties);
+        }
+
+        PropertyConstraintMappingContext propertyContext = properties.get(javaPropertyName);
+
+        if (propertyContext == null)
+        {
+            propertyContext = typeContext.property(javaPropertyName, ElementType.FIELD);
+            properties.put(javaPropertyName, propertyContext);
+        }
+
+        return propertyContext;
+    }
+
+    /**
+     * Renders a schema into canonical json, so that equal schemas have equal fingerprints.
+     *
+     * @param  jsonSchema The schema to fingerprint.
+     *
+     * @return The fingerprint of the schema.
+     */
+    private static String fingerprint(Object jsonSchema)
+    {
+        try
+        {
+            return FINGERPRINT_MAPPER.writeValueAsString(jsonSchema);
+        }
+        catch (JsonProcessingException e)
+        {
+            throw new ValidationException("Unable to fingerprint json schema.", e);
+        }
+    }
+
+    /**
+     * Provides the name of a validation group, for use in keys.
+     *
+     * @param  group The validation group, or <tt>null</tt> for the default group.
+     *
+     * @return The name of the validation group.
+     */
+    private static String groupName(Class<?> group)
+    {
+        return (group == null) ? "" : group.getName();
+    }
+
+    /**
+     * Adds a constraint to a property, confining it to a validation group if one is given. The constraint is skipped if
+     * an equal one has already been added to the property under the same group.
+     *
+     * @param propertyContext The context of the property to add the constraint to.
+     * @param key             The json-schema keyword and value that the constraint is made from.
+     * @param constraintDef   The constraint to add.
+     * @param group           The validation group to place the constraint in, or <tt>null</tt> for the default group.
+     */
+    private void constrain(PropertyConstraintMappingContext propertyContext, String key,
+        ConstraintDef<?, ?> constraintDef, Class<?> group)
+    {
+        Set<String> keys = addedConstraints.get(propertyContext);
+
+        if (keys == null)
+        {
+            keys = new HashSet<>();
+            addedConstraints.put(propertyContext, keys);
+        }
+
+        if (!keys.add(key + '|' + groupName(group)))
+        {
+            return;
+        }
+
+        if (group != null)
+        {
+            constraintDef.groups(group);
+        }
+
+        propertyContext.constraint(constraintDef);
+    }
+
+    /**
+     * Creates constraints against a field, matching those found in a json schema.
+     *
+     * @param propertyContext  The context of the field to create constraints for.
+     * @param javaPropertyName The name of the property that constraints are being added to.
+     * @param jsonPropertyName The name of the property in the json-schema.
+     * @param value            The json schema definition for the field, to take additional constraints from.
+     * @param type             The type of the class that property constraints are being added to.
+     * @param group            The validation group to place the constraints in, or <tt>null</tt> for the default
+     *                         group.
+     * @param rootSchema       The root schema that references are resolved against.
+     */
+    private void addConstraints(PropertyConstraintMappingContext propertyContext, String javaPropertyName,
+        String jsonPropertyName, JsonSchema value, Class type, Class<?> group, JsonSchema rootSchema)
+    {
+        convertMinimum(propertyContext, value, group);
+        convertMaximum(propertyContext, value, group);
+        convertMaxLength(propertyContext, value, group);
+        convertMinLength(propertyContext, value, group);
+        convertPattern(propertyContext, value, group);
+        metadata.add(type, javaPropertyName, group, value.getTitle(), value.getDescription());
+        convertEnums(propertyContext, value, group);
+        convertMinItems(propertyContext, value, group);
+        convertMaxItems(propertyContext, value, group);
+        convertUniqueItems(propertyContext, value, group);
+        convertItems(propertyContext, javaPropertyName, value, type, group, rootSchema);
+
+        // References are only ever made to object schemas, and are cascaded into in the same way. Recursive references
+        // come back to a schema that has already been added, and so are skipped.
+        JsonSchema objectSchema = SchemaDefinitions.resolve(rootSchema, value);
+
+        if (SchemaType.OBJECT.equals(objectSchema.getType()))
+        {
+            Class<?> fieldClass = declaredField(type, javaPropertyName).getType();
+
+            // Maps hold their properties as entries, rather than as fields to cascade into, so their keys and entries
+            // are constrained directly.
+            if (Map.class.isAssignableFrom(fieldClass))
+            {
+                convertAdditionalProperties(propertyContext, objectSchema, group);
+                convertEntries(propertyContext, objectSchema, group, rootSchema);
+
+                return;
+            }
+
+            propertyContext.valid();
+
+            addSchema(fieldClass, objectSchema, group, rootSchema);
+        }
+    }
+
+    /**
+     * Creates constraints against the items of a collection or array field, matching the 'items' of a json schema.
+     * Object item schemas are cascaded into, as for object fields, against the item class of the field. The simple
+     * keywords of item schemas are held in an {@link Items} constraint, which checks each item against them.
+     *
+     * @param propertyContext  The context of the field to create constraints for.
+     * @param javaPropertyName The name of the property that constraints are being added to.
+     * @param value            The json schema definition for the field.
+     * @param type             The type of the class that property constraints are being added to.
+     * @param group            The validation group to place the constraints in, or <tt>null</tt> for the default
+     *                         group.
+     * @param rootSchema       The root schema that references are resolved against.
+     */
+    private void convertItems(PropertyConstraintMappingContext propertyContext, String javaPropertyName,
+        JsonSchema value, Class<?> type, Class<?> group, JsonSchema rootSchema)
+    {
+        Object simpleItems = null;
+
+        if (value.getItemSchema() != null)
+        {
+            simpleItems =
+                convertItem(propertyContext, javaPropertyName, value.getItemSchema(), type, group, rootSchema);
+        }
+        else if (value.getItems() != null)
+        {
+            List<JsonSchema> tuple = new ArrayList<>();
+            boolean hasSimpleKeywords = false;
+
+            for (JsonSchema item : value.getItems())
+            {
+                JsonSchema simpleItem = convertItem(propertyContext, javaPropertyName, item, type, group, rootSchema);
+
+                hasSimpleKeywords |= (simpleItem != null);
+                tuple.add((simpleItem != null) ? simpleItem : new JsonSchema());
+            }
+
+            simpleItems = hasSimpleKeywords ? tuple : null;
+        }
+
+        if (simpleItems != null)
+        {
+            String items = fingerprint(simpleItems);
+
+            constrain(propertyContext, "items=" + items, new ItemsDef().schema(items), group);
+        }
+    }
+
+    /**
+     * Cascades into an object item schema, against the item class of a collection or array field, and picks out the
+     * simple keywords of the item schema for an {@link Items} constraint.
+     *
+     * @param  propertyContext  The context of the field to create constraints for.
+     * @param  javaPropertyName The name of the property that constraints are being added to.
+     * @param  item             The item schema.
+     * @param  type             The type of the class that property constraints are being added to.
+     * @param  group            The validation group to place the constraints in, or <tt>null</tt> for the default
+     *                          group.
+     * @param  rootSchema       The root schema that references are resolved against.
+     *
+     * @return A schema with just the simple keywords of the item schema, or <tt>null</tt> if there are none.
+     */
+    private JsonSchema convertItem(PropertyConstraintMappingContext propertyContext, String javaPropertyName,
+        JsonSchema item, Class<?> type, Class<?> group, JsonSchema rootSchema)
+    {
+        JsonSchema itemSchema = SchemaDefinitions.resolve(rootSchema, item);
+
+        if (SchemaType.OBJECT.equals(itemSchema.getType()))
+        {
+            propertyContext.valid();
+
+            addSchema(itemClass(declaredField(type, javaPropertyName)), itemSchema, group, rootSchema);
+        }
+
+        return simpleKeywords(itemSchema);
+    }
+
+    /**
+     * Copies the simple keywords of a schema, that apply directly to a value rather than to its properties or items.
+     *
+     * @param  schema The schema to copy from.
+     *
+     * @return A schema with just the simple keywords, or <tt>null</tt> if there are none.
+     */
+    private static JsonSchema simpleKeywords(JsonSchema schema)
+    {
+        if ((schema.getMinimum() == null) && (schema.getMaximum() == null) && (schema.getMinLength() == null) &&
+                (schema.getMaxLength() == null) && (schema.getPattern() == null) && (schema.getEnums() == null))
+        {
+            return null;
+        }
+
+        return new JsonSchema().withMinimum(schema.getMinimum()).withExclusiveMinimum(schema.getExclusiveMinimum())
+            .withMaximum(schema.getMaximum()).withExclusiveMaximum(schema.getExclusiveMaximum())
+            .withMinLength(schema.getMinLength()).withMaxLength(schema.getMaxLength()).withPattern(schema.getPattern())
+            .withEnums(schema.getEnums());
+    }
+
+    /**
+     * Finds a field declared on a class.
+     *
+     * @param  type      The class to find the field on.
+     * @param  fieldName The name of the field.
+     *
+     * @return The field.
+     *
+     * @throws ValidationException If the class has no such field.
+     */
+    private static Field declaredField(Class<?> type, String fieldName)
+    {
+        try
+        {
+            return type.getDeclaredField(fieldName);
+        }
+        catch (NoSuchFieldException e)
+        {
+            throw new ValidationException("No matching field found with name: " + fieldName, e);
+        }
+    }
+
+    /**
+     * Finds the class of the items of a collection or array field.
+     *
+     * @param  field The field.
+     *
+     * @return The class of the items of the field.
+     *
+     * @throws ValidationException If the field is not an array, or a collection with a known item class.
+     */
+    private static Class<?> itemClass(Field field)
+    {
+        if (field.getType().isArray())
+        {
+            return field.getType().getComponentType();
+        }
+
+        Type genericType = field.getGenericType();
+
+        if (Collection.class.isAssignableFrom(field.getType()) && (genericType instanceof ParameterizedType))
+        {
+            Type itemType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+
+            if (itemType instanceof Class)
+            {
+                return (Class<?>) itemType;
+            }
+        }
+
+        throw new ValidationException("Unable to determine the item class of field: " + field.getName());
+    }
+
+    private void convertRequired(PropertyConstraintMappingContext propertyContext, String javaPropertyName,
+        String jsonPropertyName, JsonSchema jsonSchema, Class<?> group)
+    {
+        List<String> required = jsonSchema.getRequired();
+
+        if ((required != null) && !required.isEmpty() && required.contains(jsonPropertyName))
+        {
+            constrain(propertyContext, "required", new NotNullDef().message(" is mandatory."), group);
+        }
+    }
+
+    private void convertPattern(PropertyConstraintMappingContext propertyContext, JsonSchema value, Class<?> group)
+    {
+        if (value.getPattern() != null)
+        {
+            constrain(propertyContext, "pattern=" + value.getPattern(), new PatternDef().regexp(value.getPattern()),
+                group);
+        }
+    }
+
+    private void convertMinLength(PropertyConstraintMappingContext propertyContext, JsonSchema value, Class<?> group)
+    {
+        if (value.getMinLength() != null)
+        {
+            constrain(propertyContext, "minLength=" + value.getMinLength(), new LengthDef().min(value.getMinLength()),
+                group);
+        }
+    }
+
+    private void convertMaxLength(PropertyConstraintMappingContext propertyContext, JsonSchema value, Class<?> group)
+    {
+        if (value.getMaxLength() != null)
+        {
+            constrain(propertyContext, "maxLength=" + value.getMaxLength(), new LengthDef().max(value.getMaxLength()),
+                group);
+        }
+    }
+
+    private void convertEnums(PropertyConstraintMappingContext propertyContext, JsonSchema value, Class<?> group)
+    {
+        if (value.getEnums() != null)
+        {
+            List<String> enums = value.getEnums();
+
+            constrain(propertyContext, "enum=" + fingerprint(enums),
+                new AllowedValuesDef().value(enums.toArray(new String[enums.size()])), group);
+        }
+    }
+
+    private void convertAdditionalProperties(PropertyConstraintMappingContext propertyContext, JsonSchema value,
+        Class<?> group)
+    {
+        if (Boolean.FALSE.equals(value.getAdditionalProperties()))
+        {
+            List<String> names =
+                (value.getProperties() != null) ? new ArrayList<>(value.getProperties().keySet())
+                                                : new ArrayList<String>();
+            List<String> patterns =
+                (value.getPatternProperties() != null) ? value.getPatternProperties() : new ArrayList<String>();
+
+            constrain(propertyContext, "additionalProperties=" + fingerprint(Arrays.asList(names, patterns)),
+                new AllowedPropertiesDef().properties(names.toArray(new String[names.size()])).patterns(
+                    patterns.toArray(new String[patterns.size()])), group);
+        }
+    }
+
+    /**
+     * Creates an {@link Entries} constraint against a map field, for the 'properties' and 'required' of its schema.
+     * The entries of a map are only checked against the type and simple keywords of their property schemas, as there
+     * are no fields to cascade into beneath them.
+     *
+     * @param propertyContext The context of the field to create constraints for.
+     * @param value           The json schema definition for the map.
+     * @param group           The validation group to place the constraints in, or <tt>null</tt> for the default
+     *                        group.
+     * @param rootSchema      The root schema that references are resolved against.
+     */
+    private void convertEntries(PropertyConstraintMappingContext propertyContext, JsonSchema value, Class<?> group,
+        JsonSchema rootSchema)
+    {
+        Map<String, JsonSchema> properties = new LinkedHashMap<>();
+
+        if (value.getProperties() != null)
+        {
+            for (Map.Entry<String, JsonSchema> property : value.getProperties().entrySet())
+            {
+                JsonSchema propertySchema = SchemaDefinitions.resolve(rootSchema, property.getValue());
+                JsonSchema simple = simpleKeywords(propertySchema);
+
+                if ((simple != null) || (propertySchema.getType() != null))
+                {
+                    properties.put(property.getKey(),
+                        ((simple != null) ? simple : new JsonSchema()).withType(propertySchema.getType()));
+                }
+            }
+        }
+
+        List<String> required = value.getRequired();
+
+        if (!properties.isEmpty() || ((required != null) && !required.isEmpty()))
+        {
+            String entries = fingerprint(new JsonSchema().withProperties(properties).withRequired(required));
+
+            constrain(propertyContext, "entries=" + entries, new EntriesDef().schema(entries), group);
+        }
+    }
+
+    private void convertMinItems(PropertyConstraintMappingContext propertyContext, JsonSchema value, Class<?> group)
+    {
+        if (value.getMinItems() != null)
+        {
+            constrain(propertyContext, "minItems=" + value.getMinItems(), new SizeDef().min(value.getMinItems()),
+                group);
+        }
+    }
+
+    private void convertMaxItems(PropertyConstraintMappingContext propertyContext, JsonSchema value, Class<?> group)
+    {
+        Integer maxItems = value.getMaxItems();
+
+        // A tuple of item schemas, that does not permit additional items, limits the number of items to its length.
+        if ((maxItems == null) && Boolean.FALSE.equals(value.getAdditionalItems()) && (value.getItems() != null))
+        {
+            maxItems = value.getItems().size();
+        }
+
+        if (maxItems != null)
+        {
+            constrain(propertyContext, "maxItems=" + maxItems, new SizeDef().max(maxItems), group);
+        }
+    }
+
+    private void convertUniqueItems(PropertyConstraintMappingContext propertyContext, JsonSchema value,
+        Class<?> group)
+    {
+        if (CompiledSchema.isUniqueItems(value))
+        {
+            constrain(propertyContext, "uniqueItems", new UniqueItemsDef(), group);
+        }
+    }
+
+    private void convertMaximum(PropertyConstraintMappingContext propertyContext, JsonSchema value, Class<?> group)
+    {
+        if (value.getMaximum() != null)
+        {
+            boolean isInclusive = !Boolean.TRUE.equals(value.getExclusiveMaximum());
+            String key = "maximum=" + value.getMaximum().stripTrailingZeros().toPlainString() + '|' + isInclusive;
+
+            constrain(propertyContext, key,
+                new DecimalMaxDef().value(value.getMaximum().toString()).inclusive(isInclusive), group);
+        }
+    }
+
+    private void convertMinimum(PropertyConstraintMappingContext propertyContext, JsonSchema value, Class<?> group)
+    {
+        if (value.getMinimum() != null)
+        {
+            boolean isInclusive = !Boolean.TRUE.equals(value.getExclusiveMinimum());
+            String key = "minimum=" + value.getMinimum().stripTrailingZeros().toPlainString() + '|' + isInclusive;
+
+            constrain(propertyContext, key,
+                new DecimalMinDef().value(value.getMinimum().toString()).inclusive(isInclusive), group);
+        }
+    }
+}
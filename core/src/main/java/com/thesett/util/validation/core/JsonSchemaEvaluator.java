@@ -0,0 +1,875 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Path;
+
+import com.thesett.util.validation.model.JsonSchema;
+
+import org.hibernate.validator.internal.engine.path.PathImpl;
+
+/**
+ * JsonSchemaEvaluator validates objects directly against a json-schema, without building a Hibernate validator for
+ * it. The schema is compiled once, when the evaluator is created, and the evaluator may then be shared between
+ * threads.
+ *
+ * <p/>The keywords are checked with the same rules as the constraints that {@link JsonSchemaConstraintMapping}
+ * creates, and the violations are reported with the same property paths, so that the outcome matches validating the
+ * schema through a validator from {@link JsonSchemaValidatorFactory}. As with that mapping, the properties of nested
+ * objects are always descended into. An object is not descended into against a schema node while it is already being
+ * descended into against that node further up the path, so cyclic object graphs, and recursive schemas using '$ref',
+ * are safe to evaluate.
+ *
+ * <p/>Untyped payloads, such as the nested <tt>Map</tt>s and <tt>List</tt>s that a json parser produces when not
+ * binding to beans, can be validated in the same way. The properties of a <tt>Map</tt> are read by key, without copying
+ * it, and the items of a <tt>List</tt> are checked against the 'items' schemas. As the values in such payloads are not
+ * typed by Java, the 'type' keyword is also checked against them. Violations are reported with the same property paths
+ * as for beans, with list items indexed as in <tt>lines[0].name</tt>. As with beans, a <tt>null</tt> value is treated
+ * as absent. Where 'additionalProperties' is false, each key of a <tt>Map</tt> that is neither one of the 'properties',
+ * nor matches one of the 'patternProperties', is reported as a violation.
+ *
+ * <p/>A fail-fast evaluator stops at the first violation. Missing required properties are looked for first, as they
+ * are the cheapest to find, and the checks on each node are run in an {@link AdaptiveCheckOrder}. Otherwise checks are
+ * always run in the order the schema declares them, so the violations reported are deterministic.
+ *
+ * <p/>A single value can also be validated on its own, against the schema of the property identified by a json
+ * pointer, as when checking fields as they are entered. The schema nodes are indexed by pointer the first time this is
+ * done, so that finding them takes a single lookup.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Compile a json-schema for evaluation. </td><td> {@link CompiledSchema} </td></tr>
+ * <tr><td> Validate beans against the compiled schema. </td><td> {@link BeanProperties} </td></tr>
+ * <tr><td> Validate untyped maps and lists against the compiled schema. </td></tr>
+ * <tr><td> Validate single values by json pointer. </td><td> {@link JsonPointerIndex} </td></tr>
+ * <tr><td> Record violations compactly in a buffer. </td><td> {@link ViolationBuffer} </td></tr>
+ * </table></pre>
+ */
+public class JsonSchemaEvaluator
+{
+    /** The message used when a required property is missing, matching that of the mapped constraint. */
+    static final String REQUIRED_MESSAGE = " is mandatory.";
+
+    /** The compiled schema to evaluate against. */
+    private final CompiledSchema root;
+
+    /** <tt>true</tt> iff evaluation stops at the first violation. */
+    private final boolean failFast;
+
+    /** The index of the schema nodes by json pointer, built when first needed. */
+    private volatile JsonPointerIndex pointers;
+
+    /** The numbering of property paths and checks, for recording violations in buffers, built when first needed. */
+    private volatile ViolationCatalog catalog;
+
+    /**
+     * Creates an evaluator for a compiled schema.
+     *
+     * @param root     The compiled schema to evaluate against.
+     * @param failFast <tt>true</tt> iff evaluation stops at the first violation.
+     */
+    private JsonSchemaEvaluator(CompiledSchema root, boolean failFast)
+    {
+        this.root = root;
+        this.failFast = failFast;
+    }
+
+    /**
+     * Compiles a json-schema into an evaluator.
+     *
+     * @param  schema The json-schema to compile.
+     *
+     * @return An evaluator for the json-schema.
+     */
+    public static JsonSchemaEvaluator compile(JsonSchema schema)
+    {
+        return compile(schema, null);
+    }
+
+    /**
+     * Compiles a json-schema into an evaluator, that looks up the results of its 'pattern' checks in a cache.
+     *
+     * @param  schema The json-schema to compile.
+     * @param  cache  The cache of match results, which may be shared with other evaluators and validators.
+     *
+     * @return An evaluator for the json-schema.
+     */
+    public static JsonSchemaEvaluator compile(JsonSchema schema, PatternMatchCache cache)
+    {
+        return new JsonSchemaEvaluator(CompiledSchema.compile(schema, cache), false);
+    }
+
+    /**
+     * Compiles a json-schema into an evaluator that stops at the first violation it finds. The checks on each schema
+     * node are run in an order adapted to the values seen, cheapest per failure first, so which of several violations
+     * is found first may vary from one evaluation to the next.
+     *
+     * @param  schema The json-schema to compile.
+     *
+     * @return A fail-fast evaluator for the json-schema.
+     */
+    public static JsonSchemaEvaluator compileFailFast(JsonSchema schema)
+    {
+        return compileFailFast(schema, null);
+    }
+
+    /**
+     * Compiles a json-schema into a fail-fast evaluator, that looks up the results of its 'pattern' checks in a cache.
+     *
+     * @param  schema The json-schema to compile.
+     * @param  cache  The cache of match results, which may be shared with other evaluators and validators.
+     *
+     * @return A fail-fast evaluator for the json-schema.
+     */
+    public static JsonSchemaEvaluator compileFailFast(JsonSchema schema, PatternMatchCache cache)
+    {
+        return new JsonSchemaEvaluator(CompiledSchema.compile(schema, cache), true);
+    }
+
+    /**
+     * Validates an object against the json-schema.
+     *
+     * @param  object The object to validate.
+     * @param  <T>    The type of the object to validate.
+     *
+     * @return The violations found, in the order the schema defines its keywords and properties in, or just the first
+     *         violation found when failing fast.
+     */
+    public <T> Set<ConstraintViolation<T>> validate(T object)
+    {
+        Evaluation<T> evaluation = new Evaluation<>(object, failFast);
+        evaluate(root, object, null, ViolationCatalog.ROOT, isUntyped(object), evaluation);
+
+        return evaluation.violations;
+    }
+
+    /**
+     * Validates an object against the json-schema, recording the violations found in a buffer rather than as
+     * constraint violations. The buffer is cleared first. The same violations are found as by {@link #validate}, in
+     * the same order, but each is only recorded as a few integers, and its path and message are rendered only when
+     * asked for. The ids of the paths are worked out as the object graph is descended, and only the positions of list
+     * items are recorded alongside, so nothing is allocated for the properties and items of a valid payload. This
+     * suits validating many payloads that are likely to be rejected.
+     *
+     * @param  object The object to validate.
+     * @param  buffer The buffer to record the violations in.
+     *
+     * @return <tt>true</tt> iff no violations were found.
+     */
+    public boolean validate(Object object, ViolationBuffer buffer)
+    {
+        ViolationCatalog violationCatalog = catalog;
+
+        if (violationCatalog == null)
+        {
+            violationCatalog = new ViolationCatalog(root);
+            catalog = violationCatalog;
+        }
+
+        buffer.reset(violationCatalog);
+
+        Evaluation<Object> evaluation = new Evaluation<>(object, failFast, buffer, violationCatalog);
+        evaluate(root, object, null, ViolationCatalog.ROOT, isUntyped(object), evaluation);
+
+        return buffer.isEmpty();
+    }
+
+    /**
+     * Validates a single value of an untyped payload against the schema of the property it would be held in, without
+     * the payload itself. The property is identified by a json pointer, such as <tt>/lines/0/quantity</tt>, and the
+     * violations are reported with the same property paths as validating the whole payload would report them with.
+     * As for untyped payloads, the 'type' keyword is checked, and a <tt>null</tt> value is treated as absent, which is
+     * only a violation of a required property.
+     *
+     * @param  pointer The json pointer to the property, or the empty string for the root.
+     * @param  value   The value to validate.
+     *
+     * @return The violations found.
+     *
+     * @throws IllegalArgumentException If the schema does not describe the property the pointer points to.
+     */
+    public Set<ConstraintViolation<Object>> validateValue(String pointer, Object value)
+    {
+        return validateValue(null, pointer, value, true);
+    }
+
+    /**
+     * Validates a single value against the schema of the property of a bean class it would be held in, without the
+     * bean itself. The property is identified by a json pointer, as for {@link #validateValue(String, Object)}, and
+     * the violations are reported with the Java names of the properties, as validating the whole bean would report
+     * them with.
+     *
+     * @param  beanType The class of the root bean.
+     * @param  pointer  The json pointer to the property, or the empty string for the root.
+     * @param  value    The value to validate.
+     * @param  <T>      The type of the root bean.
+     *
+     * @return The violations found.
+     *
+     * @throws IllegalArgumentException If the schema does not describe the property the pointer points to.
+     */
+    public <T> Set<ConstraintViolation<T>> validateValue(Class<T> beanType, String pointer, Object value)
+    {
+        return validateValue(beanType, pointer, value, isUntyped(value));
+    }
+
+    /**
+     * Validates a single value against the schema node a json pointer points to.
+     *
+     * @param  beanType The class of the root bean, or <tt>null</tt> to report the json names of properties.
+     * @param  pointer  The json pointer to the property.
+     * @param  value    The value to validate.
+     * @param  untyped  <tt>true</tt> iff the value is untyped, so its json type is checked.
+     * @param  <T>      The type of the root bean.
+     *
+     * @return The violations found.
+     */
+    private <T> Set<ConstraintViolation<T>> validateValue(Class<?> beanType, String pointer, Object value,
+        boolean untyped)
+    {
+        JsonPointerIndex index = pointers;
+
+        if (index == null)
+        {
+            index = new JsonPointerIndex(root);
+            pointers = index;
+        }
+
+        JsonPointerIndex.Entry entry = index.find(pointer);
+
+        if (entry == null)
+        {
+            throw new IllegalArgumentException("The schema does not describe the property at '" + pointer + "'.");
+        }
+
+        String[] names = entry.getNames(beanType);
+        Evaluation<T> evaluation = new Evaluation<>(null, failFast);
+
+        for (int step = 0; step < entry.getDepth(); step++)
+        {
+            if (names[step] != null)
+            {
+                evaluation.pushProperty(names[step]);
+            }
+            else
+            {
+                evaluation.pushItem(entry.getIndex(step));
+            }
+        }
+
+        if ((value == null) && entry.isRequired())
+        {
+            evaluation.failRequired(null, ViolationCatalog.ROOT);
+        }
+
+        evaluate(entry.getNode(), value, null, ViolationCatalog.ROOT, untyped, evaluation);
+
+        return evaluation.violations;
+    }
+
+    /**
+     * Evaluates a value against a compiled schema node, and the values of its properties or items against their
+     * nodes.
+     *
+     * @param node       The compiled schema node to evaluate against.
+     * @param value      The value to evaluate.
+     * @param leafBean   The object holding the value.
+     * @param pathId     The id of the template of the path to the value, when recording violations in a buffer.
+     * @param untyped    <tt>true</tt> iff the value is held in an untyped map or list, so its json type is checked.
+     * @param evaluation The evaluation in progress.
+     * @param <T>        The type of the root object being validated.
+     */
+    private <T> void evaluate(CompiledSchema node, Object value, Object leafBean, int pathId, boolean untyped,
+        Evaluation<T> evaluation)
+    {
+        if (value == null)
+        {
+            return;
+        }
+
+        SchemaCheck typeCheck = node.getTypeCheck();
+
+        if (untyped && (typeCheck != null) && !typeCheck.isValid(value))
+        {
+            evaluation.fail(typeCheck, leafBean, pathId, value);
+        }
+
+        if (evaluation.failFast)
+        {
+            SchemaCheck failed = evaluation.isComplete() ? null : node.getCheckOrder().firstFailure(value);
+
+            if (failed != null)
+            {
+                evaluation.fail(failed, leafBean, pathId, value);
+            }
+
+            if (evaluation.isComplete())
+            {
+                return;
+            }
+        }
+        else
+        {
+            List<SchemaCheck> checks = node.getChecks();
+
+            for (int i = 0; i < checks.size(); i++)
+            {
+                if (!checks.get(i).isValid(value))
+                {
+                    evaluation.fail(checks.get(i), leafBean, pathId, value);
+                }
+            }
+        }
+
+        Collection<?> items = ArrayItems.of(value);
+
+        if (items != null)
+        {
+            if (node.hasItemConstraints() && evaluation.enter(value, node))
+            {
+                evaluateItems(node, items, pathId, untyped, evaluation);
+                evaluation.leave();
+            }
+        }
+        else if (node.hasPropertyConstraints() && !isScalar(value) && evaluation.enter(value, node))
+        {
+            evaluateProperties(node, value, pathId, evaluation);
+            evaluation.leave();
+        }
+    }
+
+    /**
+     * Evaluates the items of a collection or array against the item schemas of a compiled schema node.
+     *
+     * @param node       The compiled schema node to evaluate against.
+     * @param items      The items to evaluate.
+     * @param pathId     The id of the template of the path to the collection or array.
+     * @param untyped    <tt>true</tt> iff the items are held in an untyped list, so their json types are checked.
+     * @param evaluation The evaluation in progress.
+     * @param <T>        The type of the root object being validated.
+     */
+    private <T> void evaluateItems(CompiledSchema node, Collection<?> items, int pathId, boolean untyped,
+        Evaluation<T> evaluation)
+    {
+        int itemPathId = evaluation.item(pathId);
+        int index = 0;
+
+        for (Object item : items)
+        {
+            CompiledSchema itemNode = node.getItem(index);
+
+            if (itemNode != null)
+            {
+                evaluation.pushItem(index);
+                evaluate(itemNode, item, items, itemPathId, untyped, evaluation);
+                evaluation.pop();
+
+                if (evaluation.isComplete())
+                {
+                    return;
+                }
+            }
+
+            index++;
+        }
+    }
+
+    /**
+     * Evaluates the properties of an object against the property schemas of a compiled schema node.
+     *
+     * @param node       The compiled schema node to evaluate against.
+     * @param object     The object to evaluate the properties of.
+     * @param pathId     The id of the template of the path to the object.
+     * @param evaluation The evaluation in progress.
+     * @param <T>        The type of the root object being validated.
+     */
+    private <T> void evaluateProperties(CompiledSchema node, Object object, int pathId, Evaluation<T> evaluation)
+    {
+        boolean untyped = object instanceof Map;
+
+        // Missing properties are the cheapest violations to find, so when failing fast they are looked for before
+        // descending into any property.
+        if (evaluation.failFast)
+        {
+            for (String jsonName : node.getRequiredNames())
+            {
+                if (getValue(object, jsonName) == null)
+                {
+                    failMissing(object, jsonName, pathId, evaluation);
+
+                    return;
+                }
+            }
+        }
+
+        String[] jsonNames = node.getPropertyNames();
+        CompiledSchema[] propertySchemas = node.getPropertySchemas();
+
+        for (int i = 0; i < jsonNames.length; i++)
+        {
+            String jsonName = jsonNames[i];
+
+            // The field of a bean gives both the value and the Java name to report, in a single lookup.
+            Field field = untyped ? null : BeanProperties.getField(object.getClass(), jsonName);
+            Object propertyValue =
+                untyped ? ((Map<?, ?>) object).get(jsonName) : BeanProperties.getValue(object, field);
+            String name = (field != null) ? field.getName() : jsonName;
+            int propertyPathId = evaluation.child(pathId, name);
+
+            evaluation.pushProperty(name);
+
+            if ((propertyValue == null) && node.getRequired().contains(jsonName))
+            {
+                evaluation.failRequired(object, propertyPathId);
+            }
+
+            evaluate(propertySchemas[i], propertyValue, object, propertyPathId, untyped, evaluation);
+            evaluation.pop();
+
+            if (evaluation.isComplete())
+            {
+                return;
+            }
+        }
+
+        for (String jsonName : node.getRequiredNames())
+        {
+            if (!node.getProperties().containsKey(jsonName) && (getValue(object, jsonName) == null))
+            {
+                failMissing(object, jsonName, pathId, evaluation);
+            }
+        }
+
+        PropertyNameMatcher allowedProperties = node.getAllowedProperties();
+
+        if (untyped && (allowedProperties != null))
+        {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet())
+            {
+                String name = String.valueOf(entry.getKey());
+
+                if (!allowedProperties.isAllowed(name))
+                {
+                    evaluation.failAdditional(object, pathId, name, entry.getValue());
+
+                    if (evaluation.isComplete())
+                    {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a required property that is missing from an object.
+     *
+     * @param object     The object the property is missing from.
+     * @param jsonName   The json name of the property.
+     * @param pathId     The id of the template of the path to the object.
+     * @param evaluation The evaluation in progress.
+     * @param <T>        The type of the root object being validated.
+     */
+    private <T> void failMissing(Object object, String jsonName, int pathId, Evaluation<T> evaluation)
+    {
+        String name = getName(object, jsonName);
+
+        evaluation.pushProperty(name);
+        evaluation.failRequired(object, evaluation.child(pathId, name));
+        evaluation.pop();
+    }
+
+    /**
+     * Reads the value of a property of an object, by its json name. The properties of a map are its entries.
+     *
+     * @param  object   The object to read from.
+     * @param  jsonName The json name of the property.
+     *
+     * @return The value of the property, or <tt>null</tt> if it is absent.
+     */
+    private static Object getValue(Object object, String jsonName)
+    {
+        return (object instanceof Map) ? ((Map<?, ?>) object).get(jsonName) : BeanProperties.getValue(object, jsonName);
+    }
+
+    /**
+     * Provides the name of a property of an object to report in property paths; the Java name of a bean field, or the
+     * key of a map entry.
+     *
+     * @param  object   The object holding the property.
+     * @param  jsonName The json name of the property.
+     *
+     * @return The name of the property to report in property paths.
+     */
+    private static String getName(Object object, String jsonName)
+    {
+        return (object instanceof Map) ? jsonName : BeanProperties.getJavaName(object.getClass(), jsonName);
+    }
+
+    /**
+     * Checks if a value is an untyped container, as produced by a json parser when not binding to beans.
+     *
+     * @param  value The value to check.
+     *
+     * @return <tt>true</tt> iff the value is a map or a list.
+     */
+    private static boolean isUntyped(Object value)
+    {
+        return (value instanceof Map) || (value instanceof List);
+    }
+
+    /**
+     * Checks if a value is a simple value, that has no properties to evaluate.
+     *
+     * @param  value The value to check.
+     *
+     * @return <tt>true</tt> iff the value is a simple value.
+     */
+    private static boolean isScalar(Object value)
+    {
+        return (value instanceof CharSequence) || (value instanceof Number) || (value instanceof Boolean) ||
+            (value instanceof Character) || (value instanceof Enum);
+    }
+
+    /**
+     * Evaluation holds the state of a single evaluation of an object against the schema.
+     *
+     * <p/>The path to the value being evaluated is held as a stack of the names of properties and the positions of
+     * list items, in arrays that are reused as the object graph is descended, and only turned into a bean validation
+     * path, or the positions recorded in a buffer, when a violation is found. So is the stack of objects being
+     * descended into, and the schema nodes they are being descended into against, which stops cyclic object graphs
+     * being descended around forever. Evaluating a valid payload allocates nothing for each property or item.
+     *
+     * @param <T> The type of the root object being validated.
+     */
+    private static final class Evaluation<T>
+    {
+        /** The initial depth of the stacks, which grow as needed. */
+        private static final int INITIAL_DEPTH = 16;
+
+        /** The root object being validated. */
+        private final T rootBean;
+
+        /** <tt>true</tt> iff the evaluation stops at the first violation. */
+        private final boolean failFast;
+
+        /** The violations found so far, when not recording them in a buffer. */
+        private final Set<ConstraintViolation<T>> violations = new LinkedHashSet<>();
+
+        /** The buffer to record violations in, or <tt>null</tt> to collect them as constraint violations. */
+        private final ViolationBuffer buffer;
+
+        /** The numbering of paths and checks to record violations in the buffer with. */
+        private final ViolationCatalog catalog;
+
+        /** The names of the properties on the path, root first, or <tt>null</tt> for the list items. */
+        private String[] names = new String[INITIAL_DEPTH];
+
+        /** The positions of the list items on the path, root first. */
+        private int[] positions = new int[INITIAL_DEPTH];
+
+        /** The number of steps on the path. */
+        private int depth;
+
+        /** The objects being descended into, outermost first. */
+        private Object[] objects = new Object[INITIAL_DEPTH];
+
+        /** The schema nodes the objects are being descended into against. */
+        private CompiledSchema[] nodes = new CompiledSchema[INITIAL_DEPTH];
+
+        /** The number of objects being descended into. */
+        private int descent;
+
+        /**
+         * Starts an evaluation of a root object.
+         *
+         * @param rootBean The root object being validated.
+         * @param failFast <tt>true</tt> iff the evaluation stops at the first violation.
+         */
+        Evaluation(T rootBean, boolean failFast)
+        {
+            this(rootBean, failFast, null, null);
+        }
+
+        /**
+         * Starts an evaluation of a root object, that records the violations it finds in a buffer.
+         *
+         * @param rootBean The root object being validated.
+         * @param failFast <tt>true</tt> iff the evaluation stops at the first violation.
+         * @param buffer   The buffer to record violations in, or <tt>null</tt> to collect constraint violations.
+         * @param catalog  The numbering of paths and checks to record violations in the buffer with.
+         */
+        Evaluation(T rootBean, boolean failFast, ViolationBuffer buffer, ViolationCatalog catalog)
+        {
+            this.rootBean = rootBean;
+            this.failFast = failFast;
+            this.buffer = buffer;
+            this.catalog = catalog;
+        }
+
+        /**
+         * Checks if the evaluation is complete, having found a violation when failing fast.
+         *
+         * @return <tt>true</tt> iff the evaluation need go no further.
+         */
+        boolean isComplete()
+        {
+            return failFast && ((buffer != null) ? !buffer.isEmpty() : !violations.isEmpty());
+        }
+
+        /**
+         * Provides the id of the template extending a path template with a named property. Path ids are only tracked
+         * when recording violations in a buffer.
+         *
+         * @param  pathId The id of the template to extend.
+         * @param  name   The name of the property.
+         *
+         * @return The id of the extended template.
+         */
+        int child(int pathId, String name)
+        {
+            return (catalog != null) ? catalog.child(pathId, name) : pathId;
+        }
+
+        /**
+         * Provides the id of the template extending a path template with a list item. Path ids are only tracked when
+         * recording violations in a buffer.
+         *
+         * @param  pathId The id of the template to extend.
+         *
+         * @return The id of the extended template.
+         */
+        int item(int pathId)
+        {
+            return (catalog != null) ? catalog.item(pathId) : pathId;
+        }
+
+        /**
+         * Extends the path with a named property.
+         *
+         * @param name The name of the property.
+         */
+        void pushProperty(String name)
+        {
+            push(name, -1);
+        }
+
+        /**
+         * Extends the path with a list item.
+         *
+         * @param index The position of the item.
+         */
+        void pushItem(int index)
+        {
+            push(null, index);
+        }
+
+        /** Removes the last step from the path. */
+        void pop()
+        {
+            names[--depth] = null;
+        }
+
+        /**
+         * Starts descending into an object against a schema node, unless it is already being descended into against
+         * the node further up the path, as happens with cyclic object graphs. Each successful call must be matched by
+         * a call to {@link #leave()}.
+         *
+         * @param  object The object to descend into.
+         * @param  node   The schema node to descend into it against.
+         *
+         * @return <tt>true</tt> iff the object should be descended into.
+         */
+        boolean enter(Object object, CompiledSchema node)
+        {
+            for (int i = 0; i < descent; i++)
+            {
+                if ((objects[i] == object) && (nodes[i] == node))
+                {
+                    return false;
+                }
+            }
+
+            if (descent == objects.length)
+            {
+                objects = Arrays.copyOf(objects, descent * 2);
+                nodes = Arrays.copyOf(nodes, descent * 2);
+            }
+
+            objects[descent] = object;
+            nodes[descent++] = node;
+
+            return true;
+        }
+
+        /** Stops descending into the object most recently entered. */
+        void leave()
+        {
+            descent--;
+            objects[descent] = null;
+            nodes[descent] = null;
+        }
+
+        /**
+         * Records a failed check.
+         *
+         * @param check    The check that failed.
+         * @param leafBean The object holding the value that failed.
+         * @param pathId   The id of the template of the path to the value that failed.
+         * @param value    The value that failed.
+         */
+        void fail(SchemaCheck check, Object leafBean, int pathId, Object value)
+        {
+            if (buffer != null)
+            {
+                record(pathId, catalog.getCode(check), null);
+
+                return;
+            }
+
+            violations.add(new SchemaConstraintViolation<T>(check.getKeyword(), check.getMessage(), rootBean, leafBean,
+                    toPath(), value));
+        }
+
+        /**
+         * Records a required property that is missing, at the end of the path.
+         *
+         * @param leafBean The object that the property is missing from.
+         * @param pathId   The id of the template of the path to the missing property.
+         */
+        void failRequired(Object leafBean, int pathId)
+        {
+            if (buffer != null)
+            {
+                record(pathId, ViolationCatalog.REQUIRED, null);
+
+                return;
+            }
+
+            violations.add(new SchemaConstraintViolation<T>("required", REQUIRED_MESSAGE, rootBean, leafBean, toPath(),
+                    null));
+        }
+
+        /**
+         * Records a property that is not allowed, as additional properties are not.
+         *
+         * @param leafBean The object holding the property.
+         * @param pathId   The id of the template of the path to the object holding the property.
+         * @param name     The name of the property.
+         * @param value    The value of the property.
+         */
+        void failAdditional(Object leafBean, int pathId, String name, Object value)
+        {
+            // The names of properties not allowed are not numbered, as any name may turn up, so they are recorded
+            // against the template of the path to the object holding them.
+            if (buffer != null)
+            {
+                record(pathId, ViolationCatalog.ADDITIONAL, name);
+
+                return;
+            }
+
+            pushProperty(name);
+            violations.add(new SchemaConstraintViolation<T>("additionalProperties", AllowedPropertiesValidator.MESSAGE,
+                    rootBean, leafBean, toPath(), value));
+            pop();
+        }
+
+        /**
+         * Records a violation in the buffer, by the id of its path and its code, along with the positions of the list
+         * items on its path. Where the path is not numbered, it is rendered in full instead.
+         *
+         * @param pathId The id of the template of the path to the value that failed.
+         * @param code   The code of the check that failed.
+         * @param name   The name of the property not allowed, or <tt>null</tt>.
+         */
+        private void record(int pathId, int code, String name)
+        {
+            int offset = buffer.getPositionCount();
+
+            if (pathId == ViolationCatalog.UNNUMBERED)
+            {
+                String path = toPath().toString();
+
+                buffer.add(pathId, code, offset, (name == null) ? path : (path.isEmpty() ? name : (path + '.' + name)));
+
+                return;
+            }
+
+            for (int i = 0; i < depth; i++)
+            {
+                if (names[i] == null)
+                {
+                    buffer.addPosition(positions[i]);
+                }
+            }
+
+            buffer.add(pathId, code, offset, name);
+        }
+
+        /**
+         * Builds the bean validation path for the path to the value being evaluated.
+         *
+         * @return The bean validation path.
+         */
+        private Path toPath()
+        {
+            PathImpl path = PathImpl.createRootPath();
+
+            for (int i = 0; i < depth; i++)
+            {
+                if (names[i] != null)
+                {
+                    path.addPropertyNode(names[i]);
+                }
+                else
+                {
+                    path.makeLeafNodeIterable();
+                    path.setLeafNodeIndex(positions[i]);
+                }
+            }
+
+            return path;
+        }
+
+        /**
+         * Extends the path with a step.
+         *
+         * @param name  The name of the property, or <tt>null</tt> for a list item.
+         * @param index The position of the list item.
+         */
+        private void push(String name, int index)
+        {
+            if (depth == names.length)
+            {
+                names = Arrays.copyOf(names, depth * 2);
+                positions = Arrays.copyOf(positions, depth * 2);
+            }
+
+            names[depth] = name;
+            positions[depth++] = index;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import com.thesett.util.validation.model.JsonSchema;
+
+/**
+ * JsonSchemaOptimizer reduces a json-schema to an equivalent but minimal one, so that validators built from it do less
+ * work on each validation. Schemas built up by merging overlays tend to accumulate constraints that can never fail, or
+ * that other constraints already imply, and these are removed.
+ *
+ * <p/>An optimized schema accepts and rejects exactly the same values as the original. Where a constraint is removed
+ * because another implies it, a value breaking both is reported only once, against the constraint that remains.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th>
+ * <tr><td> Remove redundant and subsumed constraints from json schemas. </td></tr>
+ * </table></pre>
+ */
+public interface JsonSchemaOptimizer
+{
+    /**
+     * Optimizes a json schema. The schema is not modified.
+     *
+     * @param  schema The schema to optimize.
+     *
+     * @return An equivalent, minimal schema.
+     */
+    JsonSchema optimize(JsonSchema schema);
+
+    /**
+     * Optimizes a json schema, that is to be applied to a class. The types of the fields of the class are used to find
+     * further constraints that can never fail, such as a minimum on an <tt>int</tt> at or below
+     * <tt>Integer.MIN_VALUE</tt>. The schema is not modified.
+     *
+     * @param  schema The schema to optimize.
+     * @param  type   The class that the schema is to be applied to.
+     *
+     * @return An equivalent, minimal schema for the class.
+     */
+    JsonSchema optimize(JsonSchema schema, Class<?> type);
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.validation.ValidationException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.model.JsonSchema;
+
+/**
+ * JsonSchemaOptimizerImpl optimizes json-schemas by removing constraints that can never fail, or that are implied by
+ * other constraints. The following are removed from every node of the schema, including its definitions:
+ *
+ * <ul>
+ * <li>Lower bounds of zero, on lengths and numbers of items, and upper bounds of <tt>Integer.MAX_VALUE</tt>.</li>
+ * <li>'exclusiveMinimum' and 'exclusiveMaximum' flags that are false, or that have no bound to apply to.</li>
+ * <li>'uniqueItems' of zero, 'additionalProperties' and 'additionalItems' of true, 'patternProperties' where
+ * additional properties are allowed anyway, and 'additionalItems' where there is no list of item schemas.</li>
+ * <li>Duplicate 'required' and 'enum' entries, and empty 'required' lists.</li>
+ * <li>Lengths and patterns that every value of an 'enum' already satisfies.</li>
+ * </ul>
+ *
+ * <p/>When optimizing for a class, minima and maxima on integral fields that every value of the field's type satisfies
+ * are also removed.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Remove redundant and subsumed constraints from json schemas. </td></tr>
+ * <tr><td> Remove bounds implied by the types of fields. </td><td> {@link BeanProperties} </td></tr>
+ * </table></pre>
+ */
+public class JsonSchemaOptimizerImpl implements JsonSchemaOptimizer
+{
+    /** Used to copy schemas, so that the originals are not modified. */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** {@inheritDoc} */
+    public JsonSchema optimize(JsonSchema schema)
+    {
+        return optimize(schema, null);
+    }
+
+    /** {@inheritDoc} */
+    public JsonSchema optimize(JsonSchema schema, Class<?> type)
+    {
+        JsonSchema result = copy(schema);
+
+        optimizeNode(result, type);
+
+        // Definitions may be referred to from anywhere, so nothing is known of the Java types they are applied to.
+        if (result.getDefinitions() != null)
+        {
+            for (JsonSchema definition : result.getDefinitions().values())
+            {
+                optimizeNode(definition, null);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Optimizes a node of a schema in place, along with the schemas of its properties and items.
+     *
+     * @param schema The schema node to optimize.
+     * @param type   The Java type of the values the node applies to, or <tt>null</tt> if it is not known.
+     */
+    private void optimizeNode(JsonSchema schema, Class<?> type)
+    {
+        removeNoOps(schema);
+        removeDuplicates(schema);
+        removeImpliedByEnum(schema);
+
+        if (type != null)
+        {
+            removeImpliedByType(schema, type);
+        }
+
+        if (schema.getProperties() != null)
+        {
+            for (Map.Entry<String, JsonSchema> property : schema.getProperties().entrySet())
+            {
+                optimizeNode(property.getValue(), propertyType(type, property.getKey()));
+            }
+        }
+
+        Class<?> itemType = ((type != null) && type.isArray()) ? type.getComponentType() : null;
+
+        if (schema.getItemSchema() != null)
+        {
+            optimizeNode(schema.getItemSchema(), itemType);
+        }
+        else if (schema.getItems() != null)
+        {
+            for (JsonSchema item : schema.getItems())
+            {
+                optimizeNode(item, itemType);
+            }
+        }
+    }
+
+    private void removeNoOps(JsonSchema schema)
+    {
+        if ((schema.getMinLength() != null) && (schema.getMinLength() <= 0))
+        {
+            schema.setMinLength(null);
+        }
+
+        if ((schema.getMaxLength() != null) && (schema.getMaxLength() == Integer.MAX_VALUE))
+        {
+            schema.setMaxLength(null);
+        }
+
+        if ((schema.getMinItems() != null) && (schema.getMinItems() <= 0))
+        {
+            schema.setMinItems(null);
+        }
+
+        if ((schema.getMaxItems() != null) && (schema.getMaxItems() == Integer.MAX_VALUE))
+        {
+            schema.setMaxItems(null);
+        }
+
+        if ((schema.getMinimum() == null) || Boolean.FALSE.equals(schema.getExclusiveMinimum()))
+        {
+            schema.setExclusiveMinimum(null);
+        }
+
+        if ((schema.getMaximum() == null) || Boolean.FALSE.equals(schema.getExclusiveMaximum()))
+        {
+            schema.setExclusiveMaximum(null);
+        }
+
+        if ((schema.getUniqueItems() != null) && (schema.getUniqueItems() == 0))
+        {
+            schema.setUniqueItems(null);
+        }
+
+        if (Boolean.TRUE.equals(schema.getAdditionalProperties()))
+        {
+            schema.setAdditionalProperties(null);
+        }
+
+        // Patterns only restrict the names of properties when additional properties are not allowed.
+        if (!Boolean.FALSE.equals(schema.getAdditionalProperties()))
+        {
+            schema.setPatternProperties(null);
+        }
+
+        // Additional items are only restricted beyond a tuple of item schemas.
+        if (Boolean.TRUE.equals(schema.getAdditionalItems()) || (schema.getItems() == null))
+        {
+            schema.setAdditionalItems(null);
+        }
+    }
+
+    private void removeDuplicates(JsonSchema schema)
+    {
+        if (schema.getRequired() != null)
+        {
+            schema.setRequired(schema.getRequired().isEmpty() ? null : distinct(schema.getRequired()));
+        }
+
+        if (schema.getEnums() != null)
+        {
+            schema.setEnums(distinct(schema.getEnums()));
+        }
+    }
+
+    private void removeImpliedByEnum(JsonSchema schema)
+    {
+        List<String> enums = schema.getEnums();
+
+        if (enums == null)
+        {
+            return;
+        }
+
+        // A string can only pass the enum by equalling one of its values, so checks that all of them pass are
+        // implied.
+        boolean minLengthImplied = schema.getMinLength() != null;
+        boolean maxLengthImplied = schema.getMaxLength() != null;
+        boolean patternImplied = schema.getPattern() != null;
+        Pattern pattern = patternImplied ? Pattern.compile(schema.getPattern()) : null;
+
+        for (String value : enums)
+        {
+            minLengthImplied = minLengthImplied && (value.length() >= schema.getMinLength());
+            maxLengthImplied = maxLengthImplied && (value.length() <= schema.getMaxLength());
+            patternImplied = patternImplied && pattern.matcher(value).matches();
+        }
+
+        if (minLengthImplied)
+        {
+            schema.setMinLength(null);
+        }
+
+        if (maxLengthImplied)
+        {
+            schema.setMaxLength(null);
+        }
+
+        if (patternImplied)
+        {
+            schema.setPattern(null);
+        }
+    }
+
+    private void removeImpliedByType(JsonSchema schema, Class<?> type)
+    {
+        BigDecimal[] range = integralRange(type);
+
+        if (range == null)
+        {
+            return;
+        }
+
+        BigDecimal minimum = schema.getMinimum();
+
+        if (minimum != null)
+        {
+            int comparison = minimum.compareTo(range[0]);
+
+            if ((comparison < 0) || ((comparison == 0) && !Boolean.TRUE.equals(schema.getExclusiveMinimum())))
+            {
+                schema.setMinimum(null);
+                schema.setExclusiveMinimum(null);
+            }
+        }
+
+        BigDecimal maximum = schema.getMaximum();
+
+        if (maximum != null)
+        {
+            int comparison = maximum.compareTo(range[1]);
+
+            if ((comparison > 0) || ((comparison == 0) && !Boolean.TRUE.equals(schema.getExclusiveMaximum())))
+            {
+                schema.setMaximum(null);
+                schema.setExclusiveMaximum(null);
+            }
+        }
+    }
+
+    /**
+     * Provides the range of values of an integral Java type.
+     *
+     * @param  type The Java type.
+     *
+     * @return The least and greatest values of the type, or <tt>null</tt> if it is not integral.
+     */
+    private static BigDecimal[] integralRange(Class<?> type)
+    {
+        if ((type == byte.class) || (type == Byte.class))
+        {
+            return range(Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+        else if ((type == short.class) || (type == Short.class))
+        {
+            return range(Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+        else if ((type == int.class) || (type == Integer.class))
+        {
+            return range(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        else if ((type == long.class) || (type == Long.class))
+        {
+            return range(Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        return null;
+    }
+
+    private static BigDecimal[] range(long least, long greatest)
+    {
+        return new BigDecimal[] { BigDecimal.valueOf(least), BigDecimal.valueOf(greatest) };
+    }
+
+    /**
+     * Provides the Java type of a property of a class, by its json name.
+     *
+     * @param  type     The class, or <tt>null</tt> if it is not known.
+     * @param  jsonName The json name of the property.
+     *
+     * @return The Java type of the property, or <tt>null</tt> if it is not known.
+     */
+    private static Class<?> propertyType(Class<?> type, String jsonName)
+    {
+        if ((type == null) || Map.class.isAssignableFrom(type) || type.isArray())
+        {
+            return null;
+        }
+
+        Field field = BeanProperties.getField(type, jsonName);
+
+        return (field != null) ? field.getType() : null;
+    }
+
+    private static List<String> distinct(List<String> values)
+    {
+        return new ArrayList<>(new LinkedHashSet<>(values));
+    }
+
+    /**
+     * Copies a schema deeply.
+     *
+     * @param  schema The schema to copy.
+     *
+     * @return A copy of the schema, sharing nothing with it.
+     */
+    private static JsonSchema copy(JsonSchema schema)
+    {
+        try
+        {
+            return MAPPER.readValue(MAPPER.writeValueAsBytes(schema), JsonSchema.class);
+        }
+        catch (IOException e)
+        {
+            throw new ValidationException("Unable to copy the schema.", e);
+        }
+    }
+}
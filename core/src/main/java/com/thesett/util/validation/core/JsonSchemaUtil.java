@@ -35,8 +35,9 @@ public class JsonSchemaUtil
     }
 
     /**
-     * Provides a json-schema for a class. A {@link JsonSchemaValidatorFactory} is used to create a schema based on any
-     * validation attached to the class, and the json-schema is generated from this.
+     * Provides a json-schema for a class. If a schema was generated for the class at compile time, that is used.
+     * Otherwise a {@link JsonSchemaValidatorFactory} is used to create a schema based on any validation attached to the
+     * class, and the json-schema is generated from this.
      *
      * @param  clazz The class to get a json-schema for.
      *
@@ -44,6 +45,13 @@ public class JsonSchemaUtil
      */
     public static JsonSchema getJsonSchema(Class<?> clazz)
     {
+        JsonSchema generated = GeneratedSchemas.getJsonSchema(clazz);
+
+        if (generated != null)
+        {
+            return generated;
+        }
+
         JsonSchemaValidatorFactory validatorFactory = new JsonSchemaValidatorFactory();
 
         JsonSchemaValidatorFactory.ValidatorBuilder builder = validatorFactory.getBuilder();
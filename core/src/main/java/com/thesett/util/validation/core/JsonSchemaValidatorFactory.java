@@ -0,0 +1,427 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.validation.ConstraintValidatorFactory;
+import javax.validation.TraversableResolver;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import com.thesett.util.validation.model.JsonSchema;
+
+import org.hibernate.validator.HibernateValidatorConfiguration;
+
+/**
+ * JsonSchemaValidatorFactory is a factory for building validators, built on top of Hibernate Bean Validator. In
+ * addition to validation already defined using annotations on a class, a json schema may also be applied to a class to
+ * create additional validation on it.
+ *
+ * <p/>Each time a validator is to be built, {@link #getBuilder()} should be called to obtain a fresh builder. This is
+ * due to the way that Hibernate Bean Validator will only hold a single validation definition per class, implying that
+ * different schemas applied to the same class through one builder would conflict; the schemas added to a builder are
+ * applied in the default group.
+ *
+ * <p/>Where many schemas are to be applied to the same classes, building a validator factory for each of them becomes
+ * expensive. A {@link GroupedValidatorBuilder}, obtained from {@link #getGroupedBuilder()}, instead synthesizes a new
+ * group interface for each schema at runtime, so that any number of schemas can share a single validator. Validating
+ * against the group returned for a schema applies that schema, on top of the annotations.
+ *
+ * <p/>Either builder can opt in to validating the elements of large cascaded lists in parallel, on a fork-join pool,
+ * through <tt>withParallelCascade()</tt>. Lists below the size threshold are cascaded into as usual.
+ *
+ * <p/>Either builder can also opt in to validating only a random sample of beans, through <tt>withSampling()</tt>, or
+ * to validating a sample in the background, through <tt>withShadowValidation()</tt>; see {@link SamplingValidator}.
+ *
+ * <p/>Where the same strings are checked against the same patterns over and over, the results can be cached, through
+ * <tt>withPatternCache()</tt>; see {@link PatternMatchCache}.
+ *
+ * <p/>Where many beans fail validation, the cost of interpolating their messages through the expression language can
+ * be avoided, through <tt>withCompiledMessages()</tt>; see {@link CompiledMessageInterpolator}.
+ *
+ * <p/>The options are shared by both builders, through {@link BaseValidatorBuilder}.
+ *
+ * <p/>Either builder can build its validator in the background, through <tt>buildAsync()</tt>, with a limit on how
+ * many are built at once; a {@link PendingValidator} can stand in for the validator until it is built.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td>  </td></tr>
+ * </table></pre>
+ */
+public class JsonSchemaValidatorFactory
+{
+    /** The resource holding the mapping that replaces the validator for <tt>@Pattern</tt> with a caching one. */
+    private static final String PATTERN_CACHE_MAPPING = "pattern-cache-mapping.xml";
+
+    /**
+     * The executor that validators are built on in the background by default; daemon threads, running no more builds at
+     * once than a quarter of the processors, and at least one.
+     */
+    private static final Executor BUILD_EXECUTOR =
+        new BoundedExecutor(Executors.newCachedThreadPool(new ThreadFactory()
+                {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    public Thread newThread(Runnable task)
+                    {
+                        Thread thread = new Thread(task, "validator-build-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+
+                        return thread;
+                    }
+                }), Math.max(1, Runtime.getRuntime().availableProcessors() / 4));
+
+    /**
+     * Obtains a fresh builder to apply schemas to a class.
+     *
+     * @return A fresh builder to apply schemas to a class.
+     */
+    public ValidatorBuilder getBuilder()
+    {
+        return new ValidatorBuilder();
+    }
+
+    /**
+     * Obtains a fresh builder to apply many schemas to classes, each under its own validation group, sharing one
+     * validator.
+     *
+     * @return A fresh builder to apply schemas to classes under validation groups.
+     */
+    public GroupedValidatorBuilder getGroupedBuilder()
+    {
+        return new GroupedValidatorBuilder();
+    }
+
+    /**
+     * Defines the options and building shared by both kinds of validator builder. Schemas are added through the
+     * concrete builders, which differ only in how schemas are grouped.
+     *
+     * @param <B> The type of the concrete builder, returned from the options for continuation.
+     */
+    public abstract static class BaseValidatorBuilder<B extends BaseValidatorBuilder<B>>
+    {
+        /**
+         * Holds a fresh validator configuration, so the schemas do not conflict with others defined on the same class.
+         */
+        protected final HibernateValidatorConfiguration config;
+
+        /**
+         * Holds the single mapping that all schemas are added to, so that schemas added to the same class, or reaching
+         * the same nested class, are merged rather than configuring the class twice.
+         */
+        protected final JsonSchemaConstraintMapping constraintMapping = new JsonSchemaConstraintMapping();
+
+        /** Holds the resolver that holds back large lists, when parallel cascading is enabled. */
+        private LargeCollectionResolver largeCollectionResolver;
+
+        /** Holds the pool to validate the elements of large lists on, when parallel cascading is enabled. */
+        private ForkJoinPool cascadePool;
+
+        /** Holds the probability of each bean being validated, when sampling is enabled. */
+        private Double samplingFraction;
+
+        /** Holds the executor to validate sampled beans on, in shadow mode. */
+        private Executor shadowExecutor;
+
+        /** Creates a fresh validator builder. */
+        protected BaseValidatorBuilder()
+        {
+            config = ConfigurationTemplate.getInstance().newConfiguration();
+            config.addMapping(constraintMapping);
+        }
+
+        /**
+         * Enables validating the elements of large cascaded lists in parallel. Lists at or above the threshold size are
+         * not cascaded into by Hibernate; their elements are split across the pool and validated there instead, under
+         * the same groups, and the violations merged in the order of the elements.
+         *
+         * @param  threshold The size at or above which the elements of a list are validated in parallel.
+         * @param  pool      The pool to validate the elements on.
+         *
+         * @return This builder for continuation.
+         */
+        public B withParallelCascade(int threshold, ForkJoinPool pool)
+        {
+            TraversableResolver defaults = ConfigurationTemplate.getInstance().getTraversableResolver();
+            largeCollectionResolver = new LargeCollectionResolver(defaults, threshold);
+            cascadePool = pool;
+            config.traversableResolver(largeCollectionResolver);
+
+            return self();
+        }
+
+        /**
+         * Enables caching the results of <tt>@Pattern</tt> constraints, including those of 'pattern' keywords, so that
+         * hot values are only matched once. The cache may be shared with other validators and evaluators.
+         *
+         * @param  cache The cache of match results.
+         *
+         * @return This builder for continuation.
+         */
+        public B withPatternCache(PatternMatchCache cache)
+        {
+            config.addMapping(JsonSchemaValidatorFactory.class.getResourceAsStream(PATTERN_CACHE_MAPPING));
+            ConstraintValidatorFactory defaults = ConfigurationTemplate.getInstance().getConstraintValidatorFactory();
+            config.constraintValidatorFactory(new PatternCacheValidatorFactory(defaults, cache));
+
+            return self();
+        }
+
+        /**
+         * Enables interpolating messages by substituting parameters only, without the expression language. Message
+         * templates are compiled once, and the message of each constraint rendered once; see
+         * {@link CompiledMessageInterpolator}.
+         *
+         * @return This builder for continuation.
+         */
+        public B withCompiledMessages()
+        {
+            config.messageInterpolator(new CompiledMessageInterpolator());
+
+            return self();
+        }
+
+        /**
+         * Enables validating only a random sample of beans, for trusted sources. Beans that are not picked for
+         * validation pass as valid. The built validator can be unwrapped to a {@link SamplingValidator} to read the
+         * counts of beans sampled and failed.
+         *
+         * @param  fraction The probability of each bean being validated, from 0 to 1.
+         *
+         * @return This builder for continuation.
+         */
+        public B withSampling(double fraction)
+        {
+            samplingFraction = fraction;
+            shadowExecutor = null;
+
+            return self();
+        }
+
+        /**
+         * Enables validating a random sample of beans in the background, for trusted sources. Every bean passes as
+         * valid at once; those picked for validation are validated on the executor, and only counted. The built
+         * validator can be unwrapped to a {@link SamplingValidator} to read the counts of beans sampled and failed.
+         *
+         * @param  fraction The probability of each bean being validated, from 0 to 1.
+         * @param  executor The executor to validate on.
+         *
+         * @return This builder for continuation.
+         */
+        public B withShadowValidation(double fraction, Executor executor)
+        {
+            samplingFraction = fraction;
+            shadowExecutor = executor;
+
+            return self();
+        }
+
+        /**
+         * Builds the validator in the background, on a shared executor that limits how many validators are built at
+         * once, so that a burst of new schemas does not hold up the threads serving requests. The builder must not be
+         * changed once this has been called. Until the build completes, a {@link PendingValidator} can stand in for
+         * the validator.
+         *
+         * @return The build of the validator.
+         */
+        public CompletableFuture<Validator> buildAsync()
+        {
+            return buildAsync(BUILD_EXECUTOR);
+        }
+
+        /**
+         * Builds the validator in the background, on an executor. Wrapping the executor in a {@link BoundedExecutor}
+         * limits how many validators are built on it at once. The builder must not be changed once this has been
+         * called. The build is handed to the executor as a {@link Future}, so that if the executor cancels it, rather
+         * than running it, the returned build is cancelled too, and nothing waits on it forever.
+         *
+         * @param  executor The executor to build the validator on.
+         *
+         * @return The build of the validator.
+         *
+         * @throws RejectedExecutionException If the executor rejects the build.
+         */
+        public CompletableFuture<Validator> buildAsync(Executor executor)
+        {
+            final CompletableFuture<Validator> result = new CompletableFuture<>();
+
+            executor.execute(new FutureTask<Validator>(new Callable<Validator>()
+                    {
+                        public Validator call()
+                        {
+                            return build();
+                        }
+                    })
+                {
+                    protected void done()
+                    {
+                        if (isCancelled())
+                        {
+                            result.cancel(false);
+
+                            return;
+                        }
+
+                        try
+                        {
+                            result.complete(get());
+                        }
+                        catch (ExecutionException e)
+                        {
+                            result.completeExceptionally(e.getCause());
+                        }
+                        catch (InterruptedException e)
+                        {
+                            Thread.currentThread().interrupt();
+                            result.completeExceptionally(e);
+                        }
+                    }
+                });
+
+            return result;
+        }
+
+        /**
+         * Creates a validator instance configured with the json schemas on top of other validations.
+         *
+         * @return A validator instance configured with the json schemas on top of other validations.
+         */
+        public Validator build()
+        {
+            ValidatorFactory validatorFactory = config.buildValidatorFactory();
+            Validator validator = validatorFactory.getValidator();
+
+            if (largeCollectionResolver != null)
+            {
+                validator = new ParallelCascadeValidator(validator, largeCollectionResolver, cascadePool);
+            }
+
+            if (samplingFraction != null)
+            {
+                validator = new SamplingValidator(validator, samplingFraction, shadowExecutor);
+            }
+
+            SchemaMetadata.register(validator, constraintMapping.getMetadata());
+
+            return validator;
+        }
+
+        /**
+         * Provides this builder as its concrete type, to return from the options for continuation.
+         *
+         * @return This builder.
+         */
+        protected abstract B self();
+    }
+
+    /**
+     * Defines a builder for validators based on json schemas.
+     */
+    public static class ValidatorBuilder extends BaseValidatorBuilder<ValidatorBuilder>
+    {
+        /**
+         * Adds a json schema to a class as additional validation on that class.
+         *
+         * @param  type   The class to apply the json schema to.
+         * @param  schema The json schema.
+         * @param  <C>    The type of the class to apply the json schema to.
+         *
+         * @return This builder for continuation.
+         */
+        public <C> ValidatorBuilder addSchema(Class<C> type, JsonSchema schema)
+        {
+            constraintMapping.addSchema(type, schema);
+
+            return this;
+        }
+
+        /** {@inheritDoc} */
+        protected ValidatorBuilder self()
+        {
+            return this;
+        }
+    }
+
+    /**
+     * Defines a builder for a single validator that applies many json schemas, each under its own validation group.
+     * Each schema is given a newly synthesized group interface, which extends {@link javax.validation.groups.Default}.
+     * Validating a bean against that group applies both the annotations on the bean and the schema:
+     *
+     * <pre>
+     * Class&lt;?&gt; groupX = builder.addSchema(MyBean.class, schemaX);
+     * Validator validator = builder.build();
+     * validator.validate(myBean, groupX);
+     * </pre>
+     */
+    public static class GroupedValidatorBuilder extends BaseValidatorBuilder<GroupedValidatorBuilder>
+    {
+        /** Used to synthesize the group interfaces. */
+        private final GroupInterfaceLoader groupLoader = new GroupInterfaceLoader();
+
+        /**
+         * Adds a json schema to a class as additional validation on that class, under a new validation group.
+         *
+         * @param  type   The class to apply the json schema to.
+         * @param  schema The json schema.
+         * @param  <C>    The type of the class to apply the json schema to.
+         *
+         * @return The validation group to validate against, in order to apply the schema.
+         */
+        public <C> Class<?> addSchema(Class<C> type, JsonSchema schema)
+        {
+            Class<?> group = groupLoader.defineGroup();
+            constraintMapping.addSchema(type, schema, group);
+
+            return group;
+        }
+
+        /**
+         * Adds a json schema to a class as additional validation on that class, under an existing validation group.
+         * This allows schemas on different classes to be applied together, under one group.
+         *
+         * @param  type   The class to apply the json schema to.
+         * @param  schema The json schema.
+         * @param  group  The validation group, as returned from {@link #addSchema(Class, JsonSchema)}.
+         * @param  <C>    The type of the class to apply the json schema to.
+         *
+         * @return This builder for continuation.
+         */
+        public <C> GroupedValidatorBuilder addSchema(Class<C> type, JsonSchema schema, Class<?> group)
+        {
+            constraintMapping.addSchema(type, schema, group);
+
+            return this;
+        }
+
+        /** {@inheritDoc} */
+        protected GroupedValidatorBuilder self()
+        {
+            return this;
+        }
+    }
+}
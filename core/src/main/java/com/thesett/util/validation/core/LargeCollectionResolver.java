@@ -0,0 +1,241 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.lang.annotation.ElementType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import javax.validation.Path;
+import javax.validation.TraversableResolver;
+
+import org.hibernate.validator.internal.engine.path.PathImpl;
+
+/**
+ * LargeCollectionResolver stops Hibernate from cascading into lists that are at or above a size threshold, so that
+ * their elements can be validated in parallel instead. Each list held back is recorded against the validation running
+ * on the current thread, along with the path to it, for {@link ParallelCascadeValidator} to pick up once Hibernate has
+ * finished validating the rest of the bean.
+ *
+ * <p/>Lists are only held back while a validation has been started through {@link #begin(Recording)}, so that
+ * validators built with this resolver, but not wrapped for parallel cascading, still cascade into every list.
+ *
+ * <p/>The elements of a list held back are validated as new roots, which Hibernate knows nothing of the enclosing
+ * validations of. So that a cascaded reference from an element back to a bean holding the list does not validate that
+ * bean, and hold back its list, all over again, the beans of the enclosing validations are recorded too, and are never
+ * cascaded into.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Hold back large lists from cascaded validation. </td></tr>
+ * <tr><td> Record the lists held back, by the validation running on the current thread. </td></tr>
+ * <tr><td> Refuse to cascade into the beans of enclosing validations. </td></tr>
+ * <tr><td> Defer all other decisions to the default resolver. </td><td> {@link TraversableResolver} </td></tr>
+ * </table></pre>
+ */
+class LargeCollectionResolver implements TraversableResolver
+{
+    /** The resolver to defer to. */
+    private final TraversableResolver delegate;
+
+    /** The size at or above which lists are held back. */
+    private final int threshold;
+
+    /** Holds the recording of the validation running on each thread. */
+    private final ThreadLocal<Recording> recording = new ThreadLocal<>();
+
+    /**
+     * Creates a resolver that holds back large lists.
+     *
+     * @param delegate  The resolver to defer to.
+     * @param threshold The size at or above which lists are held back.
+     */
+    LargeCollectionResolver(TraversableResolver delegate, int threshold)
+    {
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Starts recording the lists held back by a validation on the current thread. Validations may nest, as validating
+     * the elements of a list held back may itself hold back lists, so the recording of any enclosing validation is
+     * returned, to be restored by {@link #end(Recording)}.
+     *
+     * @param  recording The recording to record the lists held back into.
+     *
+     * @return The recording of the enclosing validation, or <tt>null</tt> if there is none.
+     */
+    Recording begin(Recording recording)
+    {
+        Recording enclosing = this.recording.get();
+        this.recording.set(recording);
+
+        return enclosing;
+    }
+
+    /**
+     * Stops recording the lists held back by a validation on the current thread.
+     *
+     * @param enclosing The recording of the enclosing validation, as returned by {@link #begin(Recording)}.
+     */
+    void end(Recording enclosing)
+    {
+        if (enclosing == null)
+        {
+            recording.remove();
+        }
+        else
+        {
+            recording.set(enclosing);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public boolean isReachable(Object traversableObject, Path.Node traversableProperty, Class<?> rootBeanType,
+        Path pathToTraversableObject, ElementType elementType)
+    {
+        return delegate.isReachable(traversableObject, traversableProperty, rootBeanType, pathToTraversableObject,
+                elementType);
+    }
+
+    /** {@inheritDoc} */
+    public boolean isCascadable(Object traversableObject, Path.Node traversableProperty, Class<?> rootBeanType,
+        Path pathToTraversableObject, ElementType elementType)
+    {
+        if (!delegate.isCascadable(traversableObject, traversableProperty, rootBeanType, pathToTraversableObject,
+                    elementType))
+        {
+            return false;
+        }
+
+        Recording current = recording.get();
+
+        if ((current == null) || (traversableObject == null) || (traversableProperty.getName() == null))
+        {
+            return true;
+        }
+
+        Object value = BeanProperties.getPropertyValue(traversableObject, traversableProperty.getName(), elementType);
+
+        if (current.getEnclosingBeans().contains(value))
+        {
+            return false;
+        }
+
+        if (!(value instanceof List) || (((List<?>) value).size() < threshold))
+        {
+            return true;
+        }
+
+        // The elements are read by index when split across threads, so lists without fast random access are copied.
+        List<?> list = (value instanceof RandomAccess) ? (List<?>) value : new ArrayList<>((List<?>) value);
+
+        PathImpl path = PathImpl.createCopy((PathImpl) pathToTraversableObject);
+        path.addPropertyNode(traversableProperty.getName());
+        current.getHeldBack().add(new HeldBack(path, list));
+
+        return false;
+    }
+
+    /**
+     * Recording holds the lists held back by a validation, and the beans of the validations enclosing it, which are
+     * never cascaded into.
+     */
+    static final class Recording
+    {
+        /** The lists held back, in the order they were met. */
+        private final List<HeldBack> heldBack = new ArrayList<>();
+
+        /** The beans of the enclosing validations, by identity. */
+        private final Set<Object> enclosingBeans;
+
+        /**
+         * Creates an empty recording for a validation.
+         *
+         * @param enclosingBeans The beans of the enclosing validations, by identity.
+         */
+        Recording(Set<Object> enclosingBeans)
+        {
+            this.enclosingBeans = enclosingBeans;
+        }
+
+        /**
+         * Provides the lists held back, in the order they were met.
+         *
+         * @return The lists held back.
+         */
+        List<HeldBack> getHeldBack()
+        {
+            return heldBack;
+        }
+
+        /**
+         * Provides the beans of the enclosing validations, by identity.
+         *
+         * @return The beans of the enclosing validations.
+         */
+        Set<Object> getEnclosingBeans()
+        {
+            return enclosingBeans;
+        }
+    }
+
+    /**
+     * HeldBack records a list that was held back from cascaded validation, and the path to it from the root bean.
+     */
+    static final class HeldBack
+    {
+        /** The path to the list, from the root bean. */
+        private final PathImpl path;
+
+        /** The list held back. */
+        private final List<?> list;
+
+        /**
+         * Records a list held back from cascaded validation.
+         *
+         * @param path The path to the list, from the root bean.
+         * @param list The list held back.
+         */
+        HeldBack(PathImpl path, List<?> list)
+        {
+            this.path = path;
+            this.list = list;
+        }
+
+        /**
+         * Provides the path to the list, from the root bean.
+         *
+         * @return The path to the list, from the root bean.
+         */
+        PathImpl getPath()
+        {
+            return path;
+        }
+
+        /**
+         * Provides the list held back.
+         *
+         * @return The list held back.
+         */
+        List<?> getList()
+        {
+            return list;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.lang.annotation.ElementType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ElementKind;
+import javax.validation.Path;
+import javax.validation.Validator;
+import javax.validation.executable.ExecutableValidator;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.ConstraintDescriptor;
+
+import org.hibernate.validator.internal.engine.ConstraintViolationImpl;
+import org.hibernate.validator.internal.engine.path.PathImpl;
+import org.hibernate.validator.internal.metadata.descriptor.ConstraintDescriptorImpl;
+
+/**
+ * ParallelCascadeValidator validates the elements of large cascaded lists in parallel, on a fork-join pool. Hibernate
+ * validates the bean as usual, except that a {@link LargeCollectionResolver} holds back lists at or above a size
+ * threshold from being cascaded into. The elements of each list held back are then split into ranges across the pool
+ * and validated, and their violations are re-rooted onto the path of the list, as in <tt>lines[42].quantity</tt>.
+ *
+ * <p/>The violations are merged in a fixed order: those Hibernate found on the bean first, then those on the elements
+ * of each list held back, in the order of the lists and then of the elements. Each element is validated against the
+ * same groups as the bean. Where a group sequence is used, it is applied to each element separately rather than across
+ * the whole bean.
+ *
+ * <p/>Hibernate only tracks the beans it has processed within a single validation, and each element is validated as a
+ * new root. The beans being validated around an element are therefore carried down to its validation, and the resolver
+ * never cascades back into them, so that cyclic object graphs terminate as they do under Hibernate alone.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Validate the elements of large lists in parallel. </td><td> {@link ForkJoinPool} </td></tr>
+ * <tr><td> Re-root element violations onto the path of their list. </td></tr>
+ * <tr><td> Merge violations in a deterministic order. </td></tr>
+ * <tr><td> Defer all other validation to Hibernate. </td><td> {@link Validator} </td></tr>
+ * </table></pre>
+ */
+final class ParallelCascadeValidator implements Validator
+{
+    /** The fewest elements to validate in a single task, below which splitting costs more than it saves. */
+    private static final int MIN_TASK_SIZE = 64;
+
+    /** The number of tasks to aim for per thread of the pool, to balance the load between threads. */
+    private static final int TASKS_PER_THREAD = 8;
+
+    /** The Hibernate validator to defer to. */
+    private final Validator delegate;
+
+    /** The resolver that holds back large lists. */
+    private final LargeCollectionResolver resolver;
+
+    /** The pool to validate elements on. */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a validator that validates the elements of large lists in parallel.
+     *
+     * @param delegate The Hibernate validator to defer to, built with the resolver.
+     * @param resolver The resolver that holds back large lists.
+     * @param pool     The pool to validate elements on.
+     */
+    ParallelCascadeValidator(Validator delegate, LargeCollectionResolver resolver, ForkJoinPool pool)
+    {
+        this.delegate = delegate;
+        this.resolver = resolver;
+        this.pool = pool;
+    }
+
+    /** {@inheritDoc} */
+    public <T> Set<ConstraintViolation<T>> validate(T object, Class<?>... groups)
+    {
+        return validateWithin(object, Collections.emptySet(), groups);
+    }
+
+    /** {@inheritDoc} */
+    public <T> Set<ConstraintViolation<T>> validateProperty(T object, String propertyName, Class<?>... groups)
+    {
+        return delegate.validateProperty(object, propertyName, groups);
+    }
+
+    /** {@inheritDoc} */
+    public <T> Set<ConstraintViolation<T>> validateValue(Class<T> beanType, String propertyName, Object value,
+        Class<?>... groups)
+    {
+        return delegate.validateValue(beanType, propertyName, value, groups);
+    }
+
+    /** {@inheritDoc} */
+    public BeanDescriptor getConstraintsForClass(Class<?> clazz)
+    {
+        return delegate.getConstraintsForClass(clazz);
+    }
+
+    /** {@inheritDoc} */
+    public <T> T unwrap(Class<T> type)
+    {
+        if (type.isInstance(this))
+        {
+            return type.cast(this);
+        }
+
+        return delegate.unwrap(type);
+    }
+
+    /** {@inheritDoc} */
+    public ExecutableValidator forExecutables()
+    {
+        return delegate.forExecutables();
+    }
+
+    /**
+     * Validates a bean within the beans of any enclosing validations, holding back its large lists and validating their
+     * elements in parallel.
+     *
+     * @param  object         The bean to validate.
+     * @param  enclosingBeans The beans of the enclosing validations, by identity, which are never cascaded into.
+     * @param  groups         The groups to validate against.
+     * @param  <T>            The type of the bean.
+     *
+     * @return The violations found, in a deterministic order.
+     */
+    private <T> Set<ConstraintViolation<T>> validateWithin(T object, Set<Object> enclosingBeans, Class<?>... groups)
+    {
+        LargeCollectionResolver.Recording recording = new LargeCollectionResolver.Recording(enclosingBeans);
+        LargeCollectionResolver.Recording enclosing = resolver.begin(recording);
+        Set<ConstraintViolation<T>> violations;
+
+        try
+        {
+            violations = delegate.validate(object, groups);
+        }
+        finally
+        {
+            resolver.end(enclosing);
+        }
+
+        if (recording.getHeldBack().isEmpty())
+        {
+            return violations;
+        }
+
+        // The elements are validated within this bean, as well as within the beans enclosing it.
+        Set<Object> elementEnclosingBeans = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        elementEnclosingBeans.addAll(enclosingBeans);
+        elementEnclosingBeans.add(object);
+        elementEnclosingBeans = Collections.unmodifiableSet(elementEnclosingBeans);
+
+        Set<ConstraintViolation<T>> merged = new LinkedHashSet<>(violations);
+
+        for (LargeCollectionResolver.HeldBack heldBack : recording.getHeldBack())
+        {
+            List<?> list = heldBack.getList();
+            int taskSize = Math.max(MIN_TASK_SIZE, list.size() / (pool.getParallelism() * TASKS_PER_THREAD));
+
+            merged.addAll(pool.invoke(
+                    new ElementsTask<>(object, heldBack, 0, list.size(), taskSize, elementEnclosingBeans, groups)));
+        }
+
+        return merged;
+    }
+
+    /**
+     * Re-roots a violation found on an element of a list, onto the path of the list from the root bean.
+     *
+     * @param  violation The violation found on the element.
+     * @param  rootBean  The root bean being validated.
+     * @param  listPath  The path to the list from the root bean.
+     * @param  index     The index of the element in the list.
+     * @param  <T>       The type of the root bean.
+     *
+     * @return The violation, re-rooted onto the root bean.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ConstraintViolation<T> reroot(ConstraintViolation<?> violation, T rootBean, PathImpl listPath,
+        int index)
+    {
+        PathImpl path = PathImpl.createCopy(listPath);
+        path.makeLeafNodeIterable();
+        path.setLeafNodeIndex(index);
+
+        for (Iterator<Path.Node> i = violation.getPropertyPath().iterator(); i.hasNext();)
+        {
+            Path.Node node = i.next();
+
+            if (node.getKind() == ElementKind.BEAN)
+            {
+                // The element itself is a bean node at the root of its path; it is only kept when it is also the
+                // leaf, as the subject of a class level constraint.
+                if (!i.hasNext())
+                {
+                    path.addBeanNode();
+                }
+
+                continue;
+            }
+
+            if (node.isInIterable())
+            {
+                path.makeLeafNodeIterable();
+
+                if (node.getIndex() != null)
+                {
+                    path.setLeafNodeIndex(node.getIndex());
+                }
+                else if (node.getKey() != null)
+                {
+                    path.setLeafNodeMapKey(node.getKey());
+                }
+            }
+
+            path.addPropertyNode(node.getName());
+        }
+
+        ConstraintDescriptor<?> descriptor = violation.getConstraintDescriptor();
+        ElementType elementType = null;
+
+        if (descriptor instanceof ConstraintDescriptorImpl)
+        {
+            elementType = ((ConstraintDescriptorImpl<?>) descriptor).getElementType();
+        }
+
+        return ConstraintViolationImpl.forBeanValidation(violation.getMessageTemplate(), violation.getMessage(),
+                (Class<T>) rootBean.getClass(), rootBean, violation.getLeafBean(), violation.getInvalidValue(), path,
+                descriptor, elementType);
+    }
+
+    /**
+     * ElementsTask validates a range of the elements of a list held back, splitting the range in half across the pool
+     * until it is small enough to validate directly. The violations are returned in the order of the elements.
+     *
+     * @param <T> The type of the root bean.
+     */
+    private final class ElementsTask<T> extends RecursiveTask<List<ConstraintViolation<T>>>
+    {
+        /** The serialization version of this task. */
+        private static final long serialVersionUID = 1L;
+
+        /** The root bean being validated. */
+        private final T rootBean;
+
+        /** The list held back, and the path to it. */
+        private final LargeCollectionResolver.HeldBack heldBack;
+
+        /** The index of the first element in the range. */
+        private final int from;
+
+        /** The index after the last element in the range. */
+        private final int to;
+
+        /** The size at or below which a range is validated directly. */
+        private final int taskSize;
+
+        /** The beans being validated around the elements, by identity, which are never cascaded into. */
+        private final Set<Object> enclosingBeans;
+
+        /** The groups to validate against. */
+        private final Class<?>[] groups;
+
+        /**
+         * Creates a task to validate a range of the elements of a list.
+         *
+         * @param rootBean       The root bean being validated.
+         * @param heldBack       The list held back, and the path to it.
+         * @param from           The index of the first element in the range.
+         * @param to             The index after the last element in the range.
+         * @param taskSize       The size at or below which a range is validated directly.
+         * @param enclosingBeans The beans being validated around the elements, by identity.
+         * @param groups         The groups to validate against.
+         */
+        ElementsTask(T rootBean, LargeCollectionResolver.HeldBack heldBack, int from, int to, int taskSize,
+            Set<Object> enclosingBeans, Class<?>[] groups)
+        {
+            this.rootBean = rootBean;
+            this.heldBack = heldBack;
+            this.from = from;
+            this.to = to;
+            this.taskSize = taskSize;
+            this.enclosingBeans = enclosingBeans;
+            this.groups = groups;
+        }
+
+        /** {@inheritDoc} */
+        protected List<ConstraintViolation<T>> compute()
+        {
+            if ((to - from) > taskSize)
+            {
+                int middle = (from + to) >>> 1;
+
+                ElementsTask<T> left =
+                    new ElementsTask<>(rootBean, heldBack, from, middle, taskSize, enclosingBeans, groups);
+                ElementsTask<T> right =
+                    new ElementsTask<>(rootBean, heldBack, middle, to, taskSize, enclosingBeans, groups);
+
+                left.fork();
+
+                List<ConstraintViolation<T>> rightViolations = right.compute();
+                List<ConstraintViolation<T>> violations = left.join();
+                violations.addAll(rightViolations);
+
+                return violations;
+            }
+
+            List<ConstraintViolation<T>> violations = new ArrayList<>();
+            List<?> list = heldBack.getList();
+
+            for (int index = from; index < to; index++)
+            {
+                Object element = list.get(index);
+
+                if (element == null)
+                {
+                    continue;
+                }
+
+                for (ConstraintViolation<?> violation : validateWithin(element, enclosingBeans, groups))
+                {
+                    violations.add(reroot(violation, rootBean, heldBack.getPath(), index));
+                }
+            }
+
+            return violations;
+        }
+    }
+}
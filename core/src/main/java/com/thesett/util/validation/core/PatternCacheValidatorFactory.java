@@ -0,0 +1,71 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorFactory;
+
+/**
+ * PatternCacheValidatorFactory creates {@link CachingPatternValidator}s sharing a pattern cache, and leaves the
+ * creation of all other constraint validators to the default factory.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Create pattern validators that share a cache. </td><td> {@link CachingPatternValidator} </td></tr>
+ * <tr><td> Create all other validators through a delegate factory. </td><td> {@link ConstraintValidatorFactory} </td>
+ * </tr>
+ * </table></pre>
+ */
+class PatternCacheValidatorFactory implements ConstraintValidatorFactory
+{
+    /** The factory to create all other validators through. */
+    private final ConstraintValidatorFactory delegate;
+
+    /** The cache shared by the pattern validators. */
+    private final PatternMatchCache cache;
+
+    /**
+     * Creates a factory for pattern validators sharing a cache.
+     *
+     * @param delegate The factory to create all other validators through.
+     * @param cache    The cache shared by the pattern validators.
+     */
+    PatternCacheValidatorFactory(ConstraintValidatorFactory delegate, PatternMatchCache cache)
+    {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /** {@inheritDoc} */
+    public <T extends ConstraintValidator<?, ?>> T getInstance(Class<T> key)
+    {
+        if (key == CachingPatternValidator.class)
+        {
+            return key.cast(new CachingPatternValidator(cache));
+        }
+
+        return delegate.getInstance(key);
+    }
+
+    /** {@inheritDoc} */
+    public void releaseInstance(ConstraintValidator<?, ?> instance)
+    {
+        if (!(instance instanceof CachingPatternValidator))
+        {
+            delegate.releaseInstance(instance);
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * PatternMatchCache is a bounded, concurrent cache of the results of matching strings against regular expressions. It
+ * is meant for the hot values that reach 'pattern' constraints over and over again, such as country codes, SKUs and
+ * status values, so that each is only matched once.
+ *
+ * <p/>The cache is split into segments by hash, each an LRU map under its own lock. Eviction follows TinyLFU: each
+ * segment keeps a small count-min sketch of how often its keys are looked up, and when it is full, a new result is only
+ * admitted in place of the least recently used one if its key has been looked up more often. This keeps one-off values
+ * from flushing out the frequent ones. The sketch is periodically halved, so that the frequencies follow changes in
+ * the values being seen.
+ *
+ * <p/>Values longer than a configured length are matched directly and never cached, as they are unlikely to repeat
+ * and costly to hold. Counters of hits, misses, skipped values, evictions and rejected admissions are kept, to judge
+ * how well the cache is sized.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Match strings against regular expressions, caching the results. </td><td> {@link Pattern} </td></tr>
+ * <tr><td> Bound the cache, admitting results by frequency of use. </td></tr>
+ * <tr><td> Count hits, misses and evictions. </td></tr>
+ * </table></pre>
+ */
+public final class PatternMatchCache
+{
+    /** The greatest number of segments to split the cache into. */
+    private static final int MAX_SEGMENTS = 16;
+
+    /** The least number of entries to give each segment, before splitting the cache further. */
+    private static final int MIN_SEGMENT_SIZE = 32;
+
+    /** The segments of the cache. */
+    private final Segment[] segments;
+
+    /** The length above which values are not cached. */
+    private final int maximumValueLength;
+
+    /** Counts the lookups that found a cached result. */
+    private final LongAdder hits = new LongAdder();
+
+    /** Counts the lookups that did not find a cached result. */
+    private final LongAdder misses = new LongAdder();
+
+    /** Counts the values that were too long to cache. */
+    private final LongAdder skipped = new LongAdder();
+
+    /** Counts the results evicted to make room for others. */
+    private final LongAdder evictions = new LongAdder();
+
+    /** Counts the results not admitted, as they were used less often than those already cached. */
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Creates a pattern match cache.
+     *
+     * @param maximumSize        The greatest number of results to cache.
+     * @param maximumValueLength The length above which values are matched without being cached.
+     */
+    public PatternMatchCache(int maximumSize, int maximumValueLength)
+    {
+        if (maximumSize < 1)
+        {
+            throw new IllegalArgumentException("The maximum size must be at least 1, but was " + maximumSize);
+        }
+
+        int count = 1;
+
+        while ((count < MAX_SEGMENTS) && ((count * 2 * MIN_SEGMENT_SIZE) <= maximumSize))
+        {
+            count *= 2;
+        }
+
+        segments = new Segment[count];
+
+        for (int i = 0; i < count; i++)
+        {
+            // Spread the remainder over the first segments, so that the sizes add up to the maximum exactly.
+            segments[i] = new Segment((maximumSize / count) + ((i < (maximumSize % count)) ? 1 : 0));
+        }
+
+        this.maximumValueLength = maximumValueLength;
+    }
+
+    /**
+     * Checks if a value matches a regular expression in full, using a cached result when there is one.
+     *
+     * @param  pattern The regular expression.
+     * @param  value   The value to match.
+     *
+     * @return <tt>true</tt> iff the whole value matches the regular expression.
+     */
+    public boolean matches(Pattern pattern, CharSequence value)
+    {
+        if (value.length() > maximumValueLength)
+        {
+            skipped.increment();
+
+            return pattern.matcher(value).matches();
+        }
+
+        Key key = new Key(pattern, value.toString());
+        Segment segment = segments[key.hash & (segments.length - 1)];
+        Boolean result = segment.get(key);
+
+        if (result != null)
+        {
+            hits.increment();
+
+            return result;
+        }
+
+        misses.increment();
+
+        boolean matches = pattern.matcher(key.value).matches();
+        segment.admit(key, matches);
+
+        return matches;
+    }
+
+    /**
+     * Provides the number of lookups that found a cached result.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    /**
+     * Provides the number of lookups that did not find a cached result.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * Provides the number of values that were matched without caching, as they were too long.
+     *
+     * @return The number of values too long to cache.
+     */
+    public long getSkipped()
+    {
+        return skipped.sum();
+    }
+
+    /**
+     * Provides the number of cached results evicted to make room for others.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+
+    /**
+     * Provides the number of results not admitted to the cache, as they were used less often than those already
+     * cached.
+     *
+     * @return The number of rejected admissions.
+     */
+    public long getRejections()
+    {
+        return rejections.sum();
+    }
+
+    /**
+     * Provides the fraction of lookups of cacheable values that found a cached result.
+     *
+     * @return The hit rate, from 0 to 1, or 0 if there have been no lookups.
+     */
+    public double getHitRate()
+    {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+
+        return (lookups == 0) ? 0 : ((double) hitCount / lookups);
+    }
+
+    /**
+     * Provides the number of results currently cached.
+     *
+     * @return The number of results currently cached.
+     */
+    public int size()
+    {
+        int size = 0;
+
+        for (Segment segment : segments)
+        {
+            size += segment.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Key identifies a value matched against a regular expression. Regular expressions are compared by their source
+     * and flags, so that results are shared between separately compiled copies of the same expression.
+     */
+    private static final class Key
+    {
+        /** The source of the regular expression. */
+        private final String regex;
+
+        /** The flags of the regular expression. */
+        private final int flags;
+
+        /** The value matched. */
+        private final String value;
+
+        /** The hash code of the key, mixed so that both its low and high bits are well spread. */
+        private final int hash;
+
+        /**
+         * Creates a key for a value matched against a regular expression.
+         *
+         * @param pattern The regular expression.
+         * @param value   The value matched.
+         */
+        Key(Pattern pattern, String value)
+        {
+            this.regex = pattern.pattern();
+            this.flags = pattern.flags();
+            this.value = value;
+
+            int h = (((regex.hashCode() * 31) + flags) * 31) + value.hashCode();
+            h *= 0x9E3779B9;
+            this.hash = h ^ (h >>> 16);
+        }
+
+        /** {@inheritDoc} */
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+
+            Key other = (Key) o;
+
+            return (hash == other.hash) && (flags == other.flags) && value.equals(other.value) &&
+                regex.equals(other.regex);
+        }
+
+        /** {@inheritDoc} */
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+
+    /**
+     * Segment is one part of the cache, an LRU map under its own lock, with a frequency sketch of its keys to decide
+     * which results to admit once it is full.
+     */
+    private final class Segment
+    {
+        /** The number of hash functions in the sketch. */
+        private static final int DEPTH = 4;
+
+        /** The greatest count held by the sketch. */
+        private static final int MAX_COUNT = 15;
+
+        /** The cached results, least recently used first. */
+        private final Map<Key, Boolean> results = new LinkedHashMap<>(16, 0.75f, true);
+
+        /** The greatest number of results to cache in this segment. */
+        private final int capacity;
+
+        /** The counters of the frequency sketch, a row for each hash function. */
+        private final byte[][] counters;
+
+        /** The number of lookups after which the sketch is halved. */
+        private final int sampleSize;
+
+        /** The number of lookups since the sketch was last halved. */
+        private int lookups;
+
+        /**
+         * Creates a segment.
+         *
+         * @param capacity The greatest number of results to cache in this segment.
+         */
+        Segment(int capacity)
+        {
+            this.capacity = capacity;
+
+            int width = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 3;
+            this.counters = new byte[DEPTH][width];
+            this.sampleSize = 10 * width;
+        }
+
+        /**
+         * Looks up a cached result, recording the lookup in the frequency sketch.
+         *
+         * @param  key The key to look up.
+         *
+         * @return The cached result, or <tt>null</tt> if there is none.
+         */
+        synchronized Boolean get(Key key)
+        {
+            increment(key.hash);
+
+            return results.get(key);
+        }
+
+        /**
+         * Caches a result, if there is room, or if its key is used more often than the least recently used key.
+         *
+         * @param key    The key of the result.
+         * @param result The result.
+         */
+        synchronized void admit(Key key, boolean result)
+        {
+            if (results.containsKey(key))
+            {
+                return;
+            }
+
+            if (results.size() >= capacity)
+            {
+                Iterator<Key> eldest = results.keySet().iterator();
+                Key victim = eldest.next();
+
+                if (frequency(key.hash) <= frequency(victim.hash))
+                {
+                    rejections.increment();
+
+                    return;
+                }
+
+                eldest.remove();
+                evictions.increment();
+            }
+
+            results.put(key, result);
+        }
+
+        /**
+         * Provides the number of results cached in this segment.
+         *
+         * @return The number of results cached in this segment.
+         */
+        synchronized int size()
+        {
+            return results.size();
+        }
+
+        /**
+         * Counts a lookup of a key in the sketch, halving all counts once enough lookups have been counted.
+         *
+         * @param hash The hash of the key.
+         */
+        private void increment(int hash)
+        {
+            for (int row = 0; row < DEPTH; row++)
+            {
+                int index = index(hash, row);
+
+                if (counters[row][index] < MAX_COUNT)
+                {
+                    counters[row][index]++;
+                }
+            }
+
+            if (++lookups >= sampleSize)
+            {
+                for (byte[] row : counters)
+                {
+                    for (int i = 0; i < row.length; i++)
+                    {
+                        row[i] >>= 1;
+                    }
+                }
+
+                lookups = 0;
+            }
+        }
+
+        /**
+         * Estimates how often a key has been looked up, as the least of its counts.
+         *
+         * @param  hash The hash of the key.
+         *
+         * @return The estimated frequency of the key.
+         */
+        private int frequency(int hash)
+        {
+            int frequency = MAX_COUNT;
+
+            for (int row = 0; row < DEPTH; row++)
+            {
+                frequency = Math.min(frequency, counters[row][index(hash, row)]);
+            }
+
+            return frequency;
+        }
+
+        /**
+         * Provides the index of a key's counter in one row of the sketch.
+         *
+         * @param  hash The hash of the key.
+         * @param  row  The row of the sketch.
+         *
+         * @return The index of the key's counter in the row.
+         */
+        private int index(int hash, int row)
+        {
+            int h = (hash + row) * (0x85EBCA6B + (row << 1));
+            h ^= h >>> 15;
+
+            return h & (counters[row].length - 1);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import javax.validation.executable.ExecutableValidator;
+import javax.validation.metadata.BeanDescriptor;
+
+/**
+ * PendingValidator stands in for a validator that is still being built in the background, so that beans can be
+ * validated as soon as a schema arrives, without waiting for Hibernate to bootstrap the validator for it. Once the
+ * build completes, every call is passed straight through to the built validator. Until then, calls are handled
+ * according to a {@link Policy}; by default they are passed to a fallback validator, such as one that applies only the
+ * annotations on beans, without the schema.
+ *
+ * <p/>If the build fails, calls continue to go to the fallback validator under the default policy, and otherwise
+ * throw a {@link ValidationException} with the failure as its cause.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Validate with the built validator, once the build completes. </td><td> {@link CompletableFuture} </td></tr>
+ * <tr><td> Validate according to a policy while the build is in progress. </td><td> {@link Validator} </td></tr>
+ * </table></pre>
+ */
+public final class PendingValidator implements Validator
+{
+    /**
+     * Policy defines how calls are handled while the validator is still being built.
+     */
+    public enum Policy
+    {
+        /** Calls are passed to the fallback validator. */
+        FALLBACK,
+
+        /** Calls wait for the build to complete. */
+        WAIT,
+
+        /** Calls fail with a {@link ValidationException}. */
+        REJECT
+    }
+
+    /** The build of the validator. */
+    private final CompletableFuture<? extends Validator> build;
+
+    /** The validator to use while the build is in progress, under the fallback policy. */
+    private final Validator fallback;
+
+    /** How calls are handled while the build is in progress. */
+    private final Policy policy;
+
+    /** The built validator, once the build has completed. */
+    private volatile Validator built;
+
+    /**
+     * Creates a validator that passes calls to a fallback validator until a build completes.
+     *
+     * @param build    The build of the validator.
+     * @param fallback The validator to use while the build is in progress.
+     */
+    public PendingValidator(CompletableFuture<? extends Validator> build, Validator fallback)
+    {
+        this(build, fallback, Policy.FALLBACK);
+    }
+
+    /**
+     * Creates a validator that handles calls according to a policy until a build completes.
+     *
+     * @param build    The build of the validator.
+     * @param fallback The validator to use while the build is in progress, which is only required under the fallback
+     *                 policy.
+     * @param policy   How calls are handled while the build is in progress.
+     */
+    public PendingValidator(CompletableFuture<? extends Validator> build, Validator fallback, Policy policy)
+    {
+        if ((policy == Policy.FALLBACK) && (fallback == null))
+        {
+            throw new IllegalArgumentException("A fallback validator is required under the fallback policy.");
+        }
+
+        this.build = build;
+        this.fallback = fallback;
+        this.policy = policy;
+    }
+
+    /**
+     * Checks if the build has completed successfully, so that calls go to the built validator.
+     *
+     * @return <tt>true</tt> iff the build has completed successfully.
+     */
+    public boolean isReady()
+    {
+        return (built != null) || (build.isDone() && !build.isCompletedExceptionally());
+    }
+
+    /**
+     * Provides the build of the validator.
+     *
+     * @return The build of the validator.
+     */
+    public CompletableFuture<? extends Validator> getBuild()
+    {
+        return build;
+    }
+
+    /** {@inheritDoc} */
+    public <T> Set<ConstraintViolation<T>> validate(T object, Class<?>... groups)
+    {
+        return current().validate(object, groups);
+    }
+
+    /** {@inheritDoc} */
+    public <T> Set<ConstraintViolation<T>> validateProperty(T object, String propertyName, Class<?>... groups)
+    {
+        return current().validateProperty(object, propertyName, groups);
+    }
+
+    /** {@inheritDoc} */
+    public <T> Set<ConstraintViolation<T>> validateValue(Class<T> beanType, String propertyName, Object value,
+        Class<?>... groups)
+    {
+        return current().validateValue(beanType, propertyName, value, groups);
+    }
+
+    /** {@inheritDoc} */
+    public BeanDescriptor getConstraintsForClass(Class<?> clazz)
+    {
+        return current().getConstraintsForClass(clazz);
+    }
+
+    /** {@inheritDoc} */
+    public <T> T unwrap(Class<T> type)
+    {
+        if (type.isInstance(this))
+        {
+            return type.cast(this);
+        }
+
+        return current().unwrap(type);
+    }
+
+    /** {@inheritDoc} */
+    public ExecutableValidator forExecutables()
+    {
+        return current().forExecutables();
+    }
+
+    /**
+     * Provides the validator to pass a call to; the built validator once the build has completed, or otherwise as the
+     * policy decides.
+     *
+     * @return The validator to pass a call to.
+     *
+     * @throws ValidationException If the build is in progress under the reject policy, or it failed under any policy
+     *                             other than the fallback policy.
+     */
+    private Validator current()
+    {
+        Validator validator = built;
+
+        if (validator != null)
+        {
+            return validator;
+        }
+
+        if (!build.isDone() || build.isCompletedExceptionally())
+        {
+            if (policy == Policy.FALLBACK)
+            {
+                return fallback;
+            }
+            else if ((policy == Policy.REJECT) && !build.isDone())
+            {
+                throw new ValidationException("The validator is still being built.");
+            }
+        }
+
+        try
+        {
+            validator = build.join();
+            built = validator;
+
+            return validator;
+        }
+        catch (CompletionException | CancellationException e)
+        {
+            throw new ValidationException("The validator failed to build.",
+                (e instanceof CompletionException) ? e.getCause() : e);
+        }
+    }
+}
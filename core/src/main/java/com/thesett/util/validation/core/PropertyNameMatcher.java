@@ -0,0 +1,284 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * PropertyNameMatcher classifies the property names of an object, such as the keys of a map, as either allowed by a
+ * json-schema or additional to it. A name is allowed if it is one of the named 'properties', or if it matches any of
+ * the 'patternProperties'. As in json-schema, patterns are not anchored, and match anywhere within a name.
+ *
+ * <p/>Patterns that only test for a literal prefix, such as <tt>^x-</tt>, are the common case, and are not compiled at
+ * all. They are held in a trie, so that a name is checked against all of them in one pass over its characters.
+ * Patterns that only match one literal name, such as <tt>^id$</tt>, are held with the named properties.
+ *
+ * <p/>The remaining patterns are combined into a single alternation, and compiled once, so that each name is
+ * classified in one pass of one matcher, rather than by trying every pattern in turn. Patterns that cannot be
+ * combined, because they hold back references whose group numbers would shift within the alternation, or name the
+ * same groups, are matched one at a time instead.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Classify a property name as allowed or additional. </td></tr>
+ * </table></pre>
+ */
+final class PropertyNameMatcher
+{
+    /** The named properties. */
+    private final Set<String> names;
+
+    /** The literal prefixes that patterns test for. */
+    private final PrefixTrie prefixes = new PrefixTrie();
+
+    /** The patterns that are not literal tests, compiled into as few as possible. */
+    private final List<Pattern> patterns = new ArrayList<>();
+
+    /**
+     * Compiles a matcher for property names.
+     *
+     * @param names    The named properties.
+     * @param patterns The patterns that other property names may match.
+     */
+    PropertyNameMatcher(Collection<String> names, Collection<String> patterns)
+    {
+        this.names = new HashSet<>(names);
+
+        List<String> remaining = new ArrayList<>();
+
+        for (String pattern : patterns)
+        {
+            if (!addLiteral(pattern))
+            {
+                remaining.add(pattern);
+            }
+        }
+
+        if (remaining.isEmpty())
+        {
+            return;
+        }
+
+        if (!hasBackReference(remaining))
+        {
+            StringBuilder alternation = new StringBuilder();
+
+            for (String pattern : remaining)
+            {
+                alternation.append((alternation.length() == 0) ? "(?:" : "|(?:").append(pattern).append(')');
+            }
+
+            try
+            {
+                this.patterns.add(Pattern.compile(alternation.toString()));
+
+                return;
+            }
+            catch (PatternSyntaxException e)
+            {
+                // The patterns cannot be combined, so are compiled one at a time below, where any pattern that is
+                // itself invalid will fail.
+            }
+        }
+
+        for (String pattern : remaining)
+        {
+            this.patterns.add(Pattern.compile(pattern));
+        }
+    }
+
+    /**
+     * Checks if a property name is allowed, by name or by pattern.
+     *
+     * @param  name The property name.
+     *
+     * @return <tt>true</tt> iff the property name is allowed.
+     */
+    boolean isAllowed(String name)
+    {
+        if (names.contains(name) || prefixes.matchesPrefixOf(name))
+        {
+            return true;
+        }
+
+        for (Pattern pattern : patterns)
+        {
+            if (pattern.matcher(name).find())
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds a pattern as a literal prefix or name, if it is anchored at the start and otherwise only holds literal
+     * characters, optionally followed by <tt>.*</tt> for a prefix or <tt>$</tt> for a name.
+     *
+     * @param  pattern The pattern.
+     *
+     * @return <tt>true</tt> iff the pattern was added as a literal, <tt>false</tt> if it must be matched as a regex.
+     */
+    private boolean addLiteral(String pattern)
+    {
+        if (!pattern.startsWith("^"))
+        {
+            return false;
+        }
+
+        StringBuilder literal = new StringBuilder();
+        int i = 1;
+
+        for (; i < pattern.length(); i++)
+        {
+            char c = pattern.charAt(i);
+
+            if ((c == '\\') && (i < (pattern.length() - 1)) && !Character.isLetterOrDigit(pattern.charAt(i + 1)))
+            {
+                literal.append(pattern.charAt(++i));
+            }
+            else if ("\\^$.|?*+()[]{}".indexOf(c) < 0)
+            {
+                literal.append(c);
+            }
+            else
+            {
+                break;
+            }
+        }
+
+        String rest = pattern.substring(i);
+
+        if (rest.isEmpty() || ".*".equals(rest))
+        {
+            prefixes.add(literal.toString());
+
+            return true;
+        }
+        else if ("$".equals(rest))
+        {
+            names.add(literal.toString());
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if any of a set of patterns holds a back reference, by number or by name.
+     *
+     * @param  patterns The patterns to check.
+     *
+     * @return <tt>true</tt> iff any of the patterns holds a back reference.
+     */
+    private static boolean hasBackReference(Collection<String> patterns)
+    {
+        for (String pattern : patterns)
+        {
+            for (int i = 0; i < (pattern.length() - 1); i++)
+            {
+                if (pattern.charAt(i) == '\\')
+                {
+                    char next = pattern.charAt(++i);
+
+                    if (((next >= '1') && (next <= '9')) || (next == 'k'))
+                    {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * PrefixTrie holds a set of literal prefixes, branching on one character at each level, so that a name is checked
+     * against all of them by walking down the trie along its characters.
+     */
+    private static final class PrefixTrie
+    {
+        /** The child nodes, by the next character of the prefixes below them. */
+        private final Map<Character, PrefixTrie> children = new HashMap<>();
+
+        /** Whether a prefix ends at this node. */
+        private boolean terminal;
+
+        /**
+         * Adds a prefix.
+         *
+         * @param prefix The prefix to add.
+         */
+        void add(String prefix)
+        {
+            PrefixTrie node = this;
+
+            for (int i = 0; i < prefix.length(); i++)
+            {
+                PrefixTrie child = node.children.get(prefix.charAt(i));
+
+                if (child == null)
+                {
+                    child = new PrefixTrie();
+                    node.children.put(prefix.charAt(i), child);
+                }
+
+                node = child;
+            }
+
+            node.terminal = true;
+        }
+
+        /**
+         * Checks if any of the prefixes is a prefix of a name.
+         *
+         * @param  name The name.
+         *
+         * @return <tt>true</tt> iff any of the prefixes is a prefix of the name.
+         */
+        boolean matchesPrefixOf(String name)
+        {
+            PrefixTrie node = this;
+
+            for (int i = 0; !node.terminal; i++)
+            {
+                if (i == name.length())
+                {
+                    return false;
+                }
+
+                node = node.children.get(name.charAt(i));
+
+                if (node == null)
+                {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.executable.ExecutableValidator;
+import javax.validation.metadata.BeanDescriptor;
+
+/**
+ * SamplingValidator validates only a fraction of the beans passed to it, for trusted sources whose every message is
+ * too costly to validate in full, but where drift from the schema should still be noticed. Each call to
+ * {@link #validate(Object, Class[])} is picked for validation at random, with the configured probability; beans that
+ * are not picked are passed as valid.
+ *
+ * <p/>In shadow mode, beans picked for validation are validated on a background executor instead, and every call
+ * passes at once. The outcome is only seen through the counters, so validation costs the caller nothing but the hand
+ * off. Beans validated in the shadow must not be modified by the caller afterwards. If the executor rejects a bean,
+ * it is counted as dropped rather than validated. If validating a bean in the shadow throws, as it may for a bean the
+ * underlying validator cannot handle, the exception is counted as an error, as there is no caller left to throw it to.
+ * When validating in the calling thread, such exceptions are counted as errors too, and then thrown on to the caller.
+ *
+ * <p/>Counters of the beans sampled, the beans that failed, and the violations found, are kept so that the rate of
+ * failure amongst the sampled beans can be monitored. Property and value validation, and meta-data, are always passed
+ * straight through to the underlying validator.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Validate a random sample of beans. </td><td> {@link Validator} </td></tr>
+ * <tr><td> Validate sampled beans in the background, in shadow mode. </td><td> {@link Executor} </td></tr>
+ * <tr><td> Count the sampled beans, failures and violations. </td></tr>
+ * </table></pre>
+ */
+public final class SamplingValidator implements Validator
+{
+    /** The validator to sample validations on. */
+    private final Validator delegate;
+
+    /** The probability of each bean being validated. */
+    private final double fraction;
+
+    /** The executor to validate on in shadow mode, or <tt>null</tt> to validate in the calling thread. */
+    private final Executor shadowExecutor;
+
+    /** Counts the calls to validate beans. */
+    private final LongAdder calls = new LongAdder();
+
+    /** Counts the beans validated. */
+    private final LongAdder sampled = new LongAdder();
+
+    /** Counts the validated beans with at least one violation. */
+    private final LongAdder failed = new LongAdder();
+
+    /** Counts the violations found. */
+    private final LongAdder violations = new LongAdder();
+
+    /** Counts the beans picked for shadow validation that the executor rejected. */
+    private final LongAdder dropped = new LongAdder();
+
+    /** Counts the validations that threw an exception. */
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Creates a validator that samples validations.
+     *
+     * @param delegate       The validator to sample validations on.
+     * @param fraction       The probability of each bean being validated, from 0 to 1.
+     * @param shadowExecutor The executor to validate on in shadow mode, or <tt>null</tt> to validate in the calling
+     *                       thread.
+     */
+    SamplingValidator(Validator delegate, double fraction, Executor shadowExecutor)
+    {
+        if ((fraction < 0) || (fraction > 1))
+        {
+            throw new IllegalArgumentException("The sampling fraction must be between 0 and 1, but was " + fraction);
+        }
+
+        this.delegate = delegate;
+        this.fraction = fraction;
+        this.shadowExecutor = shadowExecutor;
+    }
+
+    /** {@inheritDoc} */
+    public <T> Set<ConstraintViolation<T>> validate(final T object, final Class<?>... groups)
+    {
+        calls.increment();
+
+        if ((fraction < 1) && (ThreadLocalRandom.current().nextDouble() >= fraction))
+        {
+            return Collections.emptySet();
+        }
+
+        if (shadowExecutor == null)
+        {
+            try
+            {
+                return count(delegate.validate(object, groups));
+            }
+            catch (RuntimeException e)
+            {
+                errors.increment();
+
+                throw e;
+            }
+        }
+
+        try
+        {
+            shadowExecutor.execute(new Runnable()
+                {
+                    public void run()
+                    {
+                        try
+                        {
+                            count(delegate.validate(object, groups));
+                        }
+                        catch (RuntimeException e)
+                        {
+                            errors.increment();
+                        }
+                    }
+                });
+        }
+        catch (RejectedExecutionException e)
+        {
+            dropped.increment();
+        }
+
+        return Collections.emptySet();
+    }
+
+    /** {@inheritDoc} */
+    public <T> Set<ConstraintViolation<T>> validateProperty(T object, String propertyName, Class<?>... groups)
+    {
+        return delegate.validateProperty(object, propertyName, groups);
+    }
+
+    /** {@inheritDoc} */
+    public <T> Set<ConstraintViolation<T>> validateValue(Class<T> beanType, String propertyName, Object value,
+        Class<?>... groups)
+    {
+        return delegate.validateValue(beanType, propertyName, value, groups);
+    }
+
+    /** {@inheritDoc} */
+    public BeanDescriptor getConstraintsForClass(Class<?> clazz)
+    {
+        return delegate.getConstraintsForClass(clazz);
+    }
+
+    /** {@inheritDoc} */
+    public <T> T unwrap(Class<T> type)
+    {
+        if (type.isInstance(this))
+        {
+            return type.cast(this);
+        }
+
+        return delegate.unwrap(type);
+    }
+
+    /** {@inheritDoc} */
+    public ExecutableValidator forExecutables()
+    {
+        return delegate.forExecutables();
+    }
+
+    /**
+     * Provides the number of calls made to validate beans, whether sampled or not.
+     *
+     * @return The number of calls made to validate beans.
+     */
+    public long getCalls()
+    {
+        return calls.sum();
+    }
+
+    /**
+     * Provides the number of beans that have been validated. In shadow mode, this only counts those whose validation
+     * has completed.
+     *
+     * @return The number of beans that have been validated.
+     */
+    public long getSampled()
+    {
+        return sampled.sum();
+    }
+
+    /**
+     * Provides the number of validated beans that had at least one violation.
+     *
+     * @return The number of validated beans that had at least one violation.
+     */
+    public long getFailed()
+    {
+        return failed.sum();
+    }
+
+    /**
+     * Provides the total number of violations found on the validated beans.
+     *
+     * @return The total number of violations found.
+     */
+    public long getViolations()
+    {
+        return violations.sum();
+    }
+
+    /**
+     * Provides the number of beans picked for shadow validation that the executor rejected.
+     *
+     * @return The number of beans dropped from shadow validation.
+     */
+    public long getDropped()
+    {
+        return dropped.sum();
+    }
+
+    /**
+     * Provides the number of validations that threw an exception, rather than completing. In shadow mode, these
+     * exceptions are only counted; otherwise they are also thrown on to the caller.
+     *
+     * @return The number of validations that threw an exception.
+     */
+    public long getErrors()
+    {
+        return errors.sum();
+    }
+
+    /**
+     * Counts the outcome of validating a bean.
+     *
+     * @param  found The violations found on the bean.
+     * @param  <T>   The type of the bean.
+     *
+     * @return The violations found on the bean.
+     */
+    private <T> Set<ConstraintViolation<T>> count(Set<ConstraintViolation<T>> found)
+    {
+        sampled.increment();
+
+        if (!found.isEmpty())
+        {
+            failed.increment();
+            violations.add(found.size());
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.thesett.util.validation.model.SchemaType;
+
+/**
+ * SchemaCheck is a single json-schema keyword, compiled into a check that can be applied directly to a value. The
+ * checks follow the same rules as the bean validation constraints that {@link JsonSchemaConstraintMapping} translates
+ * the keywords into, so that evaluating a schema directly gives the same outcome as validating through Hibernate. In
+ * particular, <tt>null</tt> values are always valid; presence is checked separately, by the 'required' keyword.
+ *
+ * <p/>The error message is rendered once, when the check is compiled.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Check a value against a json-schema keyword. </td></tr>
+ * <tr><td> Describe a failure of the check. </td></tr>
+ * </table></pre>
+ */
+abstract class SchemaCheck
+{
+    /** The json-schema keyword that this checks. */
+    private final String keyword;
+
+    /** The error message for a failure of this check. */
+    private final String message;
+
+    /**
+     * Creates a check on a json-schema keyword.
+     *
+     * @param keyword The json-schema keyword that this checks.
+     * @param message The error message for a failure of this check.
+     */
+    SchemaCheck(String keyword, String message)
+    {
+        this.keyword = keyword;
+        this.message = message;
+    }
+
+    /**
+     * Creates a check that a number is at least a minimum value.
+     *
+     * @param  minimum   The minimum value.
+     * @param  exclusive <tt>true</tt> iff the minimum value itself is not allowed.
+     *
+     * @return A check on the 'minimum' keyword.
+     */
+    static SchemaCheck minimum(final BigDecimal minimum, final boolean exclusive)
+    {
+        return new SchemaCheck("minimum",
+                "must be greater than " + (exclusive ? "" : "or equal to ") + minimum.toPlainString())
+            {
+                boolean isValid(Object value)
+                {
+                    BigDecimal number = toDecimal(value);
+
+                    if (number == null)
+                    {
+                        return !(value instanceof CharSequence);
+                    }
+
+                    int comparison = number.compareTo(minimum);
+
+                    return exclusive ? (comparison > 0) : (comparison >= 0);
+                }
+            };
+    }
+
+    /**
+     * Creates a check that a number is at most a maximum value.
+     *
+     * @param  maximum   The maximum value.
+     * @param  exclusive <tt>true</tt> iff the maximum value itself is not allowed.
+     *
+     * @return A check on the 'maximum' keyword.
+     */
+    static SchemaCheck maximum(final BigDecimal maximum, final boolean exclusive)
+    {
+        return new SchemaCheck("maximum",
+                "must be less than " + (exclusive ? "" : "or equal to ") + maximum.toPlainString())
+            {
+                boolean isValid(Object value)
+                {
+                    BigDecimal number = toDecimal(value);
+
+                    if (number == null)
+                    {
+                        return !(value instanceof CharSequence);
+                    }
+
+                    int comparison = number.compareTo(maximum);
+
+                    return exclusive ? (comparison < 0) : (comparison <= 0);
+                }
+            };
+    }
+
+    /**
+     * Creates a check that a string is at least a minimum length.
+     *
+     * @param  minLength The minimum length.
+     *
+     * @return A check on the 'minLength' keyword.
+     */
+    static SchemaCheck minLength(final int minLength)
+    {
+        return new SchemaCheck("minLength", "length must be at least " + minLength)
+            {
+                boolean isValid(Object value)
+                {
+                    return !(value instanceof CharSequence) || (((CharSequence) value).length() >= minLength);
+                }
+            };
+    }
+
+    /**
+     * Creates a check that a string is at most a maximum length.
+     *
+     * @param  maxLength The maximum length.
+     *
+     * @return A check on the 'maxLength' keyword.
+     */
+    static SchemaCheck maxLength(final int maxLength)
+    {
+        return new SchemaCheck("maxLength", "length must be at most " + maxLength)
+            {
+                boolean isValid(Object value)
+                {
+                    return !(value instanceof CharSequence) || (((CharSequence) value).length() <= maxLength);
+                }
+            };
+    }
+
+    /**
+     * Creates a check that a string matches a regular expression. As with the bean validation <tt>@Pattern</tt>
+     * constraint, the whole string must match. Where a cache is given, match results are looked up in it first.
+     *
+     * @param  regexp The regular expression.
+     * @param  cache  The cache of match results, or <tt>null</tt> to always match.
+     *
+     * @return A check on the 'pattern' keyword.
+     */
+    static SchemaCheck pattern(String regexp, final PatternMatchCache cache)
+    {
+        final Pattern pattern = Pattern.compile(regexp);
+
+        return new SchemaCheck("pattern", "must match \"" + regexp + "\"")
+            {
+                boolean isValid(Object value)
+                {
+                    if (!(value instanceof CharSequence))
+                    {
+                        return true;
+                    }
+
+                    return (cache != null) ? cache.matches(pattern, (CharSequence) value)
+                                           : pattern.matcher((CharSequence) value).matches();
+                }
+            };
+    }
+
+    /**
+     * Creates a check that a value is one of a set of allowed values.
+     *
+     * @param  allowed The allowed values.
+     *
+     * @return A check on the 'enum' keyword.
+     */
+    static SchemaCheck allowedValues(final AllowedValueSet allowed)
+    {
+        return new SchemaCheck("enum", AllowedValuesValidator.MESSAGE)
+            {
+                boolean isValid(Object value)
+                {
+                    return allowed.contains(value);
+                }
+            };
+    }
+
+    /**
+     * Creates a check that a collection or array holds at least a minimum number of items.
+     *
+     * @param  minItems The minimum number of items.
+     *
+     * @return A check on the 'minItems' keyword.
+     */
+    static SchemaCheck minItems(final int minItems)
+    {
+        return new SchemaCheck("minItems", "size must be between " + minItems + " and " + Integer.MAX_VALUE)
+            {
+                boolean isValid(Object value)
+                {
+                    return !ArrayItems.isArray(value) || (ArrayItems.size(value) >= minItems);
+                }
+            };
+    }
+
+    /**
+     * Creates a check that a collection or array holds at most a maximum number of items.
+     *
+     * @param  maxItems The maximum number of items.
+     *
+     * @return A check on the 'maxItems' keyword.
+     */
+    static SchemaCheck maxItems(final int maxItems)
+    {
+        return new SchemaCheck("maxItems", "size must be between 0 and " + maxItems)
+            {
+                boolean isValid(Object value)
+                {
+                    return !ArrayItems.isArray(value) || (ArrayItems.size(value) <= maxItems);
+                }
+            };
+    }
+
+    /**
+     * Creates a check that a collection or array holds no two equal items.
+     *
+     * @return A check on the 'uniqueItems' keyword.
+     */
+    static SchemaCheck uniqueItems()
+    {
+        return new SchemaCheck("uniqueItems", UniqueItemsValidator.MESSAGE)
+            {
+                boolean isValid(Object value)
+                {
+                    return UniqueItemsValidator.isUnique(value);
+                }
+            };
+    }
+
+    /**
+     * Creates a check that an untyped value, such as one read from a <tt>Map</tt> or <tt>List</tt> produced by a json
+     * parser, is of a json type. Numbers with no fractional part are integers, whatever their Java type.
+     *
+     * @param  type The json type.
+     *
+     * @return A check on the 'type' keyword.
+     */
+    static SchemaCheck type(final SchemaType type)
+    {
+        return new SchemaCheck("type", "must be of type " + type)
+            {
+                boolean isValid(Object value)
+                {
+                    switch (type)
+                    {
+                    case STRING:
+                        return value instanceof CharSequence;
+
+                    case BOOLEAN:
+                        return value instanceof Boolean;
+
+                    case NUMBER:
+                        return (value instanceof Number) && (toDecimal(value) != null);
+
+                    case INTEGER:
+                        return isInteger(value);
+
+                    case ARRAY:
+                        return value instanceof List;
+
+                    case OBJECT:
+                        return value instanceof Map;
+
+                    default:
+                        return false;
+                    }
+                }
+            };
+    }
+
+    /**
+     * Checks if a value is a number with no fractional part.
+     *
+     * @param  value The value to check.
+     *
+     * @return <tt>true</tt> iff the value is a number with no fractional part.
+     */
+    private static boolean isInteger(Object value)
+    {
+        BigDecimal number = (value instanceof Number) ? toDecimal(value) : null;
+
+        return (number != null) && ((number.scale() <= 0) || (number.stripTrailingZeros().scale() <= 0));
+    }
+
+    /**
+     * Converts a value to a decimal, if it is numeric.
+     *
+     * @param  value The value to convert.
+     *
+     * @return The value as a decimal, or <tt>null</tt> if it is not numeric.
+     */
+    static BigDecimal toDecimal(Object value)
+    {
+        if (value instanceof BigDecimal)
+        {
+            return (BigDecimal) value;
+        }
+        else if (value instanceof BigInteger)
+        {
+            return new BigDecimal((BigInteger) value);
+        }
+        else if ((value instanceof Integer) || (value instanceof Long) || (value instanceof Short) ||
+                (value instanceof Byte))
+        {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        else if (value instanceof Number)
+        {
+            double number = ((Number) value).doubleValue();
+
+            return (Double.isNaN(number) || Double.isInfinite(number)) ? null : BigDecimal.valueOf(number);
+        }
+        else if (value instanceof CharSequence)
+        {
+            try
+            {
+                return new BigDecimal(value.toString());
+            }
+            catch (NumberFormatException e)
+            {
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Provides the key to compare a json value by, for equality. Strings and other values are compared as they are,
+     * and numbers by their value, so that numbers of different Java types but with the same value are equal.
+     *
+     * @param  value The value.
+     *
+     * @return The key to compare the value by.
+     */
+    static Object equalityKey(Object value)
+    {
+        if (!(value instanceof Number))
+        {
+            return value;
+        }
+        else if ((value instanceof Integer) || (value instanceof Long) || (value instanceof Short) ||
+                (value instanceof Byte))
+        {
+            return ((Number) value).longValue();
+        }
+
+        BigDecimal number = toDecimal(value);
+
+        if (number == null)
+        {
+            return value;
+        }
+
+        try
+        {
+            return number.longValueExact();
+        }
+        catch (ArithmeticException e)
+        {
+            return number.stripTrailingZeros();
+        }
+    }
+
+    /**
+     * Checks a value against the keyword.
+     *
+     * @param  value The value to check, which is never <tt>null</tt>.
+     *
+     * @return <tt>true</tt> iff the value passes the check.
+     */
+    abstract boolean isValid(Object value);
+
+    /**
+     * Provides the json-schema keyword that this checks.
+     *
+     * @return The json-schema keyword that this checks.
+     */
+    String getKeyword()
+    {
+        return keyword;
+    }
+
+    /**
+     * Provides the error message for a failure of this check.
+     *
+     * @return The error message for a failure of this check.
+     */
+    String getMessage()
+    {
+        return message;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Path;
+import javax.validation.ValidationException;
+import javax.validation.metadata.ConstraintDescriptor;
+
+import org.hibernate.validator.internal.engine.path.PathImpl;
+
+/**
+ * SchemaConstraintViolation is a constraint violation raised by evaluating a json-schema directly, rather than through
+ * Hibernate Validator. It presents the same interface as violations raised by a {@link javax.validation.Validator}, so
+ * that the results of both can be combined. As the constraint was not defined through bean validation, there is no
+ * constraint descriptor for it.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Describe a failure to validate against a json-schema keyword. </td></tr>
+ * </table></pre>
+ *
+ * @param <T> The type of the root object that was validated.
+ */
+public class SchemaConstraintViolation<T> implements ConstraintViolation<T>
+{
+    /** The json-schema keyword that was violated. */
+    private final String keyword;
+
+    /** The interpolated error message. */
+    private final String message;
+
+    /** The root object that was validated. */
+    private final T rootBean;
+
+    /** The object holding the property that was validated. */
+    private final Object leafBean;
+
+    /** The path to the property that was validated, from the root. */
+    private final Path propertyPath;
+
+    /** The value that failed to validate. */
+    private final Object invalidValue;
+
+    /**
+     * Creates a violation of a json-schema keyword.
+     *
+     * @param keyword      The json-schema keyword that was violated.
+     * @param message      The error message.
+     * @param rootBean     The root object that was validated.
+     * @param leafBean     The object holding the property that was validated.
+     * @param propertyPath The path to the property that was validated, from the root.
+     * @param invalidValue The value that failed to validate.
+     */
+    public SchemaConstraintViolation(String keyword, String message, T rootBean, Object leafBean, String propertyPath,
+        Object invalidValue)
+    {
+        this(keyword, message, rootBean, leafBean, PathImpl.createPathFromString(propertyPath), invalidValue);
+    }
+
+    /**
+     * Creates a violation of a json-schema keyword, at a path that has already been built. This allows paths through
+     * property names that the string form of a path cannot express, such as json names containing dashes.
+     *
+     * @param keyword      The json-schema keyword that was violated.
+     * @param message      The error message.
+     * @param rootBean     The root object that was validated.
+     * @param leafBean     The object holding the property that was validated.
+     * @param propertyPath The path to the property that was validated, from the root.
+     * @param invalidValue The value that failed to validate.
+     */
+    public SchemaConstraintViolation(String keyword, String message, T rootBean, Object leafBean, Path propertyPath,
+        Object invalidValue)
+    {
+        this.keyword = keyword;
+        this.message = message;
+        this.rootBean = rootBean;
+        this.leafBean = leafBean;
+        this.propertyPath = propertyPath;
+        this.invalidValue = invalidValue;
+    }
+
+    /**
+     * Provides the json-schema keyword that was violated.
+     *
+     * @return The json-schema keyword that was violated.
+     */
+    public String getKeyword()
+    {
+        return keyword;
+    }
+
+    /** {@inheritDoc} */
+    public String getMessage()
+    {
+        return message;
+    }
+
+    /** {@inheritDoc} */
+    public String getMessageTemplate()
+    {
+        return message;
+    }
+
+    /** {@inheritDoc} */
+    public T getRootBean()
+    {
+        return rootBean;
+    }
+
+    /** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
+    public Class<T> getRootBeanClass()
+    {
+        return (rootBean == null) ? null : (Class<T>) rootBean.getClass();
+    }
+
+    /** {@inheritDoc} */
+    public Object getLeafBean()
+    {
+        return leafBean;
+    }
+
+    /** {@inheritDoc} */
+    public Object[] getExecutableParameters()
+    {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    public Object getExecutableReturnValue()
+    {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    public Path getPropertyPath()
+    {
+        return propertyPath;
+    }
+
+    /** {@inheritDoc} */
+    public Object getInvalidValue()
+    {
+        return invalidValue;
+    }
+
+    /**
+     * There is no bean validation constraint behind a json-schema keyword, so this always returns <tt>null</tt>.
+     *
+     * @return <tt>null</tt>.
+     */
+    public ConstraintDescriptor<?> getConstraintDescriptor()
+    {
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    public <U> U unwrap(Class<U> type)
+    {
+        if (type.isInstance(this))
+        {
+            return type.cast(this);
+        }
+
+        throw new ValidationException("Type " + type + " not supported for unwrapping.");
+    }
+
+    /** Pretty printing for debugging purposes. */
+    public String toString()
+    {
+        return "SchemaConstraintViolation: [ propertyPath = " + propertyPath + ", keyword = " + keyword +
+            ", message = " + message + " ]";
+    }
+}
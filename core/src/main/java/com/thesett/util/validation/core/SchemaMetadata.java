@@ -0,0 +1,204 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.validation.Validator;
+import javax.validation.groups.Default;
+
+/**
+ * SchemaMetadata holds the json-schema keywords that document properties, 'title' and 'description', apart from the
+ * constraints that a schema is mapped onto. As they are not constraints, Hibernate does not register them, nor walk
+ * them on each validation. They are held by class, then property, and under the validation group the schema was added
+ * under, and each validator built from schemas is registered with the metadata of its schemas, so that schemas can be
+ * generated back from the validator with their documentation.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Hold the titles and descriptions of properties, by class, property and group. </td></tr>
+ * <tr><td> Find the metadata of the schemas a validator was built with. </td><td> {@link Validator} </td></tr>
+ * </table></pre>
+ */
+final class SchemaMetadata
+{
+    /** Holds the metadata of the schemas that each validator was built with. */
+    private static final Map<Validator, SchemaMetadata> REGISTRY =
+        Collections.synchronizedMap(new WeakHashMap<Validator, SchemaMetadata>());
+
+    /** Holds the documentation of properties, by class, then Java property name, in the order it was added. */
+    private final Map<Class<?>, Map<String, List<Documentation>>> properties = new HashMap<>();
+
+    /**
+     * Registers the metadata of the schemas that a validator was built with.
+     *
+     * @param validator The validator.
+     * @param metadata  The metadata of its schemas.
+     */
+    static void register(Validator validator, SchemaMetadata metadata)
+    {
+        REGISTRY.put(validator, metadata);
+    }
+
+    /**
+     * Finds the metadata of the schemas that a validator was built with.
+     *
+     * @param  validator The validator.
+     *
+     * @return The metadata of its schemas, or <tt>null</tt> if it was not built from schemas.
+     */
+    static SchemaMetadata of(Validator validator)
+    {
+        return REGISTRY.get(validator);
+    }
+
+    /**
+     * Records the title and description of a property, where the schema of the property has them.
+     *
+     * @param type        The class holding the property.
+     * @param property    The Java name of the property.
+     * @param group       The validation group the schema was added under, or <tt>null</tt> for the default group.
+     * @param title       The title, or <tt>null</tt> if there is none.
+     * @param description The description, or <tt>null</tt> if there is none.
+     */
+    synchronized void add(Class<?> type, String property, Class<?> group, String title, String description)
+    {
+        if ((title == null) && (description == null))
+        {
+            return;
+        }
+
+        Map<String, List<Documentation>> byProperty = properties.get(type);
+
+        if (byProperty == null)
+        {
+            byProperty = new HashMap<>();
+            properties.put(type, byProperty);
+        }
+
+        List<Documentation> documentation = byProperty.get(property);
+
+        if (documentation == null)
+        {
+            documentation = new ArrayList<>(1);
+            byProperty.put(property, documentation);
+        }
+
+        documentation.add(new Documentation((group != null) ? group : Default.class, title, description));
+    }
+
+    /**
+     * Finds the title of a property, as most recently added under a group that applies.
+     *
+     * @param  type     The class holding the property.
+     * @param  property The Java name of the property.
+     * @param  group    The validation group, or <tt>null</tt> to take titles added under any group.
+     *
+     * @return The title, or <tt>null</tt> if there is none.
+     */
+    String getTitle(Class<?> type, String property, Class<?> group)
+    {
+        Documentation documentation = find(type, property, group, true);
+
+        return (documentation != null) ? documentation.title : null;
+    }
+
+    /**
+     * Finds the description of a property, as most recently added under a group that applies.
+     *
+     * @param  type     The class holding the property.
+     * @param  property The Java name of the property.
+     * @param  group    The validation group, or <tt>null</tt> to take descriptions added under any group.
+     *
+     * @return The description, or <tt>null</tt> if there is none.
+     */
+    String getDescription(Class<?> type, String property, Class<?> group)
+    {
+        Documentation documentation = find(type, property, group, false);
+
+        return (documentation != null) ? documentation.description : null;
+    }
+
+    /**
+     * Finds the most recently added documentation of a property with a title or description, under a group that
+     * applies. Documentation added under a group applies to that group and to the groups extending it, as constraints
+     * do.
+     *
+     * @param  type     The class holding the property.
+     * @param  property The Java name of the property.
+     * @param  group    The validation group, or <tt>null</tt> to take documentation added under any group.
+     * @param  title    <tt>true</tt> to find a title, <tt>false</tt> to find a description.
+     *
+     * @return The documentation, or <tt>null</tt> if there is none.
+     */
+    private synchronized Documentation find(Class<?> type, String property, Class<?> group, boolean title)
+    {
+        Map<String, List<Documentation>> byProperty = properties.get(type);
+        List<Documentation> documentation = (byProperty != null) ? byProperty.get(property) : null;
+
+        if (documentation == null)
+        {
+            return null;
+        }
+
+        for (int i = documentation.size() - 1; i >= 0; i--)
+        {
+            Documentation candidate = documentation.get(i);
+
+            if (((group == null) || candidate.group.isAssignableFrom(group)) &&
+                    ((title ? candidate.title : candidate.description) != null))
+            {
+                return candidate;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Documentation is the title and description of a property, from a schema added under a validation group.
+     */
+    private static final class Documentation
+    {
+        /** The validation group the schema was added under. */
+        private final Class<?> group;
+
+        /** The title, or <tt>null</tt> if there is none. */
+        private final String title;
+
+        /** The description, or <tt>null</tt> if there is none. */
+        private final String description;
+
+        /**
+         * Creates the documentation of a property.
+         *
+         * @param group       The validation group the schema was added under.
+         * @param title       The title, or <tt>null</tt> if there is none.
+         * @param description The description, or <tt>null</tt> if there is none.
+         */
+        Documentation(Class<?> group, String title, String description)
+        {
+            this.group = group;
+            this.title = title;
+            this.description = description;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.groups.Default;
+
+import com.thesett.util.validation.model.JsonSchema;
+
+/**
+ * TenantOverlayValidator validates beans against a shared base validation, plus a small json-schema overlay held for
+ * each tenant. The base validator is built once, and each tenant holds only its compiled overlay, so that memory use
+ * and the time taken to add a tenant scale with the size of the overlay, rather than with the number of tenants.
+ *
+ * <p/>Overlays are compiled before they are published, and replacing an overlay swaps in the newly compiled one, so
+ * validations already running against the old overlay are unaffected.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Hold a json-schema overlay for each tenant. </td><td> {@link JsonSchemaEvaluator} </td></tr>
+ * <tr><td> Validate beans against the base validation plus a tenants overlay. </td><td> {@link Validator} </td></tr>
+ * </table></pre>
+ */
+public class TenantOverlayValidator
+{
+    /** The validator for the base validation shared by all tenants. */
+    private final Validator baseValidator;
+
+    /** Holds the compiled overlay of each tenant. */
+    private final ConcurrentMap<String, JsonSchemaEvaluator> overlays = new ConcurrentHashMap<>();
+
+    /** Creates a tenant overlay validator, over the validation defined by annotations. */
+    public TenantOverlayValidator()
+    {
+        this(new JsonSchemaValidatorFactory().getBuilder().build());
+    }
+
+    /**
+     * Creates a tenant overlay validator, over a base validator.
+     *
+     * @param baseValidator The validator for the base validation shared by all tenants.
+     */
+    public TenantOverlayValidator(Validator baseValidator)
+    {
+        this.baseValidator = baseValidator;
+    }
+
+    /**
+     * Sets the overlay for a tenant, replacing any overlay it already has.
+     *
+     * @param tenantId The id of the tenant.
+     * @param overlay  The json-schema to validate the tenants beans against, in addition to the base validation.
+     */
+    public void putOverlay(String tenantId, JsonSchema overlay)
+    {
+        overlays.put(tenantId, JsonSchemaEvaluator.compile(overlay));
+    }
+
+    /**
+     * Removes the overlay for a tenant, so that its beans are validated against the base validation only.
+     *
+     * @param tenantId The id of the tenant.
+     */
+    public void removeOverlay(String tenantId)
+    {
+        overlays.remove(tenantId);
+    }
+
+    /**
+     * Checks if a tenant has an overlay.
+     *
+     * @param  tenantId The id of the tenant.
+     *
+     * @return <tt>true</tt> iff the tenant has an overlay.
+     */
+    public boolean hasOverlay(String tenantId)
+    {
+        return overlays.containsKey(tenantId);
+    }
+
+    /**
+     * Provides the validator for the base validation shared by all tenants.
+     *
+     * @return The validator for the base validation shared by all tenants.
+     */
+    public Validator getBaseValidator()
+    {
+        return baseValidator;
+    }
+
+    /**
+     * Validates a bean against the base validation, plus the overlay of a tenant if it has one. The overlay has no
+     * groups of its own, so it belongs to the default group, and is only applied when that group is validated.
+     *
+     * @param  tenantId The id of the tenant.
+     * @param  bean     The bean to validate.
+     * @param  groups   The validation groups to apply, none meaning the default group.
+     * @param  <T>      The type of the bean to validate.
+     *
+     * @return The violations found by the base validation, followed by those found by the overlay.
+     */
+    public <T> Set<ConstraintViolation<T>> validate(String tenantId, T bean, Class<?>... groups)
+    {
+        Set<ConstraintViolation<T>> violations = baseValidator.validate(bean, groups);
+        JsonSchemaEvaluator overlay = overlays.get(tenantId);
+
+        if ((overlay == null) || !includesDefault(groups))
+        {
+            return violations;
+        }
+
+        Set<ConstraintViolation<T>> overlayViolations = overlay.validate(bean);
+
+        if (overlayViolations.isEmpty())
+        {
+            return violations;
+        }
+
+        Set<ConstraintViolation<T>> combined = new LinkedHashSet<>(violations);
+        combined.addAll(overlayViolations);
+
+        return combined;
+    }
+
+    /**
+     * Checks if a set of validation groups includes the default group, as it does when no groups are given.
+     *
+     * @param  groups The validation groups.
+     *
+     * @return <tt>true</tt> iff the groups include the default group.
+     */
+    private static boolean includesDefault(Class<?>... groups)
+    {
+        if ((groups == null) || (groups.length == 0))
+        {
+            return true;
+        }
+
+        for (Class<?> group : groups)
+        {
+            if (Default.class.equals(group))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -20,25 +20,18 @@ import java.lang.annotation.Retention;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 import java.lang.annotation.Target;
 
-import javax.validation.Constraint;
-import javax.validation.Payload;
-
 /**
+ * Title documents a field with the json-schema 'title' keyword, for the schemas generated from a class. It is not a
+ * constraint, so it plays no part in validation.
+ *
  * <pre><p/><table id="crc"><caption>CRC Card</caption>
  * <tr><th> Responsibilities </th><th> Collaborations </th>
- * <tr><td>  </td></tr>
+ * <tr><td> Hold the json-schema 'title' of a field. </td></tr>
  * </table></pre>
  */
 @Target({ FIELD })
 @Retention(RUNTIME)
-@Constraint(validatedBy = {})
 public @interface Title
 {
-    String message() default "";
-
-    Class<?>[] groups() default {};
-
-    Class<? extends Payload>[] payload() default {};
-
     String title();
 }
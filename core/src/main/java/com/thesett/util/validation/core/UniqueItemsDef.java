@@ -0,0 +1,34 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import org.hibernate.validator.cfg.ConstraintDef;
+
+/**
+ * UniqueItemsDef is the constraint definition for the json-schema 'uniqueItems' field.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Define a {@link UniqueItems} constraint programmatically. </td></tr>
+ * </table></pre>
+ */
+public class UniqueItemsDef extends ConstraintDef<UniqueItemsDef, UniqueItems>
+{
+    public UniqueItemsDef()
+    {
+        super(UniqueItems.class);
+    }
+}
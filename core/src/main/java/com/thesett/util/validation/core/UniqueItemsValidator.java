@@ -0,0 +1,270 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * UniqueItemsValidator checks that a collection or array holds no two equal items. Items are hashed, so that the check
+ * takes time linear in the number of items rather than comparing every pair.
+ *
+ * <p/>Equality follows json, in that numbers are equal if they have the same value, whatever their Java types; 1,
+ * 1L and 1.0 are all the same item. Arrays of primitives are checked without boxing their items, through an open
+ * addressed hash set of longs.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Check that a collection or array holds unique items. </td></tr>
+ * </table></pre>
+ */
+public class UniqueItemsValidator implements ConstraintValidator<UniqueItems, Object>
+{
+    /** The error message for items that are not unique. */
+    static final String MESSAGE = "must only contain unique items";
+
+    /** {@inheritDoc} */
+    public void initialize(UniqueItems constraintAnnotation)
+    {
+    }
+
+    /** {@inheritDoc} */
+    public boolean isValid(Object value, ConstraintValidatorContext context)
+    {
+        return (value == null) || isUnique(value);
+    }
+
+    /**
+     * Checks that a collection or array holds no two equal items. Other values are considered to be unique.
+     *
+     * @param  value The value to check.
+     *
+     * @return <tt>true</tt> iff the value is not a collection or array, or its items are unique.
+     */
+    static boolean isUnique(Object value)
+    {
+        if (value instanceof Collection)
+        {
+            return isUnique((Collection<?>) value);
+        }
+        else if (value instanceof Object[])
+        {
+            return isUnique(Arrays.asList((Object[]) value));
+        }
+        else if (value instanceof int[])
+        {
+            int[] items = (int[]) value;
+            LongHashSet seen = new LongHashSet(items.length);
+
+            for (int item : items)
+            {
+                if (!seen.add(item))
+                {
+                    return false;
+                }
+            }
+        }
+        else if (value instanceof long[])
+        {
+            long[] items = (long[]) value;
+            LongHashSet seen = new LongHashSet(items.length);
+
+            for (long item : items)
+            {
+                if (!seen.add(item))
+                {
+                    return false;
+                }
+            }
+        }
+        else if (value instanceof double[])
+        {
+            double[] items = (double[]) value;
+            LongHashSet seen = new LongHashSet(items.length);
+
+            for (double item : items)
+            {
+                if (!seen.add(bits(item)))
+                {
+                    return false;
+                }
+            }
+        }
+        else if (value instanceof float[])
+        {
+            float[] items = (float[]) value;
+            LongHashSet seen = new LongHashSet(items.length);
+
+            for (float item : items)
+            {
+                if (!seen.add(bits(item)))
+                {
+                    return false;
+                }
+            }
+        }
+        else if (value instanceof short[])
+        {
+            short[] items = (short[]) value;
+            LongHashSet seen = new LongHashSet(items.length);
+
+            for (short item : items)
+            {
+                if (!seen.add(item))
+                {
+                    return false;
+                }
+            }
+        }
+        else if (value instanceof char[])
+        {
+            char[] items = (char[]) value;
+            LongHashSet seen = new LongHashSet(items.length);
+
+            for (char item : items)
+            {
+                if (!seen.add(item))
+                {
+                    return false;
+                }
+            }
+        }
+        else if (value instanceof byte[])
+        {
+            byte[] items = (byte[]) value;
+            LongHashSet seen = new LongHashSet(items.length);
+
+            for (byte item : items)
+            {
+                if (!seen.add(item))
+                {
+                    return false;
+                }
+            }
+        }
+        else if (value instanceof boolean[])
+        {
+            boolean[] items = (boolean[]) value;
+
+            return (items.length < 2) || ((items.length == 2) && (items[0] != items[1]));
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks that a collection holds no two equal items.
+     *
+     * @param  items The collection to check.
+     *
+     * @return <tt>true</tt> iff the items are unique.
+     */
+    private static boolean isUnique(Collection<?> items)
+    {
+        Set<Object> seen = new HashSet<>(Math.max(16, (int) (items.size() / 0.75f) + 1));
+
+        for (Object item : items)
+        {
+            if (!seen.add(SchemaCheck.equalityKey(item)))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Provides the bits of a floating point number to compare it by, treating positive and negative zero as equal.
+     *
+     * @param  item The floating point number.
+     *
+     * @return The bits to compare the number by.
+     */
+    private static long bits(double item)
+    {
+        return Double.doubleToLongBits((item == 0.0d) ? 0.0d : item);
+    }
+
+    /**
+     * LongHashSet is a minimal open addressed hash set of longs, used to check primitive arrays for duplicates without
+     * boxing. Zero marks an empty slot, so whether zero itself has been added is held separately.
+     */
+    private static final class LongHashSet
+    {
+        /** The slots of the hash table, of which zero marks an empty slot. */
+        private final long[] table;
+
+        /** The mask to reduce a hash to a slot index. */
+        private final int mask;
+
+        /** Whether zero has been added. */
+        private boolean hasZero;
+
+        /**
+         * Creates a set with room for a number of values, keeping the table at most half full.
+         *
+         * @param expected The number of values that may be added.
+         */
+        LongHashSet(int expected)
+        {
+            int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+
+            table = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        /**
+         * Adds a value to the set.
+         *
+         * @param  value The value to add.
+         *
+         * @return <tt>true</tt> iff the value was not already in the set.
+         */
+        boolean add(long value)
+        {
+            if (value == 0L)
+            {
+                boolean added = !hasZero;
+                hasZero = true;
+
+                return added;
+            }
+
+            long hash = value * 0x9E3779B97F4A7C15L;
+            int index = (int) (hash ^ (hash >>> 32)) & mask;
+
+            while (table[index] != 0L)
+            {
+                if (table[index] == value)
+                {
+                    return false;
+                }
+
+                index = (index + 1) & mask;
+            }
+
+            table[index] = value;
+
+            return true;
+        }
+    }
+}
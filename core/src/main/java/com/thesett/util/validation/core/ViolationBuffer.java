@@ -0,0 +1,259 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.Arrays;
+
+/**
+ * ViolationBuffer holds the violations found by a {@link JsonSchemaEvaluator} as integers, rather than as bean
+ * validation constraint violations, so that rejecting a payload allocates next to nothing. Each violation is a path id
+ * and a constraint code, both numbered by the evaluator; the path id stands for the property path with the positions
+ * of any array items left out, and the positions are held alongside. The property path and message of a violation are
+ * only rendered when asked for.
+ *
+ * <p/>A buffer is meant to be reused; each validation into it clears it first, and its arrays only grow. The path ids
+ * and codes are only meaningful to the evaluator that filled the buffer. A buffer is not thread safe, so each thread
+ * should use its own.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Record violations as path ids and constraint codes. </td></tr>
+ * <tr><td> Render the paths and messages of violations on demand. </td><td> {@link ViolationCatalog} </td></tr>
+ * </table></pre>
+ */
+public final class ViolationBuffer
+{
+    /** The number of integers recorded for each violation; its path id, its code and the offset of its positions. */
+    private static final int STRIDE = 3;
+
+    /** The catalog of paths and codes of the evaluator that last filled this buffer. */
+    private ViolationCatalog catalog;
+
+    /** The violations, as path ids, codes and offsets into the positions. */
+    private int[] records = new int[STRIDE * 16];
+
+    /** The number of violations. */
+    private int size;
+
+    /** The positions of the array items on the paths of the violations. */
+    private int[] positions = new int[16];
+
+    /** The number of positions. */
+    private int positionCount;
+
+    /** The names of properties not allowed, and the paths of violations whose paths are not numbered, by violation. */
+    private Object[] extras;
+
+    /** Empties the buffer, keeping its arrays for reuse. */
+    public void clear()
+    {
+        if ((extras != null) && (size > 0))
+        {
+            Arrays.fill(extras, 0, size, null);
+        }
+
+        size = 0;
+        positionCount = 0;
+    }
+
+    /**
+     * Provides the number of violations in the buffer.
+     *
+     * @return The number of violations in the buffer.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Checks if the buffer holds no violations.
+     *
+     * @return <tt>true</tt> iff the buffer holds no violations.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Provides the path id of a violation. Violations of the same property, ignoring the positions of array items,
+     * have the same path id. A path id of -1 is used once the evaluator has numbered too many paths, as can happen
+     * validating deeply nested objects against a recursive schema.
+     *
+     * @param  index The index of the violation.
+     *
+     * @return The path id of the violation.
+     */
+    public int getPathId(int index)
+    {
+        return records[check(index) * STRIDE];
+    }
+
+    /**
+     * Provides the constraint code of a violation. Violations of the same check have the same code.
+     *
+     * @param  index The index of the violation.
+     *
+     * @return The constraint code of the violation.
+     */
+    public int getCode(int index)
+    {
+        return records[(check(index) * STRIDE) + 1];
+    }
+
+    /**
+     * Provides the json-schema keyword that a violation failed.
+     *
+     * @param  index The index of the violation.
+     *
+     * @return The json-schema keyword.
+     */
+    public String getKeyword(int index)
+    {
+        return catalog.getKeyword(getCode(index));
+    }
+
+    /**
+     * Provides the error message of a violation.
+     *
+     * @param  index The index of the violation.
+     *
+     * @return The error message.
+     */
+    public String getMessage(int index)
+    {
+        return catalog.getMessage(getCode(index));
+    }
+
+    /**
+     * Renders the property path of a violation, as bean validation would report it, such as <tt>lines[3].qty</tt>.
+     *
+     * @param  index The index of the violation.
+     *
+     * @return The property path.
+     */
+    public String getPath(int index)
+    {
+        int pathId = getPathId(index);
+
+        if (pathId == ViolationCatalog.UNNUMBERED)
+        {
+            return (String) extras[index];
+        }
+
+        String path = catalog.renderPath(pathId, positions, records[(index * STRIDE) + 2]);
+
+        if (getCode(index) == ViolationCatalog.ADDITIONAL)
+        {
+            path = path.isEmpty() ? (String) extras[index] : (path + '.' + extras[index]);
+        }
+
+        return path;
+    }
+
+    /**
+     * Clears the buffer, to be filled by an evaluator.
+     *
+     * @param evaluatorCatalog The catalog of paths and codes of the evaluator.
+     */
+    void reset(ViolationCatalog evaluatorCatalog)
+    {
+        clear();
+        catalog = evaluatorCatalog;
+    }
+
+    /**
+     * Records a position of an array item, on the path of the violation about to be added.
+     *
+     * @param position The position of the array item.
+     */
+    void addPosition(int position)
+    {
+        if (positionCount == positions.length)
+        {
+            positions = Arrays.copyOf(positions, positionCount * 2);
+        }
+
+        positions[positionCount++] = position;
+    }
+
+    /**
+     * Provides the number of positions recorded, which is the offset of those of the next violation.
+     *
+     * @return The number of positions recorded.
+     */
+    int getPositionCount()
+    {
+        return positionCount;
+    }
+
+    /**
+     * Records a violation.
+     *
+     * @param pathId         The path id.
+     * @param code           The constraint code.
+     * @param positionOffset The offset of the positions on its path.
+     * @param extra          The name of the property not allowed, or the path when not numbered, or <tt>null</tt>.
+     */
+    void add(int pathId, int code, int positionOffset, Object extra)
+    {
+        if ((size * STRIDE) == records.length)
+        {
+            records = Arrays.copyOf(records, records.length * 2);
+        }
+
+        int at = size * STRIDE;
+        records[at] = pathId;
+        records[at + 1] = code;
+        records[at + 2] = positionOffset;
+
+        if (extra != null)
+        {
+            if (extras == null)
+            {
+                extras = new Object[records.length / STRIDE];
+            }
+            else if (extras.length <= size)
+            {
+                extras = Arrays.copyOf(extras, records.length / STRIDE);
+            }
+
+            extras[size] = extra;
+        }
+
+        size++;
+    }
+
+    /**
+     * Checks that an index is that of a violation in the buffer.
+     *
+     * @param  index The index.
+     *
+     * @return The index.
+     *
+     * @throws IndexOutOfBoundsException If there is no violation at the index.
+     */
+    private int check(int index)
+    {
+        if ((index < 0) || (index >= size))
+        {
+            throw new IndexOutOfBoundsException("No violation at " + index + ", the buffer holds " + size + ".");
+        }
+
+        return index;
+    }
+}
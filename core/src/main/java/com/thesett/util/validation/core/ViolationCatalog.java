@@ -0,0 +1,382 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * ViolationCatalog numbers the property paths and checks of a compiled schema, so that violations of it can be
+ * recorded as pairs of integers in a {@link ViolationBuffer}, and only turned back into paths and messages when those
+ * are asked for.
+ *
+ * <p/>Property paths are numbered as templates, in which the positions of array items are left out, as in
+ * <tt>lines[].qty</tt>; the positions are recorded alongside the violation. The templates reachable through the
+ * properties and items of the schema are numbered, and their text rendered, when the catalog is built; names that only
+ * turn up during validation, such as the Java names of bean fields, are numbered the first time they are seen. The
+ * templates of recursive schemas would grow with the depth of the objects validated, so their number is capped, and
+ * violations beyond the cap are recorded with their paths rendered in full.
+ *
+ * <p/>Checks are numbered once, when the catalog is built. The codes {@link #REQUIRED} and {@link #ADDITIONAL} stand
+ * for a missing required property and a property that is not allowed.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Number the property path templates of a compiled schema. </td><td> {@link CompiledSchema} </td></tr>
+ * <tr><td> Number the checks of a compiled schema. </td><td> {@link SchemaCheck} </td></tr>
+ * <tr><td> Render paths and messages from their numbers. </td></tr>
+ * </table></pre>
+ */
+final class ViolationCatalog
+{
+    /** The code of a missing required property. */
+    static final int REQUIRED = 0;
+
+    /** The code of a property that is not allowed, as additional properties are not. */
+    static final int ADDITIONAL = 1;
+
+    /** The id of the path to the root. */
+    static final int ROOT = 0;
+
+    /** The id returned for paths beyond the cap on the number of templates. */
+    static final int UNNUMBERED = -1;
+
+    /** The greatest number of path templates. */
+    private static final int MAX_PATHS = 1 << 16;
+
+    /** The checks, by code, with the first two codes reserved. */
+    private final SchemaCheck[] checks;
+
+    /** The codes of the checks. */
+    private final Map<SchemaCheck, Integer> codes = new IdentityHashMap<>();
+
+    /** The number of path templates so far. */
+    private int pathCount;
+
+    /** The rendered text of each template, by id. */
+    private volatile String[] texts = new String[64];
+
+    /** The number of array items on the path of each template, by id. */
+    private volatile int[] itemCounts = new int[64];
+
+    /** The templates extending each template with a named property, by id and then name. */
+    private volatile Object[] children = new Object[64];
+
+    /** The template extending each template with an array item, by id, or zero when not yet numbered. */
+    private volatile int[] itemChildren = new int[64];
+
+    /**
+     * Builds the catalog of a compiled schema.
+     *
+     * @param root The compiled schema.
+     */
+    ViolationCatalog(CompiledSchema root)
+    {
+        List<SchemaCheck> numbered = new ArrayList<>();
+        numbered.add(null);
+        numbered.add(null);
+
+        addPath(UNNUMBERED, "", 0);
+        number(root, ROOT, numbered, new IdentityHashMap<CompiledSchema, Object>(),
+            new IdentityHashMap<CompiledSchema, Object>());
+
+        checks = numbered.toArray(new SchemaCheck[numbered.size()]);
+    }
+
+    /**
+     * Provides the code of a check.
+     *
+     * @param  check The check.
+     *
+     * @return The code of the check.
+     */
+    int getCode(SchemaCheck check)
+    {
+        return codes.get(check);
+    }
+
+    /**
+     * Provides the json-schema keyword that a code stands for.
+     *
+     * @param  code The code.
+     *
+     * @return The json-schema keyword.
+     */
+    String getKeyword(int code)
+    {
+        if (code == REQUIRED)
+        {
+            return "required";
+        }
+
+        return (code == ADDITIONAL) ? "additionalProperties" : checks[code].getKeyword();
+    }
+
+    /**
+     * Provides the error message that a code stands for.
+     *
+     * @param  code The code.
+     *
+     * @return The error message.
+     */
+    String getMessage(int code)
+    {
+        if (code == REQUIRED)
+        {
+            return JsonSchemaEvaluator.REQUIRED_MESSAGE;
+        }
+
+        return (code == ADDITIONAL) ? AllowedPropertiesValidator.MESSAGE : checks[code].getMessage();
+    }
+
+    /**
+     * Provides the id of the template extending a template with a named property, numbering it if it is new.
+     *
+     * @param  parent The id of the template to extend.
+     * @param  name   The name of the property.
+     *
+     * @return The id of the extended template, or {@link #UNNUMBERED} if there are too many templates.
+     */
+    int child(int parent, String name)
+    {
+        if (parent == UNNUMBERED)
+        {
+            return UNNUMBERED;
+        }
+
+        Integer id = childMap(parent).get(name);
+
+        if (id != null)
+        {
+            return id;
+        }
+
+        synchronized (this)
+        {
+            id = childMap(parent).get(name);
+
+            if (id == null)
+            {
+                id = addPath(parent, name, itemCounts[parent]);
+
+                if (id != UNNUMBERED)
+                {
+                    childMap(parent).put(name, id);
+                }
+            }
+
+            return id;
+        }
+    }
+
+    /**
+     * Provides the id of the template extending a template with an array item, numbering it if it is new.
+     *
+     * @param  parent The id of the template to extend.
+     *
+     * @return The id of the extended template, or {@link #UNNUMBERED} if there are too many templates.
+     */
+    int item(int parent)
+    {
+        if (parent == UNNUMBERED)
+        {
+            return UNNUMBERED;
+        }
+
+        int id = itemChildren[parent];
+
+        if (id != 0)
+        {
+            return id;
+        }
+
+        synchronized (this)
+        {
+            id = itemChildren[parent];
+
+            if (id == 0)
+            {
+                id = addPath(parent, null, itemCounts[parent] + 1);
+
+                if (id != UNNUMBERED)
+                {
+                    // Threads that read the array without the lock, and miss this entry, look again under it.
+                    itemChildren[parent] = id;
+                }
+            }
+
+            return id;
+        }
+    }
+
+    /**
+     * Provides the number of array items on the path of a template.
+     *
+     * @param  id The id of the template.
+     *
+     * @return The number of array items.
+     */
+    int getItemCount(int id)
+    {
+        return itemCounts[id];
+    }
+
+    /**
+     * Renders a path from its template and the positions of the array items on it.
+     *
+     * @param  id        The id of the template.
+     * @param  positions The positions of the array items on the path, root first.
+     * @param  offset    The offset of the first position.
+     *
+     * @return The rendered path.
+     */
+    String renderPath(int id, int[] positions, int offset)
+    {
+        String text = texts[id];
+        StringBuilder path = new StringBuilder(text.length() + 8);
+        int next = offset;
+        int from = 0;
+
+        for (int at = text.indexOf("[]"); at >= 0; at = text.indexOf("[]", from))
+        {
+            path.append(text, from, at + 1).append(positions[next++]);
+            from = at + 1;
+        }
+
+        return path.append(text, from, text.length()).toString();
+    }
+
+    /**
+     * Numbers the checks of a schema node, and the path templates and checks of the properties and items beneath it.
+     * Nodes already on the path from the root are not descended into again.
+     *
+     * @param node     The compiled schema node.
+     * @param path     The id of the path template to the node.
+     * @param numbered The checks numbered so far, by code.
+     * @param seen     The nodes whose checks have been numbered.
+     * @param onPath   The nodes on the path from the root to this node.
+     */
+    private void number(CompiledSchema node, int path, List<SchemaCheck> numbered, Map<CompiledSchema, Object> seen,
+        Map<CompiledSchema, Object> onPath)
+    {
+        if (seen.put(node, Boolean.TRUE) == null)
+        {
+            if (node.getTypeCheck() != null)
+            {
+                codes.put(node.getTypeCheck(), numbered.size());
+                numbered.add(node.getTypeCheck());
+            }
+
+            for (SchemaCheck check : node.getChecks())
+            {
+                codes.put(check, numbered.size());
+                numbered.add(check);
+            }
+        }
+
+        if ((path == UNNUMBERED) || (onPath.put(node, Boolean.TRUE) != null))
+        {
+            return;
+        }
+
+        for (Map.Entry<String, CompiledSchema> property : node.getProperties().entrySet())
+        {
+            number(property.getValue(), child(path, property.getKey()), numbered, seen, onPath);
+        }
+
+        if (node.hasItemConstraints())
+        {
+            int item = item(path);
+
+            if (node.getItemSchema() != null)
+            {
+                number(node.getItemSchema(), item, numbered, seen, onPath);
+            }
+
+            for (int i = 0; i < node.getItemCount(); i++)
+            {
+                number(node.getItem(i), item, numbered, seen, onPath);
+            }
+        }
+
+        onPath.remove(node);
+    }
+
+    /**
+     * Provides the map of the named children of a template.
+     *
+     * @param  id The id of the template.
+     *
+     * @return The map of the named children of the template.
+     */
+    @SuppressWarnings("unchecked")
+    private ConcurrentMap<String, Integer> childMap(int id)
+    {
+        return (ConcurrentMap<String, Integer>) children[id];
+    }
+
+    /**
+     * Adds a path template.
+     *
+     * @param  parent    The id of the template it extends, or {@link #UNNUMBERED} for the root.
+     * @param  name      The name of the property it extends it with, or <tt>null</tt> for an array item.
+     * @param  itemCount The number of array items on its path.
+     *
+     * @return The id of the new template, or {@link #UNNUMBERED} if there are too many templates.
+     */
+    private synchronized int addPath(int parent, String name, int itemCount)
+    {
+        int id = pathCount;
+
+        if (id == MAX_PATHS)
+        {
+            return UNNUMBERED;
+        }
+
+        String[] newTexts = texts;
+        int[] newItemCounts = itemCounts;
+        Object[] newChildren = children;
+
+        if (id == newTexts.length)
+        {
+            newTexts = Arrays.copyOf(newTexts, id * 2);
+            newItemCounts = Arrays.copyOf(newItemCounts, id * 2);
+            newChildren = Arrays.copyOf(newChildren, id * 2);
+            itemChildren = Arrays.copyOf(itemChildren, id * 2);
+        }
+
+        String parentText = (parent == UNNUMBERED) ? "" : newTexts[parent];
+
+        newTexts[id] =
+            (name == null) ? (parentText + "[]") : (parentText.isEmpty() ? name : (parentText + '.' + name));
+        newItemCounts[id] = itemCount;
+        newChildren[id] = new ConcurrentHashMap<String, Integer>();
+
+        // The arrays are republished after the entries are written, and before the id is handed out, so that threads
+        // reading them without the lock see the entries.
+        texts = newTexts;
+        itemCounts = newItemCounts;
+        children = newChildren;
+        pathCount = id + 1;
+
+        return id;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ConstraintBounds gathers the bounds that the constraints on a field place on it, whilst a json-schema is generated
+ * from validation annotations. A field may carry the same constraint more than once, through a list annotation such as
+ * <tt>@Min.List</tt>, and every one of them must hold. So rather than letting the last one met overwrite the others,
+ * the strictest bound of each kind is kept, and the patterns are all kept. The result does not depend on the order the
+ * constraints are met in, so the runtime conversion and the annotation processor agree on it.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Keep the strictest of repeated bounds on a field. </td></tr>
+ * <tr><td> Apply the bounds to a field schema. </td><td> {@link ConstraintBuilder} </td></tr>
+ * </table></pre>
+ */
+public class ConstraintBounds
+{
+    /** The greatest minimum value met, or <tt>null</tt> if none. */
+    private Long minimum;
+
+    /** The least maximum value met, or <tt>null</tt> if none. */
+    private Long maximum;
+
+    /** The greatest minimum length met, or <tt>null</tt> if none. */
+    private Integer minLength;
+
+    /** The least maximum length met, or <tt>null</tt> if none. */
+    private Integer maxLength;
+
+    /** Holds all patterns met. */
+    private final List<String> patterns = new ArrayList<>();
+
+    /**
+     * Adds a minimum value bound.
+     *
+     * @param value The minimum value.
+     */
+    public void minimum(long value)
+    {
+        minimum = (minimum == null) ? value : Math.max(minimum, value);
+    }
+
+    /**
+     * Adds a maximum value bound.
+     *
+     * @param value The maximum value.
+     */
+    public void maximum(long value)
+    {
+        maximum = (maximum == null) ? value : Math.min(maximum, value);
+    }
+
+    /**
+     * Adds a minimum length bound. A minimum of zero places no bound on the length.
+     *
+     * @param value The minimum length.
+     */
+    public void minLength(int value)
+    {
+        if (value != 0)
+        {
+            minLength = (minLength == null) ? value : Math.max(minLength, value);
+        }
+    }
+
+    /**
+     * Adds a maximum length bound. A maximum of <tt>Integer.MAX_VALUE</tt> places no bound on the length.
+     *
+     * @param value The maximum length.
+     */
+    public void maxLength(int value)
+    {
+        if (value != Integer.MAX_VALUE)
+        {
+            maxLength = (maxLength == null) ? value : Math.min(maxLength, value);
+        }
+    }
+
+    /**
+     * Adds a pattern that the whole of the field must match.
+     *
+     * @param regexp The pattern.
+     */
+    public void pattern(String regexp)
+    {
+        patterns.add(regexp);
+    }
+
+    /**
+     * Sets the bounds gathered so far on a field schema.
+     *
+     * @param constraintBuilder The builder for the field schema.
+     */
+    public void applyTo(ConstraintBuilder constraintBuilder)
+    {
+        if (minimum != null)
+        {
+            constraintBuilder.minimum(minimum);
+        }
+
+        if (maximum != null)
+        {
+            constraintBuilder.maximum(maximum);
+        }
+
+        if (minLength != null)
+        {
+            constraintBuilder.minLength(minLength);
+        }
+
+        if (maxLength != null)
+        {
+            constraintBuilder.maxLength(maxLength);
+        }
+
+        constraintBuilder.patterns(patterns);
+    }
+}
@@ -16,8 +16,12 @@
 package com.thesett.util.validation.model;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 /**
  * Constraint builder is a builder that allows validation constraints to be added to a json field.
@@ -131,6 +135,46 @@ public class ConstraintBuilder extends PropertyBuilder
         return this;
     }
 
+    /**
+     * Constrains the field to match every one of a set of patterns, as repeated <tt>@Pattern</tt> annotations do. The
+     * patterns are combined into a single pattern in their natural order, so that the same set of patterns always
+     * gives the same schema, however they were declared.
+     *
+     * @param  patterns The patterns the whole of the field must match.
+     *
+     * @return This constraint builder.
+     */
+    public ConstraintBuilder patterns(Collection<String> patterns)
+    {
+        SortedSet<String> sorted = new TreeSet<String>(patterns);
+
+        if (sorted.isEmpty())
+        {
+            return this;
+        }
+        else if (sorted.size() == 1)
+        {
+            return pattern(sorted.first());
+        }
+
+        StringBuilder combined = new StringBuilder();
+
+        for (String pattern : sorted)
+        {
+            combined.append("(?=(?:").append(pattern).append(")\\z)");
+        }
+
+        return pattern(combined.append("[\\s\\S]*").toString());
+    }
+
+    /** @return This constraint builder. */
+    public ConstraintBuilder enums(String... values)
+    {
+        propertySchema.setEnums(new LinkedList<String>(Arrays.asList(values)));
+
+        return this;
+    }
+
     /** @return This constraint builder. */
     public ConstraintBuilder isArray()
     {
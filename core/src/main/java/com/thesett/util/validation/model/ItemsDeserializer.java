@@ -0,0 +1,51 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.model;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+/**
+ * ItemsDeserializer binds the json-schema 'items' keyword, which is either a single schema that every item is checked
+ * against, or an array of schemas, one for each position of a tuple. The two forms are kept apart, as a single schema
+ * and a one element tuple mean different things.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Bind 'items' as a single schema or a list of schemas. </td><td> {@link JsonSchema} </td></tr>
+ * </table></pre>
+ */
+final class ItemsDeserializer extends JsonDeserializer<Object>
+{
+    /** {@inheritDoc} */
+    public Object deserialize(JsonParser parser, DeserializationContext context) throws IOException
+    {
+        if (parser.getCurrentToken() == JsonToken.START_ARRAY)
+        {
+            return parser.readValueAs(new TypeReference<List<JsonSchema>>()
+                    {
+                    });
+        }
+
+        return parser.readValueAs(JsonSchema.class);
+    }
+}
@@ -0,0 +1,1426 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import static com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * JsonSchema defines a schema that can be applied to a json or Java object model, following the model described in the
+ * jsonSchema specification.
+ *
+ * <p/>Schemas are held compactly, as most set only a few of their keywords, and large registries hold very many of
+ * them. Each keyword has a bit in a presence mask. The values of the reference keywords present are held in an array,
+ * in the order of their bits, and likewise the values of the integer keywords present in an array of ints. The values
+ * of the boolean keywords are held in the mask itself, just above their presence bits. Keywords that are not set take
+ * no space beyond their bit.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Describe a schema that can be applied to a json model. </td></tr>
+ * </table></pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(Include.NON_NULL)
+public class JsonSchema implements Serializable
+{
+    /** The bit of the title keyword. */
+    private static final int TITLE = 0;
+
+    /** The bit of the type keyword. */
+    private static final int TYPE = 1;
+
+    /** The bit of the description keyword. */
+    private static final int DESCRIPTION = 2;
+
+    /** The bit of the multipleOf keyword. */
+    private static final int MULTIPLE_OF = 3;
+
+    /** The bit of the maximum keyword. */
+    private static final int MAXIMUM = 4;
+
+    /** The bit of the minimum keyword. */
+    private static final int MINIMUM = 5;
+
+    /** The bit of the pattern keyword. */
+    private static final int PATTERN = 6;
+
+    /**
+     * The bit of the items keyword. Its value is either a single schema, that every item is checked against, or a list
+     * of schemas, one for each position of a tuple.
+     */
+    private static final int ITEMS = 7;
+
+    /** The bit of the properties keyword. */
+    private static final int PROPERTIES = 8;
+
+    /** The bit of the required keyword. */
+    private static final int REQUIRED = 9;
+
+    /** The bit of the patternProperties keyword. */
+    private static final int PATTERN_PROPERTIES = 10;
+
+    /** The bit of the enums keyword. */
+    private static final int ENUMS = 11;
+
+    /** The bit of the definitions keyword. */
+    private static final int DEFINITIONS = 12;
+
+    /** The bit of the $ref keyword. */
+    private static final int REF = 13;
+
+    /** The bit of the allOf keyword. */
+    private static final int ALL_OF = 14;
+
+    /** The bit of the maxLength keyword. */
+    private static final int MAX_LENGTH = 15;
+
+    /** The bit of the minLength keyword. */
+    private static final int MIN_LENGTH = 16;
+
+    /** The bit of the maxItems keyword. */
+    private static final int MAX_ITEMS = 17;
+
+    /** The bit of the minItems keyword. */
+    private static final int MIN_ITEMS = 18;
+
+    /** The bit of the uniqueItems keyword. */
+    private static final int UNIQUE_ITEMS = 19;
+
+    /** The bit of the maxProperties keyword. */
+    private static final int MAX_PROPERTIES = 20;
+
+    /** The bit of the minProperties keyword. */
+    private static final int MIN_PROPERTIES = 21;
+
+    /** The bit of the exclusiveMaximum keyword. */
+    private static final int EXCLUSIVE_MAXIMUM = 22;
+
+    /** The bit of the exclusiveMinimum keyword. */
+    private static final int EXCLUSIVE_MINIMUM = 23;
+
+    /** The bit of the additionalItems keyword. */
+    private static final int ADDITIONAL_ITEMS = 24;
+
+    /** The bit of the additionalProperties keyword. */
+    private static final int ADDITIONAL_PROPERTIES = 25;
+
+    /** The number of boolean keywords, which is also how far above its presence bit the value of each one is. */
+    private static final int FLAG_COUNT = 4;
+
+    /** The bits of the reference keywords. */
+    private static final int REFERENCE_BITS = (1 << MAX_LENGTH) - 1;
+
+    /** The bits of the integer keywords. */
+    private static final int INTEGER_BITS = ((1 << EXCLUSIVE_MAXIMUM) - 1) & ~REFERENCE_BITS;
+
+    /** An empty array of values, shared by all schemas with no reference keywords. */
+    private static final Object[] NO_VALUES = new Object[0];
+
+    /** An empty array of integers, shared by all schemas with no integer keywords. */
+    private static final int[] NO_INTEGERS = new int[0];
+
+    /** Holds a bit for each keyword present, and the values of the boolean keywords. */
+    private int present;
+
+    /** Holds the values of the reference keywords present, in the order of their bits. */
+    private Object[] values = NO_VALUES;
+
+    /** Holds the values of the integer keywords present, in the order of their bits. */
+    private int[] integers = NO_INTEGERS;
+
+    /** No-arg constructor for serialization. */
+    public JsonSchema()
+    {
+    }
+
+    /**
+     * Creates a fluent structured builder to help with creating json schemas on object types.
+     *
+     * @return A builder to add properties to a schema.
+     */
+    public static PropertyBuilder object()
+    {
+        JsonSchema rootSchema = new JsonSchema().withType(SchemaType.OBJECT);
+
+        return new PropertyBuilder(rootSchema, rootSchema);
+    }
+
+    /**
+     * Accepts a new value for the title property.
+     *
+     * @param title The title property.
+     */
+    public JsonSchema withTitle(String title)
+    {
+        set(TITLE, title);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the type property.
+     *
+     * @param type The type property.
+     */
+    public JsonSchema withType(SchemaType type)
+    {
+        set(TYPE, type);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the description property.
+     *
+     * @param description The description property.
+     */
+    public JsonSchema withDescription(String description)
+    {
+        set(DESCRIPTION, description);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the multipleOf property.
+     *
+     * @param multipleOf The multipleOf property.
+     */
+    public JsonSchema withMultipleOf(BigDecimal multipleOf)
+    {
+        set(MULTIPLE_OF, multipleOf);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the maximum property.
+     *
+     * @param maximum The maximum property.
+     */
+    public JsonSchema withMaximum(BigDecimal maximum)
+    {
+        set(MAXIMUM, maximum);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the exclusiveMaximum property.
+     *
+     * @param exclusiveMaximum The exclusiveMaximum property.
+     */
+    public JsonSchema withExclusiveMaximum(Boolean exclusiveMaximum)
+    {
+        setFlag(EXCLUSIVE_MAXIMUM, exclusiveMaximum);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the minimum property.
+     *
+     * @param minimum The minimum property.
+     */
+    public JsonSchema withMinimum(BigDecimal minimum)
+    {
+        set(MINIMUM, minimum);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the exclusiveMinimum property.
+     *
+     * @param exclusiveMinimum The exclusiveMinimum property.
+     */
+    public JsonSchema withExclusiveMinimum(Boolean exclusiveMinimum)
+    {
+        setFlag(EXCLUSIVE_MINIMUM, exclusiveMinimum);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the maxLength property.
+     *
+     * @param maxLength The maxLength property.
+     */
+    public JsonSchema withMaxLength(Integer maxLength)
+    {
+        setInteger(MAX_LENGTH, maxLength);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the minLength property.
+     *
+     * @param minLength The minLength property.
+     */
+    public JsonSchema withMinLength(Integer minLength)
+    {
+        setInteger(MIN_LENGTH, minLength);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the pattern property.
+     *
+     * @param pattern The pattern property.
+     */
+    public JsonSchema withPattern(String pattern)
+    {
+        set(PATTERN, pattern);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the items property, as a list of schemas for each position of a tuple. This replaces any
+     * single item schema.
+     *
+     * @param items The items property.
+     */
+    public JsonSchema withItems(List<JsonSchema> items)
+    {
+        set(ITEMS, items);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the items property, as a single schema that every item is checked against. This replaces
+     * any list of item schemas.
+     *
+     * @param itemSchema The schema of every item.
+     */
+    public JsonSchema withItemSchema(JsonSchema itemSchema)
+    {
+        set(ITEMS, itemSchema);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the additionalItems property.
+     *
+     * @param additionalItems The additionalItems property.
+     */
+    public JsonSchema withAdditionalItems(Boolean additionalItems)
+    {
+        setFlag(ADDITIONAL_ITEMS, additionalItems);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the maxItems property.
+     *
+     * @param maxItems The maxItems property.
+     */
+    public JsonSchema withMaxItems(Integer maxItems)
+    {
+        setInteger(MAX_ITEMS, maxItems);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the minItems property.
+     *
+     * @param minItems The minItems property.
+     */
+    public JsonSchema withMinItems(Integer minItems)
+    {
+        setInteger(MIN_ITEMS, minItems);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the uniqueItems property.
+     *
+     * @param uniqueItems The uniqueItems property.
+     */
+    public JsonSchema withUniqueItems(Integer uniqueItems)
+    {
+        setInteger(UNIQUE_ITEMS, uniqueItems);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the properties property.
+     *
+     * @param properties The properties property.
+     */
+    public JsonSchema withProperties(Map<String, JsonSchema> properties)
+    {
+        set(PROPERTIES, properties);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the additionalProperties property.
+     *
+     * @param additionalProperties The additionalProperties property.
+     */
+    public JsonSchema withAdditionalProperties(Boolean additionalProperties)
+    {
+        setFlag(ADDITIONAL_PROPERTIES, additionalProperties);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the maxProperties property.
+     *
+     * @param maxProperties The maxProperties property.
+     */
+    public JsonSchema withMaxProperties(Integer maxProperties)
+    {
+        setInteger(MAX_PROPERTIES, maxProperties);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the minProperties property.
+     *
+     * @param minProperties The minProperties property.
+     */
+    public JsonSchema withMinProperties(Integer minProperties)
+    {
+        setInteger(MIN_PROPERTIES, minProperties);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the required property.
+     *
+     * @param required The required property.
+     */
+    public JsonSchema withRequired(List<String> required)
+    {
+        set(REQUIRED, required);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the patternProperties property.
+     *
+     * @param patternProperties The patternProperties property.
+     */
+    public JsonSchema withPatternProperties(List<String> patternProperties)
+    {
+        set(PATTERN_PROPERTIES, patternProperties);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the enums property.
+     *
+     * @param enums The enums property.
+     */
+    public JsonSchema withEnums(List<String> enums)
+    {
+        set(ENUMS, enums);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the definitions property.
+     *
+     * @param definitions The definitions property.
+     */
+    public JsonSchema withDefinitions(Map<String, JsonSchema> definitions)
+    {
+        set(DEFINITIONS, definitions);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the allOf property.
+     *
+     * @param allOf The allOf property.
+     */
+    public JsonSchema withAllOf(List<JsonSchema> allOf)
+    {
+        set(ALL_OF, allOf);
+
+        return this;
+    }
+
+    /**
+     * Accepts a new value for the $ref property.
+     *
+     * @param ref The $ref property.
+     */
+    public JsonSchema withRef(String ref)
+    {
+        set(REF, ref);
+
+        return this;
+    }
+
+    /**
+     * Provides the title property.
+     *
+     * @return The title property.
+     */
+    public String getTitle()
+    {
+        return get(TITLE);
+    }
+
+    /**
+     * Provides the type property.
+     *
+     * @return The type property.
+     */
+    public SchemaType getType()
+    {
+        return get(TYPE);
+    }
+
+    /**
+     * Provides the description property.
+     *
+     * @return The description property.
+     */
+    public String getDescription()
+    {
+        return get(DESCRIPTION);
+    }
+
+    /**
+     * Provides the multipleOf property.
+     *
+     * @return The multipleOf property.
+     */
+    public BigDecimal getMultipleOf()
+    {
+        return get(MULTIPLE_OF);
+    }
+
+    /**
+     * Provides the maximum property.
+     *
+     * @return The maximum property.
+     */
+    public BigDecimal getMaximum()
+    {
+        return get(MAXIMUM);
+    }
+
+    /**
+     * Provides the exclusiveMaximum property.
+     *
+     * @return The exclusiveMaximum property.
+     */
+    public Boolean getExclusiveMaximum()
+    {
+        return getFlag(EXCLUSIVE_MAXIMUM);
+    }
+
+    /**
+     * Provides the minimum property.
+     *
+     * @return The minimum property.
+     */
+    public BigDecimal getMinimum()
+    {
+        return get(MINIMUM);
+    }
+
+    /**
+     * Provides the exclusiveMinimum property.
+     *
+     * @return The exclusiveMinimum property.
+     */
+    public Boolean getExclusiveMinimum()
+    {
+        return getFlag(EXCLUSIVE_MINIMUM);
+    }
+
+    /**
+     * Provides the maxLength property.
+     *
+     * @return The maxLength property.
+     */
+    public Integer getMaxLength()
+    {
+        return getInteger(MAX_LENGTH);
+    }
+
+    /**
+     * Provides the minLength property.
+     *
+     * @return The minLength property.
+     */
+    public Integer getMinLength()
+    {
+        return getInteger(MIN_LENGTH);
+    }
+
+    /**
+     * Provides the pattern property.
+     *
+     * @return The pattern property.
+     */
+    public String getPattern()
+    {
+        return get(PATTERN);
+    }
+
+    /**
+     * Provides the items property, when it is a list of schemas for each position of a tuple.
+     *
+     * @return The items property, or <tt>null</tt> if it is absent or a single item schema.
+     */
+    @JsonIgnore
+    @SuppressWarnings("unchecked")
+    public List<JsonSchema> getItems()
+    {
+        Object items = get(ITEMS);
+
+        return (items instanceof List) ? (List<JsonSchema>) items : null;
+    }
+
+    /**
+     * Provides the items property, when it is a single schema that every item is checked against.
+     *
+     * @return The schema of every item, or <tt>null</tt> if the items property is absent or a list of schemas.
+     */
+    @JsonIgnore
+    public JsonSchema getItemSchema()
+    {
+        Object items = get(ITEMS);
+
+        return (items instanceof JsonSchema) ? (JsonSchema) items : null;
+    }
+
+    /**
+     * Provides the additionalItems property.
+     *
+     * @return The additionalItems property.
+     */
+    public Boolean getAdditionalItems()
+    {
+        return getFlag(ADDITIONAL_ITEMS);
+    }
+
+    /**
+     * Provides the maxItems property.
+     *
+     * @return The maxItems property.
+     */
+    public Integer getMaxItems()
+    {
+        return getInteger(MAX_ITEMS);
+    }
+
+    /**
+     * Provides the minItems property.
+     *
+     * @return The minItems property.
+     */
+    public Integer getMinItems()
+    {
+        return getInteger(MIN_ITEMS);
+    }
+
+    /**
+     * Provides the uniqueItems property.
+     *
+     * @return The uniqueItems property.
+     */
+    @JsonIgnore
+    public Integer getUniqueItems()
+    {
+        return getInteger(UNIQUE_ITEMS);
+    }
+
+    /**
+     * Provides the properties property.
+     *
+     * @return The properties property.
+     */
+    public Map<String, JsonSchema> getProperties()
+    {
+        return get(PROPERTIES);
+    }
+
+    /**
+     * Provides the additionalProperties property.
+     *
+     * @return The additionalProperties property.
+     */
+    public Boolean getAdditionalProperties()
+    {
+        return getFlag(ADDITIONAL_PROPERTIES);
+    }
+
+    /**
+     * Provides the maxProperties property.
+     *
+     * @return The maxProperties property.
+     */
+    public Integer getMaxProperties()
+    {
+        return getInteger(MAX_PROPERTIES);
+    }
+
+    /**
+     * Provides the minProperties property.
+     *
+     * @return The minProperties property.
+     */
+    public Integer getMinProperties()
+    {
+        return getInteger(MIN_PROPERTIES);
+    }
+
+    /**
+     * Provides the required property.
+     *
+     * @return The required property.
+     */
+    public List<String> getRequired()
+    {
+        return get(REQUIRED);
+    }
+
+    /**
+     * Provides the patternProperties property.
+     *
+     * @return The patternProperties property.
+     */
+    @JsonIgnore
+    public List<String> getPatternProperties()
+    {
+        return get(PATTERN_PROPERTIES);
+    }
+
+    /**
+     * Provides the enums property.
+     *
+     * @return The enums property.
+     */
+    @JsonProperty("enum")
+    public List<String> getEnums()
+    {
+        return get(ENUMS);
+    }
+
+    /**
+     * Provides the definitions property.
+     *
+     * @return The definitions property.
+     */
+    public Map<String, JsonSchema> getDefinitions()
+    {
+        return get(DEFINITIONS);
+    }
+
+    /**
+     * Provides the allOf property.
+     *
+     * @return The allOf property.
+     */
+    public List<JsonSchema> getAllOf()
+    {
+        return get(ALL_OF);
+    }
+
+    /**
+     * Provides the $ref property.
+     *
+     * @return The $ref property.
+     */
+    @JsonProperty("$ref")
+    public String getRef()
+    {
+        return get(REF);
+    }
+
+    /**
+     * Accepts a new value for the title property.
+     *
+     * @param title The title property.
+     */
+    public void setTitle(String title)
+    {
+        set(TITLE, title);
+    }
+
+    /**
+     * Accepts a new value for the type property.
+     *
+     * @param type The type property.
+     */
+    public void setType(SchemaType type)
+    {
+        set(TYPE, type);
+    }
+
+    /**
+     * Accepts a new value for the description property.
+     *
+     * @param description The description property.
+     */
+    public void setDescription(String description)
+    {
+        set(DESCRIPTION, description);
+    }
+
+    /**
+     * Accepts a new value for the multipleOf property.
+     *
+     * @param multipleOf The multipleOf property.
+     */
+    public void setMultipleOf(BigDecimal multipleOf)
+    {
+        set(MULTIPLE_OF, multipleOf);
+    }
+
+    /**
+     * Accepts a new value for the maximum property.
+     *
+     * @param maximum The maximum property.
+     */
+    public void setMaximum(BigDecimal maximum)
+    {
+        set(MAXIMUM, maximum);
+    }
+
+    /**
+     * Accepts a new value for the exclusiveMaximum property.
+     *
+     * @param exclusiveMaximum The exclusiveMaximum property.
+     */
+    public void setExclusiveMaximum(Boolean exclusiveMaximum)
+    {
+        setFlag(EXCLUSIVE_MAXIMUM, exclusiveMaximum);
+    }
+
+    /**
+     * Accepts a new value for the minimum property.
+     *
+     * @param minimum The minimum property.
+     */
+    public void setMinimum(BigDecimal minimum)
+    {
+        set(MINIMUM, minimum);
+    }
+
+    /**
+     * Accepts a new value for the exclusiveMinimum property.
+     *
+     * @param exclusiveMinimum The exclusiveMinimum property.
+     */
+    public void setExclusiveMinimum(Boolean exclusiveMinimum)
+    {
+        setFlag(EXCLUSIVE_MINIMUM, exclusiveMinimum);
+    }
+
+    /**
+     * Accepts a new value for the maxLength property.
+     *
+     * @param maxLength The maxLength property.
+     */
+    public void setMaxLength(Integer maxLength)
+    {
+        setInteger(MAX_LENGTH, maxLength);
+    }
+
+    /**
+     * Accepts a new value for the minLength property.
+     *
+     * @param minLength The minLength property.
+     */
+    public void setMinLength(Integer minLength)
+    {
+        setInteger(MIN_LENGTH, minLength);
+    }
+
+    /**
+     * Accepts a new value for the pattern property.
+     *
+     * @param pattern The pattern property.
+     */
+    public void setPattern(String pattern)
+    {
+        set(PATTERN, pattern);
+    }
+
+    /**
+     * Accepts a new value for the items property, as a list of schemas for each position of a tuple. This replaces any
+     * single item schema.
+     *
+     * @param items The items property.
+     */
+    @JsonIgnore
+    public void setItems(List<JsonSchema> items)
+    {
+        set(ITEMS, items);
+    }
+
+    /**
+     * Accepts a new value for the items property, as a single schema that every item is checked against. This replaces
+     * any list of item schemas.
+     *
+     * @param itemSchema The schema of every item.
+     */
+    @JsonIgnore
+    public void setItemSchema(JsonSchema itemSchema)
+    {
+        set(ITEMS, itemSchema);
+    }
+
+    /**
+     * Accepts a new value for the additionalItems property.
+     *
+     * @param additionalItems The additionalItems property.
+     */
+    public void setAdditionalItems(Boolean additionalItems)
+    {
+        setFlag(ADDITIONAL_ITEMS, additionalItems);
+    }
+
+    /**
+     * Accepts a new value for the maxItems property.
+     *
+     * @param maxItems The maxItems property.
+     */
+    public void setMaxItems(Integer maxItems)
+    {
+        setInteger(MAX_ITEMS, maxItems);
+    }
+
+    /**
+     * Accepts a new value for the minItems property.
+     *
+     * @param minItems The minItems property.
+     */
+    public void setMinItems(Integer minItems)
+    {
+        setInteger(MIN_ITEMS, minItems);
+    }
+
+    /**
+     * Accepts a new value for the uniqueItems property.
+     *
+     * @param uniqueItems The uniqueItems property.
+     */
+    @JsonIgnore
+    public void setUniqueItems(Integer uniqueItems)
+    {
+        setInteger(UNIQUE_ITEMS, uniqueItems);
+    }
+
+    /**
+     * Accepts a new value for the properties property.
+     *
+     * @param properties The properties property.
+     */
+    public void setProperties(Map<String, JsonSchema> properties)
+    {
+        set(PROPERTIES, properties);
+    }
+
+    /**
+     * Accepts a new value for the additionalProperties property.
+     *
+     * @param additionalProperties The additionalProperties property.
+     */
+    public void setAdditionalProperties(Boolean additionalProperties)
+    {
+        setFlag(ADDITIONAL_PROPERTIES, additionalProperties);
+    }
+
+    /**
+     * Accepts a new value for the maxProperties property.
+     *
+     * @param maxProperties The maxProperties property.
+     */
+    public void setMaxProperties(Integer maxProperties)
+    {
+        setInteger(MAX_PROPERTIES, maxProperties);
+    }
+
+    /**
+     * Accepts a new value for the minProperties property.
+     *
+     * @param minProperties The minProperties property.
+     */
+    public void setMinProperties(Integer minProperties)
+    {
+        setInteger(MIN_PROPERTIES, minProperties);
+    }
+
+    /**
+     * Accepts a new value for the required property.
+     *
+     * @param required The required property.
+     */
+    public void setRequired(List<String> required)
+    {
+        set(REQUIRED, required);
+    }
+
+    /**
+     * Accepts a new value for the patternProperties property.
+     *
+     * @param patternProperties The patternProperties property.
+     */
+    @JsonIgnore
+    public void setPatternProperties(List<String> patternProperties)
+    {
+        set(PATTERN_PROPERTIES, patternProperties);
+    }
+
+    /**
+     * Accepts a new value for the enums property.
+     *
+     * @param enums The enums property.
+     */
+    public void setEnums(List<String> enums)
+    {
+        set(ENUMS, enums);
+    }
+
+    /**
+     * Accepts a new value for the definitions property.
+     *
+     * @param definitions The definitions property.
+     */
+    public void setDefinitions(Map<String, JsonSchema> definitions)
+    {
+        set(DEFINITIONS, definitions);
+    }
+
+    /**
+     * Accepts a new value for the allOf property.
+     *
+     * @param allOf The allOf property.
+     */
+    public void setAllOf(List<JsonSchema> allOf)
+    {
+        set(ALL_OF, allOf);
+    }
+
+    /**
+     * Accepts a new value for the $ref property.
+     *
+     * @param ref The $ref property.
+     */
+    @JsonProperty("$ref")
+    public void setRef(String ref)
+    {
+        set(REF, ref);
+    }
+
+    /** Pretty printing for debugging purposes. */
+    public String toString()
+    {
+        return "JsonSchema: [ " + " ]";
+    }
+
+    /** Initialized the properties map. */
+    public void initProperties()
+    {
+        set(PROPERTIES, new LinkedHashMap<String, JsonSchema>());
+    }
+
+    /**
+     * Checks if this schema has any keywords set.
+     *
+     * @return <tt>true</tt> iff this schema has any keywords set.
+     */
+    boolean hasKeywords()
+    {
+        return present != 0;
+    }
+
+    /**
+     * Checks if this schema only documents a reference to another: it has an 'allOf' of a single reference, and no
+     * keywords besides that but its title and description.
+     *
+     * @return <tt>true</tt> iff this schema only documents a reference to another.
+     */
+    boolean isDocumentedReference()
+    {
+        List<JsonSchema> allOf = get(ALL_OF);
+
+        return ((present & ~((1 << TITLE) | (1 << DESCRIPTION) | (1 << ALL_OF))) == 0) && (allOf != null) &&
+            (allOf.size() == 1) && (allOf.get(0) != null) && (allOf.get(0).getRef() != null);
+    }
+
+    /**
+     * Creates a deep copy of this schema, including all nested schemas, so that the copy can be modified without
+     * affecting this schema, or anyone else holding it.
+     *
+     * @return A deep copy of this schema.
+     */
+    public JsonSchema copy()
+    {
+        JsonSchema copy = new JsonSchema();
+        copy.present = present;
+        copy.integers = (integers.length != 0) ? integers.clone() : NO_INTEGERS;
+
+        if (values.length != 0)
+        {
+            copy.values = new Object[values.length];
+
+            for (int i = 0; i < values.length; i++)
+            {
+                copy.values[i] = copyValue(values[i]);
+            }
+        }
+
+        return copy;
+    }
+
+    /**
+     * Provides the items keyword as json binds it, either a single schema or a list of schemas.
+     *
+     * @return The items keyword.
+     */
+    @JsonProperty("items")
+    private Object getItemsKeyword()
+    {
+        return get(ITEMS);
+    }
+
+    /**
+     * Accepts the items keyword as json binds it, either a single schema or a list of schemas.
+     *
+     * @param items The items keyword.
+     */
+    @JsonProperty("items")
+    @JsonDeserialize(using = ItemsDeserializer.class)
+    private void setItemsKeyword(Object items)
+    {
+        set(ITEMS, items);
+    }
+
+    /**
+     * Provides the uniqueItems keyword in its json-schema form, as a boolean.
+     *
+     * @return The uniqueItems keyword.
+     */
+    @JsonProperty("uniqueItems")
+    private Boolean getUniqueItemsKeyword()
+    {
+        Integer uniqueItems = getUniqueItems();
+
+        return (uniqueItems == null) ? null : (uniqueItems != 0);
+    }
+
+    /**
+     * Accepts the uniqueItems keyword in its json-schema form, as a boolean, or as a number.
+     *
+     * @param uniqueItems The uniqueItems keyword.
+     */
+    @JsonProperty("uniqueItems")
+    private void setUniqueItemsKeyword(Object uniqueItems)
+    {
+        if (uniqueItems instanceof Boolean)
+        {
+            setUniqueItems(((Boolean) uniqueItems) ? 1 : 0);
+        }
+        else
+        {
+            setUniqueItems((uniqueItems instanceof Number) ? ((Number) uniqueItems).intValue() : null);
+        }
+    }
+
+    /**
+     * Provides the patternProperties keyword in its json-schema form, as an object of patterns to schemas. Only the
+     * patterns are held, so each is given the empty schema.
+     *
+     * @return The patternProperties keyword.
+     */
+    @JsonProperty("patternProperties")
+    private Map<String, Object> getPatternPropertiesKeyword()
+    {
+        List<String> patterns = getPatternProperties();
+
+        if (patterns == null)
+        {
+            return null;
+        }
+
+        Map<String, Object> keyword = new LinkedHashMap<>();
+
+        for (String pattern : patterns)
+        {
+            keyword.put(pattern, Collections.emptyMap());
+        }
+
+        return keyword;
+    }
+
+    /**
+     * Accepts the patternProperties keyword in its json-schema form, as an object of patterns to schemas, keeping just
+     * the patterns, or as an array of patterns.
+     *
+     * @param patternProperties The patternProperties keyword.
+     */
+    @JsonProperty("patternProperties")
+    private void setPatternPropertiesKeyword(Object patternProperties)
+    {
+        if (patternProperties == null)
+        {
+            setPatternProperties(null);
+
+            return;
+        }
+
+        Collection<?> patterns =
+            (patternProperties instanceof Map) ? ((Map<?, ?>) patternProperties).keySet()
+                                               : (Collection<?>) patternProperties;
+        List<String> keyword = new ArrayList<>();
+
+        for (Object pattern : patterns)
+        {
+            keyword.add(String.valueOf(pattern));
+        }
+
+        setPatternProperties(keyword);
+    }
+
+    /**
+     * Accepts the enum keyword under the name 'enums', that schemas were written with before it was renamed to the
+     * json-schema name 'enum', so that those schemas can still be read.
+     *
+     * @param      enums The enum keyword.
+     *
+     * @deprecated Schemas should name the keyword 'enum'.
+     */
+    @Deprecated
+    @JsonSetter("enums")
+    private void setLegacyEnums(List<String> enums)
+    {
+        setEnums(enums);
+    }
+
+    /**
+     * Provides the value of a reference keyword.
+     *
+     * @param  bit The bit of the keyword.
+     * @param  <T> The type of the keyword.
+     *
+     * @return The value of the keyword, or <tt>null</tt> if it is not present.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T get(int bit)
+    {
+        return ((present & (1 << bit)) != 0) ? (T) values[rank(REFERENCE_BITS, bit)] : null;
+    }
+
+    /**
+     * Sets the value of a reference keyword, making room for it in the values array if it was not present, or removing
+     * it if the value is <tt>null</tt>.
+     *
+     * @param bit   The bit of the keyword.
+     * @param value The value of the keyword, or <tt>null</tt> to remove it.
+     */
+    private void set(int bit, Object value)
+    {
+        int index = rank(REFERENCE_BITS, bit);
+
+        if ((present & (1 << bit)) != 0)
+        {
+            if (value != null)
+            {
+                values[index] = value;
+            }
+            else
+            {
+                Object[] fewer = new Object[values.length - 1];
+                System.arraycopy(values, 0, fewer, 0, index);
+                System.arraycopy(values, index + 1, fewer, index, fewer.length - index);
+                values = (fewer.length != 0) ? fewer : NO_VALUES;
+                present &= ~(1 << bit);
+            }
+        }
+        else if (value != null)
+        {
+            Object[] more = new Object[values.length + 1];
+            System.arraycopy(values, 0, more, 0, index);
+            System.arraycopy(values, index, more, index + 1, values.length - index);
+            more[index] = value;
+            values = more;
+            present |= 1 << bit;
+        }
+    }
+
+    /**
+     * Provides the value of an integer keyword.
+     *
+     * @param  bit The bit of the keyword.
+     *
+     * @return The value of the keyword, or <tt>null</tt> if it is not present.
+     */
+    private Integer getInteger(int bit)
+    {
+        return ((present & (1 << bit)) != 0) ? integers[rank(INTEGER_BITS, bit)] : null;
+    }
+
+    /**
+     * Sets the value of an integer keyword, making room for it in the integers array if it was not present, or
+     * removing it if the value is <tt>null</tt>.
+     *
+     * @param bit   The bit of the keyword.
+     * @param value The value of the keyword, or <tt>null</tt> to remove it.
+     */
+    private void setInteger(int bit, Integer value)
+    {
+        int index = rank(INTEGER_BITS, bit);
+
+        if ((present & (1 << bit)) != 0)
+        {
+            if (value != null)
+            {
+                integers[index] = value;
+            }
+            else
+            {
+                int[] fewer = new int[integers.length - 1];
+                System.arraycopy(integers, 0, fewer, 0, index);
+                System.arraycopy(integers, index + 1, fewer, index, fewer.length - index);
+                integers = (fewer.length != 0) ? fewer : NO_INTEGERS;
+                present &= ~(1 << bit);
+            }
+        }
+        else if (value != null)
+        {
+            int[] more = new int[integers.length + 1];
+            System.arraycopy(integers, 0, more, 0, index);
+            System.arraycopy(integers, index, more, index + 1, integers.length - index);
+            more[index] = value;
+            integers = more;
+            present |= 1 << bit;
+        }
+    }
+
+    /**
+     * Provides the value of a boolean keyword.
+     *
+     * @param  bit The bit of the keyword.
+     *
+     * @return The value of the keyword, or <tt>null</tt> if it is not present.
+     */
+    private Boolean getFlag(int bit)
+    {
+        return ((present & (1 << bit)) != 0) ? ((present & (1 << (bit + FLAG_COUNT))) != 0) : null;
+    }
+
+    /**
+     * Sets the value of a boolean keyword, or removes it if the value is <tt>null</tt>.
+     *
+     * @param bit   The bit of the keyword.
+     * @param value The value of the keyword, or <tt>null</tt> to remove it.
+     */
+    private void setFlag(int bit, Boolean value)
+    {
+        present &= ~((1 << bit) | (1 << (bit + FLAG_COUNT)));
+
+        if (value != null)
+        {
+            present |= (1 << bit) | (value ? (1 << (bit + FLAG_COUNT)) : 0);
+        }
+    }
+
+    /**
+     * Works out where the value of a keyword is held in its array, as the number of keywords of the same kind present
+     * with lower bits.
+     *
+     * @param  kind The bits of the keywords of the same kind.
+     * @param  bit  The bit of the keyword.
+     *
+     * @return The index of the value of the keyword in its array.
+     */
+    private int rank(int kind, int bit)
+    {
+        return Integer.bitCount(present & kind & ((1 << bit) - 1));
+    }
+
+    /**
+     * Copies the value of a reference keyword; nested schemas are copied deeply, lists and maps are copied, and other
+     * values are immutable so are shared.
+     *
+     * @param  value The value to copy.
+     *
+     * @return A copy of the value.
+     */
+    private static Object copyValue(Object value)
+    {
+        if (value instanceof JsonSchema)
+        {
+            return ((JsonSchema) value).copy();
+        }
+        else if (value instanceof List)
+        {
+            List<Object> copy = new ArrayList<>();
+
+            for (Object element : (List<?>) value)
+            {
+                copy.add(copyValue(element));
+            }
+
+            return copy;
+        }
+        else if (value instanceof Map)
+        {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+            {
+                copy.put(entry.getKey(), copyValue(entry.getValue()));
+            }
+
+            return copy;
+        }
+
+        return value;
+    }
+}
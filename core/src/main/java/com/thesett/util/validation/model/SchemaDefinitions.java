@@ -0,0 +1,257 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.validation.ValidationException;
+
+/**
+ * SchemaDefinitions tracks the object types expanded whilst generating a json-schema from a type model, so that each
+ * type is only expanded once. The first time a type is met, it is expanded inline where it occurs. If it is met again,
+ * either repeated elsewhere or recursively within itself, its schema is moved into the 'definitions' of the root schema
+ * and every occurrence of it is replaced with a '$ref' to it. The root type is referred to as '#'.
+ *
+ * <p/>Only the body of the type is moved into its definition. The keywords of each property, such as its title and
+ * description, stay with the property. As keywords beside a '$ref' are ignored, a property with keywords of its own
+ * refers to the definition through an 'allOf' of the reference instead: <tt>{ "title": ..., "allOf": [ { "$ref": ...
+ * } ] }</tt>.
+ *
+ * <p/>This keeps generation time and output size linear in the number of distinct types, and makes self-referencing
+ * types safe to generate.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Decide whether an object type should be expanded inline or referenced. </td></tr>
+ * <tr><td> Move repeated types into definitions, and reference them. </td></tr>
+ * <tr><td> Resolve references against a root schema. </td></tr>
+ * </table></pre>
+ */
+public class SchemaDefinitions
+{
+    /** The json pointer prefix for references to definitions. */
+    private static final String DEFINITIONS_REF = "#/definitions/";
+
+    /** The root schema, that definitions are added to. */
+    private final JsonSchema rootSchema;
+
+    /** Holds where each type was first expanded, by type name. */
+    private final Map<String, Occurrence> occurrences = new HashMap<>();
+
+    /** Holds the type name that each definition was created for, by definition name. */
+    private final Map<String, String> definitionNames = new HashMap<>();
+
+    /**
+     * Creates a tracker for the types expanded within a root schema.
+     *
+     * @param rootSchema   The root schema.
+     * @param rootTypeName The fully qualified name of the type the root schema describes.
+     */
+    public SchemaDefinitions(JsonSchema rootSchema, String rootTypeName)
+    {
+        this.rootSchema = rootSchema;
+
+        Occurrence root = new Occurrence(null, null, rootSchema);
+        root.ref = "#";
+        occurrences.put(rootTypeName, root);
+    }
+
+    /**
+     * Resolves a schema that may be a reference, against the root schema it belongs to. Only references to the root
+     * schema itself, and to its definitions, are supported; these being the only kind that are generated. A property
+     * that documents a reference, with an 'allOf' of the reference and only a title or description besides, resolves
+     * to what it refers to.
+     *
+     * @param  rootSchema The root schema that the schema belongs to.
+     * @param  schema     The schema to resolve.
+     *
+     * @return The schema referred to, or the schema itself if it is not a reference.
+     *
+     * @throws ValidationException If the reference cannot be resolved.
+     */
+    public static JsonSchema resolve(JsonSchema rootSchema, JsonSchema schema)
+    {
+        if (schema.isDocumentedReference())
+        {
+            return resolve(rootSchema, schema.getAllOf().get(0));
+        }
+
+        String ref = schema.getRef();
+
+        if (ref == null)
+        {
+            return schema;
+        }
+        else if ("#".equals(ref))
+        {
+            return rootSchema;
+        }
+        else if (ref.startsWith(DEFINITIONS_REF) && (rootSchema.getDefinitions() != null))
+        {
+            JsonSchema definition = rootSchema.getDefinitions().get(ref.substring(DEFINITIONS_REF.length()));
+
+            if (definition != null)
+            {
+                return definition;
+            }
+        }
+
+        throw new ValidationException("Unable to resolve json-schema reference: " + ref);
+    }
+
+    /**
+     * Decides whether an object typed property should be expanded inline. If the type has not been met before, the
+     * property is recorded as its first occurrence and <tt>true</tt> is returned. Otherwise the property is made into a
+     * reference to the type, and <tt>false</tt> is returned.
+     *
+     * @param  typeName     The fully qualified name of the type of the property.
+     * @param  simpleName   The simple name of the type, used to name its definition.
+     * @param  parentSchema The object schema holding the property.
+     * @param  propertyName The name of the property.
+     *
+     * @return <tt>true</tt> iff the property should be expanded inline.
+     */
+    public boolean expand(String typeName, String simpleName, JsonSchema parentSchema, String propertyName)
+    {
+        Map<String, JsonSchema> properties = parentSchema.getProperties();
+        JsonSchema propertySchema = properties.get(propertyName);
+        Occurrence occurrence = occurrences.get(typeName);
+
+        if (occurrence == null)
+        {
+            occurrences.put(typeName, new Occurrence(properties, propertyName, propertySchema));
+
+            return true;
+        }
+
+        refer(propertySchema, refFor(typeName, simpleName, occurrence));
+
+        return false;
+    }
+
+    /**
+     * Makes a property schema refer to a type. A property schema with no keywords of its own becomes a plain '$ref';
+     * one with keywords of its own keeps them, and refers to the type through an 'allOf'.
+     *
+     * @param propertySchema The schema of the property.
+     * @param ref            The reference to the type.
+     */
+    private static void refer(JsonSchema propertySchema, String ref)
+    {
+        if (propertySchema.hasKeywords())
+        {
+            List<JsonSchema> allOf = new ArrayList<>();
+            allOf.add(new JsonSchema().withRef(ref));
+            propertySchema.setAllOf(allOf);
+        }
+        else
+        {
+            propertySchema.setRef(ref);
+        }
+    }
+
+    /**
+     * Provides the reference to a type, moving its first occurrence into the definitions if that has not already been
+     * done.
+     *
+     * @param  typeName   The fully qualified name of the type.
+     * @param  simpleName The simple name of the type.
+     * @param  occurrence The first occurrence of the type.
+     *
+     * @return The reference to the type.
+     */
+    private String refFor(String typeName, String simpleName, Occurrence occurrence)
+    {
+        if (occurrence.ref == null)
+        {
+            String definitionName = definitionName(typeName, simpleName);
+
+            Map<String, JsonSchema> definitions = rootSchema.getDefinitions();
+
+            if (definitions == null)
+            {
+                definitions = new LinkedHashMap<>();
+                rootSchema.setDefinitions(definitions);
+            }
+
+            // The body of the type is moved into its definition; the documentation of the property stays with it.
+            JsonSchema body = occurrence.schema;
+            JsonSchema propertySchema =
+                new JsonSchema().withTitle(body.getTitle()).withDescription(body.getDescription());
+            body.setTitle(null);
+            body.setDescription(null);
+
+            definitions.put(definitionName, body);
+            occurrence.ref = DEFINITIONS_REF + definitionName;
+            refer(propertySchema, occurrence.ref);
+            occurrence.holder.put(occurrence.propertyName, propertySchema);
+        }
+
+        return occurrence.ref;
+    }
+
+    /**
+     * Chooses a definition name for a type, using its simple name unless another type already has that.
+     *
+     * @param  typeName   The fully qualified name of the type.
+     * @param  simpleName The simple name of the type.
+     *
+     * @return The definition name.
+     */
+    private String definitionName(String typeName, String simpleName)
+    {
+        String name = definitionNames.containsKey(simpleName) ? typeName : simpleName;
+        definitionNames.put(name, typeName);
+
+        return name;
+    }
+
+    /**
+     * Occurrence records where a type was first expanded.
+     */
+    private static class Occurrence
+    {
+        /** The properties map holding the first occurrence, or <tt>null</tt> for the root. */
+        private final Map<String, JsonSchema> holder;
+
+        /** The name of the property of the first occurrence. */
+        private final String propertyName;
+
+        /** The schema the type was expanded into. */
+        private final JsonSchema schema;
+
+        /** The reference to the type, once it has been moved into the definitions. */
+        private String ref;
+
+        /**
+         * Records the first occurrence of a type.
+         *
+         * @param holder       The properties map holding the first occurrence.
+         * @param propertyName The name of the property of the first occurrence.
+         * @param schema       The schema the type was expanded into.
+         */
+        Occurrence(Map<String, JsonSchema> holder, String propertyName, JsonSchema schema)
+        {
+            this.holder = holder;
+            this.propertyName = propertyName;
+            this.schema = schema;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.serdes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * RenderedSchema holds a json schema rendered ready to serve: its UTF-8 json, the same gzip compressed, and an entity
+ * tag that changes whenever the json does. Serving it is a copy of bytes already in memory.
+ *
+ * <p/>The byte arrays are shared, and must not be changed.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Hold a schema's json, plain and compressed. </td></tr>
+ * <tr><td> Identify the json by an entity tag. </td></tr>
+ * </table></pre>
+ */
+public final class RenderedSchema
+{
+    /** The schema as UTF-8 json. */
+    private final byte[] bytes;
+
+    /** The schema as gzip compressed UTF-8 json. */
+    private final byte[] gzipBytes;
+
+    /** The quoted, strong entity tag of the json. */
+    private final String etag;
+
+    /**
+     * Creates a rendered schema.
+     *
+     * @param bytes     The schema as UTF-8 json.
+     * @param gzipBytes The schema as gzip compressed UTF-8 json.
+     * @param etag      The quoted, strong entity tag of the json.
+     */
+    RenderedSchema(byte[] bytes, byte[] gzipBytes, String etag)
+    {
+        this.bytes = bytes;
+        this.gzipBytes = gzipBytes;
+        this.etag = etag;
+    }
+
+    /**
+     * Provides the schema as UTF-8 json.
+     *
+     * @return The schema as UTF-8 json.
+     */
+    public byte[] getBytes()
+    {
+        return bytes;
+    }
+
+    /**
+     * Provides the schema as gzip compressed UTF-8 json, to serve with a 'Content-Encoding: gzip' header.
+     *
+     * @return The schema as gzip compressed UTF-8 json.
+     */
+    public byte[] getGzipBytes()
+    {
+        return gzipBytes;
+    }
+
+    /**
+     * Provides the entity tag of the json, quoted ready to use as the value of an 'ETag' header. Schemas that render
+     * to the same json have the same tag.
+     *
+     * @return The quoted entity tag of the json.
+     */
+    public String getETag()
+    {
+        return etag;
+    }
+
+    /**
+     * Checks the value of an 'If-None-Match' request header against the entity tag, to decide whether to answer with
+     * 'Not Modified' instead of the json.
+     *
+     * @param  ifNoneMatch The value of the header, or <tt>null</tt> if there is none.
+     *
+     * @return <tt>true</tt> iff the header names this entity tag, or is '*'.
+     */
+    public boolean isNotModified(String ifNoneMatch)
+    {
+        if (ifNoneMatch == null)
+        {
+            return false;
+        }
+
+        for (String tag : ifNoneMatch.split(","))
+        {
+            tag = tag.trim();
+
+            // Weak comparison applies to conditional GETs, so weak tags match the strong one.
+            if (tag.startsWith("W/"))
+            {
+                tag = tag.substring(2);
+            }
+
+            if (tag.equals("*") || tag.equals(etag))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Writes the json onto an output stream.
+     *
+     * @param  out  The stream to write to.
+     * @param  gzip <tt>true</tt> to write the gzip compressed json, <tt>false</tt> for the plain json.
+     *
+     * @throws IOException If the stream cannot be written to.
+     */
+    public void writeTo(OutputStream out, boolean gzip) throws IOException
+    {
+        out.write(gzip ? gzipBytes : bytes);
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.serdes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+import com.thesett.util.validation.model.JsonSchema;
+
+/**
+ * SchemaRenderCache renders json schemas once, into {@link RenderedSchema}s to serve over and over.
+ *
+ * <p/>Renderings are held against a key chosen by the caller, which stays the same however many times the schema is
+ * produced, such as the class the schema describes. The sources of schemas hand out a fresh copy on every call, so
+ * serving a schema again costs a lookup by its key, rather than producing and rendering it to find its fingerprint.
+ * Keys are compared by equality, and are held weakly, so a key should be something the caller holds on to for as long
+ * as the rendering is wanted. A schema may also be its own key, in which case its rendering is found by identity.
+ *
+ * <p/>Renderings are fingerprinted by a digest of their json, which is also their entity tag. Schemas that render to
+ * the same json share one rendering, so it is only compressed once, and only held once. Renderings are only held by
+ * fingerprint for as long as some key still refers to them, so that invalidated and forgotten renderings are dropped.
+ *
+ * <p/>A schema that is changed after being rendered must be invalidated, or its old rendering will continue to be
+ * served.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Render schemas as plain and compressed json, once each. </td><td> {@link Serdes} </td></tr>
+ * <tr><td> Share renderings between schemas with the same json. </td><td> {@link RenderedSchema} </td></tr>
+ * </table></pre>
+ */
+public class SchemaRenderCache
+{
+    /** Used to turn digests into hex. */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** The number of bytes of the digest to use in entity tags. */
+    private static final int TAG_BYTES = 16;
+
+    /** The serdes to render schemas with. */
+    private final Serdes serdes;
+
+    /** Holds the renderings still referred to by a key, by fingerprint. */
+    private final ConcurrentMap<String, Rendering> byFingerprint = new ConcurrentHashMap<>();
+
+    /** Receives the renderings that no key refers to any more, so that they can be dropped by fingerprint. */
+    private final ReferenceQueue<RenderedSchema> released = new ReferenceQueue<>();
+
+    /** Holds the rendering under each key rendered so far. */
+    private final Map<Object, RenderedSchema> byKey =
+        Collections.synchronizedMap(new WeakHashMap<Object, RenderedSchema>());
+
+    /** Creates a render cache, using a default serdes. */
+    public SchemaRenderCache()
+    {
+        this(new Serdes());
+    }
+
+    /**
+     * Creates a render cache.
+     *
+     * @param serdes The serdes to render schemas with.
+     */
+    public SchemaRenderCache(Serdes serdes)
+    {
+        this.serdes = serdes;
+    }
+
+    /**
+     * Provides the rendering held under a key, if there is one. This allows a schema to be served without producing
+     * it, when it has been rendered already.
+     *
+     * @param  key The key the schema was rendered under.
+     *
+     * @return The rendering held under the key, or <tt>null</tt> if there is none.
+     */
+    public RenderedSchema get(Object key)
+    {
+        return byKey.get(key);
+    }
+
+    /**
+     * Provides the rendering of a json schema, rendering it if it has not been rendered already. The schema is its own
+     * key, so this only finds an earlier rendering when given the same schema instance.
+     *
+     * @param  schema The json schema.
+     *
+     * @return The rendering of the json schema.
+     */
+    public RenderedSchema render(JsonSchema schema)
+    {
+        return render(schema, schema);
+    }
+
+    /**
+     * Provides the rendering held under a key, rendering a json schema under the key if it has not been rendered
+     * already.
+     *
+     * @param  key    The key to hold the rendering under.
+     * @param  schema The json schema to render, if there is no rendering under the key.
+     *
+     * @return The rendering held under the key.
+     */
+    public RenderedSchema render(Object key, JsonSchema schema)
+    {
+        RenderedSchema rendered = byKey.get(key);
+
+        if (rendered != null)
+        {
+            return rendered;
+        }
+
+        expungeReleased();
+
+        byte[] bytes = serdes.toBytes(schema);
+        rendered = share(fingerprint(bytes), bytes);
+        byKey.put(key, rendered);
+
+        return rendered;
+    }
+
+    /**
+     * Forgets the rendering held under a key, so that it is rendered afresh the next time. This must be called after
+     * changing a schema that has been rendered.
+     *
+     * @param key The key the schema was rendered under, which is the schema itself if it was rendered without one.
+     */
+    public void invalidate(Object key)
+    {
+        byKey.remove(key);
+    }
+
+    /** Forgets all renderings. */
+    public void clear()
+    {
+        byKey.clear();
+        byFingerprint.clear();
+    }
+
+    /**
+     * Provides the number of distinct renderings held.
+     *
+     * @return The number of distinct renderings held.
+     */
+    public int size()
+    {
+        expungeReleased();
+
+        int size = 0;
+
+        for (Rendering rendering : byFingerprint.values())
+        {
+            if (rendering.get() != null)
+            {
+                size++;
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Provides the rendering held for a fingerprint, creating it if no key refers to one already.
+     *
+     * @param  fingerprint The fingerprint of the json.
+     * @param  bytes       The json.
+     *
+     * @return The rendering of the json.
+     */
+    private RenderedSchema share(String fingerprint, byte[] bytes)
+    {
+        RenderedSchema fresh = null;
+
+        while (true)
+        {
+            Rendering existing = byFingerprint.get(fingerprint);
+            RenderedSchema shared = (existing != null) ? existing.get() : null;
+
+            if (shared != null)
+            {
+                return shared;
+            }
+
+            if (fresh == null)
+            {
+                fresh = new RenderedSchema(bytes, gzip(bytes), '"' + fingerprint + '"');
+            }
+
+            Rendering rendering = new Rendering(fresh, fingerprint, released);
+            boolean added;
+
+            if (existing == null)
+            {
+                added = byFingerprint.putIfAbsent(fingerprint, rendering) == null;
+            }
+            else
+            {
+                added = byFingerprint.replace(fingerprint, existing, rendering);
+            }
+
+            if (added)
+            {
+                return fresh;
+            }
+        }
+    }
+
+    /** Drops the fingerprints of renderings that no key refers to any more. */
+    private void expungeReleased()
+    {
+        for (Rendering rendering; (rendering = (Rendering) released.poll()) != null;)
+        {
+            byFingerprint.remove(rendering.fingerprint, rendering);
+        }
+    }
+
+    /**
+     * Fingerprints json by the leading bytes of its SHA-256 digest, in hex.
+     *
+     * @param  bytes The json.
+     *
+     * @return The fingerprint of the json.
+     */
+    private static String fingerprint(byte[] bytes)
+    {
+        byte[] digest;
+
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+
+        char[] hex = new char[TAG_BYTES * 2];
+
+        for (int i = 0; i < TAG_BYTES; i++)
+        {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            hex[(i * 2) + 1] = HEX[digest[i] & 0xf];
+        }
+
+        return new String(hex);
+    }
+
+    /**
+     * Compresses bytes with gzip.
+     *
+     * @param  bytes The bytes to compress.
+     *
+     * @return The compressed bytes.
+     */
+    private static byte[] gzip(byte[] bytes)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((bytes.length / 4) + 64);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out))
+        {
+            gzip.write(bytes);
+        }
+        catch (IOException e)
+        {
+            // Writing to memory does not fail.
+            throw new IllegalStateException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Rendering refers weakly to a rendering held by fingerprint, and remembers the fingerprint, so that it can be
+     * dropped once no key refers to the rendering.
+     */
+    private static final class Rendering extends WeakReference<RenderedSchema>
+    {
+        /** The fingerprint the rendering is held under. */
+        private final String fingerprint;
+
+        /**
+         * Creates a weak reference to a rendering.
+         *
+         * @param rendered    The rendering.
+         * @param fingerprint The fingerprint the rendering is held under.
+         * @param queue       The queue to enqueue the reference on once the rendering is no longer referred to.
+         */
+        Rendering(RenderedSchema rendered, String fingerprint, ReferenceQueue<RenderedSchema> queue)
+        {
+            super(rendered, queue);
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,1002 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.serdes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.model.SchemaType;
+
+/**
+ * Serdes reads and writes json schemas as json, streaming them straight from a {@link JsonParser} or onto a
+ * {@link JsonGenerator} rather than going through an object mapper and its reflective bean serializers.
+ *
+ * <p/>Keywords are written under their json-schema names, so the allowed values are written as 'enum' and references
+ * as '$ref', in a fixed order: references and annotations first, then the type, then the keywords on numbers,
+ * strings, arrays and objects in turn, then the allowed values and the definitions. Keywords that are not set are left
+ * out. Properties and definitions are written in the order their maps hold them in. Keywords that the model holds
+ * more simply are written in their json-schema forms, so that other validators accept the output: 'uniqueItems' as a
+ * boolean, and 'patternProperties' as an object of patterns to empty schemas. The output can be read back into a
+ * {@link JsonSchema} by an object mapper.
+ *
+ * <p/>Reading accepts whatever an object mapper accepts for a {@link JsonSchema}, and skips unknown keywords. It also
+ * accepts the json-schema forms of some keywords that the model holds more simply: a single schema for 'items', a
+ * boolean for 'uniqueItems', an object of patterns for 'patternProperties', and a schema for 'additionalItems' or
+ * 'additionalProperties', which is read as allowing them. Property names, patterns, allowed values and the like are
+ * interned through a {@link StringPool}, which may be shared between serdes, and the common numeric bounds, such as
+ * small integers and the limits of the Java integer types, are read as shared {@link BigDecimal} instances.
+ *
+ * <p/>Interning saves memory rather than time. A catalog read this way holds each shared string once, but reading it
+ * takes about as long as reading it through an object mapper, and may take a little longer, as each interned string
+ * is hashed and compared against the pool; <tt>SerdesBenchmark</tt>, amongst the tests, measures both.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Read json schemas from json, streaming. </td><td> {@link JsonParser}, {@link StringPool} </td></tr>
+ * <tr><td> Write json schemas as json, streaming. </td><td> {@link JsonGenerator} </td></tr>
+ * </table></pre>
+ *
+ * @author Rupert Smith
+ */
+public class Serdes
+{
+    /** The greatest small integer read as a shared instance. */
+    private static final int MAX_SMALL_INTEGER = 1024;
+
+    /** Holds shared instances of the common numeric bounds, by value. */
+    private static final Map<Long, BigDecimal> COMMON_BOUNDS = new HashMap<>();
+
+    static
+    {
+        for (long i = -1; i <= MAX_SMALL_INTEGER; i++)
+        {
+            COMMON_BOUNDS.put(i, BigDecimal.valueOf(i));
+        }
+
+        long[] limits =
+            {
+                Byte.MIN_VALUE, Byte.MAX_VALUE, Short.MIN_VALUE, Short.MAX_VALUE, Character.MAX_VALUE,
+                Integer.MIN_VALUE, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE
+            };
+
+        for (long limit : limits)
+        {
+            COMMON_BOUNDS.put(limit, BigDecimal.valueOf(limit));
+        }
+    }
+
+    /** The factory for parsers and generators. */
+    private final JsonFactory factory;
+
+    /** The pool to intern strings read through. */
+    private final StringPool pool;
+
+    /** Creates a serdes with a default json factory and its own string pool. */
+    public Serdes()
+    {
+        this(new JsonFactory());
+    }
+
+    /**
+     * Creates a serdes over a json factory, with its own string pool.
+     *
+     * @param factory The factory to create parsers and generators from.
+     */
+    public Serdes(JsonFactory factory)
+    {
+        this(factory, new StringPool());
+    }
+
+    /**
+     * Creates a serdes over a json factory, interning strings through a pool that may be shared.
+     *
+     * @param factory The factory to create parsers and generators from.
+     * @param pool    The pool to intern strings read through.
+     */
+    public Serdes(JsonFactory factory, StringPool pool)
+    {
+        this.factory = factory;
+        this.pool = pool;
+    }
+
+    /**
+     * Reads a json schema from UTF-8 encoded json.
+     *
+     * @param  bytes The json.
+     *
+     * @return The json schema, or <tt>null</tt> if the json is <tt>null</tt>.
+     *
+     * @throws IOException If the json is not well formed, or does not describe a schema.
+     */
+    public JsonSchema read(byte[] bytes) throws IOException
+    {
+        try (JsonParser parser = factory.createParser(bytes))
+        {
+            return read(parser);
+        }
+    }
+
+    /**
+     * Reads a json schema from json on an input stream. The stream is left open.
+     *
+     * @param  in The stream to read from.
+     *
+     * @return The json schema, or <tt>null</tt> if the json is <tt>null</tt>.
+     *
+     * @throws IOException If the stream cannot be read, or the json is not well formed, or does not describe a schema.
+     */
+    public JsonSchema read(InputStream in) throws IOException
+    {
+        try (JsonParser parser = factory.createParser(in))
+        {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+            return read(parser);
+        }
+    }
+
+    /**
+     * Reads a json schema from a parser. The parser may be positioned on the start of the schema object, or just
+     * before it, and is left on its end.
+     *
+     * @param  parser The parser to read from.
+     *
+     * @return The json schema, or <tt>null</tt> if the json is <tt>null</tt>.
+     *
+     * @throws IOException If the json is not well formed, or does not describe a schema.
+     */
+    public JsonSchema read(JsonParser parser) throws IOException
+    {
+        JsonToken token = (parser.getCurrentToken() != null) ? parser.getCurrentToken() : parser.nextToken();
+
+        if (token == JsonToken.VALUE_NULL)
+        {
+            return null;
+        }
+
+        expect(parser, JsonToken.START_OBJECT, "a schema");
+
+        JsonSchema schema = new JsonSchema();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            readKeyword(parser, name, schema);
+        }
+
+        return schema;
+    }
+
+    /**
+     * Renders a json schema as UTF-8 encoded json.
+     *
+     * @param  schema The json schema to render.
+     *
+     * @return The json schema as UTF-8 encoded json.
+     */
+    public byte[] toBytes(JsonSchema schema)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+
+        try
+        {
+            write(schema, out);
+        }
+        catch (IOException e)
+        {
+            // Writing to memory does not fail.
+            throw new IllegalStateException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a json schema as UTF-8 encoded json onto an output stream. The stream is left open.
+     *
+     * @param  schema The json schema to write.
+     * @param  out    The stream to write to.
+     *
+     * @throws IOException If the stream cannot be written to.
+     */
+    public void write(JsonSchema schema, OutputStream out) throws IOException
+    {
+        JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        try
+        {
+            write(schema, generator);
+        }
+        finally
+        {
+            generator.close();
+        }
+    }
+
+    /**
+     * Writes a json schema as a json object onto a generator.
+     *
+     * @param  schema    The json schema to write.
+     * @param  generator The generator to write to.
+     *
+     * @throws IOException If the generator cannot be written to.
+     */
+    public void write(JsonSchema schema, JsonGenerator generator) throws IOException
+    {
+        generator.writeStartObject();
+
+        writeString(generator, "$ref", schema.getRef());
+        writeString(generator, "title", schema.getTitle());
+        writeString(generator, "description", schema.getDescription());
+
+        if (schema.getType() != null)
+        {
+            generator.writeStringField("type", schema.getType().toString());
+        }
+
+        writeNumber(generator, "multipleOf", schema.getMultipleOf());
+        writeNumber(generator, "maximum", schema.getMaximum());
+        writeBoolean(generator, "exclusiveMaximum", schema.getExclusiveMaximum());
+        writeNumber(generator, "minimum", schema.getMinimum());
+        writeBoolean(generator, "exclusiveMinimum", schema.getExclusiveMinimum());
+
+        writeNumber(generator, "maxLength", schema.getMaxLength());
+        writeNumber(generator, "minLength", schema.getMinLength());
+        writeString(generator, "pattern", schema.getPattern());
+
+        if (schema.getItemSchema() != null)
+        {
+            generator.writeFieldName("items");
+            write(schema.getItemSchema(), generator);
+        }
+        else if (schema.getItems() != null)
+        {
+            generator.writeArrayFieldStart("items");
+
+            for (JsonSchema item : schema.getItems())
+            {
+                write(item, generator);
+            }
+
+            generator.writeEndArray();
+        }
+
+        writeBoolean(generator, "additionalItems", schema.getAdditionalItems());
+        writeNumber(generator, "maxItems", schema.getMaxItems());
+        writeNumber(generator, "minItems", schema.getMinItems());
+        if (schema.getUniqueItems() != null)
+        {
+            generator.writeBooleanField("uniqueItems", schema.getUniqueItems() != 0);
+        }
+
+        writeSchemas(generator, "properties", schema.getProperties());
+        writeBoolean(generator, "additionalProperties", schema.getAdditionalProperties());
+        writeNumber(generator, "maxProperties", schema.getMaxProperties());
+        writeNumber(generator, "minProperties", schema.getMinProperties());
+        writeStrings(generator, "required", schema.getRequired());
+        writePatternProperties(generator, schema.getPatternProperties());
+
+        writeStrings(generator, "enum", schema.getEnums());
+
+        if (schema.getAllOf() != null)
+        {
+            generator.writeArrayFieldStart("allOf");
+
+            for (JsonSchema part : schema.getAllOf())
+            {
+                write(part, generator);
+            }
+
+            generator.writeEndArray();
+        }
+
+        writeSchemas(generator, "definitions", schema.getDefinitions());
+
+        generator.writeEndObject();
+    }
+
+    /**
+     * Reads the value of one keyword into a schema, skipping the values of unknown keywords.
+     *
+     * @param  parser The parser, positioned on the value of the keyword.
+     * @param  name   The name of the keyword.
+     * @param  schema The schema to read into.
+     *
+     * @throws IOException If the json is not well formed, or the value is not valid for the keyword.
+     */
+    private void readKeyword(JsonParser parser, String name, JsonSchema schema) throws IOException
+    {
+        switch (name)
+        {
+        case "$ref":
+            schema.setRef(readInterned(parser, name));
+            break;
+
+        case "title":
+            schema.setTitle(readString(parser, name));
+            break;
+
+        case "description":
+            schema.setDescription(readString(parser, name));
+            break;
+
+        case "type":
+            schema.setType(readType(parser));
+            break;
+
+        case "multipleOf":
+            schema.setMultipleOf(readDecimal(parser, name));
+            break;
+
+        case "maximum":
+            schema.setMaximum(readDecimal(parser, name));
+            break;
+
+        case "exclusiveMaximum":
+            schema.setExclusiveMaximum(readBoolean(parser, name));
+            break;
+
+        case "minimum":
+            schema.setMinimum(readDecimal(parser, name));
+            break;
+
+        case "exclusiveMinimum":
+            schema.setExclusiveMinimum(readBoolean(parser, name));
+            break;
+
+        case "maxLength":
+            schema.setMaxLength(readInteger(parser, name));
+            break;
+
+        case "minLength":
+            schema.setMinLength(readInteger(parser, name));
+            break;
+
+        case "pattern":
+            schema.setPattern(readInterned(parser, name));
+            break;
+
+        case "items":
+            readItems(parser, schema);
+            break;
+
+        case "additionalItems":
+            schema.setAdditionalItems(readAdditional(parser, name));
+            break;
+
+        case "maxItems":
+            schema.setMaxItems(readInteger(parser, name));
+            break;
+
+        case "minItems":
+            schema.setMinItems(readInteger(parser, name));
+            break;
+
+        case "uniqueItems":
+            schema.setUniqueItems(readUniqueItems(parser));
+            break;
+
+        case "properties":
+            schema.setProperties(readSchemas(parser, name));
+            break;
+
+        case "additionalProperties":
+            schema.setAdditionalProperties(readAdditional(parser, name));
+            break;
+
+        case "maxProperties":
+            schema.setMaxProperties(readInteger(parser, name));
+            break;
+
+        case "minProperties":
+            schema.setMinProperties(readInteger(parser, name));
+            break;
+
+        case "required":
+            schema.setRequired(readStrings(parser, name));
+            break;
+
+        case "patternProperties":
+            schema.setPatternProperties(readPatternProperties(parser));
+            break;
+
+        case "enum":
+        case "enums":
+            schema.setEnums(readStrings(parser, name));
+            break;
+
+        case "definitions":
+            schema.setDefinitions(readSchemas(parser, name));
+            break;
+
+        case "allOf":
+            schema.setAllOf(readSchemaArray(parser, name));
+            break;
+
+        default:
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Reads a string value.
+     *
+     * @param  parser The parser, positioned on the value.
+     * @param  name   The name of the keyword, to report errors against.
+     *
+     * @return The string, or <tt>null</tt> if the value is <tt>null</tt>.
+     *
+     * @throws IOException If the value is not a scalar.
+     */
+    private String readString(JsonParser parser, String name) throws IOException
+    {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL)
+        {
+            return null;
+        }
+
+        expectScalar(parser, name);
+
+        return parser.getText();
+    }
+
+    /**
+     * Reads a string value through the pool. Strings already in the pool are looked up from the parser's buffer, so
+     * that no copy of them is kept.
+     *
+     * @param  parser The parser, positioned on the value.
+     * @param  name   The name of the keyword, to report errors against.
+     *
+     * @return The canonical instance of the string, or <tt>null</tt> if the value is <tt>null</tt>.
+     *
+     * @throws IOException If the value is not a scalar.
+     */
+    private String readInterned(JsonParser parser, String name) throws IOException
+    {
+        if (parser.getCurrentToken() == JsonToken.VALUE_STRING)
+        {
+            return pool.intern(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+
+        return pool.intern(readString(parser, name));
+    }
+
+    /**
+     * Reads a json type.
+     *
+     * @param  parser The parser, positioned on the value.
+     *
+     * @return The type, or <tt>null</tt> if the value is <tt>null</tt>.
+     *
+     * @throws IOException If the value is not the name of a json type.
+     */
+    private SchemaType readType(JsonParser parser) throws IOException
+    {
+        String text = readInterned(parser, "type");
+
+        if (text == null)
+        {
+            return null;
+        }
+
+        for (SchemaType type : SchemaType.values())
+        {
+            if (type.toString().equals(text))
+            {
+                return type;
+            }
+        }
+
+        throw new JsonParseException("Unknown type '" + text + "'.", parser.getCurrentLocation());
+    }
+
+    /**
+     * Reads a decimal number, as a shared instance where it is a common bound.
+     *
+     * @param  parser The parser, positioned on the value.
+     * @param  name   The name of the keyword, to report errors against.
+     *
+     * @return The number, or <tt>null</tt> if the value is <tt>null</tt>.
+     *
+     * @throws IOException If the value is not a number.
+     */
+    private BigDecimal readDecimal(JsonParser parser, String name) throws IOException
+    {
+        switch (parser.getCurrentToken())
+        {
+        case VALUE_NULL:
+            return null;
+
+        case VALUE_NUMBER_INT:
+            if (parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER)
+            {
+                long value = parser.getLongValue();
+                BigDecimal common = COMMON_BOUNDS.get(value);
+
+                return (common != null) ? common : BigDecimal.valueOf(value);
+            }
+
+            return parser.getDecimalValue();
+
+        case VALUE_NUMBER_FLOAT:
+            return parser.getDecimalValue();
+
+        case VALUE_STRING:
+            try
+            {
+                return new BigDecimal(parser.getText().trim());
+            }
+            catch (NumberFormatException e)
+            {
+                throw new JsonParseException("Expected a number for '" + name + "'.", parser.getCurrentLocation(), e);
+            }
+
+        default:
+            throw new JsonParseException("Expected a number for '" + name + "'.", parser.getCurrentLocation());
+        }
+    }
+
+    /**
+     * Reads an integer.
+     *
+     * @param  parser The parser, positioned on the value.
+     * @param  name   The name of the keyword, to report errors against.
+     *
+     * @return The integer, or <tt>null</tt> if the value is <tt>null</tt>.
+     *
+     * @throws IOException If the value is not a number.
+     */
+    private Integer readInteger(JsonParser parser, String name) throws IOException
+    {
+        switch (parser.getCurrentToken())
+        {
+        case VALUE_NULL:
+            return null;
+
+        case VALUE_NUMBER_INT:
+        case VALUE_NUMBER_FLOAT:
+            return parser.getIntValue();
+
+        case VALUE_STRING:
+            try
+            {
+                return Integer.valueOf(parser.getText().trim());
+            }
+            catch (NumberFormatException e)
+            {
+                throw new JsonParseException("Expected an integer for '" + name + "'.", parser.getCurrentLocation(),
+                    e);
+            }
+
+        default:
+            throw new JsonParseException("Expected an integer for '" + name + "'.", parser.getCurrentLocation());
+        }
+    }
+
+    /**
+     * Reads a boolean.
+     *
+     * @param  parser The parser, positioned on the value.
+     * @param  name   The name of the keyword, to report errors against.
+     *
+     * @return The boolean, or <tt>null</tt> if the value is <tt>null</tt>.
+     *
+     * @throws IOException If the value is not a scalar.
+     */
+    private Boolean readBoolean(JsonParser parser, String name) throws IOException
+    {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL)
+        {
+            return null;
+        }
+
+        expectScalar(parser, name);
+
+        return parser.getValueAsBoolean();
+    }
+
+    /**
+     * Reads 'additionalItems' or 'additionalProperties', where a schema is read as allowing them.
+     *
+     * @param  parser The parser, positioned on the value.
+     * @param  name   The name of the keyword, to report errors against.
+     *
+     * @return <tt>false</tt> if they are not allowed, <tt>true</tt> if they are, or <tt>null</tt> if the value is
+     *         <tt>null</tt>.
+     *
+     * @throws IOException If the value is not a boolean or a schema.
+     */
+    private Boolean readAdditional(JsonParser parser, String name) throws IOException
+    {
+        if (parser.getCurrentToken() == JsonToken.START_OBJECT)
+        {
+            parser.skipChildren();
+
+            return Boolean.TRUE;
+        }
+
+        return readBoolean(parser, name);
+    }
+
+    /**
+     * Reads 'uniqueItems', as a number, or as the boolean of the json-schema specification.
+     *
+     * @param  parser The parser, positioned on the value.
+     *
+     * @return 1 if items must be unique, 0 if not, or <tt>null</tt> if the value is <tt>null</tt>.
+     *
+     * @throws IOException If the value is not a number or a boolean.
+     */
+    private Integer readUniqueItems(JsonParser parser) throws IOException
+    {
+        switch (parser.getCurrentToken())
+        {
+        case VALUE_TRUE:
+            return 1;
+
+        case VALUE_FALSE:
+            return 0;
+
+        default:
+            return readInteger(parser, "uniqueItems");
+        }
+    }
+
+    /**
+     * Reads an array of strings, interning them.
+     *
+     * @param  parser The parser, positioned on the value.
+     * @param  name   The name of the keyword, to report errors against.
+     *
+     * @return The strings, or <tt>null</tt> if the value is <tt>null</tt>.
+     *
+     * @throws IOException If the value is not an array of scalars.
+     */
+    private List<String> readStrings(JsonParser parser, String name) throws IOException
+    {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL)
+        {
+            return null;
+        }
+
+        expect(parser, JsonToken.START_ARRAY, "an array for '" + name + "'");
+
+        List<String> values = new ArrayList<>();
+
+        while (parser.nextToken() != JsonToken.END_ARRAY)
+        {
+            values.add(readInterned(parser, name));
+        }
+
+        return values;
+    }
+
+    /**
+     * Reads 'patternProperties', as an array of patterns, or as the object of patterns to schemas of the json-schema
+     * specification, keeping just the patterns.
+     *
+     * @param  parser The parser, positioned on the value.
+     *
+     * @return The patterns, or <tt>null</tt> if the value is <tt>null</tt>.
+     *
+     * @throws IOException If the value is not an array of patterns or an object.
+     */
+    private List<String> readPatternProperties(JsonParser parser) throws IOException
+    {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT)
+        {
+            return readStrings(parser, "patternProperties");
+        }
+
+        List<String> patterns = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            patterns.add(pool.intern(parser.getCurrentName()));
+            parser.nextToken();
+            parser.skipChildren();
+        }
+
+        return patterns;
+    }
+
+    /**
+     * Reads 'items', as a single schema for all items, or as an array of schemas for each position of a tuple.
+     *
+     * @param  parser The parser, positioned on the value.
+     * @param  schema The schema to set the items of.
+     *
+     * @throws IOException If the value is not a schema or an array of schemas.
+     */
+    private void readItems(JsonParser parser, JsonSchema schema) throws IOException
+    {
+        switch (parser.getCurrentToken())
+        {
+        case VALUE_NULL:
+            schema.setItems(null);
+            break;
+
+        case START_OBJECT:
+            schema.setItemSchema(read(parser));
+            break;
+
+        default:
+            expect(parser, JsonToken.START_ARRAY, "a schema or an array of schemas for 'items'");
+
+            List<JsonSchema> items = new ArrayList<>();
+
+            while (parser.nextToken() != JsonToken.END_ARRAY)
+            {
+                items.add(read(parser));
+            }
+
+            schema.setItems(items);
+        }
+    }
+
+    /**
+     * Reads an array of schemas.
+     *
+     * @param  parser The parser, positioned on the value.
+     * @param  name   The name of the keyword, to report errors against.
+     *
+     * @return The schemas, in the order read, or <tt>null</tt> if the value is <tt>null</tt>.
+     *
+     * @throws IOException If the value is not an array of schemas.
+     */
+    private List<JsonSchema> readSchemaArray(JsonParser parser, String name) throws IOException
+    {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL)
+        {
+            return null;
+        }
+
+        expect(parser, JsonToken.START_ARRAY, "an array of schemas for '" + name + "'");
+
+        List<JsonSchema> schemas = new ArrayList<>();
+
+        while (parser.nextToken() != JsonToken.END_ARRAY)
+        {
+            schemas.add(read(parser));
+        }
+
+        return schemas;
+    }
+
+    /**
+     * Reads an object of schemas by name, interning the names.
+     *
+     * @param  parser The parser, positioned on the value.
+     * @param  name   The name of the keyword, to report errors against.
+     *
+     * @return The schemas by name, in the order read, or <tt>null</tt> if the value is <tt>null</tt>.
+     *
+     * @throws IOException If the value is not an object of schemas.
+     */
+    private Map<String, JsonSchema> readSchemas(JsonParser parser, String name) throws IOException
+    {
+        if (parser.getCurrentToken() == JsonToken.VALUE_NULL)
+        {
+            return null;
+        }
+
+        expect(parser, JsonToken.START_OBJECT, "an object for '" + name + "'");
+
+        Map<String, JsonSchema> schemas = new LinkedHashMap<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String key = pool.intern(parser.getCurrentName());
+            parser.nextToken();
+            schemas.put(key, read(parser));
+        }
+
+        return schemas;
+    }
+
+    /**
+     * Checks that the parser is on a given token.
+     *
+     * @param  parser   The parser.
+     * @param  token    The token expected.
+     * @param  expected A description of what was expected, to report errors with.
+     *
+     * @throws JsonParseException If the parser is on another token.
+     */
+    private void expect(JsonParser parser, JsonToken token, String expected) throws JsonParseException
+    {
+        if (parser.getCurrentToken() != token)
+        {
+            throw new JsonParseException("Expected " + expected + ".", parser.getCurrentLocation());
+        }
+    }
+
+    /**
+     * Checks that the parser is on a scalar value, rather than an array or object.
+     *
+     * @param  parser The parser.
+     * @param  name   The name of the keyword, to report errors against.
+     *
+     * @throws JsonParseException If the parser is on the start of an array or object.
+     */
+    private void expectScalar(JsonParser parser, String name) throws JsonParseException
+    {
+        if (!parser.getCurrentToken().isScalarValue())
+        {
+            throw new JsonParseException("Expected a value for '" + name + "'.", parser.getCurrentLocation());
+        }
+    }
+
+    /**
+     * Writes a string field, if it is set.
+     *
+     * @param  generator The generator to write to.
+     * @param  name      The name of the field.
+     * @param  value     The value of the field, or <tt>null</tt> if it is not set.
+     *
+     * @throws IOException If the generator cannot be written to.
+     */
+    private void writeString(JsonGenerator generator, String name, String value) throws IOException
+    {
+        if (value != null)
+        {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    /**
+     * Writes a decimal number field, if it is set.
+     *
+     * @param  generator The generator to write to.
+     * @param  name      The name of the field.
+     * @param  value     The value of the field, or <tt>null</tt> if it is not set.
+     *
+     * @throws IOException If the generator cannot be written to.
+     */
+    private void writeNumber(JsonGenerator generator, String name, BigDecimal value) throws IOException
+    {
+        if (value != null)
+        {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    /**
+     * Writes an integer field, if it is set.
+     *
+     * @param  generator The generator to write to.
+     * @param  name      The name of the field.
+     * @param  value     The value of the field, or <tt>null</tt> if it is not set.
+     *
+     * @throws IOException If the generator cannot be written to.
+     */
+    private void writeNumber(JsonGenerator generator, String name, Integer value) throws IOException
+    {
+        if (value != null)
+        {
+            generator.writeNumberField(name, value);
+        }
+    }
+
+    /**
+     * Writes a boolean field, if it is set.
+     *
+     * @param  generator The generator to write to.
+     * @param  name      The name of the field.
+     * @param  value     The value of the field, or <tt>null</tt> if it is not set.
+     *
+     * @throws IOException If the generator cannot be written to.
+     */
+    private void writeBoolean(JsonGenerator generator, String name, Boolean value) throws IOException
+    {
+        if (value != null)
+        {
+            generator.writeBooleanField(name, value);
+        }
+    }
+
+    /**
+     * Writes 'patternProperties', if it is set, as the object of patterns to schemas of the json-schema specification.
+     * Only the patterns are held, so each is written with the empty schema.
+     *
+     * @param  generator The generator to write to.
+     * @param  patterns  The patterns, or <tt>null</tt> if they are not set.
+     *
+     * @throws IOException If the generator cannot be written to.
+     */
+    private void writePatternProperties(JsonGenerator generator, List<String> patterns) throws IOException
+    {
+        if (patterns != null)
+        {
+            generator.writeObjectFieldStart("patternProperties");
+
+            for (String pattern : patterns)
+            {
+                generator.writeObjectFieldStart(pattern);
+                generator.writeEndObject();
+            }
+
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes an array of strings, if it is set.
+     *
+     * @param  generator The generator to write to.
+     * @param  name      The name of the field.
+     * @param  values    The strings, or <tt>null</tt> if they are not set.
+     *
+     * @throws IOException If the generator cannot be written to.
+     */
+    private void writeStrings(JsonGenerator generator, String name, List<String> values) throws IOException
+    {
+        if (values != null)
+        {
+            generator.writeArrayFieldStart(name);
+
+            for (String value : values)
+            {
+                generator.writeString(value);
+            }
+
+            generator.writeEndArray();
+        }
+    }
+
+    /**
+     * Writes an object of schemas by name, if it is set.
+     *
+     * @param  generator The generator to write to.
+     * @param  name      The name of the field.
+     * @param  schemas   The schemas by name, or <tt>null</tt> if they are not set.
+     *
+     * @throws IOException If the generator cannot be written to.
+     */
+    private void writeSchemas(JsonGenerator generator, String name, Map<String, JsonSchema> schemas)
+        throws IOException
+    {
+        if (schemas != null)
+        {
+            generator.writeObjectFieldStart(name);
+
+            for (Map.Entry<String, JsonSchema> entry : schemas.entrySet())
+            {
+                generator.writeFieldName(entry.getKey());
+                write(entry.getValue(), generator);
+            }
+
+            generator.writeEndObject();
+        }
+    }
+}
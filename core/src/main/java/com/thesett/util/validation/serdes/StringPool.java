@@ -0,0 +1,220 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.serdes;
+
+/**
+ * StringPool holds one canonical instance of each string added to it, so that the many copies of the same property
+ * names, patterns and allowed values read from a catalog of schemas are only held once. Unlike
+ * {@link String#intern()}, the pool belongs to its owner, and is dropped along with it.
+ *
+ * <p/>Strings can be looked up straight from the character buffer of a parser, so that a string already in the pool
+ * is found without first being copied out of the buffer. This saves holding copies, rather than time; hashing and
+ * comparing the characters costs about as much as copying them. The pool is an open addressed hash table; lookups do
+ * not lock, and only adding a string does.
+ *
+ * <p/>The pool is not bounded, and is meant for the vocabulary of schemas, which is small however many schemas use
+ * it, rather than for arbitrary text.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Provide a canonical instance of each string. </td></tr>
+ * </table></pre>
+ */
+public class StringPool
+{
+    /** The initial size of the table. */
+    private static final int INITIAL_SIZE = 256;
+
+    /** The canonical strings, by hash, replaced by a larger table as it fills. */
+    private volatile String[] table = new String[INITIAL_SIZE];
+
+    /** The number of strings in the pool. */
+    private volatile int size;
+
+    /**
+     * Provides the canonical instance of a string, adding it to the pool if it is not there already.
+     *
+     * @param  value The string, may be <tt>null</tt>.
+     *
+     * @return The canonical instance of the string, or <tt>null</tt> if it is <tt>null</tt>.
+     */
+    public String intern(String value)
+    {
+        if (value == null)
+        {
+            return null;
+        }
+
+        String[] strings = table;
+        int mask = strings.length - 1;
+
+        for (int i = value.hashCode() & mask;; i = (i + 1) & mask)
+        {
+            String candidate = strings[i];
+
+            if (candidate == null)
+            {
+                return add(value);
+            }
+            else if (candidate.equals(value))
+            {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Provides the canonical instance of a string held in a range of a character buffer, adding it to the pool if it
+     * is not there already. The string is only copied out of the buffer when it is added.
+     *
+     * @param  chars  The character buffer.
+     * @param  offset The start of the string in the buffer.
+     * @param  length The length of the string.
+     *
+     * @return The canonical instance of the string.
+     */
+    public String intern(char[] chars, int offset, int length)
+    {
+        int hash = 0;
+
+        for (int i = offset; i < (offset + length); i++)
+        {
+            hash = (31 * hash) + chars[i];
+        }
+
+        String[] strings = table;
+        int mask = strings.length - 1;
+
+        for (int i = hash & mask;; i = (i + 1) & mask)
+        {
+            String candidate = strings[i];
+
+            if (candidate == null)
+            {
+                return add(new String(chars, offset, length));
+            }
+            else if ((candidate.hashCode() == hash) && matches(candidate, chars, offset, length))
+            {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Provides the number of strings in the pool.
+     *
+     * @return The number of strings in the pool.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Adds a string to the pool, unless an equal one was added since it was looked up.
+     *
+     * @param  value The string to add.
+     *
+     * @return The canonical instance of the string.
+     */
+    private synchronized String add(String value)
+    {
+        String[] strings = table;
+        int mask = strings.length - 1;
+        int i = value.hashCode() & mask;
+
+        for (; strings[i] != null; i = (i + 1) & mask)
+        {
+            if (strings[i].equals(value))
+            {
+                return strings[i];
+            }
+        }
+
+        // Keep the table at most half full, so that lookups find a free slot quickly.
+        if ((2 * (size + 1)) > strings.length)
+        {
+            String[] larger = new String[strings.length * 2];
+
+            for (String string : strings)
+            {
+                if (string != null)
+                {
+                    insert(larger, string);
+                }
+            }
+
+            insert(larger, value);
+            table = larger;
+        }
+        else
+        {
+            // Strings are immutable, so readers that see the new entry see the whole string, even without a lock.
+            strings[i] = value;
+        }
+
+        size++;
+
+        return value;
+    }
+
+    /**
+     * Places a string in a table known to have room for it, and known not to hold it.
+     *
+     * @param strings The table.
+     * @param value   The string.
+     */
+    private static void insert(String[] strings, String value)
+    {
+        int mask = strings.length - 1;
+        int i = value.hashCode() & mask;
+
+        while (strings[i] != null)
+        {
+            i = (i + 1) & mask;
+        }
+
+        strings[i] = value;
+    }
+
+    /**
+     * Checks if a string equals a range of a character buffer.
+     *
+     * @param  value  The string.
+     * @param  chars  The character buffer.
+     * @param  offset The start of the range.
+     * @param  length The length of the range.
+     *
+     * @return <tt>true</tt> iff the string holds the same characters as the range.
+     */
+    private static boolean matches(String value, char[] chars, int offset, int length)
+    {
+        if (value.length() != length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            if (value.charAt(i) != chars[offset + i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,165 @@
+package com.thesett.util.validation.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.JsonSchemaEvaluator;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class AllowedPropertiesTest {
+    private static final String EXTENSIONS =
+        "{ \"type\": \"object\", \"additionalProperties\": false," +
+        "  \"properties\": { \"colour\": { \"type\": \"string\" } }," +
+        "  \"patternProperties\": [ \"^x-\", \"_id$\", \"^(?i)ext\\\\d+$\" ] }";
+
+    public static class Product {
+        public Map<String, Object> extensions = new LinkedHashMap<>();
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private <T> Set<String> describe(Set<ConstraintViolation<T>> violations) {
+        Set<String> result = new HashSet<>();
+
+        for (ConstraintViolation<T> violation : violations) {
+            result.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        return result;
+    }
+
+    private void assertViolations(Map<String, Object> extensions, String... expected) throws Exception {
+        assertViolations(EXTENSIONS, extensions, expected);
+    }
+
+    private void assertViolations(String extensionsSchema, Map<String, Object> extensions, String... expected)
+            throws Exception {
+        JsonSchema schema = mapper.readValue("{ \"type\": \"object\", \"properties\": { \"extensions\": " +
+            extensionsSchema + " } }", JsonSchema.class);
+
+        Product product = new Product();
+        product.extensions.putAll(extensions);
+
+        Validator validator = new JsonSchemaValidatorFactory().getBuilder().addSchema(Product.class, schema).build();
+        Assert.assertEquals(new HashSet<>(Arrays.asList(expected)), describe(validator.validate(product)));
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("extensions", extensions);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(expected)),
+            describe(JsonSchemaEvaluator.compile(schema).validate(payload)));
+    }
+
+    @Test
+    public void testNamedAndPatternedKeysAreAllowed() throws Exception {
+        Map<String, Object> extensions = new LinkedHashMap<>();
+        extensions.put("colour", "red");
+        extensions.put("x-trace", 1);
+        extensions.put("order_id", 2);
+        extensions.put("EXT42", 3);
+
+        assertViolations(extensions);
+    }
+
+    @Test
+    public void testAdditionalKeysAreReported() throws Exception {
+        Map<String, Object> extensions = new LinkedHashMap<>();
+        extensions.put("colour", "red");
+        extensions.put("size", 1);
+        extensions.put("ext4x", 2);
+        extensions.put("id_order", 3);
+
+        assertViolations(extensions, "extensions.size is not an allowed property",
+            "extensions.ext4x is not an allowed property", "extensions.id_order is not an allowed property");
+    }
+
+    @Test
+    public void testEntriesAreCheckedAgainstTheirPropertySchemas() throws Exception {
+        String entries =
+            "{ \"type\": \"object\", \"required\": [ \"colour\", \"size\" ]," +
+            "  \"properties\": { \"colour\": { \"type\": \"string\", \"maxLength\": 5 }," +
+            "    \"weight\": { \"type\": \"integer\", \"minimum\": 1 } } }";
+
+        Map<String, Object> extensions = new LinkedHashMap<>();
+        extensions.put("colour", "red");
+        extensions.put("size", "L");
+        extensions.put("weight", 3);
+        assertViolations(entries, extensions);
+
+        extensions.put("colour", "magenta");
+        extensions.remove("size");
+        extensions.put("weight", "heavy");
+        extensions.put("other", 1);
+        assertViolations(entries, extensions, "extensions.colour length must be at most 5",
+            "extensions.size  is mandatory.", "extensions.weight must be of type integer",
+            "extensions.weight must be greater than or equal to 1");
+    }
+
+    @Test
+    public void testBackReferencesAreMatchedSeparately() throws Exception {
+        JsonSchema schema = mapper.readValue("{ \"type\": \"object\", \"additionalProperties\": false," +
+            "  \"patternProperties\": [ \"^(.)\\\\1\", \"^(a)b\" ] }", JsonSchema.class);
+        Map<String, Object> payload = mapper.readValue("{ \"zzTop\": 1, \"abba\": 2, \"ba\": 3 }",
+            new TypeReference<Map<String, Object>>() { });
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("ba is not an allowed property")),
+            describe(JsonSchemaEvaluator.compile(schema).validate(payload)));
+    }
+
+    @Test
+    public void testManyPrefixesAndPatternsAgreeWithMatchingEachPattern() throws Exception {
+        List<String> patterns = new ArrayList<>();
+
+        for (int i = 0; i < 300; i++) {
+            patterns.add("^p" + i + "-");
+        }
+
+        patterns.addAll(Arrays.asList("^q\\.1.*", "^exact$", "_id$", "^(?i)ext\\d+$", "^r[0-9]"));
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+
+        for (int i = 0; i < 600; i++) {
+            payload.put("p" + i + ((i % 3 == 0) ? "" : "-") + "key", i);
+        }
+
+        for (String key : Arrays.asList("q.1x", "qx1", "exact", "exactly", "order_id", "EXT7", "ext7x", "r5", "rx",
+                "", "p", "p1")) {
+            payload.put(key, 0);
+        }
+
+        JsonSchema schema = JsonSchema.object().build();
+        schema.setAdditionalProperties(false);
+        schema.setPatternProperties(patterns);
+
+        Set<String> expected = new HashSet<>();
+
+        for (String key : payload.keySet()) {
+            boolean allowed = false;
+
+            for (String pattern : patterns) {
+                allowed |= Pattern.compile(pattern).matcher(key).find();
+            }
+
+            if (!allowed) {
+                expected.add(key + " is not an allowed property");
+            }
+        }
+
+        Assert.assertTrue(expected.size() > 200);
+        Assert.assertTrue(expected.size() < 500);
+        Assert.assertEquals(expected, describe(JsonSchemaEvaluator.compile(schema).validate(payload)));
+    }
+}
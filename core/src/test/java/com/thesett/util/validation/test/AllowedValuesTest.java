@@ -0,0 +1,133 @@
+package com.thesett.util.validation.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.AllowedValues;
+import com.thesett.util.validation.core.BeanValidationToJsonSchemaImpl;
+import com.thesett.util.validation.core.JsonSchemaEvaluator;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class AllowedValuesTest {
+    public enum Colour {
+        RED, GREEN
+    }
+
+    public static class Product {
+        public String code = "C0001";
+
+        public int level = 2;
+
+        public Colour colour = Colour.RED;
+
+        public List<String> tags = new ArrayList<>();
+    }
+
+    public static class Annotated {
+        @AllowedValues({ "a", "b" })
+        public String letter;
+    }
+
+    private JsonSchema schema() throws Exception {
+        List<String> codes = new ArrayList<>();
+
+        for (int i = 0; i < 2500; i++) {
+            codes.add(String.format("C%04d", i));
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+
+        return mapper.readValue("{ \"type\": \"object\", \"properties\": {" +
+            "  \"code\": { \"type\": \"string\", \"enum\": " + mapper.writeValueAsString(codes) + " }," +
+            "  \"level\": { \"type\": \"integer\", \"enum\": [ \"1\", \"2\", \"3.0\" ] }," +
+            "  \"colour\": { \"type\": \"string\", \"enum\": [ \"RED\" ] }," +
+            "  \"tags\": { \"type\": \"array\", \"items\": { \"type\": \"string\", \"enum\": [ \"x\", \"y\" ] } } } }",
+            JsonSchema.class);
+    }
+
+    private <T> Set<String> describe(Set<ConstraintViolation<T>> violations) {
+        Set<String> result = new HashSet<>();
+
+        for (ConstraintViolation<T> violation : violations) {
+            result.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        return result;
+    }
+
+    private void assertViolations(Product product, String... expected) throws Exception {
+        JsonSchema schema = schema();
+        Validator validator = new JsonSchemaValidatorFactory().getBuilder().addSchema(Product.class, schema).build();
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(expected)), describe(validator.validate(product)));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(expected)),
+            describe(JsonSchemaEvaluator.compile(schema).validate(product)));
+    }
+
+    @Test
+    public void testAllowedValuesPass() throws Exception {
+        Product product = new Product();
+        product.code = "C2499";
+        product.level = 3;
+        product.tags.add("y");
+
+        assertViolations(product);
+    }
+
+    @Test
+    public void testOtherValuesFail() throws Exception {
+        Product product = new Product();
+        product.code = "C2500";
+        product.level = 4;
+        product.colour = Colour.GREEN;
+        product.tags.add("x");
+        product.tags.add("z");
+
+        assertViolations(product, "code must be one of the allowed values", "level must be one of the allowed values",
+            "colour must be one of the allowed values", "tags[1] must be one of the allowed values");
+    }
+
+    @Test
+    public void testUntypedNumbersMatchByValue() throws Exception {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("level", 3L);
+
+        JsonSchemaEvaluator evaluator = JsonSchemaEvaluator.compile(schema());
+        Assert.assertEquals(0, evaluator.validate(payload).size());
+
+        payload.put("level", 4.5);
+        Set<String> expected = new HashSet<>();
+        expected.add("level must be of type integer");
+        expected.add("level must be one of the allowed values");
+
+        Assert.assertEquals(expected, describe(evaluator.validate(payload)));
+    }
+
+    @Test
+    public void testAnnotationIsWrittenAsEnum() throws Exception {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        JsonSchema schema = new BeanValidationToJsonSchemaImpl().toJsonSchema(validator, Annotated.class);
+
+        Assert.assertEquals(Arrays.asList("a", "b"), schema.getProperties().get("letter").getEnums());
+
+        String json = new ObjectMapper().writeValueAsString(schema);
+        Assert.assertTrue(json, json.contains("\"enum\":[\"a\",\"b\"]"));
+
+        Annotated annotated = new Annotated();
+        annotated.letter = "c";
+        Assert.assertEquals(1, validator.validate(annotated).size());
+    }
+}
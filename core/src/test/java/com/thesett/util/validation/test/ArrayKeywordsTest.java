@@ -0,0 +1,139 @@
+package com.thesett.util.validation.test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.JsonSchemaEvaluator;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class ArrayKeywordsTest {
+    private static final String SCHEMA =
+        "{ \"type\": \"object\", \"properties\": {" +
+        "  \"codes\": { \"type\": \"array\", \"minItems\": 2, \"maxItems\": 4, \"uniqueItems\": 1," +
+        "    \"items\": { \"type\": \"integer\", \"minimum\": 0, \"maximum\": 99 } }," +
+        "  \"tags\": { \"type\": \"array\", \"uniqueItems\": 1, \"items\": { \"type\": \"string\", \"maxLength\": 3 } }," +
+        "  \"amounts\": { \"type\": \"array\", \"uniqueItems\": 1 }," +
+        "  \"parts\": { \"type\": \"array\", \"items\": { \"type\": \"object\"," +
+        "    \"properties\": { \"qty\": { \"type\": \"integer\", \"maximum\": 2 } } } } } }";
+
+    public static class Part {
+        public int qty;
+
+        public Part(int qty) {
+            this.qty = qty;
+        }
+    }
+
+    public static class Basket {
+        public int[] codes = { 1, 2 };
+
+        public List<String> tags = new ArrayList<>();
+
+        public List<Object> amounts = new ArrayList<>();
+
+        public List<Part> parts = new ArrayList<>();
+    }
+
+    private Set<String> describe(Set<ConstraintViolation<Basket>> violations) {
+        Set<String> result = new HashSet<>();
+
+        for (ConstraintViolation<Basket> violation : violations) {
+            result.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        return result;
+    }
+
+    private void assertViolations(Basket basket, String... expected) throws Exception {
+        JsonSchema schema = new ObjectMapper().readValue(SCHEMA, JsonSchema.class);
+        Validator validator = new JsonSchemaValidatorFactory().getBuilder().addSchema(Basket.class, schema).build();
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(expected)), describe(validator.validate(basket)));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(expected)),
+            describe(JsonSchemaEvaluator.compile(schema).validate(basket)));
+    }
+
+    @Test
+    public void testValidArrays() throws Exception {
+        Basket basket = new Basket();
+        basket.tags.add("a");
+        basket.tags.add("b");
+        basket.parts.add(new Part(2));
+
+        assertViolations(basket);
+    }
+
+    @Test
+    public void testItemCountsAreChecked() throws Exception {
+        Basket basket = new Basket();
+        basket.codes = new int[] { 1 };
+        assertViolations(basket, "codes size must be between 2 and 2147483647");
+
+        basket.codes = new int[] { 1, 2, 3, 4, 5 };
+        assertViolations(basket, "codes size must be between 0 and 4");
+    }
+
+    @Test
+    public void testItemsAreChecked() throws Exception {
+        Basket basket = new Basket();
+        basket.codes = new int[] { 1, 2, 3, 100 };
+        basket.tags.add("abcd");
+        basket.parts.add(new Part(2));
+        basket.parts.add(new Part(3));
+
+        assertViolations(basket, "codes[3] must be less than or equal to 99", "tags[0] length must be at most 3",
+            "parts[1].qty must be less than or equal to 2");
+    }
+
+    @Test
+    public void testUniquenessIsChecked() throws Exception {
+        Basket basket = new Basket();
+        basket.codes = new int[] { 1, 2, 1 };
+        basket.tags.add("a");
+        basket.tags.add("a");
+
+        assertViolations(basket, "codes must only contain unique items", "tags must only contain unique items");
+    }
+
+    @Test
+    public void testUniquenessComparesNumbersByValue() throws Exception {
+        Basket basket = new Basket();
+        basket.amounts.addAll(Arrays.<Object>asList(1, "1", 1.5));
+        assertViolations(basket);
+
+        basket.amounts.add(1L);
+        assertViolations(basket, "amounts must only contain unique items");
+
+        basket.amounts = new ArrayList<>(Arrays.<Object>asList(2.0, new BigDecimal("2.00")));
+        assertViolations(basket, "amounts must only contain unique items");
+    }
+
+    @Test
+    public void testUniquenessOfLargeArrays() throws Exception {
+        Basket basket = new Basket();
+        basket.codes = new int[100000];
+
+        for (int i = 0; i < basket.codes.length; i++) {
+            basket.codes[i] = i * 7;
+        }
+
+        JsonSchema schema = new ObjectMapper().readValue(SCHEMA, JsonSchema.class);
+        schema.getProperties().put("codes", new ObjectMapper().readValue("{ \"uniqueItems\": 1 }", JsonSchema.class));
+        Validator validator = new JsonSchemaValidatorFactory().getBuilder().addSchema(Basket.class, schema).build();
+
+        Assert.assertEquals(0, validator.validate(basket).size());
+        basket.codes[basket.codes.length - 1] = 0;
+        Assert.assertEquals(1, validator.validate(basket).size());
+    }
+}
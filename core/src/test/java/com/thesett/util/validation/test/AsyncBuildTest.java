@@ -0,0 +1,181 @@
+package com.thesett.util.validation.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import javax.validation.constraints.NotNull;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.thesett.util.validation.core.BoundedExecutor;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.core.PendingValidator;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class AsyncBuildTest {
+    public static class Order {
+        @NotNull
+        public String ref = "r1";
+
+        public String code = "abcdef";
+    }
+
+    private final List<Runnable> held = new ArrayList<>();
+
+    private JsonSchema schema() {
+        return JsonSchema.object().property("code").isString().maxLength(4).build();
+    }
+
+    private CompletableFuture<Validator> heldBuild() throws Exception {
+        return new JsonSchemaValidatorFactory().getBuilder().addSchema(Order.class, schema()).buildAsync(held::add);
+    }
+
+    @Test
+    public void testFallbackIsUsedUntilBuilt() throws Exception {
+        Validator base = new JsonSchemaValidatorFactory().getBuilder().build();
+        PendingValidator validator = new PendingValidator(heldBuild(), base);
+
+        Assert.assertFalse(validator.isReady());
+        Assert.assertEquals(0, validator.validate(new Order()).size());
+
+        held.get(0).run();
+
+        Assert.assertTrue(validator.isReady());
+        Assert.assertEquals(1, validator.validate(new Order()).size());
+        Assert.assertSame(validator, validator.unwrap(PendingValidator.class));
+    }
+
+    @Test
+    public void testRejectAndWaitPolicies() throws Exception {
+        PendingValidator rejecting = new PendingValidator(heldBuild(), null, PendingValidator.Policy.REJECT);
+
+        try {
+            rejecting.validate(new Order());
+            Assert.fail();
+        } catch (ValidationException e) {
+            // Expected.
+        }
+
+        held.get(0).run();
+        Assert.assertEquals(1, rejecting.validate(new Order()).size());
+
+        CompletableFuture<Validator> build =
+            new JsonSchemaValidatorFactory().getBuilder().addSchema(Order.class, schema()).buildAsync();
+        PendingValidator waiting = new PendingValidator(build, null, PendingValidator.Policy.WAIT);
+        Assert.assertEquals(1, waiting.validate(new Order()).size());
+    }
+
+    @Test
+    public void testFailedBuilds() {
+        Validator base = new JsonSchemaValidatorFactory().getBuilder().build();
+        CompletableFuture<Validator> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("bad schema"));
+
+        Order order = new Order();
+        order.ref = null;
+        Assert.assertEquals(1, new PendingValidator(failed, base).validate(order).size());
+
+        try {
+            new PendingValidator(failed, base, PendingValidator.Policy.WAIT).validate(order);
+            Assert.fail();
+        } catch (ValidationException e) {
+            Assert.assertEquals("bad schema", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testRejectedSubmissionsAreTakenOffTheQueue() {
+        BoundedExecutor executor = new BoundedExecutor(task -> {
+            throw new RejectedExecutionException("shut down");
+        }, 1);
+
+        try {
+            executor.execute(() -> { });
+            Assert.fail();
+        } catch (RejectedExecutionException e) {
+            // Expected.
+        }
+
+        Assert.assertEquals(0, executor.getQueued());
+        Assert.assertEquals(0, executor.getRunning());
+    }
+
+    @Test(timeout = 10000)
+    public void testBuildsRejectedAsTasksFinishAreCancelled() throws Exception {
+        final AtomicBoolean shutDown = new AtomicBoolean();
+        BoundedExecutor executor = new BoundedExecutor(task -> {
+            if (shutDown.get()) {
+                throw new RejectedExecutionException("shut down");
+            }
+
+            held.add(task);
+        }, 1);
+
+        CompletableFuture<Validator> first =
+            new JsonSchemaValidatorFactory().getBuilder().addSchema(Order.class, schema()).buildAsync(executor);
+        CompletableFuture<Validator> second =
+            new JsonSchemaValidatorFactory().getBuilder().addSchema(Order.class, schema()).buildAsync(executor);
+        Assert.assertEquals(1, executor.getQueued());
+
+        shutDown.set(true);
+        held.get(0).run();
+
+        Assert.assertNotNull(first.get());
+        Assert.assertTrue(second.isCancelled());
+        Assert.assertEquals(0, executor.getQueued());
+        Assert.assertEquals(0, executor.getRunning());
+
+        try {
+            new PendingValidator(second, null, PendingValidator.Policy.WAIT).validate(new Order());
+            Assert.fail();
+        } catch (ValidationException e) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testBuildsAreBounded() throws Exception {
+        ExecutorService pool = Executors.newCachedThreadPool();
+        BoundedExecutor executor = new BoundedExecutor(pool, 2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger most = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(6);
+
+        for (int i = 0; i < 6; i++) {
+            executor.execute(() -> {
+                most.accumulateAndGet(running.incrementAndGet(), Math::max);
+                started.countDown();
+
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        Assert.assertEquals(2, executor.getRunning());
+        Assert.assertEquals(4, executor.getQueued());
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        release.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, most.get());
+        pool.shutdown();
+    }
+}
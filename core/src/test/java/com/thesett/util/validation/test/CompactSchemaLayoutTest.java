@@ -0,0 +1,121 @@
+package com.thesett.util.validation.test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.model.SchemaType;
+
+public class CompactSchemaLayoutTest {
+    /** The layout schemas had before, with a field for every keyword, for comparison. */
+    public static class FieldPerKeywordSchema {
+        String title;
+        SchemaType type;
+        String description;
+        BigDecimal multipleOf;
+        BigDecimal maximum;
+        Boolean exclusiveMaximum;
+        BigDecimal minimum;
+        Boolean exclusiveMinimum;
+        Integer maxLength;
+        Integer minLength;
+        String pattern;
+        List<JsonSchema> items;
+        Boolean additionalItems;
+        Integer maxItems;
+        Integer minItems;
+        Integer uniqueItems;
+        Map<String, JsonSchema> properties;
+        Boolean additionalProperties;
+        Integer maxProperties;
+        Integer minProperties;
+        List<String> required;
+        List<String> patternProperties;
+        List<String> enums;
+        Map<String, JsonSchema> definitions;
+        String ref;
+    }
+
+    @Test
+    public void testAccessorsRoundTrip() throws Exception {
+        JsonSchema schema = new JsonSchema().withType(SchemaType.STRING).withMaxLength(300).withMinLength(1)
+            .withExclusiveMaximum(false).withAdditionalProperties(true).withPattern("[a-z]+");
+
+        Assert.assertEquals(SchemaType.STRING, schema.getType());
+        Assert.assertEquals(Integer.valueOf(300), schema.getMaxLength());
+        Assert.assertEquals(Integer.valueOf(1), schema.getMinLength());
+        Assert.assertEquals(Boolean.FALSE, schema.getExclusiveMaximum());
+        Assert.assertEquals(Boolean.TRUE, schema.getAdditionalProperties());
+        Assert.assertNull(schema.getExclusiveMinimum());
+        Assert.assertNull(schema.getMaxItems());
+        Assert.assertEquals("[a-z]+", schema.getPattern());
+
+        schema.setTitle("Name");
+        schema.setMaxLength(null);
+        schema.setType(null);
+        schema.setMaxItems(4);
+        schema.setExclusiveMaximum(null);
+
+        Assert.assertEquals("Name", schema.getTitle());
+        Assert.assertNull(schema.getType());
+        Assert.assertNull(schema.getMaxLength());
+        Assert.assertEquals(Integer.valueOf(1), schema.getMinLength());
+        Assert.assertEquals(Integer.valueOf(4), schema.getMaxItems());
+        Assert.assertNull(schema.getExclusiveMaximum());
+        Assert.assertEquals(Boolean.TRUE, schema.getAdditionalProperties());
+        Assert.assertEquals("[a-z]+", schema.getPattern());
+
+        ObjectMapper mapper = new ObjectMapper();
+        String json = mapper.writeValueAsString(schema);
+        Assert.assertEquals(json, mapper.writeValueAsString(mapper.readValue(json, JsonSchema.class)));
+    }
+
+    @Test
+    public void testFootprintIsSmallerThanAFieldPerKeyword() {
+        List<JsonSchema> compact = new ArrayList<>();
+        List<FieldPerKeywordSchema> fieldPerKeyword = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            compact.add(new JsonSchema().withType(SchemaType.STRING).withMaxLength(200 + i));
+
+            FieldPerKeywordSchema schema = new FieldPerKeywordSchema();
+            schema.type = SchemaType.STRING;
+            schema.maxLength = 200 + i;
+            fieldPerKeyword.add(schema);
+        }
+
+        long compactSize = GraphLayout.parseInstance(compact).totalSize();
+        long fieldPerKeywordSize = GraphLayout.parseInstance(fieldPerKeyword).totalSize();
+        Assert.assertTrue(compactSize + " vs " + fieldPerKeywordSize, compactSize < fieldPerKeywordSize);
+
+        // A schema holds a mask and two arrays, where the old layout held a reference for each keyword, whatever the
+        // size of a header or a reference.
+        long instanceSize = ClassLayout.parseClass(JsonSchema.class).instanceSize();
+        long fieldPerKeywordInstanceSize = ClassLayout.parseClass(FieldPerKeywordSchema.class).instanceSize();
+        Assert.assertTrue(instanceSize + " vs " + fieldPerKeywordInstanceSize,
+            instanceSize * 3 < fieldPerKeywordInstanceSize);
+    }
+
+    @Test
+    public void testEmptySchemasShareTheirArrays() {
+        JsonSchema schema = new JsonSchema();
+        long count = GraphLayout.parseInstance(schema).totalCount();
+        long withAnother = GraphLayout.parseInstance(schema, new JsonSchema()).totalCount();
+
+        Assert.assertEquals(3, count);
+        Assert.assertEquals(count + 1, withAnother);
+
+        // Keywords taken away again leave a schema sharing the empty arrays once more.
+        JsonSchema emptied = new JsonSchema().withTitle("Name").withMaxLength(3);
+        emptied.setTitle(null);
+        emptied.setMaxLength(null);
+        Assert.assertEquals(count + 1, GraphLayout.parseInstance(schema, emptied).totalCount());
+    }
+}
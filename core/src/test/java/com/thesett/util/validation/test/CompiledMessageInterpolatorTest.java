@@ -0,0 +1,120 @@
+package com.thesett.util.validation.test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+
+import org.hibernate.validator.constraints.Length;
+import org.hibernate.validator.constraints.LuhnCheck;
+import org.hibernate.validator.constraints.Range;
+import org.junit.Assert;
+import org.junit.Test;
+import com.thesett.util.validation.core.AllowedValues;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class CompiledMessageInterpolatorTest {
+    public static class Account {
+        @NotNull
+        public String id;
+
+        @Size(min = 2, max = 4)
+        public String code = "x";
+
+        @Max(10)
+        public int level = 11;
+
+        @DecimalMax("1.5")
+        public BigDecimal rate = new BigDecimal("2");
+
+        @DecimalMin(value = "0.5", inclusive = false)
+        public BigDecimal floor = new BigDecimal("0.5");
+
+        @Digits(integer = 2, fraction = 1)
+        public BigDecimal amount = new BigDecimal("123.45");
+
+        @Pattern(regexp = "[a-z]+")
+        public String slug = "A1";
+
+        @Length(max = 1, message = "{org.hibernate.validator.constraints.Length.message} \\{literally\\} \\$5")
+        public String initial = "ab";
+
+        @Range(min = 1, max = 3, message = "was ${validatedValue}, wanted {min} to {max}")
+        public int rank = 7;
+
+        @AllowedValues({ "a", "b" })
+        public String letter = "c";
+
+        @LuhnCheck
+        public String card = "1234";
+
+        public String nickname = "abcdef";
+    }
+
+    private Set<String> describe(Set<ConstraintViolation<Account>> violations) {
+        Set<String> result = new HashSet<>();
+
+        for (ConstraintViolation<Account> violation : violations) {
+            result.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        return result;
+    }
+
+    private JsonSchema schema() {
+        return JsonSchema.object().property("nickname").isString().maxLength(4).pattern("^[a-c]+$").build();
+    }
+
+    @Test
+    public void testMessagesMatchTheDefaultInterpolator() throws Exception {
+        Validator standard = new JsonSchemaValidatorFactory().getBuilder().addSchema(Account.class, schema()).build();
+        Validator compiled =
+            new JsonSchemaValidatorFactory().getBuilder().withCompiledMessages().addSchema(Account.class, schema())
+                .build();
+
+        Account account = new Account();
+        Set<String> expected = describe(standard.validate(account));
+
+        Assert.assertEquals(expected, describe(compiled.validate(account)));
+        Assert.assertEquals(expected, describe(compiled.validate(account)));
+        Assert.assertTrue(expected.toString(), expected.contains("rank was 7, wanted 1 to 3"));
+        Assert.assertTrue(expected.toString(),
+            expected.contains("initial length must be between 0 and 1 {literally} $5"));
+        Assert.assertTrue(expected.toString(), expected.contains("floor must be greater than 0.5"));
+        Assert.assertTrue(expected.toString(), expected.contains("rate must be less than or equal to 1.5"));
+    }
+
+    @Test
+    public void testValidatedValueIsRenderedEachTime() throws Exception {
+        Validator compiled = new JsonSchemaValidatorFactory().getBuilder().withCompiledMessages().build();
+
+        Account account = new Account();
+        Assert.assertTrue(describe(compiled.validate(account)).contains("rank was 7, wanted 1 to 3"));
+
+        account.rank = 9;
+        Assert.assertTrue(describe(compiled.validate(account)).contains("rank was 9, wanted 1 to 3"));
+    }
+
+    @Test
+    public void testGroupedBuilderInterpolates() throws Exception {
+        JsonSchemaValidatorFactory.GroupedValidatorBuilder builder =
+            new JsonSchemaValidatorFactory().getGroupedBuilder().withCompiledMessages();
+        Class<?> group = builder.addSchema(Account.class, schema());
+        Validator validator = builder.build();
+
+        Set<String> messages = describe(validator.validate(new Account(), group));
+        Assert.assertTrue(messages.toString(), messages.containsAll(Arrays.asList(
+            "nickname length must be between 0 and 4", "nickname must match \"^[a-c]+$\"", "rank was 7, wanted 1 to 3")));
+    }
+}
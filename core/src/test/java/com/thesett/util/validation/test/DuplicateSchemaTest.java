@@ -0,0 +1,58 @@
+package com.thesett.util.validation.test;
+
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class DuplicateSchemaTest {
+    public static class Pair {
+        public InnerTestBean first;
+
+        public InnerTestBean second;
+    }
+
+    private int testIntConstraints(Validator validator) {
+        return validator.getConstraintsForClass(InnerTestBean.class).getConstraintsForProperty("testInt")
+            .getConstraintDescriptors().size();
+    }
+
+    @Test
+    public void testReusedClassIsConstrainedOnce() {
+        JsonSchema schema = JsonSchema.object()
+            .property("first").object().property("testInt").maximum(3).build();
+        schema.getProperties().put("second", schema.getProperties().get("first"));
+
+        Validator validator = new JsonSchemaValidatorFactory().getBuilder().addSchema(Pair.class, schema).build();
+
+        Assert.assertEquals(1, testIntConstraints(validator));
+
+        Pair pair = new Pair();
+        pair.first = new InnerTestBean().withTestInt(4);
+        pair.second = new InnerTestBean().withTestInt(5);
+
+        Set<ConstraintViolation<Pair>> errors = validator.validate(pair);
+        Assert.assertEquals(2, errors.size());
+    }
+
+    @Test
+    public void testSameSchemaAddedTwiceIsMerged() {
+        JsonSchema schema = JsonSchema.object().property("testInt").maximum(3).build();
+        JsonSchema otherSchema = JsonSchema.object().property("testInt").maximum(3).minimum(0).build();
+
+        Validator validator = new JsonSchemaValidatorFactory().getBuilder()
+            .addSchema(InnerTestBean.class, schema)
+            .addSchema(InnerTestBean.class, schema)
+            .addSchema(InnerTestBean.class, otherSchema)
+            .build();
+
+        Assert.assertEquals(2, testIntConstraints(validator));
+        Assert.assertEquals(1, validator.validate(new InnerTestBean().withTestInt(4)).size());
+        Assert.assertEquals(1, validator.validate(new InnerTestBean().withTestInt(-1)).size());
+    }
+}
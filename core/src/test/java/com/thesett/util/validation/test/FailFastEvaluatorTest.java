@@ -0,0 +1,89 @@
+package com.thesett.util.validation.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.JsonSchemaEvaluator;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class FailFastEvaluatorTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private JsonSchema schema() {
+        return JsonSchema.object()
+            .property("code").isString().pattern("(a|b)*c").enums("c")
+            .property("qty").isInteger().minimum(1).maximum(0)
+            .property("id").isRequired()
+            .build();
+    }
+
+    private Map<String, Object> payload(String json) throws Exception {
+        return mapper.readValue(json, new TypeReference<Map<String, Object>>() { });
+    }
+
+    private List<String> describe(Set<ConstraintViolation<Map<String, Object>>> violations) {
+        List<String> result = new ArrayList<>();
+
+        for (ConstraintViolation<Map<String, Object>> violation : violations) {
+            result.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        return result;
+    }
+
+    @Test
+    public void testAllViolationsAreFoundInDeclaredOrder() throws Exception {
+        Map<String, Object> payload = payload("{ \"code\": \"ab\", \"qty\": 0 }");
+        JsonSchemaEvaluator evaluator = JsonSchemaEvaluator.compile(schema());
+
+        List<String> expected = new ArrayList<>();
+        expected.add("code must match \"(a|b)*c\"");
+        expected.add("code must be one of the allowed values");
+        expected.add("qty must be greater than or equal to 1");
+        expected.add("id  is mandatory.");
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(expected, describe(evaluator.validate(payload)));
+        }
+    }
+
+    @Test
+    public void testMissingPropertiesAreFoundFirst() throws Exception {
+        JsonSchemaEvaluator evaluator = JsonSchemaEvaluator.compileFailFast(schema());
+
+        Assert.assertEquals(1, evaluator.validate(payload("{ \"code\": \"ab\", \"qty\": 0 }")).size());
+        Assert.assertEquals("id  is mandatory.",
+            describe(evaluator.validate(payload("{ \"code\": \"ab\", \"qty\": 0 }"))).get(0));
+        Assert.assertEquals(0, evaluator.validate(payload("{ \"id\": 1, \"code\": \"c\" }")).size());
+    }
+
+    @Test
+    public void testCheapestFailureComesFirst() throws Exception {
+        StringBuilder code = new StringBuilder();
+
+        for (int i = 0; i < 100; i++) {
+            code.append("ab");
+        }
+
+        Map<String, Object> payload = payload("{ \"id\": 1, \"code\": \"" + code + "\" }");
+        JsonSchemaEvaluator evaluator = JsonSchemaEvaluator.compileFailFast(schema());
+
+        Assert.assertEquals("code must match \"(a|b)*c\"", describe(evaluator.validate(payload)).get(0));
+
+        String first = null;
+
+        for (int i = 0; (i < 200000) && !"code must be one of the allowed values".equals(first); i++) {
+            first = describe(evaluator.validate(payload)).get(0);
+        }
+
+        Assert.assertEquals("code must be one of the allowed values", first);
+    }
+}
@@ -0,0 +1,98 @@
+package com.thesett.util.validation.test;
+
+import java.util.Map;
+
+import javax.validation.Valid;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import javax.validation.groups.Default;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.thesett.util.validation.core.BeanValidationToJsonSchema;
+import com.thesett.util.validation.core.BeanValidationToJsonSchemaImpl;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class GroupedSchemaGenerationTest {
+    public interface Signup {
+    }
+
+    public interface Checkout extends Default {
+    }
+
+    public static class Address {
+        @Pattern(regexp = "[A-Z]{2}", groups = Checkout.class)
+        public String country;
+    }
+
+    public static class Customer {
+        @Pattern(regexp = "[a-z]+")
+        public String name;
+
+        @Min(value = 18, groups = Signup.class)
+        @Max(value = 120, groups = Checkout.class)
+        public int age;
+
+        @Valid
+        public Address address;
+    }
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private JsonSchema property(JsonSchema schema, String name) {
+        return schema.getProperties().get(name);
+    }
+
+    @Test
+    public void testConstraintsAreTakenFromTheGroup() {
+        BeanValidationToJsonSchema converter = new BeanValidationToJsonSchemaImpl();
+
+        JsonSchema signup = converter.toJsonSchema(validator, Customer.class, Signup.class);
+        Assert.assertNull(property(signup, "name").getPattern());
+        Assert.assertEquals(18, property(signup, "age").getMinimum().intValue());
+        Assert.assertNull(property(signup, "age").getMaximum());
+        Assert.assertNull(property(property(signup, "address"), "country").getPattern());
+
+        // Checkout extends the default group, so takes the default constraints as well as its own.
+        JsonSchema checkout = converter.toJsonSchema(validator, Customer.class, Checkout.class);
+        Assert.assertEquals("[a-z]+", property(checkout, "name").getPattern());
+        Assert.assertNull(property(checkout, "age").getMinimum());
+        Assert.assertEquals(120, property(checkout, "age").getMaximum().intValue());
+        Assert.assertEquals("[A-Z]{2}", property(property(checkout, "address"), "country").getPattern());
+
+        JsonSchema all = converter.toJsonSchema(validator, Customer.class);
+        Assert.assertEquals(18, property(all, "age").getMinimum().intValue());
+        Assert.assertEquals(120, property(all, "age").getMaximum().intValue());
+    }
+
+    @Test
+    public void testGroupsAreExtractedTogetherAndCached() {
+        BeanValidationToJsonSchema converter = new BeanValidationToJsonSchemaImpl();
+
+        JsonSchema signup = converter.toJsonSchema(validator, Customer.class, Signup.class);
+        Map<Class<?>, JsonSchema> schemas =
+            converter.toJsonSchemas(validator, Customer.class, Default.class, Signup.class, Checkout.class);
+
+        Assert.assertArrayEquals(new Object[] { Default.class, Signup.class, Checkout.class },
+            schemas.keySet().toArray());
+        Assert.assertEquals(18, property(schemas.get(Signup.class), "age").getMinimum().intValue());
+
+        // Each caller gets its own copy, so modifying one does not affect later results.
+        property(signup, "age").setMinimum(null);
+        schemas.get(Checkout.class).getProperties().clear();
+
+        Assert.assertNotSame(signup, schemas.get(Signup.class));
+        Assert.assertEquals(18,
+            property(converter.toJsonSchema(validator, Customer.class, Signup.class), "age").getMinimum().intValue());
+        Assert.assertEquals(120,
+            property(converter.toJsonSchema(validator, Customer.class, Checkout.class), "age").getMaximum().intValue());
+
+        JsonSchema defaults = schemas.get(Default.class);
+        Assert.assertEquals("[a-z]+", property(defaults, "name").getPattern());
+        Assert.assertNull(property(defaults, "age").getMinimum());
+        Assert.assertNull(property(defaults, "age").getMaximum());
+    }
+}
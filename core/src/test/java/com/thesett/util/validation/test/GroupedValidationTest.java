@@ -0,0 +1,46 @@
+package com.thesett.util.validation.test;
+
+import javax.validation.Validator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class GroupedValidationTest {
+    @Test
+    public void testSchemasShareOneValidatorUnderTheirOwnGroups() {
+        JsonSchemaValidatorFactory.GroupedValidatorBuilder builder =
+            new JsonSchemaValidatorFactory().getGroupedBuilder();
+
+        Class<?> minGroup = builder.addSchema(TestBean.class, JsonSchema.object().property("testInt").minimum(5).build());
+        Class<?> maxGroup = builder.addSchema(TestBean.class, JsonSchema.object().property("testInt").maximum(3).build());
+
+        Validator validator = builder.build();
+        TestBean bean = new TestBean().withTestInt(4);
+
+        Assert.assertEquals(0, validator.validate(bean).size());
+        Assert.assertEquals(1, validator.validate(bean, minGroup).size());
+        Assert.assertEquals(1, validator.validate(bean, maxGroup).size());
+        Assert.assertEquals(0, validator.validate(new TestBean().withTestInt(5), minGroup).size());
+    }
+
+    @Test
+    public void testNestedClassesAcrossGroups() {
+        JsonSchemaValidatorFactory.GroupedValidatorBuilder builder =
+            new JsonSchemaValidatorFactory().getGroupedBuilder();
+
+        Class<?> minGroup =
+            builder.addSchema(TestBean.class,
+                JsonSchema.object().property("innerTestBean").object().property("testInt").minimum(1).build());
+        Class<?> maxGroup =
+            builder.addSchema(TestBean.class,
+                JsonSchema.object().property("innerTestBean").object().property("testInt").maximum(0).build());
+
+        Validator validator = builder.build();
+        TestBean bean = new TestBean().withInnerTestBean(new InnerTestBean().withTestInt(1));
+
+        Assert.assertEquals(0, validator.validate(bean, minGroup).size());
+        Assert.assertEquals(1, validator.validate(bean, maxGroup).size());
+    }
+}
@@ -0,0 +1,103 @@
+package com.thesett.util.validation.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.JsonSchemaEvaluator;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class JsonPointerIndexTest {
+    private static final String SCHEMA =
+        "{ \"type\": \"object\", \"required\": [ \"ref\" ], \"properties\": {" +
+        "  \"ref\": { \"type\": \"string\", \"maxLength\": 4 }," +
+        "  \"a/b~c\": { \"type\": \"integer\", \"maximum\": 9 }," +
+        "  \"order_lines\": { \"type\": \"array\", \"items\": { \"type\": \"object\", \"required\": [ \"qty\" ]," +
+        "    \"properties\": { \"qty\": { \"type\": \"integer\", \"minimum\": 1 } } } }," +
+        "  \"pair\": { \"type\": \"array\", \"items\": [ { \"type\": \"string\" }, { \"type\": \"integer\" } ] } } }";
+
+    public static class Line {
+        public int qty;
+    }
+
+    public static class Order {
+        public String ref;
+
+        @JsonProperty("order_lines")
+        public List<Line> lines = new ArrayList<>();
+    }
+
+    private final JsonSchemaEvaluator evaluator;
+
+    public JsonPointerIndexTest() throws Exception {
+        evaluator = JsonSchemaEvaluator.compile(new ObjectMapper().readValue(SCHEMA, JsonSchema.class));
+    }
+
+    private <T> Set<String> describe(Set<ConstraintViolation<T>> violations) {
+        Set<String> result = new HashSet<>();
+
+        for (ConstraintViolation<T> violation : violations) {
+            result.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        return result;
+    }
+
+    private Set<String> expect(String... expected) {
+        return new HashSet<>(Arrays.asList(expected));
+    }
+
+    @Test
+    public void testPropertiesAreValidatedByPointer() {
+        Assert.assertEquals(expect(), describe(evaluator.validateValue("/ref", "abcd")));
+        Assert.assertEquals(expect("ref length must be at most 4"), describe(evaluator.validateValue("/ref", "abcde")));
+        Assert.assertEquals(expect("ref  is mandatory."), describe(evaluator.validateValue("/ref", null)));
+        Assert.assertEquals(expect("ref must be of type string"), describe(evaluator.validateValue("/ref", 5)));
+        Assert.assertEquals(expect("a/b~c must be less than or equal to 9"),
+            describe(evaluator.validateValue("/a~1b~0c", 10)));
+    }
+
+    @Test
+    public void testItemsAreValidatedByPointer() {
+        Assert.assertEquals(expect("order_lines[7].qty must be greater than or equal to 1"),
+            describe(evaluator.validateValue("/order_lines/7/qty", 0)));
+        Assert.assertEquals(expect("order_lines[7].qty  is mandatory."),
+            describe(evaluator.validateValue("/order_lines/7/qty", null)));
+        Assert.assertEquals(expect("pair[1] must be of type integer"),
+            describe(evaluator.validateValue("/pair/1", "x")));
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("qty", 0);
+        Assert.assertEquals(expect("order_lines[2].qty must be greater than or equal to 1"),
+            describe(evaluator.validateValue("/order_lines/2", line)));
+    }
+
+    @Test
+    public void testBeanPathsUseJavaNames() {
+        Assert.assertEquals(expect("lines[3].qty must be greater than or equal to 1"),
+            describe(evaluator.validateValue(Order.class, "/order_lines/3/qty", 0)));
+        Assert.assertEquals(expect("ref  is mandatory."), describe(evaluator.validateValue(Order.class, "/ref", null)));
+    }
+
+    @Test
+    public void testUnknownPointersAreRejected() {
+        for (String pointer : new String[] { "/missing", "/pair/2", "/order_lines/01/qty", "ref", "/ref/x" }) {
+            try {
+                evaluator.validateValue(pointer, 1);
+                Assert.fail(pointer);
+            } catch (IllegalArgumentException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains(pointer));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.thesett.util.validation.test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import javax.validation.Validator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.JsonSchemaMergeImpl;
+import com.thesett.util.validation.core.JsonSchemaOptimizerImpl;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class JsonSchemaOptimizerTest {
+    public static class Account {
+        public String name;
+
+        public String status;
+
+        public int level;
+
+        public short rank;
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private JsonSchema merged() throws Exception {
+        JsonSchema base = mapper.readValue("{ \"type\": \"object\", \"required\": [ \"name\", \"status\" ]," +
+            "  \"properties\": {" +
+            "    \"name\": { \"type\": \"string\", \"minLength\": 0, \"maxLength\": 10 }," +
+            "    \"status\": { \"type\": \"string\", \"maxLength\": 8, \"pattern\": \"[A-Z]+\" }," +
+            "    \"level\": { \"type\": \"integer\", \"minimum\": -2147483648, \"maximum\": 5 } } }", JsonSchema.class);
+        JsonSchema overlay = mapper.readValue("{ \"type\": \"object\", \"required\": [ \"name\" ]," +
+            "  \"properties\": {" +
+            "    \"status\": { \"type\": \"string\", \"enum\": [ \"OPEN\", \"CLOSED\", \"OPEN\" ] }," +
+            "    \"rank\": { \"type\": \"integer\", \"maximum\": 40000, \"exclusiveMaximum\": false } } }",
+            JsonSchema.class);
+
+        JsonSchema schema = new JsonSchemaMergeImpl().merge(base, overlay);
+        schema.getProperties().get("status").setEnums(overlay.getProperties().get("status").getEnums());
+
+        return schema;
+    }
+
+    private Account account(String name, String status, int level) {
+        Account account = new Account();
+        account.name = name;
+        account.status = status;
+        account.level = level;
+
+        return account;
+    }
+
+    @Test
+    public void testRedundantConstraintsAreRemoved() throws Exception {
+        JsonSchema schema = merged();
+        String original = mapper.writeValueAsString(schema);
+
+        JsonSchema optimized = new JsonSchemaOptimizerImpl().optimize(schema, Account.class);
+
+        Assert.assertEquals(original, mapper.writeValueAsString(schema));
+        Assert.assertEquals(Arrays.asList("name", "status"), optimized.getRequired());
+
+        JsonSchema name = optimized.getProperties().get("name");
+        Assert.assertNull(name.getMinLength());
+        Assert.assertEquals(Integer.valueOf(10), name.getMaxLength());
+
+        JsonSchema status = optimized.getProperties().get("status");
+        Assert.assertEquals(Arrays.asList("OPEN", "CLOSED"), status.getEnums());
+        Assert.assertNull(status.getMaxLength());
+        Assert.assertNull(status.getPattern());
+
+        JsonSchema level = optimized.getProperties().get("level");
+        Assert.assertNull(level.getMinimum());
+        Assert.assertEquals(new BigDecimal(5), level.getMaximum());
+
+        JsonSchema rank = optimized.getProperties().get("rank");
+        Assert.assertNull(rank.getMaximum());
+        Assert.assertNull(rank.getExclusiveMaximum());
+    }
+
+    @Test
+    public void testBoundsAreKeptWithoutTypes() throws Exception {
+        JsonSchema optimized = new JsonSchemaOptimizerImpl().optimize(merged());
+
+        Assert.assertNotNull(optimized.getProperties().get("level").getMinimum());
+        Assert.assertNotNull(optimized.getProperties().get("rank").getMaximum());
+        Assert.assertNull(optimized.getProperties().get("rank").getExclusiveMaximum());
+    }
+
+    @Test
+    public void testOptimizedSchemaValidatesTheSame() throws Exception {
+        JsonSchema schema = merged();
+        JsonSchema optimized = new JsonSchemaOptimizerImpl().optimize(schema, Account.class);
+
+        Validator original = new JsonSchemaValidatorFactory().getBuilder().addSchema(Account.class, schema).build();
+        Validator minimal = new JsonSchemaValidatorFactory().getBuilder().addSchema(Account.class, optimized).build();
+
+        Account[] accounts =
+            {
+                account("ann", "OPEN", 1), account("", "CLOSED", Integer.MIN_VALUE), account(null, "open", 6),
+                account("abcdefghijk", "OPENED", 5)
+            };
+
+        for (Account account : accounts) {
+            Assert.assertEquals(original.validate(account).isEmpty(), minimal.validate(account).isEmpty());
+        }
+
+        Assert.assertTrue(minimal.validate(accounts[0]).isEmpty());
+        Assert.assertTrue(minimal.validate(accounts[1]).isEmpty());
+        Assert.assertFalse(minimal.validate(accounts[2]).isEmpty());
+    }
+}
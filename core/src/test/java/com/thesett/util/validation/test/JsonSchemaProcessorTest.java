@@ -0,0 +1,193 @@
+package com.thesett.util.validation.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import javax.validation.Validator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.apt.JsonSchemaProcessor;
+import com.thesett.util.validation.core.BeanValidationToJsonSchemaImpl;
+import com.thesett.util.validation.core.GeneratedSchemas;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.model.SchemaType;
+
+public class JsonSchemaProcessorTest {
+    private static final String SOURCE =
+        "package gen;\n" +
+        "public class Annotated {\n" +
+        "    @javax.validation.constraints.Min(1) @javax.validation.constraints.Max(10) private Integer count;\n" +
+        "    @org.hibernate.validator.constraints.Length(min = 2, max = 5)\n" +
+        "    @com.fasterxml.jackson.annotation.JsonProperty(\"the_name\") private String name;\n" +
+        "    @com.thesett.util.validation.core.Title(title = \"Code\") private String code;\n" +
+        "    private static final long serialVersionUID = 1L;\n" +
+        "}\n";
+
+    private static final String ORDER =
+        "package gen;\n" +
+        "public class Order {\n" +
+        "    @javax.validation.constraints.Min(1) private int count;\n" +
+        "    @javax.validation.constraints.NotNull private Customer customer;\n" +
+        "}\n";
+
+    private static final String CUSTOMER =
+        "package gen;\n" +
+        "public class Customer {\n" +
+        "    @javax.validation.constraints.Size(max = 20) private String name;\n" +
+        "    @org.hibernate.validator.constraints.Length(max = 8) private String ref;\n" +
+        "}\n";
+
+    private static final String REPEATED =
+        "package gen;\n" +
+        "public class Repeated {\n" +
+        "    @javax.validation.constraints.Min.List({ @javax.validation.constraints.Min(1),\n" +
+        "        @javax.validation.constraints.Min(5) }) private int count;\n" +
+        "    @javax.validation.constraints.Pattern.List({\n" +
+        "        @javax.validation.constraints.Pattern(regexp = \"[a-z]+\"),\n" +
+        "        @javax.validation.constraints.Pattern(regexp = \".{2,4}\") }) private String code;\n" +
+        "}\n";
+
+    private File compile(String... sources) throws IOException {
+        File output = Files.createTempDirectory("apt").toFile();
+        compile(output, sources);
+
+        return output;
+    }
+
+    private void compile(File output, String... sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assert.assertNotNull("A system Java compiler is required.", compiler);
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output));
+
+            List<JavaFileObject> files = new ArrayList<>();
+
+            for (final String source : sources) {
+                String name = source.substring(source.indexOf("class ") + 6, source.indexOf(" {"));
+                files.add(new SimpleJavaFileObject(URI.create("string:///gen/" + name + ".java"),
+                        JavaFileObject.Kind.SOURCE) {
+                        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                            return source;
+                        }
+                    });
+            }
+
+            JavaCompiler.CompilationTask task =
+                compiler.getTask(null, fileManager, null,
+                    Arrays.asList("-classpath", System.getProperty("java.class.path")), null, files);
+            task.setProcessors(Collections.singletonList(new JsonSchemaProcessor()));
+
+            Assert.assertTrue("Compilation should succeed.", task.call());
+        }
+    }
+
+    @Test
+    public void testGeneratesSchemaAndIndex() throws Exception {
+        File output = compile(SOURCE);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { output.toURI().toURL() }, null)) {
+            Map<String, JsonSchema> schemas = GeneratedSchemas.loadAll(classLoader);
+            Assert.assertEquals(Collections.singleton("gen.Annotated"), schemas.keySet());
+
+            JsonSchema schema = schemas.get("gen.Annotated");
+            Assert.assertEquals(SchemaType.OBJECT, schema.getType());
+            Assert.assertEquals(Arrays.asList("count", "the_name", "code"),
+                Arrays.asList(schema.getProperties().keySet().toArray()));
+
+            JsonSchema count = schema.getProperties().get("count");
+            Assert.assertEquals(SchemaType.INTEGER, count.getType());
+            Assert.assertEquals(1, count.getMinimum().intValue());
+            Assert.assertEquals(10, count.getMaximum().intValue());
+
+            JsonSchema name = schema.getProperties().get("the_name");
+            Assert.assertEquals(SchemaType.STRING, name.getType());
+            Assert.assertEquals(Integer.valueOf(2), name.getMinLength());
+            Assert.assertEquals(Integer.valueOf(5), name.getMaxLength());
+
+            Assert.assertEquals("Code", schema.getProperties().get("code").getTitle());
+
+            // Each caller gets its own copy of the cached schema.
+            Class<?> annotated = classLoader.loadClass("gen.Annotated");
+            GeneratedSchemas.getJsonSchema(annotated).getProperties().clear();
+            Assert.assertEquals(3, GeneratedSchemas.getJsonSchema(annotated).getProperties().size());
+        }
+    }
+
+    @Test
+    public void testNestedClassesAreExpandedAsAtRuntime() throws Exception {
+        File output = compile(ORDER, CUSTOMER);
+
+        try (URLClassLoader classLoader =
+                new URLClassLoader(new URL[] { output.toURI().toURL() }, getClass().getClassLoader())) {
+            JsonSchema generated = GeneratedSchemas.loadAll(classLoader).get("gen.Order");
+            Validator validator = new JsonSchemaValidatorFactory().getBuilder().build();
+            JsonSchema runtime =
+                new BeanValidationToJsonSchemaImpl().toJsonSchema(validator, classLoader.loadClass("gen.Order"));
+
+            ObjectMapper mapper = new ObjectMapper();
+            Assert.assertEquals(mapper.writeValueAsString(runtime), mapper.writeValueAsString(generated));
+            Assert.assertEquals(Integer.valueOf(8),
+                generated.getProperties().get("customer").getProperties().get("ref").getMaxLength());
+        }
+    }
+
+    @Test
+    public void testRepeatedConstraintsAreConvertedAsAtRuntime() throws Exception {
+        File output = compile(REPEATED);
+
+        try (URLClassLoader classLoader =
+                new URLClassLoader(new URL[] { output.toURI().toURL() }, getClass().getClassLoader())) {
+            JsonSchema generated = GeneratedSchemas.loadAll(classLoader).get("gen.Repeated");
+            Validator validator = new JsonSchemaValidatorFactory().getBuilder().build();
+            JsonSchema runtime =
+                new BeanValidationToJsonSchemaImpl().toJsonSchema(validator, classLoader.loadClass("gen.Repeated"));
+
+            ObjectMapper mapper = new ObjectMapper();
+            Assert.assertEquals(mapper.writeValueAsString(runtime), mapper.writeValueAsString(generated));
+            Assert.assertEquals(5, generated.getProperties().get("count").getMinimum().intValue());
+
+            java.util.regex.Pattern code =
+                java.util.regex.Pattern.compile(generated.getProperties().get("code").getPattern());
+            Assert.assertTrue(code.matcher("abc").matches());
+            Assert.assertFalse(code.matcher("abcdef").matches());
+            Assert.assertFalse(code.matcher("AB").matches());
+        }
+    }
+
+    @Test
+    public void testIncrementalBuildsMergeTheIndex() throws Exception {
+        File output = compile(SOURCE);
+        compile(output, CUSTOMER);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { output.toURI().toURL() }, null)) {
+            Assert.assertEquals(new HashSet<>(Arrays.asList("gen.Annotated", "gen.Customer")),
+                GeneratedSchemas.loadAll(classLoader).keySet());
+        }
+
+        Assert.assertTrue(new File(output, GeneratedSchemas.resourceName("gen.Annotated")).delete());
+        compile(output, CUSTOMER);
+
+        List<String> index = Files.readAllLines(new File(output, GeneratedSchemas.INDEX_RESOURCE).toPath());
+        Assert.assertEquals(Collections.singletonList("gen.Customer"), index);
+    }
+}
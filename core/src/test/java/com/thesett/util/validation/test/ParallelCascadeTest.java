@@ -0,0 +1,140 @@
+package com.thesett.util.validation.test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Valid;
+import javax.validation.Validator;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+
+public class ParallelCascadeTest {
+    public static class Part {
+        @Size(max = 2)
+        public String code;
+    }
+
+    public static class Line {
+        @Min(1)
+        public int qty;
+
+        @Valid
+        public List<Part> parts = new LinkedList<>();
+    }
+
+    public static class Order {
+        @NotNull
+        public String ref;
+
+        @Valid
+        public List<Line> lines = new ArrayList<>();
+    }
+
+    public static class Leg {
+        @Min(1)
+        public int qty;
+
+        @Valid
+        public Route route;
+    }
+
+    public static class Route {
+        @NotNull
+        public String ref;
+
+        @Valid
+        public List<Leg> legs = new ArrayList<>();
+    }
+
+    private Order order() {
+        Order order = new Order();
+
+        for (int i = 0; i < 1000; i++) {
+            Line line = new Line();
+            line.qty = (i % 10 == 3) ? 0 : 1;
+
+            int parts = (i % 100 == 7) ? 200 : 2;
+
+            for (int j = 0; j < parts; j++) {
+                Part part = new Part();
+                part.code = (j % 50 == 5) ? "abc" : "ab";
+                line.parts.add(part);
+            }
+
+            order.lines.add(line);
+        }
+
+        return order;
+    }
+
+    private List<String> describe(Set<ConstraintViolation<Order>> violations) {
+        List<String> result = new ArrayList<>();
+
+        for (ConstraintViolation<Order> violation : violations) {
+            result.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        return result;
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        Order order = order();
+
+        Validator sequential = new JsonSchemaValidatorFactory().getBuilder().build();
+        Validator parallel =
+            new JsonSchemaValidatorFactory().getBuilder().withParallelCascade(100, new ForkJoinPool(4)).build();
+
+        List<String> expected = describe(sequential.validate(order));
+        List<String> actual = describe(parallel.validate(order));
+
+        Assert.assertEquals(1 + 100 + (10 * 4), expected.size());
+        Assert.assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+        Assert.assertEquals(expected.size(), actual.size());
+
+        // The bean violation comes first, then the elements in order.
+        Assert.assertEquals("ref may not be null", actual.get(0));
+        Assert.assertTrue(actual.get(1), actual.get(1).startsWith("lines[3]"));
+        Assert.assertEquals(actual, describe(parallel.validate(order)));
+    }
+
+    @Test(timeout = 10000)
+    public void testCyclicGraphTerminates() {
+        Route route = new Route();
+
+        for (int i = 0; i < 500; i++) {
+            Leg leg = new Leg();
+            leg.qty = (i % 100 == 9) ? 0 : 1;
+            leg.route = route;
+            route.legs.add(leg);
+        }
+
+        Validator sequential = new JsonSchemaValidatorFactory().getBuilder().build();
+        Validator parallel =
+            new JsonSchemaValidatorFactory().getBuilder().withParallelCascade(100, new ForkJoinPool(4)).build();
+
+        Set<String> expected = new HashSet<>();
+        Set<String> actual = new HashSet<>();
+
+        for (ConstraintViolation<Route> violation : sequential.validate(route)) {
+            expected.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        for (ConstraintViolation<Route> violation : parallel.validate(route)) {
+            actual.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        Assert.assertEquals(1 + 5, expected.size());
+        Assert.assertEquals(expected, actual);
+    }
+}
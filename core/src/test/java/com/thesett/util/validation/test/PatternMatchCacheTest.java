@@ -0,0 +1,106 @@
+package com.thesett.util.validation.test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.validation.Validator;
+import javax.validation.constraints.Pattern.Flag;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.thesett.util.validation.core.JsonSchemaEvaluator;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.core.PatternMatchCache;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class PatternMatchCacheTest {
+    public static class Address {
+        @javax.validation.constraints.Pattern(regexp = "[a-z]{2}", flags = Flag.CASE_INSENSITIVE)
+        public String region = "gb";
+
+        public String country = "GB";
+    }
+
+    private JsonSchema schema() {
+        return JsonSchema.object().property("country").isString().pattern("[A-Z]{2}").build();
+    }
+
+    @Test
+    public void testEvaluatorResultsAreCached() throws Exception {
+        PatternMatchCache cache = new PatternMatchCache(100, 64);
+        JsonSchemaEvaluator evaluator = JsonSchemaEvaluator.compile(schema(), cache);
+        Map<String, Object> payload = new HashMap<>();
+
+        for (int i = 0; i < 10; i++) {
+            payload.put("country", "GB");
+            Assert.assertEquals(0, evaluator.validate(payload).size());
+            payload.put("country", "gbr");
+            Assert.assertEquals(1, evaluator.validate(payload).size());
+        }
+
+        Assert.assertEquals(2, cache.getMisses());
+        Assert.assertEquals(18, cache.getHits());
+        Assert.assertEquals(0.9, cache.getHitRate(), 0.0001);
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testValidatorResultsAreCached() throws Exception {
+        PatternMatchCache cache = new PatternMatchCache(100, 64);
+        Validator validator =
+            new JsonSchemaValidatorFactory().getBuilder().addSchema(Address.class, schema()).withPatternCache(cache)
+                .build();
+        Validator uncached = new JsonSchemaValidatorFactory().getBuilder().addSchema(Address.class, schema()).build();
+
+        Address address = new Address();
+        Assert.assertEquals(0, validator.validate(address).size());
+        Assert.assertEquals(0, validator.validate(address).size());
+        Assert.assertEquals(2, cache.getMisses());
+        Assert.assertEquals(2, cache.getHits());
+
+        address.region = "GB";
+        address.country = "gb";
+        Assert.assertEquals(1, validator.validate(address).size());
+        Assert.assertEquals(1, uncached.validate(address).size());
+        Assert.assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testFrequentValuesSurviveScans() {
+        PatternMatchCache cache = new PatternMatchCache(64, 64);
+        Pattern pattern = Pattern.compile("[0-9]+");
+        int scanned = 0;
+        long hotHits = 0;
+
+        // Each round scans more one-off values than the cache holds, which would flush every hot value from an LRU.
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 100; i++) {
+                Assert.assertTrue(cache.matches(pattern, "2" + scanned++));
+            }
+
+            long hits = cache.getHits();
+
+            for (int j = 0; j < 32; j++) {
+                Assert.assertTrue(cache.matches(pattern, "1" + j));
+            }
+
+            hotHits += (round > 0) ? (cache.getHits() - hits) : 0;
+        }
+
+        Assert.assertTrue(cache.size() <= 64);
+        Assert.assertTrue(cache.getRejections() > 0);
+        Assert.assertTrue("Hot hits: " + hotHits, hotHits > (32 * 99 * 9 / 10));
+    }
+
+    @Test
+    public void testLongValuesAreNotCached() {
+        PatternMatchCache cache = new PatternMatchCache(10, 4);
+        Pattern pattern = Pattern.compile("a+");
+
+        Assert.assertTrue(cache.matches(pattern, "aaaaa"));
+        Assert.assertFalse(cache.matches(pattern, "aaaab"));
+        Assert.assertEquals(2, cache.getSkipped());
+        Assert.assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,141 @@
+package com.thesett.util.validation.test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Valid;
+import javax.validation.Validation;
+import javax.validation.Validator;
+
+import org.hibernate.validator.constraints.Length;
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.BeanValidationToJsonSchemaImpl;
+import com.thesett.util.validation.core.Description;
+import com.thesett.util.validation.core.JsonSchemaEvaluator;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.core.Title;
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.serdes.Serdes;
+
+public class RecursiveSchemaTest {
+    public static class Leaf {
+        @Length(max = 3)
+        public String label;
+
+        public Leaf withLabel(String label) {
+            this.label = label;
+            return this;
+        }
+    }
+
+    public static class Node {
+        @Valid
+        public Node left;
+
+        @Valid
+        public Leaf first;
+
+        @Valid
+        public Leaf second;
+    }
+
+    public static class Documented {
+        @Valid
+        @Title(title = "First")
+        public Leaf first;
+
+        @Valid
+        @Description(description = "The second leaf.")
+        public Leaf second;
+
+        @Valid
+        public Leaf third;
+    }
+
+    private JsonSchema generate() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        return new BeanValidationToJsonSchemaImpl().toJsonSchema(validator, Node.class);
+    }
+
+    @Test
+    public void testRecursiveAndRepeatedClassesAreReferenced() throws Exception {
+        JsonSchema schema = generate();
+
+        Assert.assertEquals("#", schema.getProperties().get("left").getRef());
+        Assert.assertEquals("#/definitions/Leaf", schema.getProperties().get("first").getRef());
+        Assert.assertEquals("#/definitions/Leaf", schema.getProperties().get("second").getRef());
+        Assert.assertEquals(1, schema.getDefinitions().size());
+        Assert.assertEquals(Integer.valueOf(3),
+            schema.getDefinitions().get("Leaf").getProperties().get("label").getMaxLength());
+
+        String json = new ObjectMapper().writeValueAsString(schema);
+        Assert.assertTrue(json, json.contains("\"$ref\":\"#/definitions/Leaf\""));
+        Assert.assertEquals(schema.getDefinitions().keySet(),
+            new ObjectMapper().readValue(json, JsonSchema.class).getDefinitions().keySet());
+    }
+
+    @Test
+    public void testReferencedSchemasAreValidated() {
+        JsonSchema schema = generate();
+
+        Node root = new Node();
+        root.left = new Node();
+        root.left.second = new Leaf().withLabel("abcd");
+        root.first = new Leaf().withLabel("abc");
+
+        Validator validator = new JsonSchemaValidatorFactory().getBuilder().addSchema(Node.class, schema).build();
+        Set<ConstraintViolation<Node>> errors = validator.validate(root);
+        Assert.assertEquals(1, errors.size());
+        Assert.assertEquals("left.second.label", errors.iterator().next().getPropertyPath().toString());
+
+        Set<ConstraintViolation<Node>> evaluated = JsonSchemaEvaluator.compile(schema).validate(root);
+        Assert.assertEquals(1, evaluated.size());
+        Assert.assertEquals("left.second.label", evaluated.iterator().next().getPropertyPath().toString());
+
+        // A cycle in the object graph must not be followed endlessly.
+        root.left.left = root;
+        Assert.assertEquals(1, JsonSchemaEvaluator.compile(schema).validate(root).size());
+    }
+
+    @Test
+    public void testPropertyDocumentationStaysWithTheProperty() throws Exception {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        JsonSchema schema = new BeanValidationToJsonSchemaImpl().toJsonSchema(validator, Documented.class);
+
+        JsonSchema leaf = schema.getDefinitions().get("Leaf");
+        Assert.assertNull(leaf.getTitle());
+        Assert.assertNull(leaf.getDescription());
+        Assert.assertNotNull(leaf.getProperties().get("label"));
+
+        JsonSchema first = schema.getProperties().get("first");
+        Assert.assertEquals("First", first.getTitle());
+        Assert.assertNull(first.getRef());
+        Assert.assertEquals("#/definitions/Leaf", first.getAllOf().get(0).getRef());
+
+        JsonSchema second = schema.getProperties().get("second");
+        Assert.assertEquals("The second leaf.", second.getDescription());
+        Assert.assertNull(second.getRef());
+        Assert.assertEquals("#/definitions/Leaf", second.getAllOf().get(0).getRef());
+
+        Assert.assertEquals("#/definitions/Leaf", schema.getProperties().get("third").getRef());
+        Assert.assertNull(schema.getProperties().get("third").getAllOf());
+
+        // The documented references are followed by both validators, and survive being written out and read back.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Serdes().write(schema, out);
+        JsonSchema read = new Serdes().read(out.toByteArray());
+        Assert.assertEquals(new ObjectMapper().writeValueAsString(schema), new ObjectMapper().writeValueAsString(read));
+
+        Documented documented = new Documented();
+        documented.second = new Leaf().withLabel("abcd");
+
+        Validator built = new JsonSchemaValidatorFactory().getBuilder().addSchema(Documented.class, read).build();
+        Assert.assertEquals("second.label", built.validate(documented).iterator().next().getPropertyPath().toString());
+        Assert.assertEquals("second.label",
+            JsonSchemaEvaluator.compile(read).validate(documented).iterator().next().getPropertyPath().toString());
+    }
+}
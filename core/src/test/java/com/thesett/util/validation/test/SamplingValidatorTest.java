@@ -0,0 +1,124 @@
+package com.thesett.util.validation.test;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.Validator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.core.SamplingValidator;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class SamplingValidatorTest {
+    private final JsonSchema schema = JsonSchema.object().property("testInt").maximum(3).build();
+
+    private final InnerTestBean invalid = new InnerTestBean().withTestInt(4);
+
+    @Test
+    public void testFullSampleValidatesEveryBean() {
+        Validator validator =
+            new JsonSchemaValidatorFactory().getBuilder().addSchema(InnerTestBean.class, schema).withSampling(1.0).build();
+        SamplingValidator sampling = validator.unwrap(SamplingValidator.class);
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(1, validator.validate(invalid).size());
+        }
+
+        Assert.assertEquals(0, validator.validate(new InnerTestBean().withTestInt(3)).size());
+
+        Assert.assertEquals(11, sampling.getCalls());
+        Assert.assertEquals(11, sampling.getSampled());
+        Assert.assertEquals(10, sampling.getFailed());
+        Assert.assertEquals(10, sampling.getViolations());
+    }
+
+    @Test
+    public void testFractionOfBeansIsValidated() {
+        Validator validator =
+            new JsonSchemaValidatorFactory().getBuilder().addSchema(InnerTestBean.class, schema).withSampling(0.25).build();
+        SamplingValidator sampling = validator.unwrap(SamplingValidator.class);
+
+        int found = 0;
+
+        for (int i = 0; i < 4000; i++) {
+            found += validator.validate(invalid).size();
+        }
+
+        Assert.assertEquals(4000, sampling.getCalls());
+        Assert.assertEquals(found, sampling.getFailed());
+        Assert.assertTrue("Sampled " + found, (found > 800) && (found < 1200));
+
+        Validator none =
+            new JsonSchemaValidatorFactory().getBuilder().addSchema(InnerTestBean.class, schema).withSampling(0).build();
+        Assert.assertEquals(0, none.validate(invalid).size());
+        Assert.assertEquals(0, none.unwrap(SamplingValidator.class).getSampled());
+    }
+
+    @Test
+    public void testShadowValidationIsCountedInTheBackground() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Validator validator = new JsonSchemaValidatorFactory().getBuilder().addSchema(InnerTestBean.class, schema)
+            .withShadowValidation(1.0, executor).build();
+        SamplingValidator sampling = validator.unwrap(SamplingValidator.class);
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(0, validator.validate(invalid).size());
+        }
+
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        Assert.assertEquals(100, sampling.getSampled());
+        Assert.assertEquals(100, sampling.getFailed());
+        Assert.assertEquals(0, sampling.getDropped());
+    }
+
+    @Test
+    public void testRejectedShadowValidationIsDropped() {
+        Executor rejecting = new Executor() {
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+
+        Validator validator = new JsonSchemaValidatorFactory().getBuilder().addSchema(InnerTestBean.class, schema)
+            .withShadowValidation(1.0, rejecting).build();
+        SamplingValidator sampling = validator.unwrap(SamplingValidator.class);
+
+        Assert.assertEquals(0, validator.validate(invalid).size());
+        Assert.assertEquals(1, sampling.getDropped());
+        Assert.assertEquals(0, sampling.getSampled());
+    }
+
+    @Test
+    public void testValidationErrorsAreCounted() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Validator shadow = new JsonSchemaValidatorFactory().getBuilder().addSchema(InnerTestBean.class, schema)
+            .withShadowValidation(1.0, executor).build();
+        Assert.assertEquals(0, shadow.validate(null).size());
+
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertEquals(1, shadow.unwrap(SamplingValidator.class).getErrors());
+        Assert.assertEquals(0, shadow.unwrap(SamplingValidator.class).getSampled());
+
+        Validator sampling = new JsonSchemaValidatorFactory().getBuilder().addSchema(InnerTestBean.class, schema)
+            .withSampling(1.0).build();
+
+        try {
+            sampling.validate(null);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // Expected.
+        }
+
+        Assert.assertEquals(1, sampling.unwrap(SamplingValidator.class).getErrors());
+    }
+}
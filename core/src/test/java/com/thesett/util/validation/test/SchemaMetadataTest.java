@@ -0,0 +1,70 @@
+package com.thesett.util.validation.test;
+
+import javax.validation.Validator;
+import javax.validation.metadata.PropertyDescriptor;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.BeanValidationToJsonSchemaImpl;
+import com.thesett.util.validation.core.Description;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.core.Title;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class SchemaMetadataTest {
+    public static class Product {
+        public String name;
+
+        @Title(title = "Code")
+        @Description(description = "The stock code.")
+        public String code;
+    }
+
+    private JsonSchema schema(String title, String description) throws Exception {
+        return new ObjectMapper().readValue("{ \"type\": \"object\", \"properties\": {" +
+            "  \"name\": { \"type\": \"string\", \"title\": \"" + title + "\", \"description\": \"" + description +
+            "\" }," + "  \"code\": { \"type\": \"string\", \"maxLength\": 8 } } }", JsonSchema.class);
+    }
+
+    @Test
+    public void testDocumentationIsNotAConstraint() throws Exception {
+        Validator validator =
+            new JsonSchemaValidatorFactory().getBuilder().addSchema(Product.class, schema("Name", "The name.")).build();
+
+        Assert.assertNull(validator.getConstraintsForClass(Product.class).getConstraintsForProperty("name"));
+
+        PropertyDescriptor code = validator.getConstraintsForClass(Product.class).getConstraintsForProperty("code");
+        Assert.assertEquals(1, code.getConstraintDescriptors().size());
+    }
+
+    @Test
+    public void testDocumentationIsGeneratedFromTheSideTable() throws Exception {
+        Validator validator =
+            new JsonSchemaValidatorFactory().getBuilder().addSchema(Product.class, schema("Name", "The name.")).build();
+        JsonSchema schema = new BeanValidationToJsonSchemaImpl().toJsonSchema(validator, Product.class);
+
+        Assert.assertEquals("Name", schema.getProperties().get("name").getTitle());
+        Assert.assertEquals("The name.", schema.getProperties().get("name").getDescription());
+        Assert.assertEquals("Code", schema.getProperties().get("code").getTitle());
+        Assert.assertEquals("The stock code.", schema.getProperties().get("code").getDescription());
+        Assert.assertEquals(Integer.valueOf(8), schema.getProperties().get("code").getMaxLength());
+    }
+
+    @Test
+    public void testDocumentationIsKeptUnderItsGroup() throws Exception {
+        JsonSchemaValidatorFactory.GroupedValidatorBuilder builder =
+            new JsonSchemaValidatorFactory().getGroupedBuilder();
+        Class<?> retail = builder.addSchema(Product.class, schema("Retail name", "Shown in shops."));
+        Class<?> trade = builder.addSchema(Product.class, schema("Trade name", "Shown to trade."));
+        Validator validator = builder.build();
+
+        BeanValidationToJsonSchemaImpl converter = new BeanValidationToJsonSchemaImpl();
+        Assert.assertEquals("Retail name",
+            converter.toJsonSchema(validator, Product.class, retail).getProperties().get("name").getTitle());
+        Assert.assertEquals("Shown to trade.",
+            converter.toJsonSchema(validator, Product.class, trade).getProperties().get("name").getDescription());
+        Assert.assertEquals("Code",
+            converter.toJsonSchema(validator, Product.class, trade).getProperties().get("code").getTitle());
+    }
+}
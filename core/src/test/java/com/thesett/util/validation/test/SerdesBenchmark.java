@@ -0,0 +1,104 @@
+package com.thesett.util.validation.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.serdes.Serdes;
+import com.thesett.util.validation.serdes.StringPool;
+
+/**
+ * Times reading a catalog of schemas through an object mapper, and through a serdes, with the strings shared across
+ * the catalog interned in a pool. Each schema has a title and description of its own, and draws its property names,
+ * patterns and allowed values from a vocabulary shared by the whole catalog, as a catalog generated from a type model
+ * does. This is not run as a test; run it after <tt>mvn test-compile</tt> with:
+ *
+ * <pre>
+ * java -cp core/target/test-classes:core/target/classes:&lt;test classpath&gt;
+ *     com.thesett.util.validation.test.SerdesBenchmark [schemas] [rounds]
+ * </pre>
+ */
+public class SerdesBenchmark {
+    private static final int WARMUP_ROUNDS = 10;
+
+    private static final String[] WORDS = {
+        "order", "line", "customer", "account", "address", "product", "price", "quantity", "status", "code"
+    };
+
+    private static byte[] schema(int n) throws Exception {
+        StringBuilder json = new StringBuilder();
+        json.append("{ \"title\": \"Schema ").append(n).append("\", \"description\": \"");
+
+        for (int i = 0; i < 12; i++) {
+            json.append(WORDS[(n + i) % WORDS.length]).append(' ').append(n * 31 + i).append(' ');
+        }
+
+        json.append("\", \"type\": \"object\", \"properties\": {");
+
+        for (int i = 0; i < 10; i++) {
+            String word = WORDS[(n + i) % WORDS.length];
+
+            json.append((i > 0) ? "," : "").append(" \"").append(word).append("\": { \"type\": \"string\",")
+                .append(" \"description\": \"The ").append(word).append(" of schema ").append(n).append("\",")
+                .append(" \"pattern\": \"^[A-Z]{2}-").append(word).append("$\",")
+                .append(" \"enum\": [ \"").append(WORDS[i]).append("\", \"").append(WORDS[(i + 1) % WORDS.length])
+                .append("\" ] }");
+        }
+
+        return json.append(" } }").toString().getBytes("UTF-8");
+    }
+
+    private static long readWithMapper(ObjectMapper mapper, List<byte[]> catalog) throws Exception {
+        long start = System.nanoTime();
+
+        for (byte[] json : catalog) {
+            mapper.readValue(json, JsonSchema.class);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private static long readWithSerdes(Serdes serdes, List<byte[]> catalog) throws Exception {
+        long start = System.nanoTime();
+
+        for (byte[] json : catalog) {
+            serdes.read(json);
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int schemas = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+        int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+
+        List<byte[]> catalog = new ArrayList<>();
+
+        for (int n = 0; n < schemas; n++) {
+            catalog.add(schema(n));
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        StringPool pool = new StringPool();
+        Serdes serdes = new Serdes(mapper.getFactory(), pool);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            readWithMapper(mapper, catalog);
+            readWithSerdes(serdes, catalog);
+        }
+
+        long mapperTime = Long.MAX_VALUE;
+        long serdesTime = Long.MAX_VALUE;
+
+        for (int i = 0; i < rounds; i++) {
+            mapperTime = Math.min(mapperTime, readWithMapper(mapper, catalog));
+            serdesTime = Math.min(serdesTime, readWithSerdes(serdes, catalog));
+        }
+
+        System.out.printf("%d schemas, best of %d rounds%n", schemas, rounds);
+        System.out.printf("object mapper: %8.2f us per schema%n", mapperTime / 1000.0 / schemas);
+        System.out.printf("serdes:        %8.2f us per schema, %d strings pooled%n", serdesTime / 1000.0 / schemas,
+            pool.size());
+    }
+}
@@ -0,0 +1,209 @@
+package com.thesett.util.validation.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.serdes.RenderedSchema;
+import com.thesett.util.validation.serdes.SchemaRenderCache;
+import com.thesett.util.validation.serdes.Serdes;
+import com.thesett.util.validation.serdes.StringPool;
+
+public class SerdesTest {
+    private static final String SCHEMA =
+        "{ \"title\": \"Order\", \"type\": \"object\", \"required\": [ \"ref\" ], \"additionalProperties\": false," +
+        "  \"properties\": {" +
+        "    \"ref\": { \"type\": \"string\", \"pattern\": \"[A-Z]+\", \"maxLength\": 8 }," +
+        "    \"status\": { \"type\": \"string\", \"enum\": [ \"OPEN\", \"CLOSED\" ] }," +
+        "    \"qty\": { \"type\": \"integer\", \"minimum\": 1, \"maximum\": 99.5, \"exclusiveMaximum\": true }," +
+        "    \"lines\": { \"type\": \"array\", \"uniqueItems\": true," +
+        "      \"items\": { \"$ref\": \"#/definitions/line\" } } }," +
+        "  \"definitions\": { \"line\": { \"type\": \"object\", \"patternProperties\": { \"^x-\": { } } } } }";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private JsonSchema schema() throws Exception {
+        return mapper.readValue(SCHEMA, JsonSchema.class);
+    }
+
+    private byte[] gunzip(byte[] bytes) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            byte[] buffer = new byte[256];
+
+            for (int read; (read = in.read(buffer)) > 0;) {
+                out.write(buffer, 0, read);
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testStreamedJsonMatchesMapper() throws Exception {
+        JsonSchema schema = schema();
+        byte[] bytes = new Serdes().toBytes(schema);
+
+        Assert.assertEquals(mapper.readTree(mapper.writeValueAsBytes(schema)), mapper.readTree(bytes));
+        Assert.assertEquals(mapper.readTree(SCHEMA), mapper.readTree(bytes));
+
+        JsonNode status = mapper.readTree(bytes).get("properties").get("status");
+        Assert.assertTrue(status.has("enum"));
+        Assert.assertFalse(status.has("enums"));
+
+        JsonSchema read = mapper.readValue(bytes, JsonSchema.class);
+        Assert.assertArrayEquals(bytes, new Serdes().toBytes(read));
+    }
+
+    @Test
+    public void testTheLegacyEnumsKeyIsStillRead() throws Exception {
+        String legacy = "{ \"type\": \"string\", \"enums\": [ \"OPEN\", \"CLOSED\" ] }";
+        List<String> expected = Arrays.asList("OPEN", "CLOSED");
+
+        Assert.assertEquals(expected, mapper.readValue(legacy, JsonSchema.class).getEnums());
+        Assert.assertEquals(expected, new Serdes().read(legacy.getBytes("UTF-8")).getEnums());
+        Assert.assertFalse(new String(new Serdes().toBytes(new Serdes().read(legacy.getBytes("UTF-8"))), "UTF-8")
+            .contains("enums"));
+    }
+
+    @Test
+    public void testRenderingsAreCachedAndShared() throws Exception {
+        SchemaRenderCache cache = new SchemaRenderCache();
+        JsonSchema schema = schema();
+
+        RenderedSchema rendered = cache.render(schema);
+        Assert.assertSame(rendered, cache.render(schema));
+        Assert.assertSame(rendered, cache.render(schema()));
+        Assert.assertEquals(1, cache.size());
+
+        Assert.assertArrayEquals(rendered.getBytes(), gunzip(rendered.getGzipBytes()));
+        Assert.assertTrue(rendered.getGzipBytes().length < rendered.getBytes().length);
+        Assert.assertTrue(rendered.getETag(), rendered.getETag().matches("\"[0-9a-f]{32}\""));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rendered.writeTo(out, false);
+        Assert.assertArrayEquals(rendered.getBytes(), out.toByteArray());
+    }
+
+    @Test
+    public void testChangedSchemasAreRenderedAfresh() throws Exception {
+        SchemaRenderCache cache = new SchemaRenderCache();
+        JsonSchema schema = schema();
+        RenderedSchema rendered = cache.render(schema);
+
+        schema.setTitle("Invoice");
+        Assert.assertSame(rendered, cache.render(schema));
+
+        cache.invalidate(schema);
+
+        RenderedSchema changed = cache.render(schema);
+        Assert.assertNotEquals(rendered.getETag(), changed.getETag());
+        Assert.assertEquals("Invoice", mapper.readTree(changed.getBytes()).get("title").asText());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testRenderingsAreFoundByKeyWithoutRenderingAgain() throws Exception {
+        final AtomicInteger renders = new AtomicInteger();
+        SchemaRenderCache cache = new SchemaRenderCache(new Serdes() {
+                public byte[] toBytes(JsonSchema schema) {
+                    renders.incrementAndGet();
+
+                    return super.toBytes(schema);
+                }
+            });
+
+        RenderedSchema rendered = cache.render(TestBean.class, schema());
+        Assert.assertSame(rendered, cache.render(TestBean.class, schema()));
+        Assert.assertSame(rendered, cache.get(TestBean.class));
+        Assert.assertEquals(1, renders.get());
+
+        Assert.assertSame(rendered, cache.render(InnerTestBean.class, schema()));
+        Assert.assertEquals(2, renders.get());
+        Assert.assertEquals(1, cache.size());
+
+        cache.invalidate(TestBean.class);
+        Assert.assertNull(cache.get(TestBean.class));
+        Assert.assertSame(rendered, cache.get(InnerTestBean.class));
+    }
+
+    @Test(timeout = 10000)
+    public void testRenderingsNoKeyRefersToAreReleased() throws Exception {
+        SchemaRenderCache cache = new SchemaRenderCache();
+        cache.render(TestBean.class, schema());
+        Assert.assertEquals(1, cache.size());
+
+        cache.invalidate(TestBean.class);
+
+        while (cache.size() > 0) {
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testConditionalRequestsMatchTheTag() throws Exception {
+        RenderedSchema rendered = new SchemaRenderCache().render(schema());
+
+        Assert.assertTrue(rendered.isNotModified(rendered.getETag()));
+        Assert.assertTrue(rendered.isNotModified("\"abc\", W/" + rendered.getETag()));
+        Assert.assertTrue(rendered.isNotModified("*"));
+        Assert.assertFalse(rendered.isNotModified("\"abc\""));
+        Assert.assertFalse(rendered.isNotModified(null));
+    }
+
+    @Test
+    public void testStreamedReadMatchesMapper() throws Exception {
+        JsonSchema read = new Serdes().read(SCHEMA.getBytes("UTF-8"));
+
+        Assert.assertEquals(mapper.writeValueAsString(schema()), mapper.writeValueAsString(read));
+        Assert.assertNull(new Serdes().read("null".getBytes("UTF-8")));
+    }
+
+    @Test
+    public void testStringsAndBoundsAreShared() throws Exception {
+        StringPool pool = new StringPool();
+        JsonSchema first = new Serdes(new JsonFactory(), pool).read(SCHEMA.getBytes("UTF-8"));
+        JsonSchema second = new Serdes(new JsonFactory(), pool).read(SCHEMA.getBytes("UTF-8"));
+        JsonSchema firstQty = first.getProperties().get("qty");
+
+        JsonSchema firstStatus = first.getProperties().get("status");
+        JsonSchema secondStatus = second.getProperties().get("status");
+        Assert.assertSame(firstStatus.getEnums().get(0), secondStatus.getEnums().get(0));
+        Assert.assertSame(first.getProperties().get("ref").getPattern(),
+            second.getProperties().get("ref").getPattern());
+        Assert.assertSame(first.getRequired().get(0), first.getProperties().keySet().iterator().next());
+        Assert.assertSame(firstQty.getMinimum(), second.getProperties().get("qty").getMinimum());
+        Assert.assertEquals(new BigDecimal("99.5"), firstQty.getMaximum());
+    }
+
+    @Test
+    public void testSpecificationFormsAreRead() throws Exception {
+        JsonSchema schema = new Serdes().read(("{ \"type\": \"array\", \"uniqueItems\": true, \"x-extra\": [ { } ]," +
+            "  \"items\": { \"type\": \"object\", \"additionalProperties\": { \"type\": \"string\" }," +
+            "    \"patternProperties\": { \"^x-\": { \"type\": \"string\" } } } }").getBytes("UTF-8"));
+
+        Assert.assertEquals(Integer.valueOf(1), schema.getUniqueItems());
+        Assert.assertNull(schema.getItems());
+        Assert.assertEquals(Boolean.TRUE, schema.getItemSchema().getAdditionalProperties());
+        Assert.assertEquals("^x-", schema.getItemSchema().getPatternProperties().get(0));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testUnknownTypesAreRejected() throws Exception {
+        new Serdes().read("{ \"type\": \"decimal\" }".getBytes("UTF-8"));
+    }
+}
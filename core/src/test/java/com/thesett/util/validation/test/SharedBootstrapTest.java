@@ -0,0 +1,58 @@
+package com.thesett.util.validation.test;
+
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.constraints.Size;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class SharedBootstrapTest {
+    public static class Item {
+        public String code = "abcd";
+    }
+
+    public static class Annotated {
+        @Size(max = 2)
+        public String code = "abcd";
+    }
+
+    private JsonSchema maxLength(int max) {
+        return JsonSchema.object().property("code").isString().maxLength(max).build();
+    }
+
+    private String message(Set<? extends ConstraintViolation<?>> violations) {
+        Assert.assertEquals(1, violations.size());
+
+        return violations.iterator().next().getMessage();
+    }
+
+    @Test
+    public void testBuildersDoNotShareSchemas() throws Exception {
+        Validator strict = new JsonSchemaValidatorFactory().getBuilder().addSchema(Item.class, maxLength(2)).build();
+        Validator loose = new JsonSchemaValidatorFactory().getBuilder().addSchema(Item.class, maxLength(5)).build();
+        Validator none = new JsonSchemaValidatorFactory().getBuilder().build();
+
+        Assert.assertEquals(1, strict.validate(new Item()).size());
+        Assert.assertEquals(0, loose.validate(new Item()).size());
+        Assert.assertEquals(0, none.validate(new Item()).size());
+    }
+
+    @Test
+    public void testDefaultMessagesAreUnchanged() throws Exception {
+        Validator plain = Validation.buildDefaultValidatorFactory().getValidator();
+        Validator compiled = new JsonSchemaValidatorFactory().getBuilder().withCompiledMessages().build();
+        Validator shared = new JsonSchemaValidatorFactory().getBuilder().build();
+
+        String expected = message(plain.validate(new Annotated()));
+        Assert.assertEquals(expected, message(compiled.validate(new Annotated())));
+        Assert.assertEquals(expected, message(shared.validate(new Annotated())));
+        Assert.assertEquals(expected,
+            message(new JsonSchemaValidatorFactory().getGroupedBuilder().build().validate(new Annotated())));
+    }
+}
@@ -0,0 +1,68 @@
+package com.thesett.util.validation.test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.groups.Default;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.thesett.util.validation.core.JsonSchemaEvaluator;
+import com.thesett.util.validation.core.TenantOverlayValidator;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class TenantOverlayTest {
+    public static class Dated {
+        public LocalDate date;
+    }
+
+    @Test
+    public void testEachTenantAppliesItsOwnOverlay() {
+        TenantOverlayValidator validator = new TenantOverlayValidator();
+        validator.putOverlay("a", JsonSchema.object().property("testString").maxLength(3).build());
+        validator.putOverlay("b",
+            JsonSchema.object().property("innerTestBean").object().property("testInt").minimum(1).build());
+
+        TestBean bean = new TestBean().withTestString("abcd").withInnerTestBean(new InnerTestBean().withTestInt(0));
+
+        Set<ConstraintViolation<TestBean>> aErrors = validator.validate("a", bean);
+        Assert.assertEquals(1, aErrors.size());
+        Assert.assertEquals("testString", aErrors.iterator().next().getPropertyPath().toString());
+
+        Set<ConstraintViolation<TestBean>> bErrors = validator.validate("b", bean);
+        Assert.assertEquals(1, bErrors.size());
+        Assert.assertEquals("innerTestBean.testInt", bErrors.iterator().next().getPropertyPath().toString());
+
+        Assert.assertEquals(0, validator.validate("c", bean).size());
+
+        validator.removeOverlay("a");
+        Assert.assertEquals(0, validator.validate("a", bean).size());
+    }
+
+    public interface Audit {
+    }
+
+    @Test
+    public void testOverlayAppliesToTheDefaultGroupOnly() {
+        TenantOverlayValidator validator = new TenantOverlayValidator();
+        validator.putOverlay("a", JsonSchema.object().property("testString").maxLength(3).build());
+
+        TestBean bean = new TestBean().withTestString("abcd");
+
+        Assert.assertEquals(1, validator.validate("a", bean).size());
+        Assert.assertEquals(1, validator.validate("a", bean, Default.class).size());
+        Assert.assertEquals(1, validator.validate("a", bean, Audit.class, Default.class).size());
+        Assert.assertEquals(0, validator.validate("a", bean, Audit.class).size());
+    }
+
+    @Test
+    public void testJdkValuesAreNotReflectedInto() {
+        // A LocalDate has a private 'year' field, which must not be read as if it were a property.
+        Dated bean = new Dated();
+        bean.date = LocalDate.of(2020, 1, 1);
+
+        JsonSchema schema = JsonSchema.object().property("date").object().property("year").maximum(0).build();
+        Assert.assertEquals(0, JsonSchemaEvaluator.compile(schema).validate(bean).size());
+    }
+}
@@ -0,0 +1,69 @@
+package com.thesett.util.validation.test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.JsonSchemaEvaluator;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class UntypedPayloadTest {
+    private static final String SCHEMA =
+        "{ \"type\": \"object\", \"required\": [\"first-name\", \"lines\"], \"properties\": {" +
+        "  \"first-name\": { \"type\": \"string\", \"maxLength\": 5 }," +
+        "  \"lines\": { \"type\": \"array\", \"items\": { \"type\": \"object\", \"required\": [\"qty\"]," +
+        "    \"properties\": { \"qty\": { \"type\": \"integer\", \"minimum\": 1 } } } } } }";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Set<String> validate(String json) throws Exception {
+        JsonSchemaEvaluator evaluator = JsonSchemaEvaluator.compile(mapper.readValue(SCHEMA, JsonSchema.class));
+        Map<String, Object> payload = mapper.readValue(json, new TypeReference<Map<String, Object>>() { });
+
+        Set<String> errors = new HashSet<>();
+
+        for (ConstraintViolation<Map<String, Object>> violation : evaluator.validate(payload)) {
+            errors.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        return errors;
+    }
+
+    @Test
+    public void testValidPayload() throws Exception {
+        Assert.assertEquals(new HashSet<String>(),
+            validate("{ \"first-name\": \"Ann\", \"lines\": [ { \"qty\": 1 }, { \"qty\": 2.0 } ] }"));
+    }
+
+    @Test
+    public void testNestedViolationsAreReportedByPath() throws Exception {
+        Set<String> errors =
+            validate("{ \"first-name\": \"Annabel\", \"lines\": [ { \"qty\": 1 }, { \"qty\": 0 }, { \"qty\": 1.5 }, {} ] }");
+
+        Set<String> expected = new HashSet<>();
+        expected.add("first-name length must be at most 5");
+        expected.add("lines[1].qty must be greater than or equal to 1");
+        expected.add("lines[2].qty must be of type integer");
+        expected.add("lines[3].qty  is mandatory.");
+
+        Assert.assertEquals(expected, errors);
+    }
+
+    @Test
+    public void testTypesAreChecked() throws Exception {
+        Set<String> errors = validate("{ \"first-name\": 12, \"lines\": { \"qty\": 1 } }");
+
+        Set<String> expected = new HashSet<>();
+        expected.add("first-name must be of type string");
+        expected.add("lines must be of type array");
+
+        Assert.assertEquals(expected, errors);
+    }
+}
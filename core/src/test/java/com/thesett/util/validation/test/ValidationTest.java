@@ -11,6 +11,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import com.thesett.util.validation.core.JsonSchemaEvaluator;
 import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
 import com.thesett.util.validation.model.JsonSchema;
 
@@ -108,4 +109,19 @@ public class ValidationTest {
             Assert.assertTrue("There should be validation errors.", errors.size() > 0);
         }
     }
+
+    @Test
+    public void testEvaluation() {
+        if (schema == null) {
+            return;
+        }
+
+        Set<ConstraintViolation<Object>> errors = JsonSchemaEvaluator.compile(schema).validate(toTest);
+
+        if (shouldPass) {
+            Assert.assertEquals("There should be no evaluation errors.", 0, errors.size());
+        } else {
+            Assert.assertTrue("There should be evaluation errors.", errors.size() > 0);
+        }
+    }
 }
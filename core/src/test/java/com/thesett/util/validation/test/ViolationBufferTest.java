@@ -0,0 +1,206 @@
+package com.thesett.util.validation.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.JsonSchemaEvaluator;
+import com.thesett.util.validation.core.ViolationBuffer;
+import com.thesett.util.validation.model.JsonSchema;
+import com.thesett.util.validation.model.PropertyBuilder;
+
+public class ViolationBufferTest {
+    private static final String SCHEMA =
+        "{ \"type\": \"object\", \"required\": [ \"ref\", \"note\" ], \"additionalProperties\": false," +
+        "  \"properties\": {" +
+        "  \"note\": { }, \"ref\": { \"type\": \"string\", \"maxLength\": 4, \"pattern\": \"^[A-Z]+$\" }," +
+        "  \"order_lines\": { \"type\": \"array\", \"items\": { \"type\": \"object\", \"required\": [ \"qty\" ]," +
+        "    \"properties\": { \"qty\": { \"type\": \"integer\", \"minimum\": 1 }," +
+        "      \"codes\": { \"type\": \"array\", \"items\": { \"type\": \"string\", \"maxLength\": 2 } } } } } } }";
+
+    public static class Line {
+        public Integer qty;
+
+        public List<String> codes = new ArrayList<>();
+    }
+
+    public static class Order {
+        public String ref;
+
+        @JsonProperty("order_lines")
+        public List<Line> lines = new ArrayList<>();
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private JsonSchemaEvaluator evaluator(boolean failFast) throws Exception {
+        JsonSchema schema = mapper.readValue(SCHEMA, JsonSchema.class);
+
+        return failFast ? JsonSchemaEvaluator.compileFailFast(schema) : JsonSchemaEvaluator.compile(schema);
+    }
+
+    private <T> List<String> describe(Set<ConstraintViolation<T>> violations) {
+        List<String> result = new ArrayList<>();
+
+        for (ConstraintViolation<T> violation : violations) {
+            result.add(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+
+        return result;
+    }
+
+    private List<String> describe(ViolationBuffer buffer) {
+        List<String> result = new ArrayList<>();
+
+        for (int i = 0; i < buffer.size(); i++) {
+            result.add(buffer.getPath(i) + " " + buffer.getMessage(i));
+        }
+
+        return result;
+    }
+
+    private Map<String, Object> payload() throws Exception {
+        return mapper.readValue("{ \"ref\": \"abcde\", \"extra\": 1, \"order_lines\": [ { \"qty\": 1 }," +
+            "  { \"qty\": 0, \"codes\": [ \"a\", \"abc\" ] }, { \"codes\": [ \"toolong\" ] } ] }",
+            new TypeReference<Map<String, Object>>() { });
+    }
+
+    @Test
+    public void testBufferMatchesConstraintViolations() throws Exception {
+        JsonSchemaEvaluator evaluator = evaluator(false);
+        ViolationBuffer buffer = new ViolationBuffer();
+        Map<String, Object> payload = payload();
+
+        Assert.assertFalse(evaluator.validate(payload, buffer));
+        Assert.assertEquals(describe(evaluator.validate(payload)), describe(buffer));
+        Assert.assertEquals(8, buffer.size());
+        Assert.assertEquals("extra is not an allowed property", describe(buffer).get(7));
+
+        Order order = new Order();
+        order.ref = "abcde";
+        order.lines.add(new Line());
+        order.lines.get(0).codes.add("abc");
+
+        Assert.assertFalse(evaluator.validate(order, buffer));
+        Assert.assertEquals(describe(evaluator.validate(order)), describe(buffer));
+    }
+
+    @Test
+    public void testPathsAndCodesAreShared() throws Exception {
+        JsonSchemaEvaluator evaluator = evaluator(false);
+        ViolationBuffer buffer = new ViolationBuffer();
+
+        Map<String, Object> payload = mapper.readValue("{ \"ref\": \"A\", \"note\": 1, \"order_lines\": [" +
+            "  { \"qty\": 0 }, { \"qty\": 1 }, { \"qty\": -1 } ] }", new TypeReference<Map<String, Object>>() { });
+
+        Assert.assertFalse(evaluator.validate(payload, buffer));
+        Assert.assertEquals(2, buffer.size());
+        Assert.assertEquals(buffer.getPathId(0), buffer.getPathId(1));
+        Assert.assertEquals(buffer.getCode(0), buffer.getCode(1));
+        Assert.assertEquals("minimum", buffer.getKeyword(0));
+        Assert.assertEquals("order_lines[0].qty", buffer.getPath(0));
+        Assert.assertEquals("order_lines[2].qty", buffer.getPath(1));
+    }
+
+    @Test
+    public void testBufferIsReused() throws Exception {
+        JsonSchemaEvaluator evaluator = evaluator(false);
+        ViolationBuffer buffer = new ViolationBuffer();
+
+        Assert.assertFalse(evaluator.validate(payload(), buffer));
+        Assert.assertFalse(buffer.isEmpty());
+
+        Map<String, Object> valid = new LinkedHashMap<>();
+        valid.put("ref", "AB");
+        valid.put("note", "n");
+        Assert.assertTrue(evaluator.validate(valid, buffer));
+        Assert.assertEquals(0, buffer.size());
+
+        try {
+            buffer.getPath(0);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testFailFastRecordsOneViolation() throws Exception {
+        ViolationBuffer buffer = new ViolationBuffer();
+
+        Assert.assertFalse(evaluator(true).validate(payload(), buffer));
+        Assert.assertEquals(1, buffer.size());
+        Assert.assertEquals("note  is mandatory.", describe(buffer).get(0));
+    }
+
+    private JsonSchema wideSchema(int width) {
+        PropertyBuilder builder = JsonSchema.object();
+
+        for (int i = 0; i < width; i++) {
+            builder = builder.property("p" + i).isString().maxLength(8);
+        }
+
+        builder.property("lines").isArray();
+
+        JsonSchema schema = builder.build();
+        schema.getProperties().get("lines").setItemSchema(JsonSchema.object().property("code").maxLength(2).build());
+
+        return schema;
+    }
+
+    private Map<String, Object> widePayload(int width) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        List<Object> lines = new ArrayList<>();
+
+        for (int i = 0; i < width; i++) {
+            payload.put("p" + i, "value");
+
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("code", "ab");
+            lines.add(line);
+        }
+
+        payload.put("lines", lines);
+
+        return payload;
+    }
+
+    private long allocatedBytes(int width) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        JsonSchemaEvaluator evaluator = JsonSchemaEvaluator.compile(wideSchema(width));
+        ViolationBuffer buffer = new ViolationBuffer();
+        Map<String, Object> payload = widePayload(width);
+        long least = Long.MAX_VALUE;
+
+        for (int i = 0; i < 20; i++) {
+            long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            Assert.assertTrue(evaluator.validate(payload, buffer));
+            least = Math.min(least, threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before);
+        }
+
+        return least;
+    }
+
+    @Test
+    public void testValidPayloadAllocatesNothingPerProperty() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+
+        long narrow = allocatedBytes(10);
+        long wide = allocatedBytes(1000);
+
+        // 990 more properties and list items, each of which would allocate at least one object if paths were built.
+        Assert.assertTrue("Allocated " + narrow + " then " + wide + " bytes.", (wide - narrow) < 990);
+    }
+}
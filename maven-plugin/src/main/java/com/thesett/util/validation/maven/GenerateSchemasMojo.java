@@ -0,0 +1,168 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.validation.ValidationException;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * GenerateSchemasMojo generates json-schemas for the compiled classes of a project, so that they are packaged with it
+ * rather than computed in production. Schemas are only generated for classes that carry constraints, are only
+ * regenerated for classes whose bytecode has changed since the last build, and are generated in parallel.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Generate json-schemas for the compiled classes of a project. </td>
+ *     <td> {@link IncrementalSchemaGenerator} </td></tr>
+ * </table></pre>
+ */
+@Mojo(
+    name = "generate", defaultPhase = LifecyclePhase.PROCESS_CLASSES, threadSafe = true,
+    requiresDependencyResolution = ResolutionScope.RUNTIME
+)
+public class GenerateSchemasMojo extends AbstractMojo
+{
+    /** The project being built. */
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /** The directory holding the compiled classes. */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File classesDirectory;
+
+    /** The root directory to write the schema resources under. */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File outputDirectory;
+
+    /** The file that bytecode hashes are kept in between builds. */
+    @Parameter(defaultValue = "${project.build.directory}/jsonschema-hashes.properties", required = true)
+    private File stateFile;
+
+    /**
+     * The packages to generate schemas for; all compiled classes are scanned when none are given. Either way, schemas
+     * are only generated for the classes that carry constraints.
+     */
+    @Parameter
+    private List<String> packages;
+
+    /** The number of threads to generate schemas on. */
+    @Parameter(defaultValue = "0")
+    private int threads;
+
+    /** Allows schema generation to be skipped. */
+    @Parameter(property = "unified-validation.skip", defaultValue = "false")
+    private boolean skip;
+
+    /** {@inheritDoc} */
+    public void execute() throws MojoExecutionException
+    {
+        if (skip)
+        {
+            getLog().info("Skipping json-schema generation.");
+
+            return;
+        }
+
+        if (!classesDirectory.isDirectory())
+        {
+            getLog().info("No compiled classes to generate json-schemas for.");
+
+            return;
+        }
+
+        int threadCount = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+
+        try (URLClassLoader classLoader = new URLClassLoader(projectClasspath(), getClass().getClassLoader()))
+        {
+            IncrementalSchemaGenerator generator =
+                new IncrementalSchemaGenerator(classLoader, classesDirectory, outputDirectory, stateFile,
+                    threadCount);
+
+            IncrementalSchemaGenerator.Result result = generator.generate(selectClassNames());
+
+            getLog().info("Generated " + result.getGenerated() + " json-schemas, " + result.getSkipped() +
+                " up to date, " + result.getRemoved() + " removed.");
+        }
+        catch (ValidationException | IOException e)
+        {
+            throw new MojoExecutionException("Failed to generate json-schemas.", e);
+        }
+    }
+
+    private Set<String> selectClassNames()
+    {
+        Set<String> classNames = IncrementalSchemaGenerator.listClassNames(classesDirectory);
+
+        if ((packages == null) || packages.isEmpty())
+        {
+            return classNames;
+        }
+
+        Set<String> selected = new TreeSet<>();
+
+        for (String className : classNames)
+        {
+            for (String packageName : packages)
+            {
+                if (className.startsWith(packageName + "."))
+                {
+                    selected.add(className);
+
+                    break;
+                }
+            }
+        }
+
+        return selected;
+    }
+
+    private URL[] projectClasspath() throws MojoExecutionException
+    {
+        try
+        {
+            List<URL> urls = new ArrayList<>();
+
+            for (String element : project.getRuntimeClasspathElements())
+            {
+                urls.add(new File(element).toURI().toURL());
+            }
+
+            return urls.toArray(new URL[urls.size()]);
+        }
+        catch (DependencyResolutionRequiredException | MalformedURLException e)
+        {
+            throw new MojoExecutionException("Failed to resolve the project classpath.", e);
+        }
+    }
+}
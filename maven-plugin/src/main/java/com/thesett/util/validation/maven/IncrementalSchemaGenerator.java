@@ -0,0 +1,600 @@
+/*
+ * Copyright The Sett Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thesett.util.validation.maven;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.BeanValidationToJsonSchema;
+import com.thesett.util.validation.core.BeanValidationToJsonSchemaImpl;
+import com.thesett.util.validation.core.GeneratedSchemas;
+import com.thesett.util.validation.core.JsonSchemaValidatorFactory;
+import com.thesett.util.validation.model.JsonSchema;
+
+/**
+ * IncrementalSchemaGenerator converts compiled classes into json-schemas at build time, using
+ * {@link BeanValidationToJsonSchemaImpl}. The schemas are written out in the same resource layout that
+ * {@link GeneratedSchemas} reads at runtime.
+ *
+ * <p/>A hash of the bytecode behind each schema is recorded in a state file between builds. This covers the class
+ * itself, and the classes of its fields that were compiled alongside it, since their constraints may be expanded into
+ * the schema too. Only classes whose hash has changed, or whose output is missing, are regenerated. The conversions
+ * are run in parallel, sharing a single validator.
+ *
+ * <p/>Schemas are only generated for classes that carry constraints, or cascade into others that may. Other classes
+ * are left to the runtime conversion, which gives the same result for them, so that a schema is not packaged, and
+ * preferred at runtime, for every class in a project. Classes found to have no constraints are remembered in the
+ * state file too, so that they are only checked again when they change.
+ *
+ * <p/>The index of schemas is merged with any index already in the output directory, such as one written by the
+ * annotation processor, keeping those of its entries whose schemas are still there.
+ *
+ * <p/>The state file also records the version of the generator that wrote it. When that differs from the running
+ * generator, the conversion or output format may have changed, so every schema is regenerated whatever its hash.
+ *
+ * <pre><p/><table id="crc"><caption>CRC Card</caption>
+ * <tr><th> Responsibilities </th><th> Collaborations </th>
+ * <tr><td> Generate json-schemas for compiled classes. </td><td> {@link BeanValidationToJsonSchemaImpl} </td></tr>
+ * <tr><td> Skip classes whose bytecode is unchanged since the last build. </td></tr>
+ * <tr><td> Write the schemas and an index of them out as resources. </td><td> {@link GeneratedSchemas} </td></tr>
+ * </table></pre>
+ */
+public class IncrementalSchemaGenerator
+{
+    /** The key in the state file that the generator version is held under. This cannot clash with a class name. */
+    public static final String VERSION_KEY = "@generator.version";
+
+    /**
+     * The version of the schema output format. This must be changed whenever a change to the conversion or to the way
+     * schemas are written means that schemas generated by an earlier build are no longer valid.
+     */
+    private static final String FORMAT_VERSION = "1";
+
+    /** Identifies the generator, as the output format version plus the library version, when that is known. */
+    private static final String GENERATOR_VERSION = generatorVersion();
+
+    /** Prefixes the hash recorded for a class that has no constraints, and so has no schema. */
+    private static final String UNCONSTRAINED = "unconstrained:";
+
+    /** The class loader to load the compiled classes with. */
+    private final ClassLoader classLoader;
+
+    /** The directory holding the compiled classes. */
+    private final File classesDirectory;
+
+    /** The root directory to write the schema resources under. */
+    private final File outputDirectory;
+
+    /** The file that bytecode hashes are kept in between builds. */
+    private final File stateFile;
+
+    /** The number of threads to run the conversions on. */
+    private final int threads;
+
+    /** Used to write out the generated schemas. */
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Creates a schema generator over a directory of compiled classes.
+     *
+     * @param classLoader      The class loader to load the compiled classes with.
+     * @param classesDirectory The directory holding the compiled classes.
+     * @param outputDirectory  The root directory to write the schema resources under.
+     * @param stateFile        The file that bytecode hashes are kept in between builds.
+     * @param threads          The number of threads to run the conversions on.
+     */
+    public IncrementalSchemaGenerator(ClassLoader classLoader, File classesDirectory, File outputDirectory,
+        File stateFile, int threads)
+    {
+        this.classLoader = classLoader;
+        this.classesDirectory = classesDirectory;
+        this.outputDirectory = outputDirectory;
+        this.stateFile = stateFile;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Lists the names of all top-level and named nested classes compiled into a directory.
+     *
+     * @param  classesDirectory The directory holding the compiled classes.
+     *
+     * @return The fully qualified names of the compiled classes.
+     */
+    public static Set<String> listClassNames(File classesDirectory)
+    {
+        Set<String> classNames = new TreeSet<>();
+        listClassNames(classesDirectory, "", classNames);
+
+        return classNames;
+    }
+
+    /**
+     * Generates schemas for the named classes, regenerating only those that have changed since the last build. Schemas
+     * left over from classes that are no longer being generated are removed. Interfaces, enums and annotations are
+     * not data types, and are ignored, as are classes without constraints.
+     *
+     * @param  classNames The fully qualified names of the classes to generate schemas for.
+     *
+     * @return A summary of the work done.
+     */
+    public Result generate(Collection<String> classNames)
+    {
+        Properties previous = loadState();
+        boolean sameVersion = GENERATOR_VERSION.equals(previous.getProperty(VERSION_KEY));
+        Map<String, String> current = new TreeMap<>();
+        Map<String, String> unconstrained = new TreeMap<>();
+        Map<String, String> changed = new TreeMap<>();
+
+        for (String className : classNames)
+        {
+            Class<?> clazz = loadClass(className);
+
+            if (clazz.isInterface() || clazz.isEnum() || clazz.isAnnotation())
+            {
+                continue;
+            }
+
+            String hash = hash(clazz);
+            String previousHash = sameVersion ? previous.getProperty(className) : null;
+
+            if ((UNCONSTRAINED + hash).equals(previousHash))
+            {
+                unconstrained.put(className, previousHash);
+            }
+            else if (hash.equals(previousHash) && schemaFile(className).exists())
+            {
+                current.put(className, hash);
+            }
+            else
+            {
+                changed.put(className, hash);
+            }
+        }
+
+        List<String> stale = new ArrayList<>();
+
+        if (!changed.isEmpty())
+        {
+            Validator validator = new JsonSchemaValidatorFactory().getBuilder().build();
+
+            for (Map.Entry<String, String> entry : changed.entrySet())
+            {
+                if (validator.getConstraintsForClass(loadClass(entry.getKey())).isBeanConstrained())
+                {
+                    stale.add(entry.getKey());
+                    current.put(entry.getKey(), entry.getValue());
+                }
+                else
+                {
+                    unconstrained.put(entry.getKey(), UNCONSTRAINED + entry.getValue());
+                }
+            }
+
+            convertAll(validator, stale);
+        }
+
+        int removed = 0;
+
+        for (String className : previous.stringPropertyNames())
+        {
+            String previousHash = previous.getProperty(className);
+            boolean wasGenerated = !VERSION_KEY.equals(className) && !previousHash.startsWith(UNCONSTRAINED);
+
+            if (wasGenerated && !current.containsKey(className) && schemaFile(className).delete())
+            {
+                removed++;
+            }
+        }
+
+        writeIndex(current.keySet());
+
+        Map<String, String> state = new TreeMap<>(current);
+        state.putAll(unconstrained);
+        saveState(state);
+
+        return new Result(stale.size(), current.size() - stale.size(), removed);
+    }
+
+    /**
+     * Runs the conversions for a set of classes in parallel, sharing one validator between them.
+     *
+     * @param validator  The validator to convert the classes with.
+     * @param classNames The names of the classes to convert.
+     */
+    private void convertAll(final Validator validator, List<String> classNames)
+    {
+        if (classNames.isEmpty())
+        {
+            return;
+        }
+
+        final BeanValidationToJsonSchema converter = new BeanValidationToJsonSchemaImpl();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, classNames.size()));
+
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (final String className : classNames)
+            {
+                futures.add(executor.submit(new Callable<Void>()
+                    {
+                        public Void call() throws IOException
+                        {
+                            writeSchema(className, converter.toJsonSchema(validator, loadClass(className)));
+
+                            return null;
+                        }
+                    }));
+            }
+
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new ValidationException("Interrupted whilst generating schemas.", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new ValidationException("Failed to generate a schema.", e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Computes a hash over the bytecode of a class, and of the classes of its fields that are in the classes directory.
+     *
+     * @param  clazz The class to hash.
+     *
+     * @return The hash as a hex string.
+     */
+    private String hash(Class<?> clazz)
+    {
+        MessageDigest digest;
+
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 should always be available.", e);
+        }
+
+        Set<Class<?>> visited = new HashSet<>();
+        hash(clazz, digest, visited);
+
+        StringBuilder result = new StringBuilder();
+
+        for (byte b : digest.digest())
+        {
+            result.append(String.format("%02x", b));
+        }
+
+        return result.toString();
+    }
+
+    private void hash(Class<?> clazz, MessageDigest digest, Set<Class<?>> visited)
+    {
+        while (clazz.isArray())
+        {
+            clazz = clazz.getComponentType();
+        }
+
+        if (!visited.add(clazz))
+        {
+            return;
+        }
+
+        File classFile = new File(classesDirectory, clazz.getName().replace('.', File.separatorChar) + ".class");
+
+        if (!classFile.exists())
+        {
+            return;
+        }
+
+        try
+        {
+            digest.update(clazz.getName().getBytes(StandardCharsets.UTF_8));
+            digest.update(Files.readAllBytes(classFile.toPath()));
+        }
+        catch (IOException e)
+        {
+            throw new ValidationException("Failed to read class file: " + classFile, e);
+        }
+
+        for (Field field : clazz.getDeclaredFields())
+        {
+            hash(field.getType(), digest, visited);
+        }
+    }
+
+    private Class<?> loadClass(String className)
+    {
+        try
+        {
+            return Class.forName(className, false, classLoader);
+        }
+        catch (ClassNotFoundException e)
+        {
+            throw new ValidationException("Failed to load class: " + className, e);
+        }
+    }
+
+    private File schemaFile(String className)
+    {
+        return new File(outputDirectory, GeneratedSchemas.resourceName(className));
+    }
+
+    private void writeSchema(String className, JsonSchema schema) throws IOException
+    {
+        File file = schemaFile(className);
+        file.getParentFile().mkdirs();
+
+        mapper.writeValue(file, schema);
+    }
+
+    /**
+     * Writes out the index of the generated schemas, merged with those listed in any index already in the output
+     * directory whose schemas are still there.
+     *
+     * @param generated The names of the classes that schemas have been generated for.
+     */
+    private void writeIndex(Set<String> generated)
+    {
+        File file = new File(outputDirectory, GeneratedSchemas.INDEX_RESOURCE);
+        Set<String> classNames = new TreeSet<>(generated);
+
+        for (String className : readIndex(file))
+        {
+            if (schemaFile(className).exists())
+            {
+                classNames.add(className);
+            }
+        }
+
+        file.getParentFile().mkdirs();
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))
+        {
+            for (String className : classNames)
+            {
+                writer.write(className);
+                writer.write('\n');
+            }
+        }
+        catch (IOException e)
+        {
+            throw new ValidationException("Failed to write the schema index: " + file, e);
+        }
+    }
+
+    /**
+     * Reads the class names listed in an index file, if there is one.
+     *
+     * @param  file The index file.
+     *
+     * @return The class names listed in the index, or none if there is no index.
+     */
+    private Set<String> readIndex(File file)
+    {
+        Set<String> classNames = new TreeSet<>();
+
+        if (!file.exists())
+        {
+            return classNames;
+        }
+
+        try (BufferedReader lines = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))
+        {
+            for (String line; (line = lines.readLine()) != null;)
+            {
+                if (!line.trim().isEmpty())
+                {
+                    classNames.add(line.trim());
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            throw new ValidationException("Failed to read the schema index: " + file, e);
+        }
+
+        return classNames;
+    }
+
+    private Properties loadState()
+    {
+        Properties state = new Properties();
+
+        if (stateFile.exists())
+        {
+            try (InputStream in = new FileInputStream(stateFile))
+            {
+                state.load(in);
+            }
+            catch (IOException e)
+            {
+                throw new ValidationException("Failed to read the schema generation state: " + stateFile, e);
+            }
+        }
+
+        return state;
+    }
+
+    private void saveState(Map<String, String> hashes)
+    {
+        Properties state = new Properties();
+        state.putAll(hashes);
+        state.setProperty(VERSION_KEY, GENERATOR_VERSION);
+
+        if (stateFile.getParentFile() != null)
+        {
+            stateFile.getParentFile().mkdirs();
+        }
+
+        try (OutputStream out = new FileOutputStream(stateFile))
+        {
+            state.store(out, "Bytecode hashes of classes checked for json-schemas.");
+        }
+        catch (IOException e)
+        {
+            throw new ValidationException("Failed to write the schema generation state: " + stateFile, e);
+        }
+    }
+
+    /**
+     * Works out the version of the generator, from the output format version and the version of the library jar.
+     *
+     * @return The version of the generator.
+     */
+    private static String generatorVersion()
+    {
+        Package pkg = IncrementalSchemaGenerator.class.getPackage();
+        String implementationVersion = (pkg == null) ? null : pkg.getImplementationVersion();
+
+        return (implementationVersion == null) ? FORMAT_VERSION : (FORMAT_VERSION + "/" + implementationVersion);
+    }
+
+    private static void listClassNames(File directory, String packagePrefix, Set<String> classNames)
+    {
+        File[] files = directory.listFiles();
+
+        if (files == null)
+        {
+            return;
+        }
+
+        for (File file : files)
+        {
+            String name = file.getName();
+
+            if (file.isDirectory())
+            {
+                listClassNames(file, packagePrefix + name + ".", classNames);
+            }
+            else if (name.endsWith(".class") && !"package-info.class".equals(name))
+            {
+                String className = packagePrefix + name.substring(0, name.length() - ".class".length());
+
+                // Anonymous and local classes have a digit after the '$'.
+                int nested = className.lastIndexOf('$');
+
+                if ((nested < 0) || !Character.isDigit(className.charAt(nested + 1)))
+                {
+                    classNames.add(className);
+                }
+            }
+        }
+    }
+
+    /**
+     * Result summarises the work done by a generation run.
+     */
+    public static class Result
+    {
+        /** The number of schemas that were (re)generated. */
+        private final int generated;
+
+        /** The number of schemas that were up to date. */
+        private final int skipped;
+
+        /** The number of schemas removed as their classes are no longer generated for. */
+        private final int removed;
+
+        /**
+         * Creates a generation summary.
+         *
+         * @param generated The number of schemas that were (re)generated.
+         * @param skipped   The number of schemas that were up to date.
+         * @param removed   The number of schemas removed as their classes are no longer generated for.
+         */
+        public Result(int generated, int skipped, int removed)
+        {
+            this.generated = generated;
+            this.skipped = skipped;
+            this.removed = removed;
+        }
+
+        /**
+         * Provides the number of schemas that were (re)generated.
+         *
+         * @return The number of schemas that were (re)generated.
+         */
+        public int getGenerated()
+        {
+            return generated;
+        }
+
+        /**
+         * Provides the number of schemas that were up to date.
+         *
+         * @return The number of schemas that were up to date.
+         */
+        public int getSkipped()
+        {
+            return skipped;
+        }
+
+        /**
+         * Provides the number of schemas removed as their classes are no longer generated for.
+         *
+         * @return The number of schemas removed.
+         */
+        public int getRemoved()
+        {
+            return removed;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.thesett.util.validation.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesett.util.validation.core.GeneratedSchemas;
+import com.thesett.util.validation.maven.IncrementalSchemaGenerator;
+import com.thesett.util.validation.model.JsonSchema;
+
+public class IncrementalSchemaGeneratorTest {
+    private static final List<String> CLASS_NAMES = Arrays.asList("gen.Changed", "gen.Unchanged");
+
+    private static final String PLAIN =
+        "package gen;\n" +
+        "public class Plain {\n" +
+        "    public int count;\n" +
+        "}\n";
+
+    private static String source(String name, int max) {
+        return "package gen;\n" +
+            "public class " + name + " {\n" +
+            "    @javax.validation.constraints.Max(" + max + ") public int count;\n" +
+            "}\n";
+    }
+
+    private void compile(File classes, String... sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assert.assertNotNull("A system Java compiler is required.", compiler);
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(classes));
+
+            List<JavaFileObject> files = new ArrayList<>();
+
+            for (final String source : sources) {
+                String name = source.substring(source.indexOf("class ") + 6, source.indexOf(" {"));
+                files.add(new SimpleJavaFileObject(URI.create("string:///gen/" + name + ".java"),
+                        JavaFileObject.Kind.SOURCE) {
+                        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                            return source;
+                        }
+                    });
+            }
+
+            Assert.assertTrue("Compilation should succeed.",
+                compiler.getTask(null, fileManager, null,
+                    Arrays.asList("-proc:none", "-classpath", System.getProperty("java.class.path")), null, files)
+                .call());
+        }
+    }
+
+    private IncrementalSchemaGenerator.Result generate(File classes, File output) throws IOException {
+        return generate(classes, output, CLASS_NAMES);
+    }
+
+    private IncrementalSchemaGenerator.Result generate(File classes, File output, List<String> classNames)
+        throws IOException {
+        try (URLClassLoader classLoader =
+                new URLClassLoader(new URL[] { classes.toURI().toURL() }, getClass().getClassLoader())) {
+            return new IncrementalSchemaGenerator(classLoader, classes, output, new File(output, "hashes.properties"),
+                    2).generate(classNames);
+        }
+    }
+
+    private File compiled(String... sources) throws IOException {
+        File classes = Files.createTempDirectory("classes").toFile();
+        compile(classes, sources);
+
+        return classes;
+    }
+
+    private File schemaFile(File output, String className) {
+        return new File(output, GeneratedSchemas.resourceName(className));
+    }
+
+    private JsonSchema read(File file) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return new ObjectMapper().readValue(in, JsonSchema.class);
+        }
+    }
+
+    @Test
+    public void testOnlyChangedClassesAreRegenerated() throws IOException {
+        File classes = Files.createTempDirectory("classes").toFile();
+        File output = Files.createTempDirectory("schemas").toFile();
+
+        compile(classes, source("Changed", 10), source("Unchanged", 10));
+
+        IncrementalSchemaGenerator.Result first = generate(classes, output);
+        Assert.assertEquals(2, first.getGenerated());
+        Assert.assertEquals(0, first.getSkipped());
+
+        // Mark the outputs, so that a rewrite of either can be seen.
+        File changed = schemaFile(output, "gen.Changed");
+        File unchanged = schemaFile(output, "gen.Unchanged");
+        Assert.assertTrue(changed.setLastModified(1000L));
+        Assert.assertTrue(unchanged.setLastModified(1000L));
+
+        compile(classes, source("Changed", 20));
+
+        IncrementalSchemaGenerator.Result second = generate(classes, output);
+        Assert.assertEquals(1, second.getGenerated());
+        Assert.assertEquals(1, second.getSkipped());
+        Assert.assertEquals(0, second.getRemoved());
+
+        Assert.assertNotEquals(1000L, changed.lastModified());
+        Assert.assertEquals(20, read(changed).getProperties().get("count").getMaximum().intValue());
+        Assert.assertEquals(1000L, unchanged.lastModified());
+        Assert.assertEquals(10, read(unchanged).getProperties().get("count").getMaximum().intValue());
+    }
+
+    @Test
+    public void testUnchangedClassesAreSkippedAndRemovedOnesDeleted() throws IOException {
+        File classes = compiled(source("Changed", 10), source("Unchanged", 10));
+        File output = Files.createTempDirectory("schemas").toFile();
+
+        IncrementalSchemaGenerator.Result first = generate(classes, output);
+        Assert.assertEquals(2, first.getGenerated());
+        Assert.assertEquals(0, first.getSkipped());
+        Assert.assertTrue(schemaFile(output, "gen.Changed").exists());
+        Assert.assertTrue(new File(output, GeneratedSchemas.INDEX_RESOURCE).exists());
+
+        IncrementalSchemaGenerator.Result second = generate(classes, output);
+        Assert.assertEquals(0, second.getGenerated());
+        Assert.assertEquals(2, second.getSkipped());
+
+        IncrementalSchemaGenerator.Result third = generate(classes, output, Arrays.asList("gen.Changed"));
+        Assert.assertEquals(0, third.getGenerated());
+        Assert.assertEquals(1, third.getRemoved());
+        Assert.assertFalse(schemaFile(output, "gen.Unchanged").exists());
+    }
+
+    @Test
+    public void testEverythingIsRegeneratedWhenTheGeneratorVersionChanges() throws IOException {
+        File classes = compiled(source("Changed", 10), source("Unchanged", 10));
+        File output = Files.createTempDirectory("schemas").toFile();
+        File state = new File(output, "hashes.properties");
+
+        Assert.assertEquals(2, generate(classes, output).getGenerated());
+
+        Properties hashes = new Properties();
+
+        try (InputStream in = Files.newInputStream(state.toPath())) {
+            hashes.load(in);
+        }
+
+        Assert.assertNotNull(hashes.getProperty(IncrementalSchemaGenerator.VERSION_KEY));
+        hashes.setProperty(IncrementalSchemaGenerator.VERSION_KEY, "0");
+
+        try (OutputStream out = Files.newOutputStream(state.toPath())) {
+            hashes.store(out, null);
+        }
+
+        IncrementalSchemaGenerator.Result result = generate(classes, output);
+        Assert.assertEquals(2, result.getGenerated());
+        Assert.assertEquals(0, result.getSkipped());
+        Assert.assertEquals(0, result.getRemoved());
+
+        Assert.assertEquals(0, generate(classes, output).getGenerated());
+    }
+
+    @Test
+    public void testClassesWithoutConstraintsAreSkipped() throws IOException {
+        File classes = compiled(source("Changed", 10), PLAIN);
+        File output = Files.createTempDirectory("schemas").toFile();
+        List<String> classNames = Arrays.asList("gen.Changed", "gen.Plain");
+
+        IncrementalSchemaGenerator.Result first = generate(classes, output, classNames);
+        Assert.assertEquals(1, first.getGenerated());
+        Assert.assertFalse(schemaFile(output, "gen.Plain").exists());
+        Assert.assertEquals(Collections.singletonList("gen.Changed"),
+            Files.readAllLines(new File(output, GeneratedSchemas.INDEX_RESOURCE).toPath()));
+
+        IncrementalSchemaGenerator.Result second = generate(classes, output, classNames);
+        Assert.assertEquals(0, second.getGenerated());
+        Assert.assertEquals(1, second.getSkipped());
+    }
+
+    @Test
+    public void testIndexKeepsEntriesWhoseSchemasAreStillThere() throws IOException {
+        File classes = compiled(source("Changed", 10), source("Unchanged", 10));
+        File output = Files.createTempDirectory("schemas").toFile();
+
+        File index = new File(output, GeneratedSchemas.INDEX_RESOURCE);
+        Assert.assertTrue(index.getParentFile().mkdirs());
+        Files.write(index.toPath(), Arrays.asList("gen.Processed", "gen.Gone"), StandardCharsets.UTF_8);
+        Files.write(schemaFile(output, "gen.Processed").toPath(), "{ }".getBytes(StandardCharsets.UTF_8));
+
+        generate(classes, output);
+
+        Assert.assertEquals(Arrays.asList("gen.Changed", "gen.Processed", "gen.Unchanged"),
+            Files.readAllLines(index.toPath()));
+    }
+}
@@ -1,49 +0,0 @@
-/*
- * Copyright The Sett Ltd.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.thesett.util.validation.serdes;
-
-import java.io.File;
-import java.io.IOException;
-import java.util.HashMap;
-
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-/**
- * <pre><p/><table id="crc"><caption>CRC Card</caption>
- * <tr><th> Responsibilities <th> Collaborations
- * <tr><td>
- * </table></pre>
- *
- * @author Rupert Smith
- */
-public class Serdes
-{
-    public void testJackson() throws IOException
-    {
-        JsonFactory factory = new JsonFactory();
-        ObjectMapper mapper = new ObjectMapper(factory);
-        File from = new File("albumnList.txt");
-        TypeReference<HashMap<String, Object>> typeRef =
-            new TypeReference<HashMap<String, Object>>()
-            {
-            };
-
-        HashMap<String, Object> o = mapper.readValue(from, typeRef);
-        System.out.println("Got " + o);
-    }
-}